@@ -0,0 +1,98 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares trailing and copying (see {@link org.chocosolver.memory.copying.EnvironmentCopying})
+ * depending on the density of modifications.
+ * <p>
+ * Each invocation goes down <i>depth</i> worlds then goes back to the initial world.
+ * In each world, <i>density</i> percent of <i>size</i> stored integers are modified,
+ * each of them <i>rewrites</i> times.
+ * Modified integers are contiguous, as the words of a bitset or the bounds of consecutive variables.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CopyingBenchmark {
+
+    @Param({"flat", "copy"})
+    public String trail;
+
+    @Param({"4096"})
+    public int size;
+
+    @Param({"20"})
+    public int depth;
+
+    @Param({"1", "10", "50", "100"})
+    public int density;
+
+    @Param({"1", "4"})
+    public int rewrites;
+
+    private IEnvironment environment;
+    private IStateInt[] ints;
+    private int modified;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = TrailingBenchmark.Environments.make(trail);
+        ints = new IStateInt[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = environment.makeInt(i);
+        }
+        modified = Math.max(1, size * density / 100);
+    }
+
+    @Benchmark
+    public int pushAndPop() {
+        int init = environment.getWorldIndex();
+        for (int d = 0; d < depth; d++) {
+            environment.worldPush();
+            // shift the modified range from one world to another
+            int from = (d * 97) % (size - modified + 1);
+            for (int r = 0; r < rewrites; r++) {
+                for (int i = from; i < from + modified; i++) {
+                    ints[i].add(1);
+                }
+            }
+        }
+        for (int d = 0; d < depth; d++) {
+            environment.worldPop();
+        }
+        assert environment.getWorldIndex() == init;
+        return ints[0].get();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures propagators iterating over removed values with an
+ * {@link org.chocosolver.util.procedure.IndexedIntProcedure}, on constraints with several hundreds of variables.
+ * <p>
+ * This benchmark is meant to be run with the GC profiler (<code>-prof gc</code>): the allocation rate
+ * per operation (<code>gc.alloc.rate.norm</code>) tells whether iterating over deltas allocates.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeltaBenchmark {
+
+    @Param({"regular", "inverse"})
+    public String model;
+
+    @Param({"500"})
+    public int n;
+
+    private Dive dive;
+
+    @Setup(Level.Trial)
+    public void setup() throws ContradictionException {
+        Model m;
+        switch (model) {
+            case "regular":
+                m = Models.regular(n);
+                break;
+            case "inverse":
+                m = Models.inverse(n);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown model: " + model);
+        }
+        dive = new Dive(m);
+    }
+
+    @Benchmark
+    public boolean propagate() {
+        return dive.next();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.PropagationEngine;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * A deterministic one-decision dive used by propagation micro-benchmarks.
+ * <p>
+ * The model is first propagated at root node, then each call to {@link #next()} opens a world,
+ * instantiates the next decision variable (round-robin) to a value chosen in its domain, reaches the fix point
+ * by calling directly {@link PropagationEngine#propagate()} and finally backtracks.
+ * That way, each call measures one propagation from the same root state.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public final class Dive {
+
+    private final IEnvironment environment;
+    private final PropagationEngine engine;
+    private final IntVar[] vars;
+    private int step;
+
+    /**
+     * Prepare a dive on <i>model</i>, whose decision variables are declared under hook {@link Models#VARS}.
+     *
+     * @param model a model
+     * @throws ContradictionException if the model is trivially unsatisfiable
+     */
+    public Dive(Model model) throws ContradictionException {
+        this.environment = model.getEnvironment();
+        this.engine = model.getSolver().getEngine();
+        this.vars = (IntVar[]) model.getHook(Models.VARS);
+        environment.worldPush();
+        model.getSolver().propagate();
+        environment.worldPush();
+    }
+
+    /**
+     * Apply the next decision, propagate it and backtrack.
+     *
+     * @return <i>true</i> if the propagation succeeded, <i>false</i> if it failed
+     */
+    public boolean next() {
+        IntVar var = vars[step % vars.length];
+        int width = var.getUB() - var.getLB() + 1;
+        // the smallest value greater or equal to a pseudo-random value in [lb, ub]
+        int value = var.nextValue(var.getLB() + (int) ((step * 0x9E3779B9L & 0x7fffffffL) % width) - 1);
+        step++;
+        environment.worldPush();
+        try {
+            var.instantiateTo(value, Cause.Null);
+            engine.propagate();
+            return true;
+        } catch (ContradictionException cex) {
+            return false;
+        } finally {
+            engine.flush();
+            environment.worldPop();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link org.chocosolver.solver.constraints.nary.sum.PropSum} and
+ * {@link org.chocosolver.solver.constraints.nary.sum.PropScalar} filtering on one large linear equation.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinearBenchmark {
+
+    @Param({"false", "true"})
+    public boolean scalar;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private Dive dive;
+
+    @Setup(Level.Trial)
+    public void setup() throws ContradictionException {
+        dive = new Dive(Models.linear(size, 10, scalar, 0));
+    }
+
+    @Benchmark
+    public boolean filter() {
+        return dive.next();
+    }
+}
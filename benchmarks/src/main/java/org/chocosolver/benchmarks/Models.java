@@ -0,0 +1,308 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.DefaultSettings;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Task;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Random;
+
+/**
+ * A factory of fixed, seeded, models used by the benchmarks.
+ * Every model declares its decision variables under the hook name "vars",
+ * so that micro-benchmarks can dive into the search space without knowing the model.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public final class Models {
+
+    /**
+     * Name of the hook storing decision variables
+     */
+    public static final String VARS = "vars";
+
+    private Models() {
+    }
+
+    /**
+     * Creates a n-queens problem, either with binary constraints only or with three alldifferent constraints.
+     *
+     * @param n    number of queens
+     * @param algo consistency of alldifferent constraints, or <i>null</i> to only post binary constraints
+     * @return a solve-ready model
+     */
+    public static Model nqueens(int n, String algo) {
+        return nqueens(n, algo, new DefaultSettings());
+    }
+
+    /**
+     * Creates a n-queens problem, either with binary constraints only or with three alldifferent constraints.
+     *
+     * @param n        number of queens
+     * @param algo     consistency of alldifferent constraints, or <i>null</i> to only post binary constraints
+     * @param settings settings of the model
+     * @return a solve-ready model
+     */
+    public static Model nqueens(int n, String algo, Settings settings) {
+        Model model = new Model("nqueens-" + n, settings);
+        IntVar[] vars = model.intVarArray("Q", n, 1, n, false);
+        model.addHook(VARS, vars);
+        if (algo == null) {
+            for (int i = 0; i < n - 1; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int k = j - i;
+                    model.arithm(vars[i], "!=", vars[j]).post();
+                    model.arithm(vars[i], "!=", vars[j], "+", -k).post();
+                    model.arithm(vars[i], "!=", vars[j], "+", k).post();
+                }
+            }
+        } else {
+            IntVar[] diag1 = new IntVar[n];
+            IntVar[] diag2 = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                diag1[i] = model.intOffsetView(vars[i], i);
+                diag2[i] = model.intOffsetView(vars[i], -i);
+            }
+            model.allDifferent(vars, algo).post();
+            model.allDifferent(diag1, algo).post();
+            model.allDifferent(diag2, algo).post();
+        }
+        return model;
+    }
+
+    /**
+     * Creates a Golomb ruler problem with <i>m</i> marks, to minimize.
+     *
+     * @param m number of marks
+     * @return a solve-ready model
+     */
+    public static Model golombRuler(int m) {
+        Model model = new Model("golomb-" + m);
+        int ub = (m < 31) ? (1 << (m + 1)) - 1 : 9999;
+        IntVar[] ticks = model.intVarArray("a", m, 0, ub, true);
+        IntVar[] diffs = model.intVarArray("d", (m * m - m) / 2, 0, ub, true);
+        model.addHook(VARS, ticks);
+        model.arithm(ticks[0], "=", 0).post();
+        for (int i = 0; i < m - 1; i++) {
+            model.arithm(ticks[i + 1], ">", ticks[i]).post();
+        }
+        for (int k = 0, i = 0; i < m - 1; i++) {
+            for (int j = i + 1; j < m; j++, k++) {
+                model.arithm(ticks[j], "-", ticks[i], "=", diffs[k]).post();
+                model.arithm(diffs[k], ">=", (j - i) * (j - i + 1) / 2).post();
+                model.arithm(diffs[k], "-", ticks[m - 1], "<=", -((m - 1 - j + i) * (m - j + i)) / 2).post();
+                model.arithm(diffs[k], "<=", ticks[m - 1], "-", ((m - 1 - j + i) * (m - j + i)) / 2).post();
+            }
+        }
+        model.allDifferent(diffs, "BC").post();
+        if (m > 2) {
+            model.arithm(diffs[0], "<", diffs[diffs.length - 1]).post();
+        }
+        model.setObjective(Model.MINIMIZE, ticks[m - 1]);
+        return model;
+    }
+
+    /**
+     * Creates a magic square problem of order <i>n</i>.
+     *
+     * @param n order of the square
+     * @return a solve-ready model
+     */
+    public static Model magicSquare(int n) {
+        Model model = new Model("magic-square-" + n);
+        int ms = n * (n * n + 1) / 2;
+        IntVar[][] matrix = model.intVarMatrix("m", n, n, 1, n * n);
+        IntVar[][] invMatrix = ArrayUtils.transpose(matrix);
+        IntVar[] vars = ArrayUtils.flatten(matrix);
+        IntVar[] diag1 = new IntVar[n];
+        IntVar[] diag2 = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            diag1[i] = matrix[i][i];
+            diag2[i] = matrix[(n - 1) - i][i];
+        }
+        model.addHook(VARS, vars);
+        model.allDifferent(vars, "BC").post();
+        for (int i = 0; i < n; i++) {
+            model.sum(matrix[i], "=", ms).post();
+            model.sum(invMatrix[i], "=", ms).post();
+        }
+        model.sum(diag1, "=", ms).post();
+        model.sum(diag2, "=", ms).post();
+        // symmetry breaking
+        model.arithm(matrix[0][n - 1], "<", matrix[n - 1][0]).post();
+        model.arithm(matrix[0][0], "<", matrix[n - 1][n - 1]).post();
+        model.arithm(matrix[0][0], "<", matrix[n - 1][0]).post();
+        return model;
+    }
+
+    /**
+     * Creates a random job-shop problem, to minimize the makespan.
+     * Each job goes through every machine, in a random order, and each machine is a cumulative resource
+     * of capacity 1.
+     *
+     * @param jobs     number of jobs
+     * @param machines number of machines
+     * @param seed     seed for the random instance generator
+     * @return a solve-ready model
+     */
+    public static Model jobShop(int jobs, int machines, long seed) {
+        Random rnd = new Random(seed);
+        int[][] durations = new int[jobs][machines];
+        int[][] order = new int[jobs][machines];
+        int horizon = 0;
+        for (int j = 0; j < jobs; j++) {
+            for (int m = 0; m < machines; m++) {
+                durations[j][m] = 1 + rnd.nextInt(99);
+                horizon += durations[j][m];
+                order[j][m] = m;
+            }
+            ArrayUtils.randomPermutations(order[j], rnd);
+        }
+        Model model = new Model("job-shop-" + jobs + "x" + machines);
+        IntVar[][] starts = new IntVar[jobs][machines];
+        Task[][] tasks = new Task[machines][jobs];
+        IntVar makespan = model.intVar("makespan", 0, horizon, true);
+        for (int j = 0; j < jobs; j++) {
+            for (int k = 0; k < machines; k++) {
+                int m = order[j][k];
+                starts[j][k] = model.intVar("S_" + j + "_" + m, 0, horizon, true);
+                tasks[m][j] = model.taskVar(starts[j][k], durations[j][m]);
+                if (k > 0) {
+                    model.arithm(tasks[order[j][k - 1]][j].getEnd(), "<=", starts[j][k]).post();
+                }
+            }
+            model.arithm(tasks[order[j][machines - 1]][j].getEnd(), "<=", makespan).post();
+        }
+        IntVar one = model.intVar(1);
+        for (int m = 0; m < machines; m++) {
+            IntVar[] heights = new IntVar[jobs];
+            for (int j = 0; j < jobs; j++) {
+                heights[j] = one;
+            }
+            model.cumulative(tasks[m], heights, one).post();
+        }
+        model.addHook(VARS, ArrayUtils.flatten(starts));
+        model.setObjective(Model.MINIMIZE, makespan);
+        return model;
+    }
+
+    /**
+     * Creates a model made of one table constraint over random tuples.
+     *
+     * @param arity  number of variables
+     * @param domain domain size of each variable
+     * @param tuples number of (random, possibly duplicated) allowed tuples
+     * @param algo   name of the table algorithm, as defined in
+     *               {@link org.chocosolver.solver.constraints.IIntConstraintFactory#table(IntVar[], Tuples, String)}
+     * @param seed   seed for the random tuple generator
+     * @return a solve-ready model
+     */
+    public static Model table(int arity, int domain, int tuples, String algo, long seed) {
+        Random rnd = new Random(seed);
+        Model model = new Model("table-" + arity + "-" + domain + "-" + tuples);
+        IntVar[] vars = model.intVarArray("X", arity, 0, domain - 1, false);
+        Tuples ts = new Tuples(true);
+        for (int t = 0; t < tuples; t++) {
+            int[] tuple = new int[arity];
+            for (int i = 0; i < arity; i++) {
+                tuple[i] = rnd.nextInt(domain);
+            }
+            ts.add(tuple);
+        }
+        model.table(vars, ts, algo).post();
+        model.addHook(VARS, vars);
+        return model;
+    }
+
+    /**
+     * Creates a model made of one linear equation, either a sum (all coefficients set to 1)
+     * or a scalar product with random coefficients.
+     *
+     * @param size   number of variables
+     * @param domain domain size of each variable
+     * @param scalar set to <i>true</i> to post a scalar product, <i>false</i> to post a sum
+     * @param seed   seed for the random coefficients
+     * @return a solve-ready model
+     */
+    public static Model linear(int size, int domain, boolean scalar, long seed) {
+        Random rnd = new Random(seed);
+        Model model = new Model((scalar ? "scalar-" : "sum-") + size);
+        IntVar[] vars = model.intVarArray("X", size, 0, domain - 1, false);
+        int[] coeffs = new int[size];
+        int rhs = 0;
+        for (int i = 0; i < size; i++) {
+            coeffs[i] = scalar ? 1 + rnd.nextInt(9) : 1;
+            rhs += coeffs[i] * (domain / 2);
+        }
+        // make sure the constraint is not decomposed
+        model.scalar(vars, coeffs, "=", rhs, Integer.MAX_VALUE).post();
+        model.addHook(VARS, vars);
+        return model;
+    }
+
+    /**
+     * Creates a model made of one regular constraint over a long sequence of variables,
+     * so that most variable indices in the propagator are not cached by {@link Integer#valueOf(int)}.
+     *
+     * @param n number of variables
+     * @return a solve-ready model
+     */
+    public static Model regular(int n) {
+        Model model = new Model("regular-" + n);
+        IntVar[] vars = model.intVarArray("X", n, 0, 3, false);
+        model.regular(vars, new FiniteAutomaton("(0|1)*(2|3)+(0|1)*(2|3)+(0|1)*")).post();
+        model.addHook(VARS, vars);
+        return model;
+    }
+
+    /**
+     * Creates a model made of one inverse channeling constraint between two large arrays of variables.
+     *
+     * @param n number of variables in each array
+     * @return a solve-ready model
+     */
+    public static Model inverse(int n) {
+        Model model = new Model("inverse-" + n);
+        IntVar[] xs = model.intVarArray("X", n, 0, n - 1, false);
+        IntVar[] ys = model.intVarArray("Y", n, 0, n - 1, false);
+        model.inverseChanneling(xs, ys).post();
+        model.addHook(VARS, xs);
+        return model;
+    }
+
+    /**
+     * Build one of the models used in {@link SolveBenchmark}.
+     *
+     * @param name name of the model
+     * @return a solve-ready model
+     */
+    public static Model byName(String name) {
+        switch (name) {
+            case "nqueens":
+                return nqueens(10, "AC");
+            case "golomb":
+                return golombRuler(8);
+            case "jobshop":
+                return jobShop(6, 6, 0);
+            case "magicsquare":
+                return magicSquare(4);
+            default:
+                throw new IllegalArgumentException("Unknown model: " + name);
+        }
+    }
+}
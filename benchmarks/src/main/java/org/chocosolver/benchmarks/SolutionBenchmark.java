@@ -0,0 +1,78 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording a {@link Solution} and reading back the value of each variable,
+ * as done on each improving solution of an optimization run.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private IntVar[] vars;
+    private Solution solution;
+
+    @Setup(Level.Trial)
+    public void setup() throws ContradictionException {
+        Model model = new Model();
+        vars = model.intVarArray("x", size, 0, 100);
+        for (int i = 0; i < size; i++) {
+            vars[i].instantiateTo(i % 101, Cause.Null);
+        }
+        solution = new Solution(model);
+    }
+
+    @Benchmark
+    public Solution record() {
+        return solution.record();
+    }
+
+    @Benchmark
+    public int recordAndRead() {
+        solution.record();
+        int s = 0;
+        for (IntVar v : vars) {
+            s += solution.getIntVal(v);
+        }
+        return s;
+    }
+}
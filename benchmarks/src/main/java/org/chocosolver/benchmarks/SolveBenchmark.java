@@ -0,0 +1,66 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.propagation.PropagationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete {@link Solver#solve()} runs on classic models:
+ * enumeration of all solutions for satisfaction problems, proof of optimality for optimisation problems.
+ * Model creation is included in the measure, since it is part of any end-to-end run.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SolveBenchmark {
+
+    @Param({"nqueens", "golomb", "jobshop", "magicsquare"})
+    public String model;
+
+    /**
+     * Set to <i>true</i> to let the propagation engine defer costly propagators which rarely filter
+     */
+    @Param({"false", "true"})
+    public boolean adaptive;
+
+    @Benchmark
+    public long solve() {
+        Model m = Models.byName(model);
+        Solver solver = m.getSolver();
+        if (adaptive) {
+            m.getSettings().setEnableAdaptivePropagation(true);
+            solver.setEngine(new PropagationEngine(m));
+        }
+        //noinspection StatementWithEmptyBody
+        while (solver.solve()) ;
+        return solver.getNodeCount();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.memory.EnvironmentBuilder;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IEnvironment#worldPush()} and {@link IEnvironment#worldPop()}, together with the cost of
+ * trailing modifications of stored integers, longs and booleans.
+ * <p>
+ * Each invocation goes down <i>depth</i> worlds, modifying <i>writes</i> stored objects per world,
+ * then goes back to the initial world.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrailingBenchmark {
+
+    @Param({"flat", "chunk", "offheap", "copy"})
+    public String trail;
+
+    @Param({"10", "100"})
+    public int depth;
+
+    @Param({"100", "1000"})
+    public int writes;
+
+    private IEnvironment environment;
+    private IStateInt[] ints;
+    private IStateLong[] longs;
+    private IStateBool[] bools;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = Environments.make(trail);
+        ints = new IStateInt[writes];
+        longs = new IStateLong[writes / 10];
+        bools = new IStateBool[writes / 10];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = environment.makeInt(i);
+        }
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = environment.makeLong(i);
+            bools[i] = environment.makeBool(false);
+        }
+    }
+
+    @Benchmark
+    public int pushAndPop() {
+        int init = environment.getWorldIndex();
+        for (int d = 0; d < depth; d++) {
+            environment.worldPush();
+            for (int i = 0; i < ints.length; i++) {
+                ints[i].add(1);
+            }
+            for (int i = 0; i < longs.length; i++) {
+                longs[i].set(longs[i].get() + 1);
+                bools[i].set(!bools[i].get());
+            }
+        }
+        for (int d = 0; d < depth; d++) {
+            environment.worldPop();
+        }
+        assert environment.getWorldIndex() == init;
+        return ints[0].get();
+    }
+
+    /**
+     * A factory of environments, keyed by name.
+     */
+    static final class Environments {
+
+        private Environments() {
+        }
+
+        static IEnvironment make(String name) {
+            switch (name) {
+                case "flat":
+                    return new EnvironmentBuilder().fromFlat().build();
+                case "chunk":
+                    return new EnvironmentBuilder().fromChunk().build();
+                case "offheap":
+                    return new EnvironmentBuilder().fromOffHeap().build();
+                case "copy":
+                    return new EnvironmentBuilder().buildCopying();
+                default:
+                    throw new IllegalArgumentException("Unknown trail: " + name);
+            }
+        }
+    }
+}
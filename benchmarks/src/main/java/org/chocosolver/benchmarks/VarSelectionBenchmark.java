@@ -0,0 +1,82 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.variables.DomOverWDeg;
+import org.chocosolver.solver.search.strategy.selectors.variables.DomOverWDegIncr;
+import org.chocosolver.solver.search.strategy.selectors.variables.DomOverWDegRef;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a dive to the first solution of a large graph coloring problem,
+ * which is dominated by the selection of variables, depending on the dom/wdeg implementation.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VarSelectionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int n;
+
+    @Param({"wdeg", "incr", "ref"})
+    public String strategy;
+
+    private Model model;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        model = new Model();
+        IntVar[] vars = model.intVarArray("x", n, 0, 3);
+        for (int i = 0; i < n; i++) {
+            model.arithm(vars[i], "!=", vars[(i + 1) % n]).post();
+            model.arithm(vars[i], "!=", vars[(i + 7) % n]).post();
+        }
+        switch (strategy) {
+            case "wdeg":
+                model.getSolver().setSearch(new DomOverWDeg(vars, 0, new IntDomainMin()));
+                break;
+            case "incr":
+                model.getSolver().setSearch(new DomOverWDegIncr(vars, 0, new IntDomainMin()));
+                break;
+            case "ref":
+                model.getSolver().setSearch(new DomOverWDegRef(vars, 0, new IntDomainMin()));
+                break;
+        }
+    }
+
+    @Benchmark
+    public boolean solve() {
+        return model.getSolver().solve();
+    }
+}
@@ -9,10 +9,12 @@
  */
 package org.chocosolver.memory;
 
+import org.chocosolver.memory.copying.EnvironmentCopying;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.chunck.*;
 import org.chocosolver.memory.trailing.trail.flatten.*;
+import org.chocosolver.memory.trailing.trail.offheap.OffHeapTrail;
 
 /**
  * <p>
@@ -178,6 +180,16 @@ public class EnvironmentBuilder {
         return env;
     }
 
+    /**
+     * Build an environment which restores states by copying pages of stored objects
+     * instead of trailing each update (see {@link EnvironmentCopying}).
+     * Trails declared in this builder are ignored.
+     * @return the resulting environment
+     */
+    public EnvironmentCopying buildCopying(){
+        return new EnvironmentCopying(worldsize / EnvironmentCopying.PAGE_SIZE, worldnumber);
+    }
+
     /**
      * Build a chunk environment
      * @return {@code this}
@@ -203,4 +215,21 @@ public class EnvironmentBuilder {
         setTrail(new OperationTrail(worldsize, worldnumber, loadfactor));
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * Build an environment where integers, longs, booleans and doubles share the same trail,
+     * whose entries are stored off-heap, in pages of <i>worldsize</i> updates
+     * (see {@link OffHeapTrail}).
+     * Operations are managed by a flat trail.
+     * @return {@code this}
+     */
+    public EnvironmentBuilder fromOffHeap(){
+        OffHeapTrail trail = new OffHeapTrail(Math.max(worldsize, 1 << 14), worldnumber, loadfactor);
+        setTrail((IStoredBoolTrail) trail);
+        setTrail((IStoredIntTrail) trail);
+        setTrail((IStoredDoubleTrail) trail);
+        setTrail((IStoredLongTrail) trail);
+        setTrail(new OperationTrail(worldsize, worldnumber, loadfactor));
+        return this;
+    }
+}
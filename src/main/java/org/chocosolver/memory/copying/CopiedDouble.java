@@ -0,0 +1,67 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateDouble;
+
+/**
+ * A class implementing backtrackable double, restored by copying (see {@link EnvironmentCopying}).
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public final class CopiedDouble extends IStateDouble {
+
+    /**
+     * The environment, which copies the page of this object on modification
+     */
+    private final EnvironmentCopying env;
+    /**
+     * Position of this object in the registry of the environment
+     */
+    private final int index;
+
+    /**
+     * Constructs a stored double with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public CopiedDouble(final EnvironmentCopying env, final double i) {
+        super(env, i);
+        this.env = env;
+        this.index = env.register(env.doubles, this, Double.doubleToRawLongBits(i));
+        // time stamp of the environment when the page of this object was last copied
+        this.timeStamp = -1;
+    }
+
+    /**
+     * Modifies the value and copies if needed the page of this object.
+     */
+    @Override
+    public void set(final double y) {
+        if (y != currentValue) {
+            final int ts = env.getTimeStamp();
+            if (timeStamp != ts) {
+                // the page may have been copied through another object, let the environment check
+                env.touch(env.doubles, index);
+                timeStamp = ts;
+            }
+            currentValue = y;
+        }
+    }
+
+    /**
+     * Restores the value, on backtrack.
+     */
+    void restore(final double y) {
+        currentValue = y;
+    }
+}
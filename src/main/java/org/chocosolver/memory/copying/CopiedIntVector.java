@@ -0,0 +1,111 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateIntVector;
+
+/**
+ * A backtrackable vector of int for {@link EnvironmentCopying}.
+ * <p>
+ * Its size is a copied integer, whereas the first modification of an element in a world
+ * is recorded as an operation (see {@link EnvironmentCopying#save(org.chocosolver.memory.structure.IOperation)}).
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public final class CopiedIntVector extends IStateIntVector {
+
+    /**
+     * Contains time stamps for all entries (the environment time stamp of the last saved update for each entry).
+     * Unlike world indices, time stamps are never reused after a backtrack or a commit,
+     * so no stamp has to be overridden on {@link EnvironmentCopying#worldCommit()}.
+     */
+    private int[] stamps;
+
+    /**
+     * Constructs a stored vector with an initial size, and initial values.
+     *
+     * @param env          The current environment.
+     * @param initialSize  The initial size.
+     * @param initialValue The initial common value.
+     */
+    public CopiedIntVector(EnvironmentCopying env, int initialSize, int initialValue) {
+        super(env, initialSize, initialValue);
+        int w = env.getTimeStamp();
+        this.stamps = new int[elementData.length];
+        for (int i = 0; i < initialSize; i++) {
+            this.stamps[i] = w;
+        }
+    }
+
+    /**
+     * Checks if the capacity is great enough, else the capacity
+     * is extended.
+     *
+     * @param minCapacity the necessary capacity.
+     */
+    public void ensureCapacity(int minCapacity) {
+        int oldCapacity = elementData.length;
+        if (minCapacity > oldCapacity) {
+            int newCapacity = Math.max((oldCapacity * 3) / 2 + 1, minCapacity);
+            int[] oldData = elementData;
+            int[] oldStamps = stamps;
+            elementData = new int[newCapacity];
+            stamps = new int[newCapacity];
+            System.arraycopy(oldData, 0, elementData, 0, size.get());
+            System.arraycopy(oldStamps, 0, stamps, 0, size.get());
+        }
+    }
+
+    /**
+     * Adds a new value at the end of the vector.
+     *
+     * @param i The value to add.
+     */
+    @Override
+    public void add(int i) {
+        int newsize = size.get() + 1;
+        ensureCapacity(newsize);
+        size.set(newsize);
+        elementData[newsize - 1] = i;
+        stamps[newsize - 1] = environment.getTimeStamp();
+    }
+
+    /**
+     * Assigns a new value <code>val</code> to the element <code>index</code>.
+     */
+    @Override
+    public int set(int index, int val) {
+        if (rangeCheck(index)) {
+            return quickSet(index, val);
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size.get());
+    }
+
+    @Override
+    public int quickSet(int index, int val) {
+        assert (rangeCheck(index));
+        final int oldValue = elementData[index];
+        if (val != oldValue) {
+            final int oldStamp = stamps[index];
+            final int ts = environment.getTimeStamp();
+            if (oldStamp < ts) {
+                environment.save(() -> {
+                    elementData[index] = oldValue;
+                    stamps[index] = oldStamp;
+                });
+                stamps[index] = ts;
+            }
+            elementData[index] = val;
+        }
+        return oldValue;
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.AbstractEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateDouble;
+import org.chocosolver.memory.IStateDoubleVector;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.memory.structure.IOperation;
+
+import java.util.Arrays;
+
+/**
+ * An environment which restores states by copying rather than by trailing each modification.
+ * <p>
+ * Stored objects of the same type are registered in a dense array, which is divided into pages of
+ * {@link #PAGE_SIZE} objects. On the first modification of an object of a page in a world,
+ * the values of the whole page are copied into a snapshot stack (copy-on-write),
+ * and the next modifications of any object of this page in this world come for free.
+ * On backtrack, the snapshots of the world are copied back.
+ * <p>
+ * Compared to {@link org.chocosolver.memory.trailing.EnvironmentTrailing}, this environment pays off
+ * when most objects of a page change between two consecutive worlds (e.g., dense bitsets),
+ * since one page copy replaces up to {@link #PAGE_SIZE} trail entries.
+ * When modifications are sparse, copying a page for a single modification is more expensive.
+ * <p>
+ * Operations (see {@link #save(IOperation)}) are stacked and undone on backtrack, as in trailing.
+ * <p>
+ * An object created in a world gets back its initial value on backtrack from this world,
+ * as if a fake history was always needed (see {@link #fakeHistoryNeeded()}).
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class EnvironmentCopying extends AbstractEnvironment {
+
+    /**
+     * log2 of {@link #PAGE_SIZE}
+     */
+    static final int PAGE_BITS = 6;
+    /**
+     * Number of objects per page
+     */
+    public static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    /**
+     * Registered stored integers
+     */
+    final Registry<CopiedInt> ints = new Registry<CopiedInt>(new CopiedInt[PAGE_SIZE]) {
+        @Override
+        void save(int from, int to, long[] dst, int off) {
+            for (int i = from; i < to; i++) {
+                dst[off++] = states[i].get();
+            }
+        }
+
+        @Override
+        void restore(int from, int to, long[] src, int off) {
+            for (int i = from; i < to; i++) {
+                states[i].restore((int) src[off++]);
+            }
+        }
+    };
+    /**
+     * Registered stored longs
+     */
+    final Registry<CopiedLong> longs = new Registry<CopiedLong>(new CopiedLong[PAGE_SIZE]) {
+        @Override
+        void save(int from, int to, long[] dst, int off) {
+            for (int i = from; i < to; i++) {
+                dst[off++] = states[i].get();
+            }
+        }
+
+        @Override
+        void restore(int from, int to, long[] src, int off) {
+            for (int i = from; i < to; i++) {
+                states[i].restore(src[off++]);
+            }
+        }
+    };
+    /**
+     * Registered stored booleans
+     */
+    final Registry<CopiedBool> bools = new Registry<CopiedBool>(new CopiedBool[PAGE_SIZE]) {
+        @Override
+        void save(int from, int to, long[] dst, int off) {
+            for (int i = from; i < to; i++) {
+                dst[off++] = states[i].get() ? 1 : 0;
+            }
+        }
+
+        @Override
+        void restore(int from, int to, long[] src, int off) {
+            for (int i = from; i < to; i++) {
+                states[i].restore(src[off++] != 0);
+            }
+        }
+    };
+    /**
+     * Registered stored doubles
+     */
+    final Registry<CopiedDouble> doubles = new Registry<CopiedDouble>(new CopiedDouble[PAGE_SIZE]) {
+        @Override
+        void save(int from, int to, long[] dst, int off) {
+            for (int i = from; i < to; i++) {
+                dst[off++] = Double.doubleToRawLongBits(states[i].get());
+            }
+        }
+
+        @Override
+        void restore(int from, int to, long[] src, int off) {
+            for (int i = from; i < to; i++) {
+                states[i].restore(Double.longBitsToDouble(src[off++]));
+            }
+        }
+    };
+
+    // Snapshot stack: one entry per copied range of objects
+
+    /**
+     * Registry of each snapshot
+     */
+    private Registry<?>[] snapOwner;
+    /**
+     * Index of the first object of each snapshot
+     */
+    private int[] snapFrom;
+    /**
+     * Number of objects of each snapshot
+     */
+    private int[] snapCount;
+    /**
+     * Page stamp before the snapshot
+     */
+    private int[] snapStamp;
+    /**
+     * Position of the values of each snapshot in {@link #values}
+     */
+    private int[] snapOffset;
+    /**
+     * Number of snapshots
+     */
+    private int nbSnaps;
+    /**
+     * Copied values
+     */
+    private long[] values;
+    /**
+     * Number of copied values
+     */
+    private int nbValues;
+    /**
+     * Number of snapshots at the beginning of each world
+     */
+    private int[] worldStartSnaps;
+
+    /**
+     * Stack of operations
+     */
+    private IOperation[] operations;
+    /**
+     * Number of operations
+     */
+    private int nbOperations;
+    /**
+     * Number of operations at the beginning of each world
+     */
+    private int[] worldStartOperations;
+
+    /**
+     * Create a copying environment.
+     *
+     * @param nbSnaps  initial capacity of the snapshot stack, in pages
+     * @param nbWorlds initial number of worlds
+     */
+    public EnvironmentCopying(int nbSnaps, int nbWorlds) {
+        nbSnaps = Math.max(nbSnaps, 16);
+        nbWorlds = Math.max(nbWorlds, 16);
+        this.snapOwner = new Registry<?>[nbSnaps];
+        this.snapFrom = new int[nbSnaps];
+        this.snapCount = new int[nbSnaps];
+        this.snapStamp = new int[nbSnaps];
+        this.snapOffset = new int[nbSnaps];
+        this.values = new long[nbSnaps * PAGE_SIZE];
+        this.worldStartSnaps = new int[nbWorlds];
+        this.operations = new IOperation[nbSnaps];
+        this.worldStartOperations = new int[nbWorlds];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPush() {
+        timestamp++;
+        currentWorld++;
+        if (currentWorld == worldStartSnaps.length) {
+            worldStartSnaps = Arrays.copyOf(worldStartSnaps, currentWorld * 3 / 2 + 1);
+            worldStartOperations = Arrays.copyOf(worldStartOperations, currentWorld * 3 / 2 + 1);
+        }
+        worldStartSnaps[currentWorld] = nbSnaps;
+        worldStartOperations[currentWorld] = nbOperations;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPop() {
+        timestamp++;
+        final int wo = worldStartOperations[currentWorld];
+        while (nbOperations > wo) {
+            IOperation op = operations[--nbOperations];
+            operations[nbOperations] = null;
+            op.undo();
+        }
+        final int ws = worldStartSnaps[currentWorld];
+        while (nbSnaps > ws) {
+            nbSnaps--;
+            Registry<?> r = snapOwner[nbSnaps];
+            int from = snapFrom[nbSnaps];
+            int to = from + snapCount[nbSnaps];
+            r.restore(from, to, values, snapOffset[nbSnaps]);
+            // objects registered in the page after the copy get back their initial value
+            r.restore(to, Math.min(r.size, from + PAGE_SIZE), r.inits, to);
+            r.stamps[from >>> PAGE_BITS] = snapStamp[nbSnaps];
+            nbValues = snapOffset[nbSnaps];
+        }
+        currentWorld--;
+        assert currentWorld >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldCommit() {
+        if (currentWorld == 0) {
+            throw new IllegalStateException("Commit in world 0?");
+        }
+        final int prevWorld = currentWorld - 1;
+        int write = worldStartSnaps[currentWorld];
+        int writeValues = write < nbSnaps ? snapOffset[write] : nbValues;
+        for (int s = worldStartSnaps[currentWorld]; s < nbSnaps; s++) {
+            Registry<?> r = snapOwner[s];
+            r.stamps[snapFrom[s] >>> PAGE_BITS] = prevWorld;
+            if (snapStamp[s] != prevWorld) {
+                // keep this snapshot, the previous world did not copy the page
+                System.arraycopy(values, snapOffset[s], values, writeValues, snapCount[s]);
+                snapOwner[write] = r;
+                snapFrom[write] = snapFrom[s];
+                snapCount[write] = snapCount[s];
+                snapStamp[write] = snapStamp[s];
+                snapOffset[write] = writeValues;
+                writeValues += snapCount[s];
+                write++;
+            }
+        }
+        nbSnaps = write;
+        nbValues = writeValues;
+        currentWorld--;
+    }
+
+    /**
+     * Copy, if not done yet in the current world, the page of <i>registry</i> that contains the object
+     * at position <i>idx</i>.
+     *
+     * @param registry a registry
+     * @param idx      position of an object about to be modified
+     */
+    final void touch(Registry<?> registry, int idx) {
+        final int p = idx >>> PAGE_BITS;
+        if (registry.stamps[p] < currentWorld) {
+            int from = p << PAGE_BITS;
+            snapshot(registry, from, Math.min(registry.size - from, PAGE_SIZE), registry.stamps[p]);
+            registry.stamps[p] = currentWorld;
+        }
+    }
+
+    /**
+     * Register a new object in <i>registry</i>.
+     *
+     * @param registry  a registry
+     * @param state     the new object
+     * @param initValue initial value of the new object, encoded as a long
+     * @param <S>       type of object
+     * @return position of <i>state</i> in <i>registry</i>
+     */
+    final <S> int register(Registry<S> registry, S state, long initValue) {
+        return registry.add(state, initValue);
+    }
+
+    private void snapshot(Registry<?> registry, int from, int count, int oldStamp) {
+        if (nbSnaps == snapOwner.length) {
+            int ns = nbSnaps * 3 / 2 + 1;
+            snapOwner = Arrays.copyOf(snapOwner, ns);
+            snapFrom = Arrays.copyOf(snapFrom, ns);
+            snapCount = Arrays.copyOf(snapCount, ns);
+            snapStamp = Arrays.copyOf(snapStamp, ns);
+            snapOffset = Arrays.copyOf(snapOffset, ns);
+        }
+        if (nbValues + count > values.length) {
+            values = Arrays.copyOf(values, Math.max(nbValues + count, values.length * 3 / 2));
+        }
+        snapOwner[nbSnaps] = registry;
+        snapFrom[nbSnaps] = from;
+        snapCount[nbSnaps] = count;
+        snapStamp[nbSnaps] = oldStamp;
+        snapOffset[nbSnaps] = nbValues;
+        registry.save(from, from + count, values, nbValues);
+        nbValues += count;
+        nbSnaps++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(IOperation operation) {
+        if (nbOperations == operations.length) {
+            operations = Arrays.copyOf(operations, nbOperations * 3 / 2 + 1);
+        }
+        operations[nbOperations++] = operation;
+    }
+
+    /**
+     * @return the number of pages (or single objects) currently copied
+     */
+    public int getNbSnapshots() {
+        return nbSnaps;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt() {
+        return makeInt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt(int initialValue) {
+        return new CopiedInt(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBool makeBool(boolean initialValue) {
+        return new CopiedBool(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat() {
+        return makeFloat(Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat(double initialValue) {
+        return new CopiedDouble(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong() {
+        return makeLong(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong(long init) {
+        return new CopiedLong(this, init);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntVector makeIntVector(int size, int initialValue) {
+        return new CopiedIntVector(this, size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDoubleVector makeDoubleVector(int size, double initialValue) {
+        return new CopiedDoubleVector(this, size, initialValue);
+    }
+
+    /**
+     * A dense array of stored objects of the same type, divided into pages.
+     *
+     * @param <S> type of stored objects
+     */
+    abstract static class Registry<S> {
+        /**
+         * Registered objects
+         */
+        S[] states;
+        /**
+         * Number of registered objects
+         */
+        int size;
+        /**
+         * For each page, the last world in which it was copied
+         */
+        int[] stamps = new int[1];
+        /**
+         * Initial values of registered objects
+         */
+        long[] inits = new long[PAGE_SIZE];
+
+        Registry(S[] states) {
+            this.states = states;
+        }
+
+        int add(S state, long initValue) {
+            if (size == states.length) {
+                states = Arrays.copyOf(states, states.length * 2);
+                inits = Arrays.copyOf(inits, states.length);
+                stamps = Arrays.copyOf(stamps, states.length >>> PAGE_BITS);
+            }
+            states[size] = state;
+            inits[size] = initValue;
+            return size++;
+        }
+
+        /**
+         * Copy the values of the objects in [<i>from</i>, <i>to</i>) into <i>dst</i>, starting at <i>off</i>
+         */
+        abstract void save(int from, int to, long[] dst, int off);
+
+        /**
+         * Restore the values of the objects in [<i>from</i>, <i>to</i>) from <i>src</i>, starting at <i>off</i>
+         */
+        abstract void restore(int from, int to, long[] src, int off);
+    }
+}
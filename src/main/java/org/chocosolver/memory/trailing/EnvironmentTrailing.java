@@ -98,7 +98,7 @@ public class EnvironmentTrailing extends AbstractEnvironment {
             throw new IllegalStateException("Commit in world 0?");
         }
         final int wi = currentWorld;
-        for (int i = trailSize; i >= 0; i--) {
+        for (int i = trailSize - 1; i >= 0; i--) {
             trails[i].worldCommit(wi);
         }
         currentWorld--;
@@ -183,10 +183,24 @@ public class EnvironmentTrailing extends AbstractEnvironment {
         System.arraycopy(tmp, 0, trails, 0, tmp.length);
     }
 
+    /**
+     * Add <i>trail</i> to the trails to notify on world push, pop and commit,
+     * unless it is already declared (a trail can manage more than one type of data).
+     * @param trail a trail
+     */
+    private void register(IStorage trail) {
+        for (int i = 0; i < trailSize; i++) {
+            if (trails[i] == trail) {
+                return;
+            }
+        }
+        increaseTrail();
+        trails[trailSize++] = trail;
+    }
+
     public void setIntTrail(IStoredIntTrail itrail){
         if(intTrail == null) {
-            increaseTrail();
-            trails[trailSize++] = intTrail = itrail;
+            register(intTrail = itrail);
         }else{
             throw new UnsupportedOperationException("A trail has already been declared.");
         }
@@ -202,8 +216,7 @@ public class EnvironmentTrailing extends AbstractEnvironment {
 
     public void setLongTrail(IStoredLongTrail ltrail){
         if(longTrail == null) {
-            increaseTrail();
-            trails[trailSize++] = longTrail = ltrail;
+            register(longTrail = ltrail);
         }else{
             throw new UnsupportedOperationException("A trail has already been declared.");
         }
@@ -218,8 +231,7 @@ public class EnvironmentTrailing extends AbstractEnvironment {
 
     public void setBoolTrail(IStoredBoolTrail btrail){
         if(boolTrail == null) {
-            increaseTrail();
-            trails[trailSize++] = boolTrail = btrail;
+            register(boolTrail = btrail);
         }else{
             throw new UnsupportedOperationException("A trail has already been declared.");
         }
@@ -234,8 +246,7 @@ public class EnvironmentTrailing extends AbstractEnvironment {
 
     public void setDoubleTrail(IStoredDoubleTrail dtrail){
         if(doubleTrail == null) {
-            increaseTrail();
-            trails[trailSize++] = doubleTrail = dtrail;
+            register(doubleTrail = dtrail);
         }else{
             throw new UnsupportedOperationException("A trail has already been declared.");
         }
@@ -250,8 +261,7 @@ public class EnvironmentTrailing extends AbstractEnvironment {
 
     public void setOperationTrail(IOperationTrail otrail){
         if(operationTrail == null) {
-            increaseTrail();
-            trails[trailSize++] = operationTrail = otrail;
+            register(operationTrail = otrail);
         }else{
             throw new UnsupportedOperationException("A trail has already been declared.");
         }
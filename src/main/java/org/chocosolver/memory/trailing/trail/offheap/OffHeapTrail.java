@@ -0,0 +1,324 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing.trail.offheap;
+
+import org.chocosolver.memory.trailing.StoredBool;
+import org.chocosolver.memory.trailing.StoredDouble;
+import org.chocosolver.memory.trailing.StoredInt;
+import org.chocosolver.memory.trailing.StoredLong;
+import org.chocosolver.memory.trailing.trail.IStoredBoolTrail;
+import org.chocosolver.memory.trailing.trail.IStoredDoubleTrail;
+import org.chocosolver.memory.trailing.trail.IStoredIntTrail;
+import org.chocosolver.memory.trailing.trail.IStoredLongTrail;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A unique trail for stored integers, longs, booleans and doubles,
+ * whose former values and time stamps are stored off-heap.
+ * <p>
+ * Each update is recorded as a fixed-size entry in direct {@link ByteBuffer}s:
+ * the former value (widened to a long, or converted with {@link Double#doubleToRawLongBits(double)}),
+ * the former time stamp and the type of the stored object.
+ * Only references to stored objects are kept on-heap, since they cannot be moved out.
+ * <p>
+ * Entries are organized in pages of fixed size which are allocated on demand and never reallocated:
+ * growing the trail does not copy the former entries, and no large array is left to the garbage collector.
+ * <p>
+ * The same instance is expected to be declared as int, long, bool and double trail of an environment
+ * (see {@link org.chocosolver.memory.EnvironmentBuilder#fromOffHeap()}).
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class OffHeapTrail implements IStoredIntTrail, IStoredLongTrail, IStoredBoolTrail, IStoredDoubleTrail {
+
+    private static final int INT = 0;
+    private static final int LONG = 1;
+    private static final int BOOL = 2;
+    private static final int DOUBLE = 3;
+
+    /**
+     * Size, in bytes, of an entry: value (8), then stamp and type packed in a long (8)
+     */
+    private static final int ENTRY_SIZE = 16;
+    /**
+     * Offset of the stamp and type in an entry
+     */
+    private static final int STAMP = 8;
+
+    /**
+     * Load factor, to resize the array of world start levels
+     */
+    private final double loadfactor;
+    /**
+     * log2 of the number of entries per page
+     */
+    private final int pageBits;
+    /**
+     * Mask to get the position of an entry in a page
+     */
+    private final int pageMask;
+    /**
+     * Pages of former values, stamps and types
+     */
+    private ByteBuffer[] data;
+    /**
+     * Pages of stored objects
+     */
+    private Object[][] variables;
+    /**
+     * Number of allocated pages
+     */
+    private int nbPages;
+    /**
+     * Points the level of the last entry.
+     */
+    private int currentLevel;
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Constructs a trail with predefined size.
+     *
+     * @param nUpdates   number of updates stored in a page, rounded up to the next power of two
+     * @param nWorlds    maximal number of worlds that will be stored
+     * @param loadfactor load factor for structures
+     */
+    public OffHeapTrail(int nUpdates, int nWorlds, double loadfactor) {
+        int size = Integer.highestOneBit(Math.max(nUpdates, 2));
+        if (size < nUpdates) {
+            size <<= 1;
+        }
+        this.pageBits = Integer.numberOfTrailingZeros(size);
+        this.pageMask = size - 1;
+        this.data = new ByteBuffer[4];
+        this.variables = new Object[4][];
+        this.nbPages = 0;
+        this.currentLevel = 0;
+        this.worldStartLevels = new int[nWorlds];
+        this.loadfactor = loadfactor;
+        ensureCapacity(0);
+    }
+
+    /**
+     * Moving up to the next world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPush(int worldIndex) {
+        worldStartLevels[worldIndex] = currentLevel;
+        if (worldIndex == worldStartLevels.length - 1) {
+            resizeWorldCapacity((int) (worldStartLevels.length * loadfactor));
+        }
+    }
+
+    /**
+     * Moving down to the previous world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPop(int worldIndex) {
+        final int wsl = worldStartLevels[worldIndex];
+        while (currentLevel > wsl) {
+            currentLevel--;
+            final ByteBuffer page = data[currentLevel >>> pageBits];
+            final int off = (currentLevel & pageMask) * ENTRY_SIZE;
+            final Object v = variables[currentLevel >>> pageBits][currentLevel & pageMask];
+            final long value = page.getLong(off);
+            final long st = page.getLong(off + STAMP);
+            final int stamp = (int) st;
+            switch ((int) (st >>> 32)) {
+                case INT:
+                    ((StoredInt) v)._set((int) value, stamp);
+                    break;
+                case LONG:
+                    ((StoredLong) v)._set(value, stamp);
+                    break;
+                case BOOL:
+                    ((StoredBool) v)._set(value != 0, stamp);
+                    break;
+                case DOUBLE:
+                    ((StoredDouble) v)._set(Double.longBitsToDouble(value), stamp);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Comits a world: merging it with the previous one.
+     */
+    @Override
+    public void worldCommit(int worldIndex) {
+        final int startLevel = worldStartLevels[worldIndex];
+        final int prevWorld = worldIndex - 1;
+        int writeIdx = startLevel;
+        for (int level = startLevel; level < currentLevel; level++) {
+            final Object v = variables[level >>> pageBits][level & pageMask];
+            final ByteBuffer page = data[level >>> pageBits];
+            final int off = (level & pageMask) * ENTRY_SIZE;
+            final long st = page.getLong(off + STAMP);
+            switch ((int) (st >>> 32)) {
+                case INT:
+                    ((StoredInt) v).overrideTimeStamp(prevWorld);
+                    break;
+                case LONG:
+                    ((StoredLong) v).overrideTimeStamp(prevWorld);
+                    break;
+                case BOOL:
+                    ((StoredBool) v).overrideTimeStamp(prevWorld);
+                    break;
+                case DOUBLE:
+                    ((StoredDouble) v).overrideTimeStamp(prevWorld);
+                    break;
+            }
+            if ((int) st != prevWorld) {
+                // shift the update if needed
+                if (writeIdx != level) {
+                    copy(level, writeIdx);
+                }
+                writeIdx++;
+            }  //else:writeIdx is not incremented and the update will be discarded (since a good one is in prevWorld)
+        }
+        currentLevel = writeIdx;
+    }
+
+    @Override
+    public void savePreviousState(StoredInt v, int oldValue, int oldStamp) {
+        push(v, oldValue, oldStamp, INT);
+    }
+
+    @Override
+    public void savePreviousState(StoredLong v, long oldValue, int oldStamp) {
+        push(v, oldValue, oldStamp, LONG);
+    }
+
+    @Override
+    public void savePreviousState(StoredBool v, boolean oldValue, int oldStamp) {
+        push(v, oldValue ? 1 : 0, oldStamp, BOOL);
+    }
+
+    @Override
+    public void savePreviousState(StoredDouble v, double oldValue, int oldStamp) {
+        push(v, Double.doubleToRawLongBits(oldValue), oldStamp, DOUBLE);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredInt v, int initValue, int fromStamp) {
+        buildFakeHistory(v, initValue, fromStamp, INT);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredLong v, long initValue, int fromStamp) {
+        buildFakeHistory(v, initValue, fromStamp, LONG);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredBool v, boolean initValue, int fromStamp) {
+        buildFakeHistory(v, initValue ? 1 : 0, fromStamp, BOOL);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredDouble v, double initValue, int fromStamp) {
+        buildFakeHistory(v, Double.doubleToRawLongBits(initValue), fromStamp, DOUBLE);
+    }
+
+    /**
+     * @return the number of entries currently stored in this trail
+     */
+    public int size() {
+        return currentLevel;
+    }
+
+    private void push(Object v, long oldValue, int oldStamp, int type) {
+        set(currentLevel, v, oldValue, oldStamp, type);
+        currentLevel++;
+        if ((currentLevel & pageMask) == 0) {
+            ensureCapacity(currentLevel);
+        }
+    }
+
+    private void set(int level, Object v, long value, int stamp, int type) {
+        final ByteBuffer page = data[level >>> pageBits];
+        final int off = (level & pageMask) * ENTRY_SIZE;
+        page.putLong(off, value);
+        page.putLong(off + STAMP, ((long) type << 32) | (stamp & 0xFFFFFFFFL));
+        variables[level >>> pageBits][level & pageMask] = v;
+    }
+
+    /**
+     * Copy the entry at position <i>from</i> to position <i>to</i>.
+     */
+    private void copy(int from, int to) {
+        final ByteBuffer src = data[from >>> pageBits];
+        final int soff = (from & pageMask) * ENTRY_SIZE;
+        final ByteBuffer dst = data[to >>> pageBits];
+        final int doff = (to & pageMask) * ENTRY_SIZE;
+        dst.putLong(doff, src.getLong(soff));
+        dst.putLong(doff + STAMP, src.getLong(soff + STAMP));
+        variables[to >>> pageBits][to & pageMask] = variables[from >>> pageBits][from & pageMask];
+    }
+
+    private void buildFakeHistory(Object v, long initValue, int olderStamp, int type) {
+        // from world 0 to fromStamp (excluded), create a fake history based on initValue
+        // kind a copy of the current elements
+        // first save the current state on the top of the stack
+        push(v, initValue, olderStamp - 1, type);
+        // second: ensures capacities
+        ensureCapacity(currentLevel + olderStamp);
+        int i1, f, s = currentLevel;
+        for (int w = olderStamp; w > 1; w--) {
+            f = worldStartLevels[w];
+            i1 = f + w - 1;
+            s -= f;
+            // shift the entries of world w, from the last one since the ranges overlap
+            for (int k = s - 1; k >= 0; k--) {
+                copy(f + k, i1 + k);
+            }
+            set(i1 - 1, v, initValue, w - 2, type);
+            worldStartLevels[w] += w - 1;
+            currentLevel++;
+            s = f;
+        }
+    }
+
+    /**
+     * Make sure that the entry at position <i>level</i> can be written.
+     */
+    private void ensureCapacity(int level) {
+        int page = level >>> pageBits;
+        while (nbPages <= page) {
+            if (nbPages == data.length) {
+                int newSize = (int) (data.length * Math.max(loadfactor, 1.5));
+                ByteBuffer[] tmp1 = new ByteBuffer[newSize];
+                System.arraycopy(data, 0, tmp1, 0, nbPages);
+                data = tmp1;
+                Object[][] tmp2 = new Object[newSize][];
+                System.arraycopy(variables, 0, tmp2, 0, nbPages);
+                variables = tmp2;
+            }
+            data[nbPages] = ByteBuffer.allocateDirect((pageMask + 1) * ENTRY_SIZE).order(ByteOrder.nativeOrder());
+            variables[nbPages] = new Object[pageMask + 1];
+            nbPages++;
+        }
+    }
+
+    private void resizeWorldCapacity(int newWorldCapacity) {
+        final int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        worldStartLevels = tmp;
+    }
+}
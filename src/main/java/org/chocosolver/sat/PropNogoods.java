@@ -16,7 +16,6 @@ import static org.chocosolver.sat.SatSolver.var;
 
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.map.hash.TLongIntHashMap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -24,7 +23,6 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Deque;
 import org.chocosolver.memory.IStateInt;
-import org.chocosolver.sat.SatSolver.Clause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
@@ -106,11 +104,6 @@ public class PropNogoods extends Propagator<IntVar> {
      */
     private Deque<IntVar> fp;
 
-    /**
-     * Local-like parameter, for #why() method only, lazily initialized.
-     */
-    private TIntObjectHashMap<ArrayList<Clause>> inClauses;
-
     /**
      * Store new added variables when {@link #initialized} is <i>false</i>
      */
@@ -198,82 +191,26 @@ public class PropNogoods extends Propagator<IntVar> {
     public ESat isEntailed() {
         if (vars.length == 0) return ESat.TRUE;
         if (isCompletelyInstantiated()) {
-            boolean OK = true;
-            int var, val;
-            long value;
-            boolean sign, eq;
-            for (int k : sat_.implies_.keys()) {
-                sign = sign(negated(k));
-                var = var(k);
-                IntVar ivar = vars[lit2pos[var]];
-                value = lit2val[var];
-                eq = iseq(value);
-                val = ivalue(value);
-                if ((eq && sign != ivar.contains(val))
-                        || (!eq && sign != ivar.getUB() <= val)) {
-                    OK &= impliesEntailed(sat_.implies_.get(k));
-                }
-            }
-            OK &= clauseEntailed(sat_.clauses);
-            OK &= clauseEntailed(sat_.learnts);
-            return ESat.eval(OK);
+            return ESat.eval(sat_.isSatisfiedBy(this::isFalse));
         }
         return ESat.UNDEFINED;
     }
 
-    private boolean impliesEntailed(TIntList lits) {
-        int var;
-        long value;
-        boolean sign;
-        IntVar ivar;
-        for (int l : lits.toArray()) {
-            sign = sign(l);
-            var = var(l);
-            ivar = vars[lit2pos[var]];
-            value = lit2val[var];
-            if (iseq(value)) {
-                if (sign != ivar.contains(ivalue(value))) {
-                    return false;
-                }
-            } else {
-                if (sign && ivar.getLB() > ivalue(value)) {
-                    return false;
-                } else if (!sign && ivar.getUB() <= ivalue(value)) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
-    private boolean clauseEntailed(ArrayList<Clause> clauses) {
-        int lit, var;
-        long value;
-        boolean sign;
-        IntVar ivar;
-        for (Clause c : clauses) {
-            int cnt = 0;
-            for (int i = 0; i < c.size(); i++) {
-                lit = c._g(i);
-                sign = sign(lit);
-                var = var(lit);
-                ivar = vars[lit2pos[var]];
-                value = lit2val[var];
-                if (iseq(value)) {
-                    if (sign != ivar.contains(ivalue(value))) {
-                        cnt++;
-                    } else break;
-                } else {
-                    if (sign && ivar.getLB() > ivalue(value)) {
-                        cnt++;
-                    } else if (!sign && ivar.getUB() <= ivalue(value)) {
-                        cnt++;
-                    } else break;
-                }
-            }
-            if (cnt == c.size()) return false;
+    /**
+     * @param lit a literal
+     * @return <tt>true</tt> if the literal is false, given the domain of its variable
+     */
+    private boolean isFalse(int lit) {
+        int var = var(lit);
+        IntVar ivar = vars[lit2pos[var]];
+        long value = lit2val[var];
+        if (iseq(value)) {
+            return sign(lit) != ivar.contains(ivalue(value));
+        } else if (sign(lit)) {
+            return ivar.getLB() > ivalue(value);
+        } else {
+            return ivar.getUB() <= ivalue(value);
         }
-        return true;
     }
 
 
@@ -544,17 +481,18 @@ public class PropNogoods extends Propagator<IntVar> {
         // compare the current clauses with the previous stored one,
         // just in case the current one dominates the previous none
         if (sat_.nLearnt() > 1) {
-            Clause last = sat_.learnts.get(sat_.learnts.size() - 1);
+            int last = sat_.nLearnt() - 1;
+            int size = sat_.learntSize(last);
             test_eq.clear();
-            for (int i = last.size() - 1; i >= 0; i--) {
-                test_eq.set(last._g(i));
+            for (int i = size - 1; i >= 0; i--) {
+                test_eq.set(sat_.learntLiteral(last, i));
             }
-            for (int c = sat_.learnts.size() - 2; c >= 0; c--) {
+            for (int c = last - 1; c >= 0; c--) {
                 int s = test_eq.cardinality();
-                Clause prev = sat_.learnts.get(c);
-                if (last.size() > 1 && last.size() < prev.size()) {
-                    for (int i = prev.size() - 1; i >= 0; i--) {
-                        s -= test_eq.get(prev._g(i)) ? 1 : 0;
+                int psize = sat_.learntSize(c);
+                if (size > 1 && size < psize) {
+                    for (int i = psize - 1; i >= 0; i--) {
+                        s -= test_eq.get(sat_.learntLiteral(c, i)) ? 1 : 0;
                     }
                     if (s == 0) { // then last dominates prev
                         sat_.detachLearnt(c);
@@ -9,17 +9,14 @@
  */
 package org.chocosolver.sat;
 
-import static org.chocosolver.sat.SatSolver.negated;
 import static org.chocosolver.sat.SatSolver.sign;
 import static org.chocosolver.sat.SatSolver.var;
 
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.map.hash.TIntObjectHashMap;
-import gnu.trove.map.hash.TObjectIntHashMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import org.chocosolver.memory.IStateInt;
-import org.chocosolver.sat.SatSolver.Clause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
@@ -43,9 +40,9 @@ public class PropSat extends Propagator<BoolVar> {
     private SatSolver sat_;
 
     /**
-     * Map between BoolVar and its literal
+     * Map between BoolVar (through its id) and its variable in the SAT solver, -1 if none
      */
-    private TObjectIntHashMap<BoolVar> indices_;
+    private int[] indices_;
 
     /**
      * For comparison with SAT solver trail, to deal properly with backtrack
@@ -57,11 +54,6 @@ public class PropSat extends Propagator<BoolVar> {
      */
     private TIntList early_deductions_;
 
-    /**
-     * Local-like parameter, for #why() method only, lazily initialized.
-     */
-    private TIntObjectHashMap<ArrayList<Clause>> inClauses;
-
     /**
      * Store new added variables when {@link #initialized} is <i>false</i>
      */
@@ -82,7 +74,8 @@ public class PropSat extends Propagator<BoolVar> {
         super(new BoolVar[]{model.boolVar(true)}, PropagatorPriority.VERY_SLOW, true);// adds solver.ONE to fit to the super constructor
         this.vars = new BoolVar[0];    // erase model.ONE from the variable scope
 
-        this.indices_ = new TObjectIntHashMap<>(16,.5f, -1);
+        this.indices_ = new int[16];
+        Arrays.fill(indices_, -1);
         sat_ = new SatSolver();
         early_deductions_ = new TIntArrayList();
         sat_trail_ = model.getEnvironment().makeInt();
@@ -117,54 +110,11 @@ public class PropSat extends Propagator<BoolVar> {
     @Override
     public ESat isEntailed() {
         if (isCompletelyInstantiated()) {
-            int var, val;
-            boolean sign;
-            for (int k : sat_.implies_.keys()) {
-                sign = sign(negated(k));
-                var = var(k);
-                val = vars[var].getValue();
-                if (val == (sign ? 0 : 1)) {
-                    TIntList lits = sat_.implies_.get(k);
-                    for (int l : lits.toArray()) {
-                        sign = sign(l);
-                        var = var(l);
-                        val = vars[var].getValue();
-                        if (val == (sign ? 0 : 1)) {
-                            return ESat.FALSE;
-                        }
-                    }
-                }
-            }
-            boolean OK = clauseEntailed(sat_.clauses);
-            OK &= clauseEntailed(sat_.learnts);
-            return ESat.eval(OK);
+            return ESat.eval(sat_.isSatisfiedBy(l -> vars[var(l)].getValue() != (sign(l) ? 1 : 0)));
         }
         return ESat.UNDEFINED;
     }
 
-    /**
-     * Checks if all clauses from <code>clauses</code> are satisfied
-     * @param clauses list of clause
-     * @return <tt>true</tt> if all clauses are satisfied, <tt>false</tt> otherwise
-     */
-    private boolean clauseEntailed(ArrayList<Clause> clauses) {
-        int lit, var, val;
-        boolean sign;
-        for (Clause c : clauses) {
-            int cnt = 0;
-            for (int i = 0; i < c.size(); i++) {
-                lit = c._g(i);
-                sign = sign(lit);
-                var = var(lit);
-                val = vars[var].getValue();
-                if (val == (sign ? 0 : 1)) cnt++; // if the lit is ok
-                else break;
-            }
-            if (cnt == c.size()) return false;
-        }
-        return true;
-    }
-
     /**
      * @return the underlying SAT solver
      */
@@ -200,7 +150,13 @@ public class PropSat extends Propagator<BoolVar> {
      * @return its literal
      */
     public int makeVar(BoolVar expr) {
-        int var = indices_.get(expr);
+        int id = expr.getId();
+        if (id >= indices_.length) {
+            int size = indices_.length;
+            indices_ = Arrays.copyOf(indices_, Math.max(id + 1, size * 3 / 2));
+            Arrays.fill(indices_, size, indices_.length, -1);
+        }
+        int var = indices_[id];
         if (var == -1) {
             var = sat_.newVariable();
             assert (vars.length + add_var.size() == var);
@@ -209,7 +165,7 @@ public class PropSat extends Propagator<BoolVar> {
             }else {
                 add_var.add(expr);
             }
-            indices_.put(expr, var);
+            indices_[id] = var;
         }
         return var;
     }
@@ -0,0 +1,316 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.sat;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+
+import static org.chocosolver.sat.SatSolver.makeLiteral;
+import static org.chocosolver.sat.SatSolver.negated;
+
+/**
+ * Encodings of usual boolean relations into clauses, for a {@link SatSolver}.
+ * Parameters are variables of the SAT solver, and each method returns <tt>false</tt>
+ * if the clause set is known to be unsatisfiable.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public interface SatFactory {
+
+    /**
+     * @return the SAT solver to add clauses to
+     */
+    SatSolver _me();
+
+    /**
+     * Add a clause: pos<sub>1</sub> &or; ... &or; pos<sub>n</sub> &or; &not;neg<sub>1</sub> &or; ... &or; &not;neg<sub>m</sub>
+     *
+     * @param pos variables appearing positively
+     * @param neg variables appearing negatively
+     * @return <tt>false</tt> if failure is detected
+     */
+    default boolean addClause(int[] pos, int[] neg) {
+        TIntList lits = new TIntArrayList(pos.length + neg.length);
+        for (int var : pos) {
+            lits.add(makeLiteral(var, true));
+        }
+        for (int var : neg) {
+            lits.add(makeLiteral(var, false));
+        }
+        return _me().addClause(lits);
+    }
+
+    /**
+     * Add unit clause: x
+     */
+    default boolean addTrue(int x) {
+        return _me().addClause(makeLiteral(x, true));
+    }
+
+    /**
+     * Add unit clause: &not;x
+     */
+    default boolean addFalse(int x) {
+        return _me().addClause(makeLiteral(x, false));
+    }
+
+    /**
+     * Add clauses for: x = y
+     */
+    default boolean addBoolEq(int x, int y) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        boolean add = _me().addClause(negated(tx), ty);
+        add &= _me().addClause(tx, negated(ty));
+        return add;
+    }
+
+    /**
+     * Add clause for: x &le; y
+     */
+    default boolean addBoolLe(int x, int y) {
+        return _me().addClause(makeLiteral(x, false), makeLiteral(y, true));
+    }
+
+    /**
+     * Add clauses for: x &lt; y
+     */
+    default boolean addBoolLt(int x, int y) {
+        int fx = makeLiteral(x, false);
+        int ty = makeLiteral(y, true);
+        return _me().addClause(ty) & _me().addClause(fx, negated(ty));
+    }
+
+    /**
+     * Add clauses for: x = &not;y
+     */
+    default boolean addBoolNot(int x, int y) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        return _me().addClause(negated(tx), negated(ty)) & _me().addClause(tx, ty);
+    }
+
+    /**
+     * Add clauses for: (x<sub>1</sub> &or; ... &or; x<sub>n</sub>) = y
+     */
+    default boolean addBoolOrArrayEqVar(int[] xs, int y) {
+        int ty = makeLiteral(y, true);
+        TIntList lits = new TIntArrayList(xs.length + 1);
+        for (int x : xs) {
+            lits.add(makeLiteral(x, true));
+        }
+        lits.add(negated(ty));
+        boolean add = _me().addClause(lits);
+        for (int x : xs) {
+            add &= _me().addClause(ty, makeLiteral(x, false));
+        }
+        return add;
+    }
+
+    /**
+     * Add clauses for: (x<sub>1</sub> &and; ... &and; x<sub>n</sub>) = y
+     */
+    default boolean addBoolAndArrayEqVar(int[] xs, int y) {
+        int ty = makeLiteral(y, true);
+        TIntList lits = new TIntArrayList(xs.length + 1);
+        for (int x : xs) {
+            lits.add(makeLiteral(x, false));
+        }
+        lits.add(ty);
+        boolean add = _me().addClause(lits);
+        for (int x : xs) {
+            add &= _me().addClause(negated(ty), makeLiteral(x, true));
+        }
+        return add;
+    }
+
+    /**
+     * Add clauses for: (x &or; y) = z
+     */
+    default boolean addBoolOrEqVar(int x, int y, int z) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        int tz = makeLiteral(z, true);
+        boolean add = _me().addClause(tx, ty, negated(tz));
+        add &= _me().addClause(negated(tx), tz);
+        add &= _me().addClause(negated(ty), tz);
+        return add;
+    }
+
+    /**
+     * Add clauses for: (x &and; y) = z
+     */
+    default boolean addBoolAndEqVar(int x, int y, int z) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        int tz = makeLiteral(z, true);
+        boolean add = _me().addClause(negated(tx), negated(ty), tz);
+        add &= _me().addClause(tx, negated(tz));
+        add &= _me().addClause(ty, negated(tz));
+        return add;
+    }
+
+    /**
+     * Add clauses for: (x &oplus; y) = z
+     */
+    default boolean addBoolXorEqVar(int x, int y, int z) {
+        return addBoolIsNeqVar(x, y, z);
+    }
+
+    /**
+     * Add clauses for: (x = y) = z
+     */
+    default boolean addBoolIsEqVar(int x, int y, int z) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        int tz = makeLiteral(z, true);
+        boolean add = _me().addClause(negated(tx), ty, negated(tz));
+        add &= _me().addClause(tx, negated(ty), negated(tz));
+        add &= _me().addClause(tx, ty, tz);
+        add &= _me().addClause(negated(tx), negated(ty), tz);
+        return add;
+    }
+
+    /**
+     * Add clauses for: (x &ne; y) = z
+     */
+    default boolean addBoolIsNeqVar(int x, int y, int z) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        int tz = makeLiteral(z, true);
+        boolean add = _me().addClause(negated(tx), ty, tz);
+        add &= _me().addClause(tx, negated(ty), tz);
+        add &= _me().addClause(tx, ty, negated(tz));
+        add &= _me().addClause(negated(tx), negated(ty), negated(tz));
+        return add;
+    }
+
+    /**
+     * Add clauses for: (x &le; y) = z
+     */
+    default boolean addBoolIsLeVar(int x, int y, int z) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        int tz = makeLiteral(z, true);
+        boolean add = _me().addClause(negated(tx), ty, negated(tz));
+        add &= _me().addClause(tx, tz);
+        add &= _me().addClause(negated(ty), tz);
+        return add;
+    }
+
+    /**
+     * Add clauses for: (x &lt; y) = z
+     */
+    default boolean addBoolIsLtVar(int x, int y, int z) {
+        int tx = makeLiteral(x, true);
+        int ty = makeLiteral(y, true);
+        int tz = makeLiteral(z, true);
+        boolean add = _me().addClause(tx, ty, negated(tz));
+        add &= _me().addClause(negated(tx), ty, negated(tz));
+        add &= _me().addClause(tx, negated(ty), tz);
+        add &= _me().addClause(negated(tx), negated(ty), negated(tz));
+        return add;
+    }
+
+    /**
+     * Add clause for: x<sub>1</sub> &or; ... &or; x<sub>n</sub>
+     */
+    default boolean addBoolOrArrayEqualTrue(int... xs) {
+        TIntList lits = new TIntArrayList(xs.length);
+        for (int x : xs) {
+            lits.add(makeLiteral(x, true));
+        }
+        return _me().addClause(lits);
+    }
+
+    /**
+     * Add clause for: &not;(x<sub>1</sub> &and; ... &and; x<sub>n</sub>)
+     */
+    default boolean addBoolAndArrayEqualFalse(int... xs) {
+        return addAtMostNMinusOne(xs);
+    }
+
+    /**
+     * Add clauses for: at most one x<sub>i</sub> is <tt>true</tt>
+     */
+    default boolean addAtMostOne(int... xs) {
+        TIntList lits = new TIntArrayList(xs.length);
+        for (int x : xs) {
+            lits.add(negated(makeLiteral(x, true)));
+        }
+        boolean add = true;
+        for (int i = 0; i < lits.size() - 1; i++) {
+            for (int j = i + 1; j < lits.size(); ++j) {
+                add &= _me().addClause(lits.get(i), lits.get(j));
+            }
+        }
+        return add;
+    }
+
+    /**
+     * Add clause for: at least one x<sub>i</sub> is <tt>false</tt>
+     */
+    default boolean addAtMostNMinusOne(int... xs) {
+        TIntList lits = new TIntArrayList(xs.length);
+        for (int x : xs) {
+            lits.add(makeLiteral(x, false));
+        }
+        return _me().addClause(lits);
+    }
+
+    /**
+     * Add clause for: sum(x<sub>i</sub>) &ge; y
+     */
+    default boolean addSumBoolArrayGreaterEqVar(int[] xs, int y) {
+        TIntList lits = new TIntArrayList(xs.length + 1);
+        for (int x : xs) {
+            lits.add(makeLiteral(x, true));
+        }
+        lits.add(makeLiteral(y, false));
+        return _me().addClause(lits);
+    }
+
+    /**
+     * Add clauses for: max(x<sub>i</sub>) &le; y
+     */
+    default boolean addMaxBoolArrayLessEqVar(int[] xs, int y) {
+        int ty = makeLiteral(y, true);
+        boolean add = true;
+        for (int x : xs) {
+            add &= _me().addClause(makeLiteral(x, false), ty);
+        }
+        return add;
+    }
+
+    /**
+     * Add clauses for: sum(x<sub>i</sub>) &le; y
+     */
+    default boolean addSumBoolArrayLessEqVar(int[] xs, int y) {
+        if (xs.length == 1) {
+            return addBoolLe(xs[0], y);
+        }
+        int extra = _me().newVariable();
+        int ty = makeLiteral(y, true);
+        int te = makeLiteral(extra, true);
+        TIntList lits = new TIntArrayList(xs.length + 1);
+        for (int x : xs) {
+            lits.add(makeLiteral(x, true));
+        }
+        lits.add(negated(te));
+        boolean add = _me().addClause(lits);
+        for (int x : xs) {
+            add &= _me().addClause(te, makeLiteral(x, false));
+        }
+        add &= _me().addClause(negated(te), ty);
+        return add;
+    }
+}
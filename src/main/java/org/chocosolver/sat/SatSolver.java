@@ -0,0 +1,632 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.sat;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A MiniSat-like unit propagation core, used by {@link PropSat} and {@link PropNogoods}.
+ * <p>
+ * Everything is stored in primitive arrays indexed by literals, so that propagating does not allocate:
+ * <ul>
+ * <li>clauses of size greater than 2 are stored one after another in a flat arena of ints,
+ * each clause being its size followed by its literals, and are referred to by their position in the arena,</li>
+ * <li>each literal has a watch list made of pairs (clause, blocker literal): the clause is not visited
+ * as long as the blocker literal is true,</li>
+ * <li>binary clauses are stored as implications between literals,</li>
+ * <li>the value of each literal is stored in a byte array and assigned literals are stacked on an int trail.</li>
+ * </ul>
+ * The trail is split by markers (see {@link #trailMarker()}), that the propagators synchronize with the
+ * environment on backtrack.
+ * <p>
+ * A literal <i>l</i> of a variable <i>v</i> is encoded as 2.<i>v</i> + 1 when it is positive
+ * and 2.<i>v</i> when it is negative (see {@link #makeLiteral(int, boolean)}).
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class SatSolver implements SatFactory {
+
+    /**
+     * Values of a literal
+     */
+    private static final byte kUndefined = 0;
+    private static final byte kTrue = 1;
+    private static final byte kFalse = -1;
+
+    static final int kUndefinedLiteral = -2;
+
+    /**
+     * Set to <tt>false</tt> when the clauses are proven to be unsatisfiable
+     */
+    boolean ok_ = true;
+
+    /**
+     * Number of variables
+     */
+    int num_vars_;
+
+    /**
+     * Value of each literal, {@link #kUndefined}, {@link #kTrue} or {@link #kFalse}
+     */
+    byte[] value_ = new byte[0];
+
+    /**
+     * The clause arena, where a clause is stored as its size followed by its literals
+     */
+    int[] arena_ = new int[64];
+    /**
+     * Number of ints used in the arena, and how many of them belong to detached clauses
+     */
+    int arenaSize_, wasted_;
+
+    /**
+     * Positions in the arena of clauses of size greater than 2
+     */
+    TIntArrayList clauses = new TIntArrayList();
+
+    /**
+     * Positions in the arena of learnt clauses, in order of addition
+     */
+    TIntArrayList learnts = new TIntArrayList();
+
+    /**
+     * For each literal <i>p</i>, pairs (clause, blocker) of clauses watching <i>&not;p</i>
+     */
+    int[][] watches_ = new int[0][];
+    int[] wsize_ = new int[0];
+
+    /**
+     * For each literal <i>p</i>, the literals implied by <i>p</i> (ie, binary clauses)
+     */
+    int[][] implies_ = new int[0][];
+    int[] isize_ = new int[0];
+    int nImplies_;
+
+    /**
+     * Assigned literals, in order of assignment
+     */
+    int[] trail_ = new int[0];
+    int trailSize_;
+
+    /**
+     * Position in the trail of each marker
+     */
+    int[] trail_markers_ = new int[16];
+    int nMarkers_;
+
+    /**
+     * Position in the trail of the next literal to propagate
+     */
+    int qhead_;
+
+    /**
+     * Literals deduced by the last propagation, or in conflict
+     */
+    TIntArrayList touched_variables_ = new TIntArrayList();
+
+    /**
+     * Buffer used to add a clause
+     */
+    private int[] temporary_add_vector_ = new int[16];
+
+    /**
+     * Create a new instance of the SAT solver, with no variable and no clause.
+     */
+    public SatSolver() {
+    }
+
+    @Override
+    public SatSolver _me() {
+        return this;
+    }
+
+    /**
+     * Create a new variable
+     *
+     * @return the index of the variable
+     */
+    public int newVariable() {
+        int v = num_vars_++;
+        int nlits = 2 * num_vars_;
+        if (nlits > value_.length) {
+            int cap = Math.max(nlits, value_.length * 3 / 2 + 2);
+            value_ = Arrays.copyOf(value_, cap);
+            watches_ = Arrays.copyOf(watches_, cap);
+            wsize_ = Arrays.copyOf(wsize_, cap);
+            implies_ = Arrays.copyOf(implies_, cap);
+            isize_ = Arrays.copyOf(isize_, cap);
+            trail_ = Arrays.copyOf(trail_, cap / 2 + 1);
+        }
+        return v;
+    }
+
+    /**
+     * Add a clause to the solver, at root level.
+     * Literals already false are removed, and nothing is added if a literal is already true.
+     *
+     * @param lits a list of literals
+     * @return <tt>false</tt> if the clause set is now known to be unsatisfiable
+     */
+    boolean addClause(TIntList lits) {
+        int n = lits.size();
+        ensureBuffer(n);
+        for (int i = 0; i < n; i++) {
+            temporary_add_vector_[i] = lits.get(i);
+        }
+        return addClause(temporary_add_vector_, n);
+    }
+
+    boolean addClause(int l) {
+        ensureBuffer(1);
+        temporary_add_vector_[0] = l;
+        return addClause(temporary_add_vector_, 1);
+    }
+
+    boolean addClause(int l1, int l2) {
+        ensureBuffer(2);
+        temporary_add_vector_[0] = l1;
+        temporary_add_vector_[1] = l2;
+        return addClause(temporary_add_vector_, 2);
+    }
+
+    boolean addClause(int l1, int l2, int l3) {
+        ensureBuffer(3);
+        temporary_add_vector_[0] = l1;
+        temporary_add_vector_[1] = l2;
+        temporary_add_vector_[2] = l3;
+        return addClause(temporary_add_vector_, 3);
+    }
+
+    private void ensureBuffer(int n) {
+        if (n > temporary_add_vector_.length) {
+            temporary_add_vector_ = new int[Math.max(n, temporary_add_vector_.length * 2)];
+        }
+    }
+
+    /**
+     * Add the first <i>n</i> literals of <i>lits</i> as a clause, <i>lits</i> is modified.
+     */
+    private boolean addClause(int[] lits, int n) {
+        assert (0 == trailMarker());
+        if (!ok_) return false;
+        Arrays.sort(lits, 0, n);
+        int size = 0;
+        int prev = kUndefinedLiteral;
+        for (int i = 0; i < n; i++) {
+            int l = lits[i];
+            if (value_[l] == kTrue || l == negated(prev)) {
+                return true; // the clause is always satisfied
+            }
+            if (value_[l] != kFalse && l != prev) {
+                prev = lits[size++] = l;
+            }
+        }
+        switch (size) {
+            case 0:
+                return ok_ = false;
+            case 1:
+                uncheckedEnqueue(lits[0]);
+                return ok_ = propagate();
+            case 2:
+                addImplication(negated(lits[0]), lits[1]);
+                addImplication(negated(lits[1]), lits[0]);
+                return true;
+            default:
+                clauses.add(attachClause(lits, size));
+                return true;
+        }
+    }
+
+    /**
+     * Add a learnt clause to the solver.
+     * A learnt clause of size 1 is not stored, its literal is only notified as touched.
+     *
+     * @param lits literals of the clause
+     * @return <tt>false</tt> if the clause set is now known to be unsatisfiable
+     */
+    public boolean learnClause(int... lits) {
+        Arrays.sort(lits);
+        switch (lits.length) {
+            case 0:
+                return ok_ = false;
+            case 1:
+                dynUncheckedEnqueue(lits[0]);
+                return ok_ = propagate();
+            default:
+                learnts.add(attachClause(lits, lits.length));
+                return true;
+        }
+    }
+
+    /**
+     * Remove the <i>i</i><sup>th</sup> learnt clause
+     *
+     * @param i index of a learnt clause
+     */
+    public void detachLearnt(int i) {
+        int cref = learnts.removeAt(i);
+        unwatch(negated(arena_[cref + 1]), cref);
+        unwatch(negated(arena_[cref + 2]), cref);
+        wasted_ += arena_[cref] + 1;
+        if (wasted_ > arenaSize_ / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * @return the number of learnt clauses
+     */
+    public int nLearnt() {
+        return learnts.size();
+    }
+
+    /**
+     * @param i index of a learnt clause
+     * @return the size of the <i>i</i><sup>th</sup> learnt clause
+     */
+    public int learntSize(int i) {
+        return arena_[learnts.getQuick(i)];
+    }
+
+    /**
+     * @param i index of a learnt clause
+     * @param j position of a literal in the clause
+     * @return the <i>j</i><sup>th</sup> literal of the <i>i</i><sup>th</sup> learnt clause
+     */
+    public int learntLiteral(int i, int j) {
+        return arena_[learnts.getQuick(i) + 1 + j];
+    }
+
+    /**
+     * @return the number of clauses, including binary and learnt ones
+     */
+    public long nbclauses() {
+        return clauses.size() + learnts.size() + nImplies_ / 2;
+    }
+
+    /**
+     * @return the number of variables
+     */
+    public long numvars() {
+        return num_vars_;
+    }
+
+    /**
+     * Check whether a complete assignment satisfies all clauses, binary and learnt ones included.
+     *
+     * @param isFalse indicates if a literal is false in the assignment
+     * @return <tt>true</tt> if no clause is falsified
+     */
+    public boolean isSatisfiedBy(IntPredicate isFalse) {
+        for (int p = 0; p < 2 * num_vars_; p++) {
+            if (isize_[p] > 0 && !isFalse.test(p)) {
+                for (int k = 0; k < isize_[p]; k++) {
+                    if (isFalse.test(implies_[p][k])) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return isSatisfiedBy(clauses, isFalse) && isSatisfiedBy(learnts, isFalse);
+    }
+
+    private boolean isSatisfiedBy(TIntArrayList crefs, IntPredicate isFalse) {
+        for (int c = 0; c < crefs.size(); c++) {
+            int cref = crefs.getQuick(c);
+            int size = arena_[cref];
+            int k = 1;
+            while (k <= size && isFalse.test(arena_[cref + k])) {
+                k++;
+            }
+            if (k > size) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Undo all assignments made after the <i>level</i><sup>th</sup> marker.
+     *
+     * @param level a marker
+     */
+    void cancelUntil(int level) {
+        if (nMarkers_ > level) {
+            int m = trail_markers_[level];
+            for (int c = trailSize_ - 1; c >= m; c--) {
+                int l = trail_[c];
+                value_[l] = kUndefined;
+                value_[negated(l)] = kUndefined;
+            }
+            qhead_ = m;
+            trailSize_ = m;
+            nMarkers_ = level;
+        }
+    }
+
+    /**
+     * @return the number of markers in the trail
+     */
+    public int trailMarker() {
+        return nMarkers_;
+    }
+
+    /**
+     * Push a marker in the trail and assign <i>lit</i> to <tt>true</tt>, then propagate.
+     * Deduced literals are stored in {@link #touched_variables_}.
+     *
+     * @param lit a literal
+     * @return <tt>false</tt> if a conflict occurs
+     */
+    boolean propagateOneLiteral(int lit) {
+        assert ok_;
+        touched_variables_.resetQuick();
+        if (!propagate()) {
+            return false;
+        }
+        if (value_[lit] == kTrue) {
+            // Dummy decision level:
+            pushTrailMarker();
+            return true;
+        }
+        if (value_[lit] == kFalse) {
+            return false;
+        }
+        pushTrailMarker();
+        assign(lit);
+        return propagate();
+    }
+
+    private void pushTrailMarker() {
+        if (nMarkers_ == trail_markers_.length) {
+            trail_markers_ = Arrays.copyOf(trail_markers_, nMarkers_ * 2);
+        }
+        trail_markers_[nMarkers_++] = trailSize_;
+    }
+
+    private void assign(int lit) {
+        value_[lit] = kTrue;
+        value_[negated(lit)] = kFalse;
+        trail_[trailSize_++] = lit;
+    }
+
+    void uncheckedEnqueue(int lit) {
+        assert value_[lit] == kUndefined;
+        touched_variables_.add(lit);
+        assign(lit);
+    }
+
+    private void dynUncheckedEnqueue(int lit) {
+        touched_variables_.add(lit);
+    }
+
+    private boolean enqueue(int lit) {
+        if (value_[lit] != kUndefined) {
+            return value_[lit] != kFalse;
+        }
+        uncheckedEnqueue(lit);
+        return true;
+    }
+
+    /**
+     * Copy the first <i>n</i> literals of <i>lits</i> in the arena and watch the first two ones.
+     *
+     * @return position of the clause in the arena
+     */
+    private int attachClause(int[] lits, int n) {
+        assert n > 1;
+        if (arenaSize_ + n + 1 > arena_.length) {
+            arena_ = Arrays.copyOf(arena_, Math.max(arenaSize_ + n + 1, arena_.length * 2));
+        }
+        int cref = arenaSize_;
+        arena_[cref] = n;
+        System.arraycopy(lits, 0, arena_, cref + 1, n);
+        arenaSize_ += n + 1;
+        watch(negated(lits[0]), cref, lits[1]);
+        watch(negated(lits[1]), cref, lits[0]);
+        return cref;
+    }
+
+    private void watch(int p, int cref, int blocker) {
+        int[] ws = watches_[p];
+        int n = wsize_[p];
+        if (ws == null) {
+            ws = watches_[p] = new int[8];
+        } else if (n + 2 > ws.length) {
+            ws = watches_[p] = Arrays.copyOf(ws, ws.length * 2);
+        }
+        ws[n] = cref;
+        ws[n + 1] = blocker;
+        wsize_[p] = n + 2;
+    }
+
+    private void unwatch(int p, int cref) {
+        int[] ws = watches_[p];
+        int n = wsize_[p];
+        int i = n - 2;
+        while (i >= 0 && ws[i] != cref) {
+            i -= 2;
+        }
+        assert i > -1;
+        System.arraycopy(ws, i + 2, ws, i, n - i - 2);
+        wsize_[p] = n - 2;
+    }
+
+    private void addImplication(int p, int q) {
+        int[] is = implies_[p];
+        int n = isize_[p];
+        if (is == null) {
+            is = implies_[p] = new int[4];
+        } else if (n == is.length) {
+            is = implies_[p] = Arrays.copyOf(is, n * 2);
+        }
+        is[n] = q;
+        isize_[p] = n + 1;
+        nImplies_++;
+    }
+
+    /**
+     * Move the clauses still attached at the beginning of a new arena.
+     * The header of a moved clause is replaced by the complement of its new position,
+     * so that watch lists can be updated afterwards.
+     */
+    private void compact() {
+        int[] to = new int[Math.max(64, arenaSize_ - wasted_)];
+        int size = relocate(clauses, to, 0);
+        size = relocate(learnts, to, size);
+        for (int p = 0; p < 2 * num_vars_; p++) {
+            int[] ws = watches_[p];
+            for (int k = 0; k < wsize_[p]; k += 2) {
+                ws[k] = ~arena_[ws[k]];
+            }
+        }
+        arena_ = to;
+        arenaSize_ = size;
+        wasted_ = 0;
+    }
+
+    private int relocate(TIntArrayList crefs, int[] to, int size) {
+        for (int c = 0; c < crefs.size(); c++) {
+            int cref = crefs.getQuick(c);
+            int n = arena_[cref] + 1;
+            System.arraycopy(arena_, cref, to, size, n);
+            arena_[cref] = ~size;
+            crefs.setQuick(c, size);
+            size += n;
+        }
+        return size;
+    }
+
+    boolean propagate() {
+        boolean result = true;
+        while (qhead_ < trailSize_) {
+            int p = trail_[qhead_++];
+            // First, propagate the binary clauses
+            if (!propagateImplies(p)) {
+                return false;
+            }
+            // Then, the others
+            result &= propagateClauses(p);
+        }
+        return result;
+    }
+
+    private boolean propagateImplies(int p) {
+        int[] is = implies_[p];
+        for (int k = 0, n = isize_[p]; k < n; k++) {
+            if (!enqueue(is[k])) {
+                touched_variables_.add(is[k]);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean propagateClauses(int p) {
+        int[] ws = watches_[p];
+        int n = wsize_[p];
+        int np = negated(p);
+        boolean result = true;
+        int i = 0, j = 0;
+        while (i < n) {
+            int cref = ws[i];
+            int blocker = ws[i + 1];
+            i += 2;
+            // try to avoid inspecting the clause
+            if (value_[blocker] == kTrue) {
+                ws[j++] = cref;
+                ws[j++] = blocker;
+                continue;
+            }
+            // make sure the false literal is the second one
+            if (arena_[cref + 1] == np) {
+                arena_[cref + 1] = arena_[cref + 2];
+                arena_[cref + 2] = np;
+            }
+            assert arena_[cref + 2] == np;
+            // if the first watch is true, then the clause is already satisfied
+            int first = arena_[cref + 1];
+            if (first != blocker && value_[first] == kTrue) {
+                ws[j++] = cref;
+                ws[j++] = first;
+                continue;
+            }
+            // look for a new watch
+            int end = cref + arena_[cref];
+            boolean found = false;
+            for (int k = cref + 3; k <= end && !found; k++) {
+                int l = arena_[k];
+                if (value_[l] != kFalse) {
+                    arena_[cref + 2] = l;
+                    arena_[k] = np;
+                    watch(negated(l), cref, first);
+                    found = true;
+                }
+            }
+            if (!found) {
+                // did not find a new watch: the clause is unit or conflicting
+                ws[j++] = cref;
+                ws[j++] = first;
+                if (value_[first] == kFalse) {
+                    result = false;
+                    qhead_ = trailSize_;
+                    // copy the remaining watches
+                    while (i < n) {
+                        ws[j++] = ws[i++];
+                    }
+                    touched_variables_.add(first);
+                } else {
+                    uncheckedEnqueue(first);
+                }
+            }
+        }
+        wsize_[p] = j;
+        return result;
+    }
+
+    /**
+     * @param var  a variable
+     * @param sign <tt>true</tt> for the positive literal
+     * @return the literal of <i>var</i> with sign <i>sign</i>
+     */
+    public static int makeLiteral(int var, boolean sign) {
+        return (2 * var + (sign ? 1 : 0));
+    }
+
+    /**
+     * @param l a literal
+     * @return the negation of <i>l</i>
+     */
+    public static int negated(int l) {
+        return (l ^ 1);
+    }
+
+    /**
+     * @param l a literal
+     * @return <tt>true</tt> if <i>l</i> is a positive literal
+     */
+    public static boolean sign(int l) {
+        return (l & 1) != 0;
+    }
+
+    /**
+     * @param l a literal
+     * @return the variable of <i>l</i>
+     */
+    public static int var(int l) {
+        return (l >> 1);
+    }
+}
@@ -66,6 +66,10 @@ public class DefaultSettings implements Settings {
 
     private IntPredicate enableIncrementalityOnBoolSum = i -> i > 10;
 
+    private IntPredicate enableWatchedLiteralsOnBoolSum = i -> i > 100;
+
+    private IntPredicate enableIncrementalityOnAllDiffAC = i -> i > 50;
+
     private boolean cloneVariableArrayInPropagator = true;
 
     private boolean enableACOnTernarySum = false;
@@ -82,6 +86,8 @@ public class DefaultSettings implements Settings {
 
     private byte hybridEngine = 0b00;
 
+    private boolean adaptiveEngine = false;
+
     private int nbMaxLearnt = 100_000;
 
     private int maxLearntCardinlity = Integer.MAX_VALUE / 100;
@@ -90,8 +96,18 @@ public class DefaultSettings implements Settings {
 
     private int dominancePerimeter = 4;
 
+    private int lbdCore = 2;
+
+    private int lbdTier2 = 6;
+
     private boolean explainGlobalFailureInSum = true;
 
+    private boolean ibex = true;
+
+    private boolean boxConsistency = false;
+
+    private int maxSizeForDenseSetVars = 8192;
+
     private Function<Model, Solver> initSolver = Solver::new;
 
 
@@ -267,6 +283,28 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public boolean enableWatchedLiteralsOnBoolSum(int nbvars) {
+        return enableWatchedLiteralsOnBoolSum.test(nbvars);
+    }
+
+    @Override
+    public DefaultSettings setEnableWatchedLiteralsOnBoolSum(IntPredicate enableWatchedLiteralsOnBoolSum) {
+        this.enableWatchedLiteralsOnBoolSum = enableWatchedLiteralsOnBoolSum;
+        return this;
+    }
+
+    @Override
+    public boolean enableIncrementalityOnAllDiffAC(int nbvars) {
+        return enableIncrementalityOnAllDiffAC.test(nbvars);
+    }
+
+    @Override
+    public DefaultSettings setEnableIncrementalityOnAllDiffAC(IntPredicate enableIncrementalityOnAllDiffAC) {
+        this.enableIncrementalityOnAllDiffAC = enableIncrementalityOnAllDiffAC;
+        return this;
+    }
+
     @Override
     public boolean cloneVariableArrayInPropagator() {
         return cloneVariableArrayInPropagator;
@@ -367,6 +405,17 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public boolean enableAdaptivePropagation() {
+        return adaptiveEngine;
+    }
+
+    @Override
+    public Settings setEnableAdaptivePropagation(boolean adaptive) {
+        this.adaptiveEngine = adaptive;
+        return this;
+    }
+
     @Override
     public int getNbMaxLearntClauses() {
         return nbMaxLearnt;
@@ -411,6 +460,28 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public int getLBDLimitForCoreClauses() {
+        return lbdCore;
+    }
+
+    @Override
+    public Settings setLBDLimitForCoreClauses(int n) {
+        this.lbdCore = n;
+        return this;
+    }
+
+    @Override
+    public int getLBDLimitForTier2Clauses() {
+        return lbdTier2;
+    }
+
+    @Override
+    public Settings setLBDLimitForTier2Clauses(int n) {
+        this.lbdTier2 = n;
+        return this;
+    }
+
     @Override
     public boolean explainGlobalFailureInSum() {
         return explainGlobalFailureInSum;
@@ -421,4 +492,37 @@ public class DefaultSettings implements Settings {
         this.explainGlobalFailureInSum = b;
         return this;
     }
+
+    @Override
+    public boolean enableIbex() {
+        return ibex;
+    }
+
+    @Override
+    public Settings setEnableIbex(boolean ibex) {
+        this.ibex = ibex;
+        return this;
+    }
+
+    @Override
+    public boolean enableBoxConsistencyOnReals() {
+        return boxConsistency;
+    }
+
+    @Override
+    public Settings setEnableBoxConsistencyOnReals(boolean box) {
+        this.boxConsistency = box;
+        return this;
+    }
+
+    @Override
+    public int getMaxSizeForDenseSetVars() {
+        return maxSizeForDenseSetVars;
+    }
+
+    @Override
+    public DefaultSettings setMaxSizeForDenseSetVars(int maxSizeForDenseSetVars) {
+        this.maxSizeForDenseSetVars = maxSizeForDenseSetVars;
+        return this;
+    }
 }
@@ -0,0 +1,592 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.real.RealConstraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ *     An Embarrassingly Parallel Search (EPS) helper.
+ * </p>
+ * <p>
+ *     Contrary to {@link ParallelPortfolio}, where each model explores the whole search space with its own strategy,
+ *     the search space is here decomposed into many subproblems (cubes), and each subproblem is solved by
+ *     exactly one model. This makes the proof of optimality scale with the number of models.
+ *     The resolution is made of three steps:
+ *     <ol>
+ *         <li>adding (identical) models to be run in parallel,</li>
+ *         <li>decomposing the problem and solving the subproblems in parallel,</li>
+ *         <li>getting the best solution found, if any.</li>
+ *     </ol>
+ * </p>
+ * <p>
+ *     The decomposition is computed on the first model: the first decisions of its search strategy
+ *     ({@link AbstractStrategy}) are applied in a breadth-first way, both branches of a decision being explored,
+ *     until at least <i>n</i> &times; {@link #setSubproblemsPerModel(int)} consistent subproblems are built.
+ *     Subproblems proved inconsistent by propagation are discarded.
+ *     A subproblem is stated as a conjunction of unary constraints over variables identified by their index in
+ *     {@link Model#getVars()}, so all models <b>must</b> declare their variables in the same order
+ *     (presumably, they are created by the same method).
+ * </p>
+ * <p>
+ *     Subproblems are distributed to models through work-stealing deques: each model polls subproblems from the head
+ *     of its own deque and, once it is empty, steals subproblems from the tail of the other ones.
+ *     When dealing with an optimization problem, each improving solution updates the bound of every model through
+ *     {@link org.chocosolver.solver.objective.IObjectiveManager#updateBestUB(Number)} (resp.
+ *     {@link org.chocosolver.solver.objective.IObjectiveManager#updateBestLB(Number)}), and the best known bound
+ *     is imported each time a model starts a new subproblem.
+ *     When dealing with a satisfaction problem, the resolution stops on the first solution.
+ * </p>
+ * <p>
+ *     Since the solver of each model is reset before each subproblem, stop criteria declared on models are lost:
+ *     they must be declared with {@link #addStopCriterion(Criterion)} instead.
+ * </p>
+ * <p>
+ *     Example of use.
+ *
+ * <pre>
+ * <code>EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch();
+ * int n = 32; // number of models to use
+ * for (int i = 0; i < n; i++) {
+ *      eps.addModel(modeller());
+ * }
+ * eps.solve();
+ * Solution best = eps.getBestSolution();
+ * </code>
+ * </pre>
+ * </p>
+ * <p>
+ * Project: choco-solver.
+ * @see "Embarrassingly Parallel Search, J.-C. Régin, M. Rezgui and A. Malapert, CP'13."
+ * @since 4.10.2
+ */
+public class EmbarrassinglyParallelSearch {
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////       VARIABLES       //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** List of {@link Model}s to be executed in parallel. */
+    private final List<Model> models;
+
+    /** Global stop criteria, checked by every model */
+    private final List<Criterion> criteria;
+
+    /** Stores whether or not solution monitors have been plugged */
+    private boolean isPrepared = false;
+
+    /** Minimum number of subproblems to generate per model */
+    private int subproblemsPerModel = 30;
+
+    /** Per-model deques of subproblems */
+    private ConcurrentLinkedDeque<Cube>[] deques;
+
+    /** Number of subproblems generated by the last decomposition */
+    private int nbSubproblems;
+
+    /** Number of subproblems solved (or proved unsatisfiable) so far */
+    private final AtomicInteger nbSolvedSubproblems = new AtomicInteger();
+
+    /** Set to <i>true</i> to stop every model */
+    private final AtomicBoolean stop = new AtomicBoolean(false);
+
+    /** Set to <i>true</i> when a stop criterion is met */
+    private final AtomicBoolean interrupted = new AtomicBoolean(false);
+
+    /** The best solution found so far */
+    private Solution bestSolution;
+
+    /** Point to (one of) the model(s) which found the best solution */
+    private Model finder;
+
+    /** Best objective value found so far, only relevant for optimization problems */
+    private int bestValue;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////      CONSTRUCTOR      //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a new EmbarrassinglyParallelSearch.
+     * This class stores the models to be executed in parallel in a {@link ArrayList} initially empty.
+     */
+    public EmbarrassinglyParallelSearch() {
+        this.models = new ArrayList<>();
+        this.criteria = new ArrayList<>();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////          API          //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * <p>
+     * Adds a model to the list of models to run in parallel.
+     * The populating process is not managed by this class and should be done externally.
+     * All models must be identical, in particular variables should be declared in the same order and,
+     * when dealing with optimization problems, the objective variable <b>HAS</b> to be declared eagerly with
+     * {@link Model#setObjective(boolean, Variable)}.
+     * </p>
+     * <p>
+     * The search strategy of the first model is used to decompose the problem.
+     * </p>
+     * @param model a model to add
+     */
+    public void addModel(Model model) {
+        this.models.add(model);
+    }
+
+    /**
+     * @return the (mutable!) list of models used in this EmbarrassinglyParallelSearch
+     */
+    public List<Model> getModels() {
+        return models;
+    }
+
+    /**
+     * Set the minimum number of subproblems to generate per model (default is 30).
+     * The higher, the better the load balancing, but the higher the decomposition overhead.
+     * @param factor minimum number of subproblems per model
+     */
+    public void setSubproblemsPerModel(int factor) {
+        if (factor < 1) {
+            throw new SolverException("The number of subproblems per model should be strictly positive");
+        }
+        this.subproblemsPerModel = factor;
+    }
+
+    /**
+     * Add a stop criterion, checked by every model during the search.
+     * There can be multiple stop criteria, a logical OR is then applied.
+     * @param criterion a stop criterion
+     */
+    public void addStopCriterion(Criterion criterion) {
+        this.criteria.add(criterion);
+    }
+
+    /**
+     * Decompose the problem and solve every subproblem in parallel.
+     * <p>
+     * When dealing with a satisfaction problem, the resolution stops on the first solution found.
+     * When dealing with an optimization problem, the resolution stops once all subproblems are solved
+     * (the best solution is then optimal) or when a stop criterion is met.
+     * </p>
+     * @return <code>true</code> if and only if at least one solution has been found.
+     * @throws SolverException if no model has been added.
+     */
+    public boolean solve() {
+        check();
+        stop.set(false);
+        interrupted.set(false);
+        nbSolvedSubproblems.set(0);
+        bestSolution = null;
+        finder = null;
+        Model master = models.get(0);
+        if (master.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
+            bestValue = Integer.MIN_VALUE;
+        } else {
+            bestValue = Integer.MAX_VALUE;
+        }
+        List<Cube> cubes = decompose(master, models.size() * subproblemsPerModel);
+        nbSubproblems = cubes.size();
+        distribute(cubes);
+        if (!isPrepared) {
+            isPrepared = true;
+            for (Model m : models) {
+                m.getSolver().plugMonitor((IMonitorSolution) () -> onSolution(m));
+            }
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(models.size());
+        try {
+            forkJoinPool.submit(() -> IntStream.range(0, models.size()).parallel().forEach(this::work)).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new SolverException("Error during parallel search: " + e.getMessage());
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+        return bestSolution != null;
+    }
+
+    /**
+     * @return the best solution found by the last call to {@link #solve()}, or <tt>null</tt> if none was found.
+     */
+    public Solution getBestSolution() {
+        return bestSolution;
+    }
+
+    /**
+     * @return (one of) the model(s) which found the best solution, or <tt>null</tt> if no solution was found.
+     */
+    public Model getBestModel() {
+        return finder;
+    }
+
+    /**
+     * @return <tt>true</tt> if the whole search space has been explored by the last call to {@link #solve()},
+     * that is, no stop criterion was met.
+     * When dealing with an optimization problem, the best solution is then proved to be optimal.
+     */
+    public boolean isSearchCompleted() {
+        return !interrupted.get() && nbSolvedSubproblems.get() == nbSubproblems;
+    }
+
+    /**
+     * @return the number of subproblems generated by the last decomposition
+     */
+    public int getNbSubproblems() {
+        return nbSubproblems;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////   INTERNAL METHODS    //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void check() {
+        if (models.size() == 0) {
+            throw new SolverException("No model found in the EmbarrassinglyParallelSearch.");
+        }
+        Model master = models.get(0);
+        if (master.getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+            Variable objective = master.getObjective();
+            if (objective == null) {
+                throw new UnsupportedOperationException("No objective has been defined");
+            }
+            if ((objective.getTypeAndKind() & Variable.INT) == 0) {
+                throw new UnsupportedOperationException("Only integer objective variables are supported");
+            }
+        }
+        for (Constraint c : master.getCstrs()) {
+            if (c instanceof RealConstraint && master.getSettings().enableIbex()) {
+                throw new UnsupportedOperationException("" +
+                        "Ibex is not multithread safe, EmbarrassinglyParallelSearch cannot be used");
+            }
+        }
+    }
+
+    /**
+     * Breadth-first decomposition of the search space of <i>model</i>, driven by its search strategy.
+     * @param model the model to decompose
+     * @param target minimum number of subproblems to generate
+     * @return the list of consistent subproblems
+     */
+    private static List<Cube> decompose(Model model, int target) {
+        Solver solver = model.getSolver();
+        IEnvironment environment = model.getEnvironment();
+        if (solver.getSearch() == null) {
+            solver.setSearch(model.getSettings().makeDefaultSearch(model));
+        }
+        AbstractStrategy<Variable> strategy = solver.getSearch();
+        TIntIntHashMap positions = new TIntIntHashMap(model.getNbVars(), .5f, -1, -1);
+        for (int i = 0; i < model.getNbVars(); i++) {
+            positions.put(model.getVar(i).getId(), i);
+        }
+        List<Cube> leaves = new ArrayList<>();
+        List<Cube> current = new ArrayList<>();
+        current.add(new Cube());
+        environment.worldPush();
+        try {
+            solver.propagate();
+            if (!strategy.init()) {
+                return leaves;
+            }
+            while (!current.isEmpty() && leaves.size() + current.size() < target) {
+                List<Cube> next = new ArrayList<>();
+                for (Cube cube : current) {
+                    split(model, strategy, positions, cube, leaves, next);
+                }
+                current = next;
+            }
+            leaves.addAll(current);
+        } catch (ContradictionException cex) {
+            // the problem is trivially unsatisfiable: no subproblem to solve
+            leaves.clear();
+        } finally {
+            environment.worldPop();
+        }
+        return leaves;
+    }
+
+    /**
+     * Split <i>cube</i> on the next decision of <i>strategy</i>.
+     * Consistent children are added to <i>next</i>; if no decision can be computed, <i>cube</i> is added to
+     * <i>leaves</i>.
+     */
+    private static void split(Model model, AbstractStrategy<Variable> strategy, TIntIntHashMap positions,
+                              Cube cube, List<Cube> leaves, List<Cube> next) {
+        IEnvironment environment = model.getEnvironment();
+        Solver solver = model.getSolver();
+        environment.worldPush();
+        try {
+            cube.apply(model);
+            solver.propagate();
+            Decision<?> decision = strategy.getDecision();
+            if (decision instanceof IntDecision) {
+                IntDecision dec = (IntDecision) decision;
+                int pos = positions.get(dec.getDecisionVariable().getId());
+                int op = Cube.opOf(dec.getDecOp());
+                int value = dec.getDecisionValue();
+                dec.free();
+                for (Cube child : new Cube[]{cube.extend(pos, op, value), cube.extend(pos, Cube.negate(op), value)}) {
+                    if (consistent(model, child)) {
+                        next.add(child);
+                    }
+                }
+            } else {
+                if (decision != null) {
+                    // only decisions on integer variables can be shared among models
+                    decision.free();
+                }
+                leaves.add(cube);
+            }
+        } catch (ContradictionException cex) {
+            // should not happen, consistency is checked before adding a cube
+        } finally {
+            environment.worldPop();
+        }
+    }
+
+    private static boolean consistent(Model model, Cube cube) {
+        IEnvironment environment = model.getEnvironment();
+        environment.worldPush();
+        try {
+            cube.apply(model);
+            model.getSolver().propagate();
+            return true;
+        } catch (ContradictionException cex) {
+            return false;
+        } finally {
+            environment.worldPop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void distribute(List<Cube> cubes) {
+        deques = (ConcurrentLinkedDeque<Cube>[]) new ConcurrentLinkedDeque<?>[models.size()];
+        for (int i = 0; i < deques.length; i++) {
+            deques[i] = new ConcurrentLinkedDeque<>();
+        }
+        // round-robin, so that consecutive (hence similar) subproblems are spread among models
+        for (int i = 0; i < cubes.size(); i++) {
+            deques[i % deques.length].addLast(cubes.get(i));
+        }
+    }
+
+    /**
+     * @return the next subproblem to be solved by <i>worker</i>: from the head of its own deque, or stolen from
+     * the tail of another one. <tt>null</tt> if there is no more subproblem to solve.
+     */
+    private Cube next(int worker) {
+        Cube cube = deques[worker].pollFirst();
+        for (int i = 1; cube == null && i < deques.length; i++) {
+            cube = deques[(worker + i) % deques.length].pollLast();
+        }
+        return cube;
+    }
+
+    private void work(int worker) {
+        Model model = models.get(worker);
+        Solver solver = model.getSolver();
+        boolean satPb = model.getResolutionPolicy() == ResolutionPolicy.SATISFACTION;
+        Cube cube;
+        while (!stop.get() && (cube = next(worker)) != null) {
+            solver.reset();
+            solver.addStopCriterion(this::isStopCriterionMet);
+            if (!satPb) {
+                importBound(model);
+            }
+            Constraint[] cstrs = cube.post(model);
+            try {
+                //noinspection StatementWithEmptyBody
+                while (!stop.get() && solver.solve() && !satPb) ;
+            } finally {
+                solver.reset();
+                model.unpost(cstrs);
+            }
+            if (!stop.get()) {
+                nbSolvedSubproblems.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isStopCriterionMet() {
+        if (!stop.get()) {
+            for (int i = 0; i < criteria.size(); i++) {
+                if (criteria.get(i).isMet()) {
+                    interrupted.set(true);
+                    stop.set(true);
+                }
+            }
+        }
+        return stop.get();
+    }
+
+    private synchronized void importBound(Model model) {
+        if (bestSolution != null) {
+            if (model.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
+                model.getSolver().getObjectiveManager().updateBestLB(bestValue);
+            } else {
+                model.getSolver().getObjectiveManager().updateBestUB(bestValue);
+            }
+        }
+    }
+
+    private synchronized void onSolution(Model m) {
+        if (m.getResolutionPolicy() == ResolutionPolicy.SATISFACTION) {
+            if (bestSolution == null) {
+                bestSolution = new Solution(m).record();
+                finder = m;
+            }
+            stop.set(true);
+        } else {
+            int val = ((IntVar) m.getObjective()).getValue();
+            boolean max = m.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE;
+            if (bestSolution == null || (max ? val > bestValue : val < bestValue)) {
+                bestValue = val;
+                bestSolution = new Solution(m).record();
+                finder = m;
+                if (max) {
+                    models.forEach(s1 -> s1.getSolver().getObjectiveManager().updateBestLB(val));
+                } else {
+                    models.forEach(s1 -> s1.getSolver().getObjectiveManager().updateBestUB(val));
+                }
+            }
+        }
+    }
+
+    /**
+     * A subproblem, stated as a conjunction of unary constraints ("x op v") on integer variables.
+     * Variables are identified by their position in {@link Model#getVars()}.
+     */
+    private static final class Cube {
+
+        private static final int EQ = 0, NQ = 1, LE = 2, GE = 3;
+        private static final String[] OPS = {"=", "!=", "<=", ">="};
+
+        private final int[] vars;
+        private final int[] ops;
+        private final int[] values;
+
+        Cube() {
+            this(new int[0], new int[0], new int[0]);
+        }
+
+        private Cube(int[] vars, int[] ops, int[] values) {
+            this.vars = vars;
+            this.ops = ops;
+            this.values = values;
+        }
+
+        static int opOf(DecisionOperator<IntVar> dop) {
+            if (dop == DecisionOperatorFactory.makeIntEq()) {
+                return EQ;
+            } else if (dop == DecisionOperatorFactory.makeIntNeq()) {
+                return NQ;
+            } else if (dop == DecisionOperatorFactory.makeIntSplit()) {
+                return LE;
+            } else if (dop == DecisionOperatorFactory.makeIntReverseSplit()) {
+                return GE;
+            }
+            throw new UnsupportedOperationException("Unknown decision operator: " + dop);
+        }
+
+        /**
+         * Encode the refutation of an operator: {@code !(x = v) <=> x != v}, {@code !(x <= v) <=> x >= v + 1}, etc.
+         * The value is stored with the sign of the operator, see {@link #extend(int, int, int)}.
+         */
+        static int negate(int op) {
+            return -op - 1;
+        }
+
+        Cube extend(int var, int op, int value) {
+            int n = vars.length;
+            int[] nvars = Arrays.copyOf(vars, n + 1);
+            int[] nops = Arrays.copyOf(ops, n + 1);
+            int[] nvalues = Arrays.copyOf(values, n + 1);
+            nvars[n] = var;
+            if (op < 0) {
+                switch (-op - 1) {
+                    case EQ:
+                        nops[n] = NQ;
+                        nvalues[n] = value;
+                        break;
+                    case NQ:
+                        nops[n] = EQ;
+                        nvalues[n] = value;
+                        break;
+                    case LE:
+                        nops[n] = GE;
+                        nvalues[n] = value + 1;
+                        break;
+                    default:
+                        nops[n] = LE;
+                        nvalues[n] = value - 1;
+                        break;
+                }
+            } else {
+                nops[n] = op;
+                nvalues[n] = value;
+            }
+            return new Cube(nvars, nops, nvalues);
+        }
+
+        void apply(Model model) throws ContradictionException {
+            for (int i = 0; i < vars.length; i++) {
+                IntVar var = (IntVar) model.getVar(vars[i]);
+                switch (ops[i]) {
+                    case EQ:
+                        var.instantiateTo(values[i], Cause.Null);
+                        break;
+                    case NQ:
+                        var.removeValue(values[i], Cause.Null);
+                        break;
+                    case LE:
+                        var.updateUpperBound(values[i], Cause.Null);
+                        break;
+                    default:
+                        var.updateLowerBound(values[i], Cause.Null);
+                        break;
+                }
+            }
+        }
+
+        Constraint[] post(Model model) {
+            Constraint[] cstrs = new Constraint[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                cstrs[i] = model.arithm((IntVar) model.getVar(vars[i]), OPS[ops[i]], values[i]);
+            }
+            model.post(cstrs);
+            return cstrs;
+        }
+    }
+}
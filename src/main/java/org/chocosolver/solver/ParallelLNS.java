@@ -0,0 +1,343 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.limits.ICounter;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.loop.lns.neighbors.PropagationGuidedNeighborhood;
+import org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood;
+import org.chocosolver.solver.search.loop.lns.neighbors.ReversePropagationGuidedNeighborhood;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.loop.move.MoveLNS;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * A multi-threaded Large Neighborhood Search.
+ * </p>
+ * <p>
+ * Several copies of the same optimization model are solved in parallel, each one with its own LNS
+ * and its own {@link INeighbor}, so that the neighborhoods of the portfolio are explored concurrently.
+ * Each improving solution is published in a shared incumbent, updated without lock.
+ * At its next restart, each worker whose incumbent is outdated loads the global best solution
+ * (see {@link MoveLNS#loadFromSolution(Solution, Solver)}) and applies the cut on the objective.
+ * </p>
+ * <p>
+ * Integer variables are matched by their index in {@link Model#getVars()}, so the models have to be built in the
+ * same way, and the objective variable <b>HAS</b> to be declared with {@link Model#setObjective(boolean, Variable)}.
+ * Since LNS is not complete, a limit (e.g. a time limit) should be declared on each model:
+ * the resolution stops as soon as one of the models stops.
+ * </p>
+ * <p>
+ * Example of use.
+ *
+ * <pre>
+ * <code>ParallelLNS plns = new ParallelLNS();
+ * for (int i = 0; i < 4; i++) {
+ *      Model model = modeller();
+ *      model.getSolver().limitTime("10s");
+ *      plns.addModel(model);
+ * }
+ * plns.solve();
+ * Solution best = plns.getBestSolution();
+ * </code>
+ * </pre>
+ * </p>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class ParallelLNS {
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////       VARIABLES       //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** The LNS of each model, in the order models were added. */
+    private final List<Worker> workers;
+
+    /** Global best solution, null if no solution has been found yet. */
+    private final AtomicReference<Incumbent> incumbent;
+
+    private final AtomicBoolean solverTerminated;
+
+    /** Stores whether or not prepare() method has been called */
+    private boolean isPrepared;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////      CONSTRUCTOR      //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a new ParallelLNS, with no model.
+     */
+    public ParallelLNS() {
+        this.workers = new ArrayList<>();
+        this.incumbent = new AtomicReference<>();
+        this.solverTerminated = new AtomicBoolean(false);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////          API          //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds a model whose LNS explores <i>neighbor</i>, restarting every <i>restartCounter</i>.
+     * The search strategy declared in the solver of <i>model</i>, if any, completes the fragments.
+     *
+     * @param model          a populated model, with an objective
+     * @param neighbor       the neighbor of the LNS of this model
+     * @param restartCounter when a restart should occur
+     */
+    public void addModel(Model model, INeighbor neighbor, ICounter restartCounter) {
+        if (isPrepared) {
+            throw new SolverException("Models cannot be added to a ParallelLNS once solving has started.");
+        }
+        workers.add(new Worker(model, neighbor, restartCounter));
+    }
+
+    /**
+     * Adds a model whose LNS explores <i>neighbor</i>, restarting every 1000 failures.
+     *
+     * @param model    a populated model, with an objective
+     * @param neighbor the neighbor of the LNS of this model
+     * @see #addModel(Model, INeighbor, ICounter)
+     */
+    public void addModel(Model model, INeighbor neighbor) {
+        addModel(model, neighbor, new FailCounter(model, 1000));
+    }
+
+    /**
+     * Adds a model whose LNS explores a neighbor picked from a portfolio, based on its rank <i>k</i>:
+     * propagation-guided, reverse propagation-guided and random neighborhoods in turn, seeded with <i>k</i>.
+     * Fragments are computed on the integer decision variables of the model.
+     *
+     * @param model a populated model, with an objective
+     * @see #addModel(Model, INeighbor, ICounter)
+     */
+    public void addModel(Model model) {
+        int k = workers.size();
+        Solver solver = model.getSolver();
+        IntVar[] vars;
+        if (solver.getSearch() != null && solver.getSearch().getVariables().length > 0) {
+            vars = Arrays.stream(solver.getSearch().getVariables())
+                    .filter(v -> (v.getTypeAndKind() & Variable.INT) != 0)
+                    .toArray(IntVar[]::new);
+        } else {
+            vars = model.retrieveIntVars(true);
+        }
+        INeighbor neighbor;
+        switch (k % 3) {
+            case 0:
+                neighbor = new PropagationGuidedNeighborhood(vars, 30, 10, k);
+                break;
+            case 1:
+                neighbor = new ReversePropagationGuidedNeighborhood(vars, 30, 10, k);
+                break;
+            default:
+                neighbor = new RandomNeighborhood(vars, 3, k);
+                break;
+        }
+        addModel(model, neighbor);
+    }
+
+    /**
+     * @return the (unmodifiable) list of models of this ParallelLNS
+     */
+    public List<Model> getModels() {
+        List<Model> models = new ArrayList<>(workers.size());
+        workers.forEach(w -> models.add(w.model));
+        return Collections.unmodifiableList(models);
+    }
+
+    /**
+     * Run the LNS of every model in parallel, until one of them stops.
+     *
+     * @return <code>true</code> if and only if at least one solution has been found so far
+     * @throws SolverException if no model has been added
+     */
+    public boolean solve() {
+        if (!isPrepared) {
+            prepare();
+        }
+        solverTerminated.set(false);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(workers.size());
+        try {
+            forkJoinPool.submit(() -> workers.parallelStream().forEach(w -> {
+                Solver solver = w.model.getSolver();
+                //noinspection StatementWithEmptyBody
+                while (!solverTerminated.get() && solver.solve()) ;
+                solverTerminated.set(true);
+            })).get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        forkJoinPool.shutdownNow();
+        solverTerminated.set(false);// otherwise, solver.isStopCriterionMet() always returns true
+        return incumbent.get() != null;
+    }
+
+    /**
+     * @return the best solution found by any model, recorded on the model which found it,
+     * or <tt>null</tt> if no solution has been found
+     */
+    public Solution getBestSolution() {
+        Incumbent best = incumbent.get();
+        return best == null ? null : best.solution;
+    }
+
+    /**
+     * @return the model which found the best solution, or <tt>null</tt> if no solution has been found
+     */
+    public Model getBestModel() {
+        Incumbent best = incumbent.get();
+        return best == null ? null : best.model;
+    }
+
+    /**
+     * @return the value of the objective in the best solution, or <tt>null</tt> if no solution has been found
+     */
+    public Integer getBestSolutionValue() {
+        Incumbent best = incumbent.get();
+        return best == null ? null : best.objective;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////   INTERNAL METHODS    //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void prepare() {
+        if (workers.isEmpty()) {
+            throw new SolverException("No model found in the ParallelLNS.");
+        }
+        int nbVars = workers.get(0).vars.length;
+        for (Worker w : workers) {
+            if (w.model.getResolutionPolicy() == ResolutionPolicy.SATISFACTION
+                    || w.model.getObjective() == null
+                    || (w.model.getObjective().getTypeAndKind() & Variable.INT) == 0) {
+                throw new SolverException("ParallelLNS requires an integer objective variable in each model.");
+            }
+            if (w.vars.length != nbVars) {
+                throw new SolverException("The models of a ParallelLNS have to be built in the same way.");
+            }
+            Solver solver = w.model.getSolver();
+            solver.addStopCriterion((Criterion) solverTerminated::get);
+            solver.plugMonitor(w);
+            solver.setMove(w);
+        }
+        isPrepared = true;
+    }
+
+    /**
+     * Publish <i>candidate</i> if it improves the current incumbent.
+     */
+    private void publish(Incumbent candidate) {
+        Incumbent current;
+        do {
+            current = incumbent.get();
+            if (current != null && !candidate.improves(current)) {
+                return;
+            }
+        } while (!incumbent.compareAndSet(current, candidate));
+    }
+
+    /**
+     * An immutable solution, shared by the workers.
+     */
+    private static final class Incumbent {
+        /** Value of the objective */
+        private final int objective;
+        /** Whether the objective is maximized */
+        private final boolean maximize;
+        /** Values of the integer variables, by index */
+        private final int[] values;
+        /** The model which found the solution, and the solution recorded on it */
+        private final Model model;
+        private final Solution solution;
+
+        private Incumbent(int objective, boolean maximize, int[] values, Model model) {
+            this.objective = objective;
+            this.maximize = maximize;
+            this.values = values;
+            this.model = model;
+            this.solution = new Solution(model).record();
+        }
+
+        private boolean improves(Incumbent other) {
+            return maximize ? objective > other.objective : objective < other.objective;
+        }
+    }
+
+    /**
+     * The LNS of a model, which publishes its solutions and imports the global best one on restarts.
+     */
+    private final class Worker extends MoveLNS implements IMonitorSolution {
+
+        private final Model model;
+        /** Integer variables, in the order of {@link Model#getVars()} */
+        private final IntVar[] vars;
+        /** Last incumbent seen by this worker */
+        private Incumbent seen;
+
+        private Worker(Model model, INeighbor neighbor, ICounter restartCounter) {
+            super(model.getSolver().getMove(), neighbor, restartCounter);
+            this.model = model;
+            this.vars = model.retrieveIntVars(true);
+        }
+
+        @Override
+        public void onSolution() {
+            int[] values = new int[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                values[i] = vars[i].getValue();
+            }
+            Incumbent candidate = new Incumbent(((IntVar) model.getObjective()).getValue(),
+                    model.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE,
+                    values, model);
+            publish(candidate);
+        }
+
+        @Override
+        public boolean extend(Solver solver) {
+            Incumbent best = incumbent.get();
+            // at restarts only, or before the first solution
+            if (best != null && best != seen && (solutions == 0 || solver.getDecisionPath().size() == 1)) {
+                seen = best;
+                Solution solution = new Solution(model, vars);
+                for (int i = 0; i < vars.length; i++) {
+                    solution.setIntVal(vars[i], best.values[i]);
+                }
+                solver.getObjectiveManager().updateBestSolution(best.objective);
+                if (solutions == 0) {
+                    // leave the complete search and start the LNS from the imported solution
+                    solver.restart();
+                    loadFromSolution(solution, solver);
+                } else {
+                    neighbor.loadFromSolution(solution);
+                }
+            }
+            return super.extend(solver);
+        }
+    }
+}
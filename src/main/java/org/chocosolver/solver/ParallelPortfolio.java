@@ -28,7 +28,9 @@ import org.chocosolver.cutoffseq.LubyCutoffStrategy;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.learn.ClauseExchange;
 import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.learn.LearnSignedClauses;
 import org.chocosolver.solver.search.loop.lns.INeighborFactory;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.search.strategy.Search;
@@ -127,6 +129,9 @@ public class ParallelPortfolio {
     /** Point to (one of) the solver(s) which found a solution */
     private Model finder;
 
+    /** Exchange of learnt clauses between models, null if clauses are not shared */
+    private ClauseExchange clauseExchange;
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ///////////////////////////////////////      CONSTRUCTOR      //////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -180,6 +185,20 @@ public class ParallelPortfolio {
         this.models.add(model);
     }
 
+    /**
+     * Share short learnt signed clauses between the models which learn signed clauses
+     * (see {@link Solver#setLearningSignedClauses()}).
+     * Each of these models publishes its short learnt clauses in <i>exchange</i> and imports, on each restart,
+     * the ones learnt by the other models.
+     * Variables are matched by their index in {@link Model#getVars()}, so the models have to be built in the same way.
+     * This method has to be called before the first call to {@link #solve()}.
+     *
+     * @param exchange the clause exchange to use, or <i>null</i> to not share clauses (default)
+     */
+    public void setClauseExchange(ClauseExchange exchange) {
+        this.clauseExchange = exchange;
+    }
+
     /**
      * Run the solve() instruction of every model of the portfolio in parallel.
      *
@@ -315,6 +334,11 @@ public class ParallelPortfolio {
             if(searchAutoConf){
                 configureModel(i);
             }
+            if(clauseExchange != null && s.getLearner() instanceof LearnSignedClauses){
+                ClauseExchange.Port port = clauseExchange.connect(s.getModel());
+                ((LearnSignedClauses<?>) s.getLearner()).setClauseExchange(port);
+                s.plugMonitor(port);
+            }
         }
     }
 
@@ -486,7 +510,7 @@ public class ParallelPortfolio {
             }
             if ((objective.getTypeAndKind() & Variable.REAL) != 0) {
                 for(Constraint c : models.get(0).getCstrs()){
-                    if(c instanceof RealConstraint){
+                    if(c instanceof RealConstraint && models.get(0).getSettings().enableIbex()){
                         throw new UnsupportedOperationException("" +
                                 "Ibex is not multithread safe, ParallelPortfolio cannot be used");
                     }
@@ -45,6 +45,8 @@ public interface Settings {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableWatchedLiteralsOnBoolSum(IntPredicate)}</li>
+     *    <li>{@link #setEnableIncrementalityOnAllDiffAC(IntPredicate)}</li>
      * </ul>
      * @param properties a property file to load setting from.
      * @return the current instance
@@ -84,6 +86,8 @@ public interface Settings {
                 "constraints.check", this.checkDeclaredConstraints()).toString()));
         this.setHybridizationOfPropagationEngine(Byte.valueOf(properties.getOrDefault(
                 "propagationEngine.hybridization", this.enableHybridizationOfPropagationEngine()).toString()));
+        this.setEnableAdaptivePropagation(Boolean.valueOf(properties.getOrDefault(
+                "propagationEngine.adaptive", this.enableAdaptivePropagation()).toString()));
         this.setNbMaxLearntClauses(Integer.valueOf(properties.getOrDefault(
                 "learnt.nbMax", this.getNbMaxLearntClauses()).toString()));
         this.setRatioForClauseStoreReduction(Float.valueOf(properties.getOrDefault(
@@ -92,8 +96,18 @@ public interface Settings {
                 "learnt.maxCard", this.getMaxLearntClauseCardinality()).toString()));
         this.setLearntClausesDominancePerimeter(Integer.valueOf(properties.getOrDefault(
                 "learnt.dominance", this.getLearntClausesDominancePerimeter()).toString()));
+        this.setLBDLimitForCoreClauses(Integer.valueOf(properties.getOrDefault(
+                "learnt.lbd.core", this.getLBDLimitForCoreClauses()).toString()));
+        this.setLBDLimitForTier2Clauses(Integer.valueOf(properties.getOrDefault(
+                "learnt.lbd.tier2", this.getLBDLimitForTier2Clauses()).toString()));
         this.explainGlobalFailureInSum(Boolean.valueOf(properties.getOrDefault(
                 "learnt.sum.global", this.explainGlobalFailureInSum()).toString()));
+        this.setEnableIbex(Boolean.valueOf(properties.getOrDefault(
+                "real.ibex", this.enableIbex()).toString()));
+        this.setEnableBoxConsistencyOnReals(Boolean.valueOf(properties.getOrDefault(
+                "real.box", this.enableBoxConsistencyOnReals()).toString()));
+        this.setMaxSizeForDenseSetVars(Integer.valueOf(properties.getOrDefault(
+                "setvar.dense.threshold", this.getMaxSizeForDenseSetVars()).toString()));
         return this;
     }
 
@@ -106,6 +120,8 @@ public interface Settings {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableWatchedLiteralsOnBoolSum(IntPredicate)}</li>
+     *    <li>{@link #setEnableIncrementalityOnAllDiffAC(IntPredicate)}</li>
      * </ul>
      * @param      inStream   the input stream.
      * @exception IOException  if an error occurred when reading from the
@@ -130,6 +146,8 @@ public interface Settings {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableWatchedLiteralsOnBoolSum(IntPredicate)}</li>
+     *    <li>{@link #setEnableIncrementalityOnAllDiffAC(IntPredicate)}</li>
      * </ul>
      * @exception IOException if writing this property list to the specified
      *             output stream throws an <tt>IOException</tt>.
@@ -155,11 +173,17 @@ public interface Settings {
         properties.setProperty("constraints.check", Boolean.toString(checkDeclaredConstraints()));
         properties.setProperty("constraints.check.printall", Boolean.toString(printAllUndeclaredConstraints()));
         properties.setProperty("propagationEngine.hybridization", Byte.toString(enableHybridizationOfPropagationEngine()));
+        properties.setProperty("propagationEngine.adaptive", Boolean.toString(enableAdaptivePropagation()));
         properties.setProperty("learnt.nbMax", Integer.toString(this.getNbMaxLearntClauses()));
         properties.setProperty("learnt.ratio", Float.toString(this.getRatioForClauseStoreReduction()));
         properties.setProperty("learnt.maxCard", Integer.toString(this.getMaxLearntClauseCardinality()));
         properties.setProperty("learnt.dominance", Integer.toString(this.getLearntClausesDominancePerimeter()));
+        properties.setProperty("learnt.lbd.core", Integer.toString(this.getLBDLimitForCoreClauses()));
+        properties.setProperty("learnt.lbd.tier2", Integer.toString(this.getLBDLimitForTier2Clauses()));
         properties.setProperty("learnt.sum.global", Boolean.toString(this.explainGlobalFailureInSum()));
+        properties.setProperty("real.ibex", Boolean.toString(this.enableIbex()));
+        properties.setProperty("real.box", Boolean.toString(this.enableBoxConsistencyOnReals()));
+        properties.setProperty("setvar.dense.threshold", Integer.toString(this.getMaxSizeForDenseSetVars()));
         return properties;
     }
 
@@ -172,6 +196,8 @@ public interface Settings {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableWatchedLiteralsOnBoolSum(IntPredicate)}</li>
+     *    <li>{@link #setEnableIncrementalityOnAllDiffAC(IntPredicate)}</li>
      * </ul>
      * @param   out      an output stream.
      * @param   comments   a description of the property list.
@@ -382,6 +408,38 @@ public interface Settings {
      */
     Settings setEnableIncrementalityOnBoolSum(IntPredicate enableIncrementalityOnBoolSum);
 
+    /**
+     * @param nbvars number of variables in the constraint
+     * @return {@code true} if a sum of boolean variables compared to a constant with LE or GE
+     * may be filtered with watched literals, based on the number of variables involved.
+     * @see org.chocosolver.solver.constraints.nary.sum.PropSumFullBoolWatch
+     */
+    boolean enableWatchedLiteralsOnBoolSum(int nbvars);
+
+    /**
+     * Define the predicate to choose watched literals on boolean sum, based on number variables declared.
+     * Watched literals are only used when at most half of the literals have to be watched.
+     * @param enableWatchedLiteralsOnBoolSum predicate to pick declare sum
+     * @return the current instance
+     */
+    Settings setEnableWatchedLiteralsOnBoolSum(IntPredicate enableWatchedLiteralsOnBoolSum);
+
+    /**
+     * @param nbvars number of variables in the constraint
+     * @return {@code true} if an alldifferent constraint with AC is filtered incrementally,
+     * based on the number of variables involved.
+     * @see org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffACIncr
+     */
+    boolean enableIncrementalityOnAllDiffAC(int nbvars);
+
+    /**
+     * Define the predicate to choose incremental AC filtering of alldifferent, based on number variables declared.
+     * It only applies to variables with enumerated domains.
+     * @param enableIncrementalityOnAllDiffAC predicate to pick incremental filtering
+     * @return the current instance
+     */
+    Settings setEnableIncrementalityOnAllDiffAC(IntPredicate enableIncrementalityOnAllDiffAC);
+
     /**
      * @return true if all propagators should clone the input variable array instead of simply referencing it.
      */
@@ -509,6 +567,21 @@ public interface Settings {
      */
     Settings setHybridizationOfPropagationEngine(byte hybrid);
 
+    /**
+     * @return <i>true</i> if the propagation engine measures the cost and the filtering yield of each propagator
+     * and defers the costly ones which rarely filter until the others reach a fix point.
+     * @see org.chocosolver.solver.propagation.PropagatorStatistics
+     */
+    boolean enableAdaptivePropagation();
+
+    /**
+     * Define whether the propagation engine adapts the scheduling of propagators to their
+     * measured cost and filtering yield.
+     * @param adaptive set to <i>true</i> to defer costly propagators which rarely filter
+     * @return the current instance
+     */
+    Settings setEnableAdaptivePropagation(boolean adaptive);
+
     /**
      * @return maximum number of learnt clauses to store. When reached, a reduction is applied.
      * @see #setNbMaxLearntClauses(int)
@@ -594,6 +667,43 @@ public interface Settings {
      */
     Settings setLearntClausesDominancePerimeter(int n);
 
+    /**
+     * Learnt clauses are managed in three tiers, based on their literal block distance (LBD),
+     * that is the number of distinct decision levels among their literals.
+     * Core clauses, whose LBD is less than or equal to this limit, are never removed when the store is reduced.
+     * @return the largest LBD of core clauses
+     * @see #getLBDLimitForTier2Clauses()
+     */
+    int getLBDLimitForCoreClauses();
+
+    /**
+     * Set the largest LBD of core learnt clauses, which are never removed when the store is reduced.
+     * A negative value means no core clauses.
+     * @param n largest LBD of core clauses
+     * @return the current instance
+     * @see #getLBDLimitForCoreClauses()
+     */
+    Settings setLBDLimitForCoreClauses(int n);
+
+    /**
+     * Tier-2 learnt clauses, whose LBD is less than or equal to this limit (but not core clauses),
+     * are kept on reduction as long as they take part in a conflict between two reductions,
+     * otherwise they are moved to local clauses.
+     * Local clauses are reduced based on their activity (see {@link #getRatioForClauseStoreReduction()}).
+     * @return the largest LBD of tier-2 clauses
+     * @see #getLBDLimitForCoreClauses()
+     */
+    int getLBDLimitForTier2Clauses();
+
+    /**
+     * Set the largest LBD of tier-2 learnt clauses.
+     * Setting both limits to a negative value restores a reduction purely based on activity.
+     * @param n largest LBD of tier-2 clauses
+     * @return the current instance
+     * @see #getLBDLimitForTier2Clauses()
+     */
+    Settings setLBDLimitForTier2Clauses(int n);
+
     /**
      * @return <i>true</i> if additional clauses can be learned from sum's global failure
      */
@@ -603,4 +713,51 @@ public interface Settings {
      * Set to <i>true</i> to allow additional clauses to be learned from sum's global failure
      */
     Settings explainGlobalFailureInSum(boolean b);
+
+    /**
+     * @return <i>true</i> (default value) if real constraints are propagated by Ibex,
+     * <i>false</i> if they are propagated by {@link org.chocosolver.solver.constraints.real.HC4},
+     * an interval contractor running in the JVM.
+     */
+    boolean enableIbex();
+
+    /**
+     * Define which backend propagates real constraints.
+     * This has to be set before real constraints are created.
+     * @param ibex set to <i>true</i> to rely on Ibex (native library),
+     *             set to <i>false</i> to rely on {@link org.chocosolver.solver.constraints.real.HC4}
+     * @return the current instance
+     */
+    Settings setEnableIbex(boolean ibex);
+
+    /**
+     * @return <i>true</i> if real constraints propagated by {@link org.chocosolver.solver.constraints.real.HC4}
+     * also shave the bounds of real variables (box consistency), <i>false</i> (default value) otherwise.
+     */
+    boolean enableBoxConsistencyOnReals();
+
+    /**
+     * Define whether real constraints propagated by {@link org.chocosolver.solver.constraints.real.HC4}
+     * also shave the bounds of real variables (box consistency), which is stronger but more costly than HC4 alone.
+     * Ignored when {@link #enableIbex()} returns <i>true</i>.
+     * @param box set to <i>true</i> to enable box consistency
+     * @return the current instance
+     */
+    Settings setEnableBoxConsistencyOnReals(boolean box);
+
+    /**
+     * @return maximum span of the envelope of a set variable for its kernel and envelope to be stored as dense bitsets
+     * over a fixed universe, which enables word-parallel filtering in set propagators.
+     */
+    int getMaxSizeForDenseSetVars();
+
+    /**
+     * Define the maximum span (maximum value - minimum value + 1) of the initial envelope of a set variable
+     * for its kernel and envelope to be stored as dense reversible bitsets
+     * (see {@link org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_DenseBitSet}).
+     * Union, intersection, subset and disjointness constraints over such variables filter 64 elements at once.
+     * @param maxSizeForDenseSetVars maximum span of a dense set variable, 0 disables dense set variables
+     * @return the current instance
+     */
+    Settings setMaxSizeForDenseSetVars(int maxSizeForDenseSetVars);
 }
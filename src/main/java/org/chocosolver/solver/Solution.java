@@ -9,8 +9,6 @@
  */
 package org.chocosolver.solver;
 
-import gnu.trove.map.hash.TIntIntHashMap;
-import gnu.trove.map.hash.TIntObjectHashMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +24,9 @@ import org.chocosolver.solver.variables.Variable;
 
 /**
  * Class which stores the value of each variable in a solution <br/>
+ * Variables are mapped to positions once, then values are recorded in dense arrays,
+ * so that recording a solution does not allocate and reading a value takes constant time.
+ * <br/>
  *
  * @author Jean-Guillaume Fages
  * @author Charles Prud'homme
@@ -38,9 +39,9 @@ public class Solution implements ICause {
     //***********************************************************************************
 
     /**
-     * No entry value for maps
+     * Initial number of slots when variables are added on the fly
      */
-    private static final int NO_ENTRY = Integer.MAX_VALUE;
+    private static final int INIT_SIZE = 16;
 
     // SOLUTION
     /**
@@ -48,17 +49,50 @@ public class Solution implements ICause {
      */
     private boolean empty;
     /**
-     * Maps of value for integer variable (id - value)
+     * Position of each stored variable (indexed by variable id) in the following arrays, or -1 if it is not stored.
+     * Positions are set once, when the first solution is recorded or when a value is set.
      */
-    private TIntIntHashMap intmap;
+    private int[] positions;
     /**
-     * Maps of value for real variable (id - value)
+     * Stored variables, by position
      */
-    private TIntObjectHashMap<double[]> realmap;
+    private Variable[] slots;
     /**
-     * Maps of value for set variable (id - values)
+     * Number of positions in use
      */
-    private TIntObjectHashMap<int[]> setmap;
+    private int size;
+    /**
+     * A value is recorded at a position if and only if its stamp is equal to {@link #stamp}
+     */
+    private int[] stamps;
+    /**
+     * Stamp of the current record, incremented on each call to {@link #record()} instead of clearing values
+     */
+    private int stamp = 1;
+    /**
+     * Values of integer variables, by position
+     */
+    private int[] ivals;
+    /**
+     * Bounds of real variables, in position <i>2p</i> and <i>2p+1</i>, allocated on the first real variable
+     */
+    private double[] rvals;
+    /**
+     * Values of set variables, packed in a unique array, allocated on the first set variable
+     */
+    private int[] svals;
+    /**
+     * For each position, offset of the values of a set variable in {@link #svals}
+     */
+    private int[] soffsets;
+    /**
+     * For each position, number of values of a set variable
+     */
+    private int[] slengths;
+    /**
+     * Number of values in use in {@link #svals}
+     */
+    private int stail;
 
     // INPUT
     /**
@@ -93,6 +127,98 @@ public class Solution implements ICause {
     // METHODS
     //***********************************************************************************
 
+    /**
+     * Map variables to store to positions, once.
+     */
+    private void init() {
+        if (slots == null) {
+            if (varsToStore.length == 0) {
+                varsToStore = model.getVars();
+            }
+            slots = new Variable[Math.max(varsToStore.length, INIT_SIZE)];
+            stamps = new int[slots.length];
+            ivals = new int[slots.length];
+            positions = new int[0];
+            for (Variable var : varsToStore) {
+                positionOf(var);
+            }
+        }
+    }
+
+    /**
+     * @param var a variable
+     * @return the position of <i>var</i> in this solution, or -1 if it is not stored
+     */
+    private int lookup(Variable var) {
+        int id = var.getId();
+        return positions != null && id < positions.length ? positions[id] : -1;
+    }
+
+    /**
+     * @param var a variable
+     * @return the position of <i>var</i> in this solution, added if needed
+     */
+    private int positionOf(Variable var) {
+        int p = lookup(var);
+        if (p == -1) {
+            int id = var.getId();
+            if (id >= positions.length) {
+                int n = positions.length;
+                positions = Arrays.copyOf(positions, Math.max(id + 1, n * 3 / 2 + 1));
+                Arrays.fill(positions, n, positions.length, -1);
+            }
+            if (size == slots.length) {
+                int n = size * 3 / 2 + 1;
+                slots = Arrays.copyOf(slots, n);
+                stamps = Arrays.copyOf(stamps, n);
+                ivals = Arrays.copyOf(ivals, n);
+                if (rvals != null) {
+                    rvals = Arrays.copyOf(rvals, 2 * n);
+                }
+                if (soffsets != null) {
+                    soffsets = Arrays.copyOf(soffsets, n);
+                    slengths = Arrays.copyOf(slengths, n);
+                }
+            }
+            p = size++;
+            slots[p] = var;
+            positions[id] = p;
+        }
+        return p;
+    }
+
+    private void putReal(int p, double lb, double ub) {
+        if (rvals == null) {
+            rvals = new double[2 * slots.length];
+        }
+        rvals[2 * p] = lb;
+        rvals[2 * p + 1] = ub;
+        stamps[p] = stamp;
+    }
+
+    private void putSet(int p, int length) {
+        if (svals == null) {
+            svals = new int[INIT_SIZE];
+            soffsets = new int[slots.length];
+            slengths = new int[slots.length];
+        }
+        if (stail + length > svals.length) {
+            svals = Arrays.copyOf(svals, Math.max(stail + length, svals.length * 3 / 2 + 1));
+        }
+        soffsets[p] = stail;
+        slengths[p] = length;
+        stail += length;
+        stamps[p] = stamp;
+    }
+
+    /**
+     * @param p a position
+     * @return <i>true</i> if a value is recorded at position <i>p</i>
+     */
+    private boolean isSet(int p) {
+        return p > -1 && stamps[p] == stamp;
+    }
+
     /**
      * Records the current solution of the solver clears all previous recordings
      *
@@ -101,46 +227,33 @@ public class Solution implements ICause {
     public Solution record() {
         empty = false;
         boolean warn = false;
-        if (varsToStore.length == 0) {
-            varsToStore = model.getVars();
-        }
+        init();
         assert varsToStore.length > 0;
-        if (intmap != null) {
-            intmap.clear();
-        }
-        if (realmap != null) {
-            realmap.clear();
-        }
-        if (setmap != null) {
-            setmap.clear();
-        }
+        // forget previous values
+        stamp++;
+        stail = 0;
         for (Variable var : varsToStore) {
             if ((var.getTypeAndKind() & Variable.TYPE) != Variable.CSTE) {
                 int kind = var.getTypeAndKind() & Variable.KIND;
                 if (var.isInstantiated()) {
+                    int p = positionOf(var);
                     switch (kind) {
                         case Variable.INT:
                         case Variable.BOOL:
-                            if (intmap == null) {
-                                intmap = new TIntIntHashMap(16, .5f, Solution.NO_ENTRY,
-                                    Solution.NO_ENTRY);
-                            }
-                            IntVar v = (IntVar) var;
-                            intmap.put(v.getId(), v.getValue());
+                            ivals[p] = ((IntVar) var).getValue();
+                            stamps[p] = stamp;
                             break;
                         case Variable.REAL:
-                            if (realmap == null) {
-                                realmap = new TIntObjectHashMap<>(16, 05f, Solution.NO_ENTRY);
-                            }
                             RealVar r = (RealVar) var;
-                            realmap.put(r.getId(), new double[]{r.getLB(), r.getUB()});
+                            putReal(p, r.getLB(), r.getUB());
                             break;
                         case Variable.SET:
-                            if (setmap == null) {
-                                setmap = new TIntObjectHashMap<>(16, 05f, Solution.NO_ENTRY);
-                            }
                             SetVar s = (SetVar) var;
-                            setmap.put(s.getId(), s.getValue().toArray());
+                            int from = stail;
+                            putSet(p, s.getValue().size());
+                            for (int v : s.getValue()) {
+                                svals[from++] = v;
+                            }
                             break;
                         default:
                             // do not throw exception to allow extending the solver with other variable kinds (e.g. graph)
@@ -167,24 +280,24 @@ public class Solution implements ICause {
         StringBuilder st = new StringBuilder("Solution: ");
         for (Variable var : varsToStore) {
             if ((var.getTypeAndKind() & Variable.TYPE) != Variable.CSTE) {
+                int p = lookup(var);
+                if (!isSet(p)) {
+                    continue;
+                }
                 int kind = var.getTypeAndKind() & Variable.KIND;
                 switch (kind) {
                     case Variable.INT:
                     case Variable.BOOL:
-                        IntVar v = (IntVar) var;
-                        st.append(v.getName()).append("=").append(intmap.get(v.getId()))
+                        st.append(var.getName()).append("=").append(ivals[p])
                             .append(", ");
                         break;
                     case Variable.REAL:
-                        RealVar r = (RealVar) var;
-                        double[] bounds = realmap.get(r.getId());
-                        st.append(r.getName()).append("=[").append(bounds[0]).append(",")
-                            .append(bounds[1]).append("], ");
+                        st.append(var.getName()).append("=[").append(rvals[2 * p]).append(",")
+                            .append(rvals[2 * p + 1]).append("], ");
                         break;
                     case Variable.SET:
-                        SetVar s = (SetVar) var;
-                        st.append(s.getName()).append("=")
-                            .append(Arrays.toString(setmap.get(s.getId()))).append(", ");
+                        st.append(var.getName()).append("=")
+                            .append(Arrays.toString(getSetVal((SetVar) var))).append(", ");
                         break;
                     default:
                         // do not throw exception to allow extending the solver with other variable kinds (e.g. graph)
@@ -199,14 +312,22 @@ public class Solution implements ICause {
     public Solution copySolution() {
         Solution ret = new Solution(model, varsToStore);
         ret.empty = empty;
-        if (intmap != null) {
-            ret.intmap = new TIntIntHashMap(intmap);
-        }
-        if (realmap != null) {
-            ret.realmap = new TIntObjectHashMap<>(realmap);
-        }
-        if (setmap != null) {
-            ret.setmap = new TIntObjectHashMap<>(setmap);
+        if (slots != null) {
+            ret.positions = positions.clone();
+            ret.slots = slots.clone();
+            ret.size = size;
+            ret.stamps = stamps.clone();
+            ret.stamp = stamp;
+            ret.ivals = ivals.clone();
+            if (rvals != null) {
+                ret.rvals = rvals.clone();
+            }
+            if (svals != null) {
+                ret.svals = svals.clone();
+                ret.soffsets = soffsets.clone();
+                ret.slengths = slengths.clone();
+                ret.stail = stail;
+            }
         }
         return ret;
     }
@@ -225,8 +346,9 @@ public class Solution implements ICause {
             throw new SolverException("Cannot access value of " + v
                 + ": No solution has been recorded yet (empty solution). Make sure this.record() has been called.");
         }
-        if (intmap != null && intmap.containsKey(v.getId())) {
-            return intmap.get(v.getId());
+        int p = lookup(v);
+        if (isSet(p)) {
+            return ivals[p];
         } else {
             if ((v.getTypeAndKind() & Variable.TYPE) == Variable.CSTE) {
                 return v.getValue();
@@ -245,10 +367,10 @@ public class Solution implements ICause {
      */
     public void setIntVal(IntVar var, int val) {
         empty = false;
-        if (intmap == null) {
-            intmap = new TIntIntHashMap(16, .5f, Solution.NO_ENTRY, Solution.NO_ENTRY);
-        }
-        intmap.put(var.getId(), val);
+        init();
+        int p = positionOf(var);
+        ivals[p] = val;
+        stamps[p] = stamp;
     }
 
     /**
@@ -265,8 +387,9 @@ public class Solution implements ICause {
             throw new SolverException("Cannot access value of " + s
                 + ": No solution has been recorded yet (empty solution). Make sure this.record() has been called.");
         }
-        if (setmap != null && setmap.containsKey(s.getId())) {
-            return setmap.get(s.getId());
+        int p = lookup(s);
+        if (isSet(p)) {
+            return Arrays.copyOfRange(svals, soffsets[p], soffsets[p] + slengths[p]);
         } else if ((s.getTypeAndKind() & Variable.TYPE) == Variable.CSTE) {
             return s.getValue().toArray();
         } else {
@@ -283,10 +406,10 @@ public class Solution implements ICause {
      */
     public void setSetVal(SetVar var, int[] val) {
         empty = false;
-        if (setmap == null) {
-            setmap = new TIntObjectHashMap<>(16, 05f, Solution.NO_ENTRY);
-        }
-        setmap.put(var.getId(), val);
+        init();
+        int p = positionOf(var);
+        putSet(p, val.length);
+        System.arraycopy(val, 0, svals, soffsets[p], val.length);
     }
 
     /**
@@ -303,8 +426,9 @@ public class Solution implements ICause {
             throw new SolverException("Cannot access value of " + r
                 + ": No solution has been recorded yet (empty solution). Make sure this.record() has been called.");
         }
-        if (realmap != null && realmap.containsKey(r.getId())) {
-            return realmap.get(r.getId());
+        int p = lookup(r);
+        if (isSet(p)) {
+            return new double[]{rvals[2 * p], rvals[2 * p + 1]};
         } else {
             if ((r.getTypeAndKind() & Variable.TYPE) == Variable.CSTE) {
                 return new double[]{r.getLB(), r.getUB()};
@@ -323,13 +447,11 @@ public class Solution implements ICause {
      */
     public void setRealBounds(RealVar var, double[] val) {
         empty = false;
-        if (realmap == null) {
-            realmap = new TIntObjectHashMap<>(16, 05f, Solution.NO_ENTRY);
-        }
         if (val.length != 2) {
             throw new SolverException("wrong array size");
         }
-        realmap.put(var.getId(), val);
+        init();
+        putReal(positionOf(var), val[0], val[1]);
     }
 
     /**
@@ -383,16 +505,16 @@ public class Solution implements ICause {
                     case Variable.INT:
                     case Variable.BOOL:
                         IntVar v = (IntVar) var;
-                        v.instantiateTo(intmap.get(v.getId()), this);
+                        v.instantiateTo(getIntVal(v), this);
                         break;
                     case Variable.REAL:
                         RealVar r = (RealVar) var;
-                        double[] bounds = realmap.get(r.getId());
+                        double[] bounds = getRealBounds(r);
                         r.updateBounds(bounds[0], bounds[1], this);
                         break;
                     case Variable.SET:
                         SetVar s = (SetVar) var;
-                        s.instantiateTo(setmap.get(s.getId()), this);
+                        s.instantiateTo(getSetVal(s), this);
                         break;
                     default:
                         // do not throw exception to allow extending the solver with other variable kinds (e.g. graph)
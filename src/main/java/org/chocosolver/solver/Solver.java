@@ -1131,6 +1131,36 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         return getMeasures().getFailCount();
     }
 
+    @Override
+    public long getLearntClauseCount() {
+        return getMeasures().getLearntClauseCount();
+    }
+
+    @Override
+    public long getDeletedClauseCount() {
+        return getMeasures().getDeletedClauseCount();
+    }
+
+    @Override
+    public long getClauseDatabaseReductionCount() {
+        return getMeasures().getClauseDatabaseReductionCount();
+    }
+
+    @Override
+    public long getCoreClauseCount() {
+        return getMeasures().getCoreClauseCount();
+    }
+
+    @Override
+    public long getTier2ClauseCount() {
+        return getMeasures().getTier2ClauseCount();
+    }
+
+    @Override
+    public long getLocalClauseCount() {
+        return getMeasures().getLocalClauseCount();
+    }
+
     @Override
     public long getFixpointCount() {
         return getMeasures().getFixpointCount();
@@ -42,6 +42,7 @@ import org.chocosolver.solver.constraints.nary.count.PropCountVar;
 import org.chocosolver.solver.constraints.nary.count.PropCount_AC;
 import org.chocosolver.solver.constraints.nary.cumulative.CumulFilter;
 import org.chocosolver.solver.constraints.nary.cumulative.Cumulative;
+import org.chocosolver.solver.constraints.nary.cumulative.PropDisjunctive;
 import org.chocosolver.solver.constraints.nary.element.PropElementV_fast;
 import org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality;
 import org.chocosolver.solver.constraints.nary.lex.PropLex;
@@ -1247,6 +1248,27 @@ public interface IIntConstraintFactory extends ISelf<Model> {
         }
     }
 
+    /**
+     * Creates a disjunctive constraint (unary resource): enforces that tasks of positive duration do not overlap.
+     * <p>
+     * The filtering combines overload checking, detectable precedences, not-first/not-last and edge-finding,
+     * in O(n log n) each, and is stronger and faster than a cumulative constraint with a capacity of 1.
+     *
+     * @param tasks Task objects containing start, duration and end variables
+     * @return a disjunctive constraint
+     */
+    default Constraint disjunctive(Task[] tasks) {
+        IntVar[] s = new IntVar[tasks.length];
+        IntVar[] d = new IntVar[tasks.length];
+        IntVar[] e = new IntVar[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            s[i] = tasks[i].getStart();
+            d[i] = tasks[i].getDuration();
+            e[i] = tasks[i].getEnd();
+        }
+        return new Constraint(ConstraintsName.DISJUNCTIVE, new PropDisjunctive(s, d, e));
+    }
+
     /**
      * Creates a element constraint: value = table[index-offset]
      * where table is an array of variables.
@@ -1564,12 +1586,41 @@ public interface IIntConstraintFactory extends ISelf<Model> {
     /**
      * Create a constraint where solutions (tuples) are encoded by a multi-valued decision diagram.
      * The order of the variables in vars is important and must refer to the MDD.
+     * The MDD can be built from tuples, from an automaton or from a stream of tuples,
+     * and several MDDs can be merged (see {@link MultivaluedDecisionDiagram}).
      *
      * @param vars the array of variables
      * @param MDD  the multi-valued decision diagram encoding solutions
      */
     default Constraint mddc(IntVar[] vars, MultivaluedDecisionDiagram MDD) {
-        return new Constraint(ConstraintsName.MDDC, new PropLargeMDDC(MDD, vars));
+        return mddc(vars, MDD, "MDDC");
+    }
+
+    /**
+     * Create a constraint where solutions (tuples) are encoded by a multi-valued decision diagram,
+     * with the specified algorithm algo
+     * <p>
+     * - <b>MDDC</b> (default): searches depth-first the MDD for supports of the values at each propagation,
+     * <br/>
+     * - <b>MDD4R</b>: maintains the nodes and arcs of the MDD which remain, and removes them incrementally (MDD-4R).
+     *
+     * @param vars the array of variables
+     * @param MDD  the multi-valued decision diagram encoding solutions
+     * @param algo to choose among {"MDDC", "MDD4R"}
+     */
+    default Constraint mddc(IntVar[] vars, MultivaluedDecisionDiagram MDD, String algo) {
+        Propagator<IntVar> p;
+        switch (algo) {
+            case "MDDC":
+                p = new PropLargeMDDC(MDD, vars);
+                break;
+            case "MDD4R":
+                p = new PropMDD4R(MDD, vars);
+                break;
+            default:
+                throw new SolverException("MDD algorithm " + algo + " is unkown");
+        }
+        return new Constraint(ConstraintsName.MDDC, p);
     }
 
     /**
@@ -2075,6 +2126,9 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * - <b>FC</b>: Forward Checking.
      * <br/>
      * - <b>MDD+</b>: uses a multi-valued decision diagram for allowed tuples (see mddc constraint),
+     * <br/>
+     * - <b>MDD4R+</b>: uses a multi-valued decision diagram for allowed tuples, maintained incrementally
+     * (see mddc constraint with "MDD4R"),
      *
      * @param vars      variables forming the tuples
      * @param tuples    the relation between the variables (list of allowed/forbidden tuples). Should not be modified once passed to the constraint.
@@ -2112,6 +2166,9 @@ public interface IIntConstraintFactory extends ISelf<Model> {
             case "MDD+":
                 p = new PropLargeMDDC(new MultivaluedDecisionDiagram(vars, tuples), vars);
                 break;
+            case "MDD4R+":
+                p = new PropMDD4R(new MultivaluedDecisionDiagram(vars, tuples), vars);
+                break;
             case "FC":
                 p = new PropLargeFC(vars, tuples);
                 break;
@@ -902,12 +902,21 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
      * @return propagator priority
      */
     public int doSchedule(CircularQueue<Propagator>[] queues){
-        int prio = priority.priority;
+        return doSchedule(queues, priority.priority);
+    }
+
+    /**
+     * Apply scheduling instruction, in a queue which may differ from the one of its priority
+     * @param queues array of queues in which this can be scheduled
+     * @param queue index of the queue to use
+     * @return <i>queue</i>
+     */
+    public int doSchedule(CircularQueue<Propagator>[] queues, int queue){
         if(!scheduled) {
-            queues[prio].addLast(this);
+            queues[queue].addLast(this);
             schedule();
         }
-        return prio;
+        return queue;
     }
 
     public void doScheduleEvent(int pindice, int mask){
@@ -19,7 +19,7 @@ import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 
 /**
  * | X - Y | op C <br/> op = {"==", "<", ">", "=/="} <br/>
@@ -106,7 +106,7 @@ public class PropDistanceXYC extends Propagator<IntVar> {
                 } else {
                     if (IntEventType.isRemove(mask) && vars[varIdx].hasEnumeratedDomain()) {
                         idms[varIdx].freeze();
-                        idms[varIdx].forEachRemVal(remproc.set(varIdx));
+                        idms[varIdx].forEachRemVal(remproc, varIdx);
                         idms[varIdx].unfreeze();
                     }
                     if (IntEventType.isInclow(mask)) {
@@ -339,7 +339,7 @@ public class PropDistanceXYC extends Propagator<IntVar> {
         }
     }
 
-    private static class RemProc implements UnaryIntProcedure<Integer> {
+    private static class RemProc implements IndexedIntProcedure {
 
         private int idx;
         private final PropDistanceXYC p;
@@ -349,8 +349,8 @@ public class PropDistanceXYC extends Propagator<IntVar> {
         }
 
         @Override
-        public UnaryIntProcedure set(Integer integer) {
-            this.idx = integer;
+        public IndexedIntProcedure set(int idxVar) {
+            this.idx = idxVar;
             return this;
         }
 
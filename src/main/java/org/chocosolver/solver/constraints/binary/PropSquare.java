@@ -17,7 +17,7 @@ import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
 /**
@@ -68,7 +68,7 @@ public class PropSquare extends Propagator<IntVar> {
                 updateHolesinY();
             } else {
                 idms[varIdx].freeze();
-                idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
+                idms[varIdx].forEachRemVal(rem_proc, varIdx);
                 idms[varIdx].unfreeze();
 //                updateHolesinY();
             }
@@ -83,7 +83,7 @@ public class PropSquare extends Propagator<IntVar> {
                 updateHolesinX();
             } else {
                 idms[varIdx].freeze();
-                idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
+                idms[varIdx].forEachRemVal(rem_proc, varIdx);
                 idms[varIdx].unfreeze();
 //                updateHolesinX();
             }
@@ -232,7 +232,7 @@ public class PropSquare extends Propagator<IntVar> {
         vars[1].removeValue(-ceil_sqrt(remVal), this);
     }
 
-    private static class RemProc implements UnaryIntProcedure<Integer> {
+    private static class RemProc implements IndexedIntProcedure {
 
         private final PropSquare p;
         private int idxVar;
@@ -242,7 +242,7 @@ public class PropSquare extends Propagator<IntVar> {
         }
 
         @Override
-        public UnaryIntProcedure set(Integer idxVar) {
+        public IndexedIntProcedure set(int idxVar) {
             this.idxVar = idxVar;
             return this;
         }
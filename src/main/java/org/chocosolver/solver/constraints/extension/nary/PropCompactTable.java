@@ -9,9 +9,6 @@
  */
 package org.chocosolver.solver.constraints.extension.nary;
 
-import org.chocosolver.memory.IEnvironment;
-import org.chocosolver.memory.IStateInt;
-import org.chocosolver.memory.IStateLong;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.extension.Tuples;
@@ -20,7 +17,7 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 
 /**
  * Propagator for table constraint based on "Compact-Table: Efficiently Filtering Table Constraints
@@ -42,7 +39,7 @@ public class PropCompactTable extends Propagator<IntVar> {
     int[][] residues;
     protected int[] offset;
     protected IIntDeltaMonitor[] monitors;
-    private UnaryIntProcedure<Integer> onValRem;
+    private IndexedIntProcedure onValRem;
 
     //***********************************************************************************
     // CONSTRUCTOR
@@ -70,13 +67,13 @@ public class PropCompactTable extends Propagator<IntVar> {
     // INITIALIZATION
     //***********************************************************************************
 
-    protected UnaryIntProcedure<Integer> makeProcedure() {
-        return new UnaryIntProcedure<Integer>() {
+    protected IndexedIntProcedure makeProcedure() {
+        return new IndexedIntProcedure() {
             int var, off;
 
             @Override
-            public UnaryIntProcedure set(Integer o) {
-                var = o;
+            public IndexedIntProcedure set(int idxVar) {
+                var = idxVar;
                 off = offset[var];
                 return this;
             }
@@ -98,7 +95,7 @@ public class PropCompactTable extends Propagator<IntVar> {
             int lb = vars[i].getLB();
             int ub = vars[i].getUB();
             offset[i] = lb;
-            supports[i] = new long[ub - lb + 1][currTable.words.length];
+            supports[i] = new long[ub - lb + 1][currTable.nbWords()];
             residues[i] = new int[ub - lb + 1];
         }
         int wI = 0;
@@ -149,7 +146,7 @@ public class PropCompactTable extends Propagator<IntVar> {
         currTable.clearMask();
         monitors[vIdx].freeze();
         if (vars[vIdx].getDomainSize() > monitors[vIdx].sizeApproximation()) {
-            monitors[vIdx].forEachRemVal(onValRem.set(vIdx));
+            monitors[vIdx].forEachRemVal(onValRem, vIdx);
             currTable.reverseMask();
         } else {
             int ub = vars[vIdx].getUB();
@@ -183,7 +180,7 @@ public class PropCompactTable extends Propagator<IntVar> {
         int ub = vars[i].getUB();
         for (int v = lb; v <= ub; v++) {
             int index = residues[i][v - offset[i]];
-            if ((currTable.words[index].get() & supports[i][v - offset[i]][index]) == 0L) {
+            if ((currTable.getWord(index) & supports[i][v - offset[i]][index]) == 0L) {
                 index = currTable.intersectIndex(supports[i][v - offset[i]]);
                 if (index == -1) {
                     lb++;
@@ -198,7 +195,7 @@ public class PropCompactTable extends Propagator<IntVar> {
         vars[i].updateLowerBound(lb, this);
         for (int v = ub; v >= ub; v--) {
             int index = residues[i][v - offset[i]];
-            if ((currTable.words[index].get() & supports[i][v - offset[i]][index]) == 0L) {
+            if ((currTable.getWord(index) & supports[i][v - offset[i]][index]) == 0L) {
                 index = currTable.intersectIndex(supports[i][v - offset[i]]);
                 if (index == -1) {
                     ub--;
@@ -217,7 +214,7 @@ public class PropCompactTable extends Propagator<IntVar> {
         int ub = vars[i].getUB();
         for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
             int index = residues[i][v - offset[i]];
-            if ((currTable.words[index].get() & supports[i][v - offset[i]][index]) == 0L) {
+            if ((currTable.getWord(index) & supports[i][v - offset[i]][index]) == 0L) {
                 index = currTable.intersectIndex(supports[i][v - offset[i]]);
                 if (index == -1) {
                     vars[i].removeValue(v, this);
@@ -233,78 +230,4 @@ public class PropCompactTable extends Propagator<IntVar> {
         // TODO optim : check current according to currTable?
         return tuples.check(vars);
     }
-
-//***********************************************************************************
-// RSparseBitSet
-//***********************************************************************************
-
-    protected class RSparseBitSet {
-        protected IStateLong[] words;
-        private int[] index;
-        private IStateInt limit;
-        private long[] mask;
-
-        protected RSparseBitSet(IEnvironment environment, int nbBits) {
-            int nw = nbBits / 64;
-            if (nw * 64 < nbBits) nw++;
-            index = new int[nw];
-            mask = new long[nw];
-            limit = environment.makeInt(nw - 1);
-            words = new IStateLong[nw];
-            for (int i = 0; i < nw; i++) {
-                index[i] = i;
-                words[i] = environment.makeLong(-1L);
-            }
-        }
-
-        private boolean isEmpty() {
-            return limit.get() == -1;
-        }
-
-        protected void clearMask() {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                mask[offset] = 0L;
-            }
-        }
-
-        protected void reverseMask() {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                mask[offset] = ~mask[offset];
-            }
-        }
-
-        protected void addToMask(long[] wordsToAdd) {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                mask[offset] = mask[offset] | wordsToAdd[offset];
-            }
-        }
-
-        private void intersectWithMask() {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                long w = words[offset].get() & mask[offset];
-                if (words[offset].get() != w) {
-                    words[offset].set(w);
-                    if (w == 0L) {
-                        index[i] = index[limit.get()];
-                        index[limit.get()] = offset;
-                        limit.add(-1);
-                    }
-                }
-            }
-        }
-
-        private int intersectIndex(long[] m) {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                if ((words[offset].get() & m[offset]) != 0L) {
-                    return offset;
-                }
-            }
-            return -1;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -12,7 +12,7 @@ package org.chocosolver.solver.constraints.extension.nary;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 
 /**
  * Propagator for table constraint based on
@@ -51,13 +51,13 @@ public class PropCompactTableStar extends PropCompactTable {
     // INITIALIZATION
     //***********************************************************************************
 
-    protected UnaryIntProcedure<Integer> makeProcedure() {
-        return new UnaryIntProcedure<Integer>() {
+    protected IndexedIntProcedure makeProcedure() {
+        return new IndexedIntProcedure() {
             int var, off;
 
             @Override
-            public UnaryIntProcedure set(Integer o) {
-                var = o;
+            public IndexedIntProcedure set(int idxVar) {
+                var = idxVar;
                 off = offset[var];
                 return this;
             }
@@ -80,8 +80,8 @@ public class PropCompactTableStar extends PropCompactTable {
             int lb = vars[i].getLB();
             int ub = vars[i].getUB();
             offset[i] = lb;
-            supports[i] = new long[ub - lb + 1][currTable.words.length];
-            inc_supports[i] = new long[ub - lb + 1][currTable.words.length];
+            supports[i] = new long[ub - lb + 1][currTable.nbWords()];
+            inc_supports[i] = new long[ub - lb + 1][currTable.nbWords()];
             residues[i] = new int[ub - lb + 1];
         }
         int wI = 0;
@@ -0,0 +1,216 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Implementation based on "Improving GAC-4 for Table and MDD Constraints", Perez and Régin, CP14 (MDD-4R).
+ * <p>
+ * The MDD, restricted to the current domains of the variables, is copied into a {@link LayeredGraph}
+ * which stores the remaining nodes of each layer, and the remaining arcs of each node and of each value,
+ * in reversible sparse sets.
+ * Removed values are read from the deltas of the variables, their arcs are then removed together,
+ * as well as the nodes, arcs and values which lose their last support.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class PropMDD4R extends Propagator<IntVar> {
+
+    private final MultivaluedDecisionDiagram MDD;
+    private final LayeredGraph graph;
+    private final RemProc rem_proc;
+    private final IIntDeltaMonitor[] idms;
+
+    /**
+     * Create a propagator maintaining GAC based on a MDD.
+     * The MDD can be shared between multiple propagators, no copy is achieved.
+     *
+     * @param MDD  Multi-valued Decision Diagram, stores the solutions
+     * @param VARS the related variables -- the order is important, and need to match the MDD.
+     */
+    public PropMDD4R(MultivaluedDecisionDiagram MDD, IntVar... VARS) {
+        super(VARS, PropagatorPriority.LINEAR, true);
+        this.MDD = MDD;
+        this.idms = new IIntDeltaMonitor[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            idms[i] = vars[i].monitorDelta(this);
+        }
+        this.rem_proc = new RemProc(this);
+        this.graph = makeGraph(MDD, vars);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        assert evtmask == PropagatorEventType.FULL_PROPAGATION.getMask();
+        for (int i = 0; i < idms.length; i++) {
+            idms[i].freeze(); // as the graph was build on initial domain, this is allowed (specific case)
+            idms[i].forEachRemVal(rem_proc, i);
+            graph.removeValues(i, this);
+            for (int j = vars[i].getLB(); j <= vars[i].getUB(); j = vars[i].nextValue(j)) {
+                if (!graph.hasSupport(i, j)) {
+                    vars[i].removeValue(j, this);
+                }
+            }
+            idms[i].unfreeze();
+        }
+    }
+
+    @Override
+    public void propagate(int varIdx, int mask) throws ContradictionException {
+        idms[varIdx].freeze();
+        idms[varIdx].forEachRemVal(rem_proc, varIdx);
+        graph.removeValues(varIdx, this);
+        idms[varIdx].unfreeze();
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            int[] tuple = new int[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                tuple[i] = vars[i].getValue();
+            }
+            return ESat.eval(MDD.exists(tuple));
+        }
+        return ESat.UNDEFINED;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class RemProc implements IndexedIntProcedure {
+
+        private final PropMDD4R p;
+        private int idxVar;
+
+        public RemProc(PropMDD4R p) {
+            this.p = p;
+        }
+
+        @Override
+        public IndexedIntProcedure set(int idxVar) {
+            this.idxVar = idxVar;
+            return this;
+        }
+
+        @Override
+        public void execute(int i) throws ContradictionException {
+            p.graph.removeValue(idxVar, i);
+        }
+    }
+
+    /**
+     * Copy the nodes of <i>mdd</i> reachable from the root and leading to the terminal node through values
+     * of the current domains of <i>vars</i>, layer by layer, into a layered graph.
+     */
+    private static LayeredGraph makeGraph(MultivaluedDecisionDiagram mdd, IntVar[] vars) {
+        int n = vars.length;
+        int[] diagram = mdd.getDiagram();
+        // forward pass: nodes reachable from the root
+        TIntArrayList[] layers = new TIntArrayList[n];
+        BitSet visited = new BitSet(diagram.length);
+        layers[0] = new TIntArrayList();
+        layers[0].add(0);
+        for (int i = 0; i + 1 < n; i++) {
+            layers[i + 1] = new TIntArrayList();
+            for (int k = 0; k < layers[i].size(); k++) {
+                int node = layers[i].get(k);
+                for (int v = vars[i].getLB(); v <= vars[i].getUB(); v = vars[i].nextValue(v)) {
+                    int child = child(mdd, diagram, node, i, v);
+                    if (child > MultivaluedDecisionDiagram.EMPTY && !visited.get(child)) {
+                        visited.set(child);
+                        layers[i + 1].add(child);
+                    }
+                }
+            }
+        }
+        // backward pass: nodes leading to the terminal node, numbered layer by layer
+        int[] ids = new int[diagram.length];
+        Arrays.fill(ids, -1);
+        int nbArcs = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            for (int k = 0; k < layers[i].size(); k++) {
+                int node = layers[i].get(k);
+                int arcs = nbArcs;
+                for (int v = vars[i].getLB(); v <= vars[i].getUB(); v = vars[i].nextValue(v)) {
+                    if (isArc(mdd, diagram, ids, node, i, v, n)) {
+                        nbArcs++;
+                    }
+                }
+                if (arcs < nbArcs) {
+                    ids[node] = 0;
+                }
+            }
+        }
+        int[] layerNodes = new int[n + 2];
+        for (int i = 0; i < n; i++) {
+            int id = layerNodes[i];
+            for (int k = 0; k < layers[i].size(); k++) {
+                int node = layers[i].get(k);
+                if (ids[node] >= 0) {
+                    ids[node] = id++;
+                }
+            }
+            layerNodes[i + 1] = id;
+        }
+        // the terminal node is the only node of the last layer
+        layerNodes[n + 1] = layerNodes[n] + (nbArcs > 0 ? 1 : 0);
+        int[] origs = new int[nbArcs];
+        int[] values = new int[nbArcs];
+        int[] dests = new int[nbArcs];
+        int a = 0;
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < layers[i].size(); k++) {
+                int node = layers[i].get(k);
+                if (ids[node] >= 0) {
+                    for (int v = vars[i].getLB(); v <= vars[i].getUB(); v = vars[i].nextValue(v)) {
+                        if (isArc(mdd, diagram, ids, node, i, v, n)) {
+                            origs[a] = ids[node];
+                            values[a] = v;
+                            dests[a] = i + 1 < n ? ids[child(mdd, diagram, node, i, v)] : layerNodes[n];
+                            a++;
+                        }
+                    }
+                }
+            }
+        }
+        return new LayeredGraph(vars[0].getEnvironment(), n, layerNodes, origs, values, dests);
+    }
+
+    /**
+     * @return <i>true</i> if the child of <i>node</i> for <i>v</i> is the terminal node,
+     * or a node which leads to it (that is, a node with an id)
+     */
+    private static boolean isArc(MultivaluedDecisionDiagram mdd, int[] diagram, int[] ids, int node, int i, int v, int n) {
+        int child = child(mdd, diagram, node, i, v);
+        return i + 1 < n ? child > MultivaluedDecisionDiagram.EMPTY && ids[child] >= 0
+                : child == MultivaluedDecisionDiagram.TERMINAL;
+    }
+
+    private static int child(MultivaluedDecisionDiagram mdd, int[] diagram, int node, int i, int v) {
+        int j = v - mdd.getOffset(i);
+        return j >= 0 && j < mdd.getNodeSize(i) ? diagram[node + j] : MultivaluedDecisionDiagram.EMPTY;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+
+/**
+ * Reversible sparse bit-set, as described in "Compact-Table: Efficiently Filtering Table Constraints
+ * with Reversible Sparse Bit-Sets", used by {@link PropCompactTable} and {@link PropCompactTableStar}.
+ * <p>
+ * Non-zero words are indexed in <code>index[0..limit]</code>, so that operations only iterate over them.
+ * When no word is zeroed, the index is a permutation of all words: operations on the mask then loop over
+ * contiguous words, without indirection, which lets the JIT compiler unroll and vectorize them.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class RSparseBitSet {
+    /**
+     * Words of the bit-set
+     */
+    private final IStateLong[] words;
+    /**
+     * Position of non-zero words in <code>index[0..limit]</code>
+     */
+    private final int[] index;
+    /**
+     * Position of the last non-zero word in {@link #index}
+     */
+    private final IStateInt limit;
+    /**
+     * Temporary mask
+     */
+    private final long[] mask;
+
+    /**
+     * Create a bit-set with all bits set to 1.
+     *
+     * @param environment the environment to store the bit-set in
+     * @param nbBits      number of bits
+     */
+    public RSparseBitSet(IEnvironment environment, int nbBits) {
+        int nw = nbBits / 64;
+        if (nw * 64 < nbBits) nw++;
+        index = new int[nw];
+        mask = new long[nw];
+        limit = environment.makeInt(nw - 1);
+        words = new IStateLong[nw];
+        for (int i = 0; i < nw; i++) {
+            index[i] = i;
+            words[i] = environment.makeLong(-1L);
+        }
+    }
+
+    /**
+     * @return the number of words of this bit-set, zeroed ones included
+     */
+    public int nbWords() {
+        return words.length;
+    }
+
+    /**
+     * @param i position of a word
+     * @return the current value of the i<sup>th</sup> word
+     */
+    public long getWord(int i) {
+        return words[i].get();
+    }
+
+    /**
+     * @return <i>true</i> if all words are zeroed
+     */
+    public boolean isEmpty() {
+        return limit.get() == -1;
+    }
+
+    /**
+     * @param l position of the last non-zero word
+     * @return <i>true</i> if no word is zeroed, that is, if non-zero words are contiguous
+     */
+    private boolean isDense(int l) {
+        return l == words.length - 1;
+    }
+
+    /**
+     * Set the mask to 0.
+     */
+    public void clearMask() {
+        int l = limit.get();
+        if (isDense(l)) {
+            for (int i = 0; i <= l; i++) {
+                mask[i] = 0L;
+            }
+        } else {
+            for (int i = l; i >= 0; i--) {
+                mask[index[i]] = 0L;
+            }
+        }
+    }
+
+    /**
+     * Reverse bits of the mask.
+     */
+    public void reverseMask() {
+        int l = limit.get();
+        if (isDense(l)) {
+            for (int i = 0; i <= l; i++) {
+                mask[i] = ~mask[i];
+            }
+        } else {
+            for (int i = l; i >= 0; i--) {
+                int offset = index[i];
+                mask[offset] = ~mask[offset];
+            }
+        }
+    }
+
+    /**
+     * Add (binary or) <i>wordsToAdd</i> to the mask.
+     *
+     * @param wordsToAdd words to add, with as many words as this bit-set
+     */
+    public void addToMask(long[] wordsToAdd) {
+        int l = limit.get();
+        if (isDense(l)) {
+            for (int i = 0; i <= l; i++) {
+                mask[i] |= wordsToAdd[i];
+            }
+        } else {
+            for (int i = l; i >= 0; i--) {
+                int offset = index[i];
+                mask[offset] |= wordsToAdd[offset];
+            }
+        }
+    }
+
+    /**
+     * Intersect (binary and) this bit-set with the mask, zeroed words are removed from the index.
+     */
+    public void intersectWithMask() {
+        int l = limit.get();
+        final int l0 = l;
+        for (int i = l0; i >= 0; i--) {
+            int offset = index[i];
+            long o = words[offset].get();
+            long w = o & mask[offset];
+            if (o != w) {
+                words[offset].set(w);
+                if (w == 0L) {
+                    index[i] = index[l];
+                    index[l] = offset;
+                    l--;
+                }
+            }
+        }
+        if (l != l0) {
+            limit.set(l);
+        }
+    }
+
+    /**
+     * @param m words to intersect with, with as many words as this bit-set
+     * @return the position of a word of this bit-set which intersects <i>m</i>, or -1 if none exists
+     */
+    public int intersectIndex(long[] m) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            if ((words[offset].get() & m[offset]) != 0L) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+}
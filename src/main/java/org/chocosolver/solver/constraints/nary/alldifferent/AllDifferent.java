@@ -13,6 +13,7 @@ import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ConstraintsName;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.binary.PropNotEqualX_Y;
+import org.chocosolver.solver.constraints.nary.alldifferent.algo.AlgoAllDiffACIncr;
 import org.chocosolver.solver.variables.IntVar;
 
 /**
@@ -49,6 +50,9 @@ public class AllDifferent extends Constraint {
             case BC:
                 return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffBC(VARS)};
             case AC:
+                if (incremental(VARS)) {
+                    return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffACIncr(VARS)};
+                }
                 return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffAC(VARS)};
             case DEFAULT:
             default: {
@@ -67,4 +71,23 @@ public class AllDifferent extends Constraint {
             }
         }
     }
+
+    /**
+     * @param VARS variables of the constraint
+     * @return <i>true</i> if AC filtering of <i>VARS</i> should be incremental (see {@link PropAllDiffACIncr})
+     */
+    private static boolean incremental(IntVar[] VARS) {
+        if (VARS.length == 0 || !VARS[0].getModel().getSettings().enableIncrementalityOnAllDiffAC(VARS.length)) {
+            return false;
+        }
+        int lb = Integer.MAX_VALUE, ub = Integer.MIN_VALUE;
+        for (IntVar v : VARS) {
+            if (!v.hasEnumeratedDomain()) {
+                return false;
+            }
+            lb = Math.min(lb, v.getLB());
+            ub = Math.max(ub, v.getUB());
+        }
+        return AlgoAllDiffACIncr.fits(lb, ub, VARS.length);
+    }
 }
@@ -0,0 +1,415 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.alldifferent.algo;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.BitSet;
+
+/**
+ * Incremental algorithm of Alldifferent with AC, for variables with enumerated domains.
+ * <p>
+ * Uses Regin algorithm, on the value graph implicitly given by the domains and the matching:
+ * arcs go from a variable to the values of its domain, except its mate, and from a value to its mate.
+ * Values which are not matched lead to a sink, which leads to all matched values.
+ * <p>
+ * Incrementality comes from two observations:
+ * <ul>
+ * <li>a matching remains valid when domains grow on backtrack, so the matching is not stored:
+ * it is kept from one call to another, and only variables modified since the last call (see {@link #modified(int)})
+ * are checked and re-matched,</li>
+ * <li>the partition of the value graph into strongly connected components is independent of the maximum matching,
+ * and only gets finer while domains shrink. Thus, the component of each variable is stored, and strongly connected
+ * components are only computed again in components which contain a modified variable.
+ * After filtering, no arc links two components, so any change stays within its component.</li>
+ * </ul>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class AlgoAllDiffACIncr {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n;
+    private final IntVar[] vars;
+    private final ICause aCause;
+    /**
+     * Smallest value, values are mapped to nodes <i>n + v - offset</i>
+     */
+    private final int offset;
+    /**
+     * Node of the sink, reached from free values
+     */
+    private final int sink;
+    /**
+     * Value matched to each variable (as a node), or -1
+     */
+    private final int[] matching;
+    /**
+     * Variable matched to each value (indexed by node), or -1
+     */
+    private final int[] mate;
+    /**
+     * Component of each variable
+     */
+    private final IStateInt[] component;
+    /**
+     * Next component id to give, never restored
+     */
+    private int nextComponent;
+    /**
+     * Variables modified since the last call
+     */
+    private final BitSet modified;
+    /**
+     * Variables of the components to process
+     */
+    private final BitSet affected;
+    /**
+     * Variables of the current component, and their number
+     */
+    private final int[] scope;
+    private int size;
+
+    // for augmenting matching (BFS)
+    private final int[] father;
+    private final int[] fifo;
+    private final int[] visited;
+    private int visit;
+
+    // for Tarjan's algorithm
+    private final int[] stamp;
+    private int tstamp;
+    private final int[] index;
+    private final int[] low;
+    private final int[] scc;
+    private final int[] iter;
+    private final int[] stack;
+    private final BitSet onStack;
+    private final int[] call;
+    private int sccs;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    public AlgoAllDiffACIncr(IntVar[] variables, ICause cause) {
+        this.vars = variables;
+        this.aCause = cause;
+        n = vars.length;
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (IntVar v : vars) {
+            min = Math.min(min, v.getLB());
+            max = Math.max(max, v.getUB());
+        }
+        offset = min;
+        int nv = max - min + 1;
+        int nodes = n + nv + 1;
+        sink = nodes - 1;
+        matching = new int[n];
+        mate = new int[nodes];
+        for (int i = 0; i < n; i++) {
+            matching[i] = -1;
+        }
+        for (int j = 0; j < nodes; j++) {
+            mate[j] = -1;
+        }
+        component = new IStateInt[n];
+        for (int i = 0; i < n; i++) {
+            component[i] = vars[0].getModel().getEnvironment().makeInt(0);
+        }
+        nextComponent = 1;
+        modified = new BitSet(n);
+        modified.set(0, n);
+        affected = new BitSet(n);
+        scope = new int[n];
+        father = new int[nodes];
+        fifo = new int[n];
+        visited = new int[nodes];
+        stamp = new int[nodes];
+        index = new int[nodes];
+        low = new int[nodes];
+        scc = new int[nodes];
+        iter = new int[nodes];
+        stack = new int[nodes];
+        onStack = new BitSet(nodes);
+        call = new int[nodes];
+    }
+
+    /**
+     * @param lb smallest value of the union of the domains
+     * @param ub largest value of the union of the domains
+     * @param n  number of variables
+     * @return <i>true</i> if the value graph of such variables is small enough to be indexed by values
+     */
+    public static boolean fits(int lb, int ub, int n) {
+        return (long) ub - lb + 1 <= Math.max(1 << 16, 32L * n);
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    /**
+     * Declare that the domain of the i<sup>th</sup> variable has changed since the last call.
+     *
+     * @param i index of a variable
+     */
+    public void modified(int i) {
+        modified.set(i);
+    }
+
+    /**
+     * Declare that all variables may have changed since the last call.
+     */
+    public void modifiedAll() {
+        modified.set(0, n);
+    }
+
+    public boolean propagate() throws ContradictionException {
+        repairMatching();
+        affected.clear();
+        for (int i = modified.nextSetBit(0); i >= 0; i = modified.nextSetBit(i + 1)) {
+            if (!affected.get(i)) {
+                int c = component[i].get();
+                for (int k = 0; k < n; k++) {
+                    if (component[k].get() == c) {
+                        affected.set(k);
+                    }
+                }
+            }
+        }
+        modified.clear();
+        boolean filter = false;
+        while (!affected.isEmpty()) {
+            int c = component[affected.nextSetBit(0)].get();
+            size = 0;
+            for (int k = affected.nextSetBit(0); k >= 0; k = affected.nextSetBit(k + 1)) {
+                if (component[k].get() == c) {
+                    scope[size++] = k;
+                    affected.clear(k);
+                }
+            }
+            filter |= filter();
+        }
+        return filter;
+    }
+
+    //***********************************************************************************
+    // MATCHING
+    //***********************************************************************************
+
+    private int node(int value) {
+        return n + value - offset;
+    }
+
+    private int value(int node) {
+        return node - n + offset;
+    }
+
+    private void repairMatching() throws ContradictionException {
+        for (int i = modified.nextSetBit(0); i >= 0; i = modified.nextSetBit(i + 1)) {
+            int j = matching[i];
+            if (j != -1 && !vars[i].contains(value(j))) {
+                matching[i] = -1;
+                mate[j] = -1;
+            }
+        }
+        for (int i = modified.nextSetBit(0); i >= 0; i = modified.nextSetBit(i + 1)) {
+            if (matching[i] == -1) {
+                tryToMatch(i);
+            }
+        }
+    }
+
+    private void tryToMatch(int i) throws ContradictionException {
+        int j = augmentPath_BFS(i);
+        if (j != -1) {
+            int x;
+            do {
+                x = father[j];
+                int prev = matching[x];
+                matching[x] = j;
+                mate[j] = x;
+                j = prev;
+            } while (x != i);
+        } else {
+            vars[0].instantiateTo(vars[0].getLB() - 1, aCause);
+        }
+    }
+
+    /**
+     * @param root a free variable
+     * @return a free value reached by an alternating path from <i>root</i>, or -1
+     */
+    private int augmentPath_BFS(int root) {
+        visit++;
+        int indexFirst = 0, indexLast = 0;
+        fifo[indexLast++] = root;
+        visited[root] = visit;
+        while (indexFirst != indexLast) {
+            int x = fifo[indexFirst++];
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int j = node(k);
+                if (visited[j] != visit) {
+                    visited[j] = visit;
+                    father[j] = x;
+                    int y = mate[j];
+                    if (y == -1) {
+                        return j;
+                    }
+                    if (visited[y] != visit) {
+                        visited[y] = visit;
+                        fifo[indexLast++] = y;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    //***********************************************************************************
+    // PRUNING
+    //***********************************************************************************
+
+    /**
+     * Compute strongly connected components of the variables in {@link #scope}, then filter their domains.
+     */
+    private boolean filter() throws ContradictionException {
+        buildSCC();
+        boolean filter = false;
+        for (int s = 0; s < size; s++) {
+            int i = scope[s];
+            IntVar v = vars[i];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int j = node(k);
+                if (scc[i] != scc[j]) {
+                    if (matching[i] == j) {
+                        filter |= v.instantiateTo(k, aCause);
+                    } else {
+                        filter |= v.removeValue(k, aCause);
+                    }
+                }
+            }
+        }
+        // give a new component to each strongly connected component
+        int first = nextComponent;
+        nextComponent += sccs;
+        for (int s = 0; s < size; s++) {
+            int i = scope[s];
+            int c = first + scc[i];
+            if (component[i].get() != c) {
+                component[i].set(c);
+            }
+        }
+        return filter;
+    }
+
+    private void buildSCC() {
+        tstamp++;
+        sccs = 0;
+        int idx = 0;
+        int top = 0;
+        onStack.clear();
+        // roots: the sink, then the variables, values are reached from them
+        int nbRoots = size + 1;
+        for (int r = 0; r < nbRoots; r++) {
+            int root = r == 0 ? sink : scope[r - 1];
+            if (stamp[root] == tstamp) {
+                continue;
+            }
+            int depth = 0;
+            call[depth++] = root;
+            open(root, idx++);
+            stack[top++] = root;
+            onStack.set(root);
+            while (depth > 0) {
+                int x = call[depth - 1];
+                int y = nextSucc(x);
+                if (y != -1) {
+                    if (stamp[y] != tstamp) {
+                        open(y, idx++);
+                        stack[top++] = y;
+                        onStack.set(y);
+                        call[depth++] = y;
+                    } else if (onStack.get(y)) {
+                        low[x] = Math.min(low[x], index[y]);
+                    }
+                } else {
+                    depth--;
+                    if (low[x] == index[x]) {
+                        int z;
+                        do {
+                            z = stack[--top];
+                            onStack.clear(z);
+                            scc[z] = sccs;
+                        } while (z != x);
+                        sccs++;
+                    }
+                    if (depth > 0) {
+                        int p = call[depth - 1];
+                        low[p] = Math.min(low[p], low[x]);
+                    }
+                }
+            }
+        }
+    }
+
+    private void open(int x, int idx) {
+        stamp[x] = tstamp;
+        index[x] = idx;
+        low[x] = idx;
+        if (x < n) {
+            iter[x] = vars[x].getLB();
+        } else {
+            iter[x] = 0;
+        }
+    }
+
+    /**
+     * @param x a node
+     * @return the next successor of <i>x</i>, or -1 if all have been iterated
+     */
+    private int nextSucc(int x) {
+        if (x < n) {
+            // a variable: values of its domain, except its mate
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            while (iter[x] <= ub) {
+                int k = iter[x];
+                iter[x] = k == ub ? ub + 1 : v.nextValue(k);
+                int j = node(k);
+                if (j != matching[x]) {
+                    return j;
+                }
+            }
+            return -1;
+        } else if (x == sink) {
+            // matched values of the component
+            return iter[x] < size ? matching[scope[iter[x]++]] : -1;
+        } else {
+            // a value: its mate, or the sink
+            if (iter[x]++ == 0) {
+                return mate[x] == -1 ? sink : mate[x];
+            }
+            return -1;
+        }
+    }
+}
@@ -9,29 +9,28 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.stack.TIntStack;
-import gnu.trove.stack.array.TIntArrayStack;
-import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.memory.IStateBool;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.Bounds;
-import org.chocosolver.solver.constraints.nary.automata.structure.costregular.StoredValuedDirectedMultiGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.iterators.DisposableIntIterator;
-import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 
 import static java.lang.Math.ceil;
 import static java.lang.Math.floor;
 
 /**
+ * Propagator for the COST_REGULAR constraint, based on the valued layered graph of the words recognized by the automaton
+ * (see {@link LayeredGraph}).
+ * Removed values are removed from the graph as soon as they are notified,
+ * shortest and longest paths are then relaxed again on the layers which lost arcs only.
  * <br/>
  *
  * @author Charles Prud'homme
@@ -41,20 +40,21 @@ public class PropCostRegular extends Propagator<IntVar> {
 
     private final int zIdx;
 
-    private final StoredValuedDirectedMultiGraph graph;
+    private final LayeredGraph graph;
     private final ICostAutomaton cautomaton;
-    private TIntStack toRemove;
 
     private final IStateBool boundChange;
-    private int lastWorld = -1;
-
-    private long lastNbOfBacktracks = -1, lastNbOfRestarts = -1;
 
     private final RemProc rem_proc;
     private final IIntDeltaMonitor[] idms;
 
-
-    public PropCostRegular(IntVar[] variables, ICostAutomaton cautomaton, StoredValuedDirectedMultiGraph graph) {
+    /**
+     * Builds the propagator and the layered graph of <i>cautomaton</i> on the current domains of the variables
+     *
+     * @param variables  the variables, then the cost variable
+     * @param cautomaton a cost automaton
+     */
+    public PropCostRegular(IntVar[] variables, ICostAutomaton cautomaton) {
         super(variables, PropagatorPriority.CUBIC, true);
         this.idms = new IIntDeltaMonitor[this.vars.length - 1];
         for (int i = 0; i < this.vars.length - 1; i++) {
@@ -62,54 +62,70 @@ public class PropCostRegular extends Propagator<IntVar> {
         }
         this.zIdx = vars.length - 1;
         this.rem_proc = new RemProc(this);
-        IEnvironment environment = model.getEnvironment();
-        this.toRemove = new TIntArrayStack();
-        this.boundChange = environment.makeBool(false);
-        this.graph = graph;
+        this.boundChange = model.getEnvironment().makeBool(false);
+        this.graph = new LayeredGraph(vars, zIdx, cautomaton, true);
         this.cautomaton = cautomaton;
     }
 
-    @Override
-    public int getPropagationConditions(int vIdx) {
-        return (vIdx != vars.length - 1 ? IntEventType.all() : IntEventType.boundAndInst());
-    }
-
     /**
-     * Build internal structure of the propagator, if necessary
+     * Builds the propagator and the layered graph of <i>cautomaton</i> on the current domains of the variables,
+     * <i>graph</i> is ignored.
      *
-     * @throws org.chocosolver.solver.exception.ContradictionException if initialisation encounters a contradiction
+     * @param variables  the variables, then the cost variable
+     * @param cautomaton a cost automaton
+     * @param graph      ignored
+     * @deprecated use {@link #PropCostRegular(IntVar[], ICostAutomaton)} instead, will be removed in next release
      */
-    protected void initialize() throws ContradictionException {
-        Bounds bounds = this.cautomaton.getCounters().get(0).bounds();
-        vars[zIdx].updateBounds(bounds.min.value, bounds.max.value, this);
-        this.prefilter();
+    @Deprecated
+    public PropCostRegular(IntVar[] variables, ICostAutomaton cautomaton,
+                           org.chocosolver.solver.constraints.nary.automata.structure.costregular.StoredValuedDirectedMultiGraph graph) {
+        this(variables, cautomaton);
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return (vIdx != vars.length - 1 ? IntEventType.all() : IntEventType.boundAndInst());
     }
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
+        boolean all = boundChange.get();
         if (PropagatorEventType.isFullPropagation(evtmask)) {
             // as the graph was build on initial domain, this is allowed (specific case)
             for (int i = 0; i < idms.length; i++) {
                 idms[i].freeze();
-                idms[i].forEachRemVal(rem_proc.set(i));
+                idms[i].forEachRemVal(rem_proc, i);
+                graph.removeValues(i, this);
+                for (int j = vars[i].getLB(); j <= vars[i].getUB(); j = vars[i].nextValue(j)) {
+                    if (!graph.hasSupport(i, j)) {
+                        vars[i].removeValue(j, this);
+                    }
+                }
             }
-            initialize();
+            Bounds bounds = this.cautomaton.getCounters().get(0).bounds();
+            vars[zIdx].updateBounds(bounds.min.value, bounds.max.value, this);
+            all = true;
+        }
+        try {
+            filter(all);
+        } catch (ContradictionException e) {
+            graph.clear();
+            throw e;
+        }
+        // added by JG: the propagator should be idempotent so it should not iterate over its own removals
+        for (int i = 0; i < idms.length; i++) {
+            idms[i].unfreeze();
         }
-        filter();
-		// added by JG: the propagator should be idempotent so it should not iterate over its own removals
-		for (int i = 0; i < idms.length; i++) {
-			idms[i].unfreeze();
-		}
     }
 
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
-        checkWorld();
         if (varIdx == zIdx) { // z only deals with bound events
             boundChange.set(true);
         } else { // other variables only deals with removal events
             idms[varIdx].freeze();
-            idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
+            idms[varIdx].forEachRemVal(rem_proc, varIdx);
+            graph.removeValues(varIdx, this);
             idms[varIdx].unfreeze();
         }
         forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
@@ -118,26 +134,20 @@ public class PropCostRegular extends Propagator<IntVar> {
     @Override
     public ESat isEntailed() {
         if (isCompletelyInstantiated()) {
-            int first = this.graph.sourceIndex;
-            boolean found;
+            int first = graph.getSource();
+            if (first < 0) {
+                return ESat.FALSE;
+            }
             double cost = 0.0;
             int[] str = new int[vars.length - 1];
             for (int i = 0; i < vars.length - 1; i++) {
-                found = false;
                 str[i] = vars[i].getValue();
-                StoredIndexedBipartiteSet bs = this.graph.GNodes.outArcs[first];
-                DisposableIntIterator it = bs.getIterator();
-                while (!found && it.hasNext()) {
-                    int idx = it.next();
-                    if (this.graph.GArcs.values[idx] == vars[i].getValue()) {
-                        found = true;
-                        first = this.graph.GArcs.dests[idx];
-                        cost += this.graph.GArcs.costs[idx];
-                    }
-                }
-                if (!found)
+                int arc = graph.getArc(first, str[i]);
+                if (arc < 0) {
                     return ESat.FALSE;
-
+                }
+                first = graph.getDest(arc);
+                cost += graph.getCost(arc);
             }
             int intCost = vars[zIdx].getValue();
             return ESat.eval(cost == intCost && cautomaton.run(str));
@@ -147,127 +157,23 @@ public class PropCostRegular extends Propagator<IntVar> {
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private void prefilter() throws ContradictionException {
-        double zinf = this.graph.GNodes.spft.get(this.graph.sourceIndex);
-        double zsup = this.graph.GNodes.lpfs.get(this.graph.tinkIndex);
-
-        vars[zIdx].updateBounds((int) ceil(zinf), (int) floor(zsup), this);
-
-        DisposableIntIterator it = this.graph.inGraph.getIterator();
-        //for (int id = this.graph.inGraph.nextSetBit(0) ; id >=0 ; id = this.graph.inGraph.nextSetBit(id+1))  {
-        while (it.hasNext()) {
-            int id = it.next();
-            int orig = this.graph.GArcs.origs[id];
-            int dest = this.graph.GArcs.dests[id];
-
-            double acost = this.graph.GArcs.costs[id];
-
-            double spfs = this.graph.GNodes.spfs.get(orig);
-            double lpfs = this.graph.GNodes.lpfs.get(orig);
-
-            double spft = this.graph.GNodes.spft.get(dest);
-            double lpft = this.graph.GNodes.lpft.get(dest);
-
-
-            if ((spfs + spft + acost > vars[zIdx].getUB() || lpfs + lpft + acost < vars[zIdx].getLB()) && this.graph.isNotInStack(id)) {
-                this.graph.setInStack(id);
-                this.toRemove.push(id);
-            }
-        }
-
-        it.dispose();
-
-        try {
-            do {
-                while (toRemove.size() > 0) {
-                    int id = toRemove.pop();
-                    // toRemove.synchronize();
-                    this.graph.removeArc(id, toRemove, this, this);
-                }
-                while (this.graph.toUpdateLeft.size() > 0) {
-                    this.graph.updateLeft(this.graph.toUpdateLeft.pop(), toRemove, this);
-                }
-                while (this.graph.toUpdateRight.size() > 0) {
-                    this.graph.updateRight(this.graph.toUpdateRight.pop(), toRemove, this);
-                }
-            } while (toRemove.size() > 0);
-        } catch (ContradictionException e) {
-            toRemove.clear();
-            this.graph.inStack.clear();
-            this.graph.toUpdateLeft.clear();
-            this.graph.toUpdateRight.clear();
-
-            throw e;
-        }
-    }
-
-    private void checkWorld() {
-        int currentworld = model.getEnvironment().getWorldIndex();
-        long currentbt = model.getSolver().getBackTrackCount();
-        long currentrestart = model.getSolver().getRestartCount();
-        if (currentworld < lastWorld || currentbt != lastNbOfBacktracks || currentrestart > lastNbOfRestarts) {
-            this.toRemove.clear();
-            this.graph.inStack.clear();
-            this.graph.toUpdateLeft.clear();
-            this.graph.toUpdateRight.clear();
-        }
-        lastWorld = currentworld;
-        lastNbOfBacktracks = currentbt;
-        lastNbOfRestarts = currentrestart;
-    }
-
-    private void filter() throws ContradictionException {
-
-        if (boundChange.get()) {
-            boundChange.set(false);
-            DisposableIntIterator it = this.graph.inGraph.getIterator();
-            //for (int id = this.graph.inGraph.nextSetBit(0) ; id >=0 ; id = this.graph.inGraph.nextSetBit(id+1))  {
-            while (it.hasNext()) {
-                int id = it.next();
-                int orig = this.graph.GArcs.origs[id];
-                int dest = this.graph.GArcs.dests[id];
-
-                double acost = this.graph.GArcs.costs[id];
-                double lpfs = this.graph.GNodes.lpfs.get(orig);
-                double lpft = this.graph.GNodes.lpft.get(dest);
-
-                double spfs = this.graph.GNodes.spfs.get(orig);
-                double spft = this.graph.GNodes.spft.get(dest);
-
-
-                if ((lpfs + lpft + acost < vars[zIdx].getLB() || spfs + spft + acost > vars[zIdx].getUB()) && this.graph.isNotInStack(id)) {
-                    this.graph.setInStack(id);
-                    this.toRemove.push(id);
-                }
-            }
-            it.dispose();
-
-        }
-
+    /**
+     * Removes the arcs which do not belong to a path whose length is in the domain of z, and updates the bounds of z,
+     * until a fix point is reached.
+     *
+     * @param all set to <i>true</i> to check all arcs
+     */
+    private void filter(boolean all) throws ContradictionException {
+        boundChange.set(false);
         do {
-            while (toRemove.size() > 0) {
-                int id = toRemove.pop();
-                // toRemove.synchronize();
-                this.graph.removeArc(id, toRemove, this, this);
-            }
-            while (this.graph.toUpdateLeft.size() > 0) {
-                this.graph.updateLeft(this.graph.toUpdateLeft.pop(), toRemove, this);
-            }
-            while (this.graph.toUpdateRight.size() > 0) {
-                this.graph.updateRight(this.graph.toUpdateRight.pop(), toRemove, this
-                );
-            }
-        } while (toRemove.size() > 0);
-
-
-        double zinf = this.graph.GNodes.spft.get(this.graph.sourceIndex);
-        double zsup = this.graph.GNodes.lpfs.get(this.graph.tinkIndex);
-
-        vars[zIdx].updateBounds((int) ceil(zinf), (int) floor(zsup), this);
+            graph.filterPaths(vars[zIdx].getLB(), vars[zIdx].getUB(), all, this);
+            double zinf = graph.getShortestPathValue();
+            double zsup = graph.getLongestPathValue();
+            all = vars[zIdx].updateBounds((int) ceil(zinf), (int) floor(zsup), this);
+        } while (all);
     }
 
-
-    private static class RemProc implements UnaryIntProcedure<Integer> {
+    private static class RemProc implements IndexedIntProcedure {
 
         private final PropCostRegular p;
         private int idxVar;
@@ -277,26 +183,14 @@ public class PropCostRegular extends Propagator<IntVar> {
         }
 
         @Override
-        public UnaryIntProcedure set(Integer idxVar) {
+        public IndexedIntProcedure set(int idxVar) {
             this.idxVar = idxVar;
             return this;
         }
 
         @Override
         public void execute(int i) throws ContradictionException {
-            StoredIndexedBipartiteSet sup = p.graph.getSupport(idxVar, i);
-            if (sup != null) {
-                DisposableIntIterator it = sup.getIterator();
-                while (it.hasNext()) {
-                    int arcId = it.next();
-                    if (p.graph.isNotInStack(arcId)) {
-                        p.graph.setInStack(arcId);
-                        p.toRemove.push(arcId);
-//                        mod = true;
-                    }
-                }
-                it.dispose();
-            }
+            p.graph.removeValue(idxVar, i);
         }
     }
 
@@ -9,38 +9,29 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.iterator.TIntIterator;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import gnu.trove.stack.array.TIntArrayStack;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.BitSet;
-import java.util.HashSet;
 import java.util.List;
-import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.Bounds;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.ICounter;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.FastPathFinder;
-import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.StoredDirectedMultiGraph;
-import org.chocosolver.solver.constraints.nary.automata.structure.regular.Arc;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.MultiCostLayeredGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.MultiCostPathFinder;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.iterators.DisposableIntIterator;
-import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
-import org.jgrapht.graph.DirectedMultigraph;
 
 
 /**
@@ -112,7 +103,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
     /**
      * Layered graph of the unfolded automaton
      */
-    private StoredDirectedMultiGraph graph;
+    private MultiCostLayeredGraph graph;
 
     /**
      * Boolean array which record whether a bound has been modified by the propagator
@@ -133,7 +124,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
      * Instance of the class containing all path finding algorithms
      * Also contains graph filtering algorithms
      */
-    private FastPathFinder slp;
+    private MultiCostPathFinder slp;
 
     /**
      * Store the number of resources = z.length
@@ -224,8 +215,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             vrms.clear();
             vrms.setOffset(vs[i].getLB());
             for (int j = vs[i].getLB(); j <= vs[i].getUB(); j = vs[i].nextValue(j)) {
-                StoredIndexedBipartiteSet sup = graph.getUBport(i, j);
-                if (sup == null || sup.isEmpty()) {
+                if (!graph.getLayeredGraph().hasSupport(i, j)) {
                     vrms.add(j);
                 }
             }
@@ -251,7 +241,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         if (varIdx < offset) {
             checkWorld();
             idms[varIdx].freeze();
-            idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
+            idms[varIdx].forEachRemVal(rem_proc, varIdx);
             idms[varIdx].unfreeze();
         } else {// if (EventType.isInstantiate(mask) || EventType.isBound(mask)) {
             boundUpdate.add(varIdx - offset);
@@ -262,178 +252,11 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private void initGraph() {
-        int aid = 0;
-        int nid = 0;
-
-
-        int[] offsets = new int[offset];
-        int[] sizes = new int[offset];
-        int[] starts = new int[offset];
-
-        int totalSizes = 0;
-
-        starts[0] = 0;
-        for (int i = 0; i < offset; i++) {
-            offsets[i] = vs[i].getLB();
-            sizes[i] = vs[i].getUB() - vs[i].getLB() + 1;
-            if (i > 0) starts[i] = sizes[i - 1] + starts[i - 1];
-            totalSizes += sizes[i];
-        }
-
-
-        DirectedMultigraph<Node, Arc> graph;
-
-        int n = offset;
-        graph = new DirectedMultigraph<>(null, null, false);
-        ArrayList<HashSet<Arc>> tmp = new ArrayList<>(totalSizes);
-        for (int i = 0; i < totalSizes; i++) {
-            tmp.add(new HashSet<>());
-        }
-
-        int i, j, k;
-        TIntIterator layerIter;
-        TIntIterator qijIter;
-
-        ArrayList<TIntHashSet> layer = new ArrayList<>();
-        TIntHashSet[] tmpQ = new TIntHashSet[totalSizes];
-        // DLList[vars.length+1];
-
-        for (i = 0; i <= n; i++) {
-            layer.add(new TIntHashSet());// = new DLList(nbNodes);
-        }
-
-        //forward pass, construct all paths described by the automaton for word of length nbVars.
-        layer.get(0).add(pi.getInitialState());
-        TIntHashSet nexts = new TIntHashSet();
-
-        for (i = 0; i < n; i++) {
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                layerIter = layer.get(i).iterator();//getIterator();
-                while (layerIter.hasNext()) {
-                    k = layerIter.next();
-                    nexts.clear();
-                    pi.delta(k, j, nexts);
-                    TIntIterator it = nexts.iterator();
-                    for (; it.hasNext(); ) {
-                        int succ = it.next();
-                        layer.get(i + 1).add(succ);
-                    }
-                    if (!nexts.isEmpty()) {
-                        int idx = starts[i] + j - offsets[i];
-                        if (tmpQ[idx] == null)
-                            tmpQ[idx] = new TIntHashSet();
-
-                        tmpQ[idx].add(k);
-
-                    }
-                }
-            }
-        }
-
-        //removing reachable non accepting states
-        layerIter = layer.get(n).iterator();
-        while (layerIter.hasNext()) {
-            k = layerIter.next();
-            if (pi.isNotFinal(k)) {
-                layerIter.remove();
-            }
-
-        }
-
-        //backward pass, removing arcs that does not lead to an accepting state
-        int nbNodes = pi.getNbStates();
-        BitSet mark = new BitSet(nbNodes);
-
-        Node[] in = new Node[pi.getNbStates() * (n + 1)];
-        Node tink = new Node(pi.getNbStates() + 1, n + 1, nid++);
-        graph.addVertex(tink);
-
-        for (i = n - 1; i >= 0; i--) {
-            mark.clear(0, nbNodes);
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                int idx = starts[i] + j - offsets[i];
-                TIntHashSet l = tmpQ[idx];
-                if (l != null) {
-                    qijIter = l.iterator();
-                    while (qijIter.hasNext()) {
-                        k = qijIter.next();
-                        nexts.clear();
-                        pi.delta(k, j, nexts);
-                        if (nexts.size() > 1)
-                            System.err.println("STOP");
-                        boolean added = false;
-                        for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
-                            int qn = it.next();
-
-                            if (layer.get(i + 1).contains(qn)) {
-                                added = true;
-                                Node a = in[i * pi.getNbStates() + k];
-                                if (a == null) {
-                                    a = new Node(k, i, nid++);
-                                    in[i * pi.getNbStates() + k] = a;
-                                    graph.addVertex(a);
-                                }
-
-                                Node b = in[(i + 1) * pi.getNbStates() + qn];
-                                if (b == null) {
-                                    b = new Node(qn, i + 1, nid++);
-                                    in[(i + 1) * pi.getNbStates() + qn] = b;
-                                    graph.addVertex(b);
-                                }
-
-
-                                Arc arc = new Arc(a, b, j, aid++);
-                                graph.addEdge(a, b, arc);
-                                tmp.get(idx).add(arc);
-
-                                mark.set(k);
-                            }
-                        }
-                        if (!added)
-                            qijIter.remove();
-                    }
-                }
-            }
-            layerIter = layer.get(i).iterator();
-
-            // If no more arcs go out of a given state in the layer, then we remove the state from that layer
-            while (layerIter.hasNext())
-                if (!mark.get(layerIter.next()))
-                    layerIter.remove();
-        }
-
-        TIntHashSet th = new TIntHashSet();
-        int[][] intLayer = new int[n + 2][];
-        for (k = 0; k < pi.getNbStates(); k++) {
-            Node o = in[n * pi.getNbStates() + k];
-            {
-                if (o != null) {
-                    Arc a = new Arc(o, tink, 0, aid++);
-                    graph.addEdge(o, tink, a);
-                }
-            }
-        }
-
-
-        for (i = 0; i <= n; i++) {
-            th.clear();
-            for (k = 0; k < pi.getNbStates(); k++) {
-                Node o = in[i * pi.getNbStates() + k];
-                if (o != null) {
-                    th.add(o.id);
-                }
-            }
-            intLayer[i] = th.toArray();
-        }
-        intLayer[n + 1] = new int[]{tink.id};
-
-        if (intLayer[0].length > 0) {
-            IEnvironment environment = model.getEnvironment();
-            this.graph = new StoredDirectedMultiGraph(environment, graph, intLayer, starts, offsets, totalSizes, pi, z);
-            this.graph.makePathFinder();
+    private void initGraph() throws ContradictionException {
+        this.graph = new MultiCostLayeredGraph(model.getEnvironment(), vs, pi, z);
+        if (graph.isEmpty()) {
+            // no word is accepted by the automaton
+            fails();
         }
     }
 
@@ -507,10 +330,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             for (int l = 0; l < uUb.length / 2; l++) {
                 axu = 0.0;
                 for (int e : P) {
-                    int i = graph.GNodes.layers[graph.GArcs.origs[e]];//  e.getOrigin().getLayer();
-                    //int j = graph.GArcs.values[e];//e.getLabel();
-                    if (i < offset)
-                        axu += graph.GArcs.originalCost[e][l + 1];//costs[i][j][l+1];
+                    axu += graph.getCost(e, l + 1);
                 }
                 newLB = Math.max(uUb[l] - uk * (z[l + 1].getUB() - axu), 0);
                 newLA = Math.max(uUb[l + nbR] - uk * (axu - z[l + 1].getLB()), 0);
@@ -593,9 +413,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
                 axu = 0.0;
                 for (int e : P) {
-                    int i = graph.GNodes.layers[graph.GArcs.origs[e]];
-                    if (i < offset)
-                        axu += graph.GArcs.originalCost[e][l + 1];
+                    axu += graph.getCost(e, l + 1);
                 }
 
                 newLB = Math.max(uLb[l] + uk * (axu - z[l + 1].getUB()), 0);
@@ -622,7 +440,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
      * @throws ContradictionException if a domain is emptied
      */
     protected boolean prefilter() throws ContradictionException {
-        FastPathFinder p = this.graph.getPathFinder();
+        MultiCostPathFinder p = this.graph.getPathFinder();
 
         boolean cont = true;
         boolean[] modified;
@@ -691,7 +509,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             }
 
             this.toRemove.clear();
-            this.graph.inStack.clear();
+            this.graph.getInStack().clear();
 
 
             this.getGraph().getPathFinder().computeShortestAndLongestPath(toRemove, z, this);
@@ -808,27 +626,25 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
 
     public boolean isGraphConsistent() {
+        LayeredGraph layers = this.graph.getLayeredGraph();
         for (int i = 0; i < offset; i++) {
-            DisposableIntIterator iter = this.graph.layers[i].getIterator();
-            while (iter.hasNext()) {
-                int n = iter.next();
-                DisposableIntIterator it = this.graph.GNodes.outArcs[n].getIterator();
-                while (it.hasNext()) {
-                    int arc = it.next();
-                    int val = this.graph.GArcs.values[arc];
+            for (int t = 0; t < layers.getLayerSize(i); t++) {
+                int n = layers.getNode(i, t);
+                for (int s = 0; s < layers.getOutDegree(n); s++) {
+                    int arc = layers.getOutArc(n, s);
+                    int val = layers.getValue(arc);
                     if (!vars[i].contains(val)) {
-                        System.err.println("Arc " + arc + " from node " + n + " to node" + this.graph.GArcs.dests[arc] + " with value " + val + " in layer " + i + " should not be here");
+                        System.err.println("Arc " + arc + " from node " + n + " to node" + layers.getDest(arc) + " with value " + val + " in layer " + i + " should not be here");
                         return false;
                     }
                 }
             }
-            iter.dispose();
         }
         return true;
     }
 
 
-    public final StoredDirectedMultiGraph getGraph() {
+    public final MultiCostLayeredGraph getGraph() {
         return graph;
     }
 
@@ -865,20 +681,16 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             return false;
         }
         double[] gcost = new double[z.length];
-        for (int l = 0; l < graph.layers.length - 2; l++) {
-            DisposableIntIterator it = graph.layers[l].getIterator();
-            while (it.hasNext()) {
-                int orig = it.next();
-                DisposableIntIterator arcIter = graph.GNodes.outArcs[orig].getIterator();
-                while (arcIter.hasNext()) {
-                    int arc = arcIter.next();
+        LayeredGraph layers = graph.getLayeredGraph();
+        for (int l = 0; l < offset; l++) {
+            for (int t = 0; t < layers.getLayerSize(l); t++) {
+                int orig = layers.getNode(l, t);
+                for (int s = 0; s < layers.getOutDegree(orig); s++) {
+                    int arc = layers.getOutArc(orig, s);
                     for (int i = 0; i < z.length; i++)
-                        gcost[i] += graph.GArcs.originalCost[arc][i];
+                        gcost[i] += graph.getCost(arc, i);
                 }
-                arcIter.dispose();
-
             }
-            it.dispose();
         }
         for (int i = 0; i < gcost.length; i++) {
             if (!z[i].isInstantiated()) {
@@ -934,7 +746,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
     }
 
 
-    private static class RemProc implements UnaryIntProcedure<Integer> {
+    private static class RemProc implements IndexedIntProcedure {
 
         private final PropMultiCostRegular p;
         private int idxVar;
@@ -944,24 +756,21 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         }
 
         @Override
-        public UnaryIntProcedure set(Integer idxVar) {
+        public IndexedIntProcedure set(int idxVar) {
             this.idxVar = idxVar;
             return this;
         }
 
         @Override
         public void execute(int i) throws ContradictionException {
-            StoredIndexedBipartiteSet support = p.graph.getUBport(idxVar, i);
-            if (support != null) {
-                final int[] list = support._getStructure();
-                final int size = support.size();
-                for (int j = 0; j < size; j++) {
-                    int e = list[j];//t.next();
-                    assert (p.graph.isInStack(e) == p.remContains(e));
-                    if (!p.graph.isInStack(e)) {
-                        p.graph.setInStack(e);
-                        p.toRemove.push(e);
-                    }
+            LayeredGraph layers = p.graph.getLayeredGraph();
+            final int size = layers.getSupportSize(idxVar, i);
+            for (int j = 0; j < size; j++) {
+                int e = layers.getSupportArc(idxVar, i, j);
+                assert (p.graph.isInStack(e) == p.remContains(e));
+                if (!p.graph.isInStack(e)) {
+                    p.graph.setInStack(e);
+                    p.toRemove.push(e);
                 }
             }
         }
@@ -0,0 +1,970 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure;
+
+import gnu.trove.set.hash.TIntHashSet;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateDoubleVector;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Layered graph of the words of length <i>n</i> recognized by an automaton, unfolded over the domains of <i>n</i> variables,
+ * as used by regular-like propagators.
+ * <p>
+ * The layer <i>l</i> of nodes holds the states reachable after reading <i>l</i> values and from which a final state
+ * can be reached after reading <i>n-l</i> values. An arc from a node of layer <i>l</i> to a node of layer <i>l+1</i>
+ * is labeled with a value of the <i>l</i>-th variable, which is supported as long as one of its arcs remains.
+ * <p>
+ * The graph is stored in flat arrays of int: nodes and arcs are numbered layer by layer and arcs are sorted by origin.
+ * The remaining nodes of each layer, the outgoing arcs and the incoming arcs of each remaining node, and the arcs
+ * labeled with each value, are reversible sparse sets: their remaining elements come first, and only their sizes are
+ * stored in a {@link IStateIntVector}.
+ * <p>
+ * Removals are processed as in MDD-4R ("Improving GAC-4 for Table and MDD Constraints", Perez and Régin, CP14):
+ * the arcs of the removed values of a layer are removed together, then the nodes which lost all their incoming
+ * (resp. outgoing) arcs are removed layer by layer, towards the sinks (resp. the source).
+ * In each layer, when more arcs are removed than kept, the sets of the layer are rebuilt from the kept arcs instead,
+ * so that the cost of a removal is bounded by what remains.
+ * <p>
+ * When the automaton is an {@link ICostAutomaton}, arcs are valued, and the shortest and longest paths from the source
+ * and to the sink are maintained for each node. After arc removals, only the layers which lost arcs,
+ * and the following (resp. preceding) ones as long as path values change, are relaxed again.
+ * <p>
+ * Propagators which maintain their own path values, like multi-cost-regular (see {@code MultiCostLayeredGraph}),
+ * iterate over the remaining nodes and arcs, and remove arcs one by one with {@link #removeArc(int)}.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class LayeredGraph {
+
+    /**
+     * Number of layers of arcs, that is, of variables
+     */
+    private final int n;
+    /**
+     * Number of nodes
+     */
+    private final int nbNodes;
+    /**
+     * Index of value <i>v</i> of variable <i>l</i> is <code>starts[l] + v - offsets[l]</code>
+     */
+    private final int[] offsets, starts;
+    /**
+     * Nodes of layer <i>l</i> are in <code>[layerNodes[l], layerNodes[l+1])</code>
+     */
+    private final int[] layerNodes;
+    /**
+     * Layer of each node
+     */
+    private final int[] nodeLayers;
+    /**
+     * Nodes of layer <i>l</i>, the remaining ones first, from <code>nodes[layerNodes[l]]</code>
+     */
+    private final int[] nodes, nodePos;
+    /**
+     * Outgoing arcs of node <i>x</i> are <code>outArcs[outStarts[x]]</code> to <code>outArcs[outStarts[x+1]-1]</code>,
+     * and are numbered from <code>outStarts[x]</code> to <code>outStarts[x+1]-1</code>
+     */
+    private final int[] outStarts, outArcs, outPos;
+    /**
+     * Incoming arcs of node <i>x</i> are <code>inArcs[inStarts[x]]</code> to <code>inArcs[inStarts[x+1]-1]</code>
+     */
+    private final int[] inStarts, inArcs, inPos;
+    /**
+     * Arcs labeled with the value of index <i>i</i> are <code>supArcs[supStarts[i]]</code> to
+     * <code>supArcs[supStarts[i+1]-1]</code>
+     */
+    private final int[] supStarts, supArcs, supPos;
+    private final int[] origs, dests, values;
+    /**
+     * Cost of each arc, <i>null</i> if the graph is not valued
+     */
+    private final double[] costs;
+    /**
+     * Number of remaining outgoing arcs per node, incoming arcs per node, arcs per value, nodes per layer,
+     * and arcs per layer, in this order
+     */
+    private final IStateIntVector counters;
+    /**
+     * Indices in {@link #counters} of the number of remaining nodes of layer 0, and of arcs of layer 0
+     */
+    private final int layerSizes, layerArcs;
+    /**
+     * Indices of the removed values of a layer
+     */
+    private final int[] removed;
+    private int nbRemoved;
+    /**
+     * Removed nodes of a layer, and of the next one, nodes of a layer which lost their outgoing arcs,
+     * and removed arcs of a layer
+     */
+    private int[] dying, next;
+    private final int[] up;
+    /**
+     * Numbers of arcs moved back into the lists of the nodes, or values, of a layer, when it is rebuilt
+     */
+    private final int[] fill, fill2;
+    private int[] toRemove;
+
+    /**
+     * Shortest and longest path from the source, and to the sink, of each node
+     */
+    private IStateDoubleVector spfs, lpfs, spft, lpft;
+    /**
+     * Layers of nodes which lost incoming arcs (resp. outgoing arcs) since the last relaxation
+     */
+    private boolean[] forward, backward;
+    /**
+     * Layers of arcs to check again since the path values of their nodes changed
+     */
+    private boolean[] check;
+
+    /**
+     * Builds the graph of the words of length <i>n</i> recognized by <i>automaton</i>, based on the current domains of
+     * the first <i>n</i> variables of <i>vars</i>.
+     * Arcs are valued by {@link ICostAutomaton#getCostByState(int, int, int)} when <i>automaton</i> is a cost automaton
+     * and <i>valued</i> is set to <i>true</i>.
+     *
+     * @param vars      variables, at least <i>n</i>
+     * @param n         length of the words
+     * @param automaton an automaton
+     * @param valued    set to <i>true</i> to value arcs and maintain path values
+     */
+    public LayeredGraph(IntVar[] vars, int n, IAutomaton automaton, boolean valued) {
+        this(vars[0].getEnvironment(), n, unfold(vars, n, automaton, valued));
+    }
+
+    /**
+     * Builds the graph made of the given arcs.
+     * Nodes are numbered layer by layer: the nodes of layer <i>l</i> are in <code>[layerNodes[l], layerNodes[l+1])</code>,
+     * the source is node 0 and the nodes of layer <i>n</i> are the sinks.
+     * Arcs go from a layer to the next one, are sorted by origin, and each node lies on a path from the source to a sink.
+     *
+     * @param environment backtracking environment
+     * @param n           number of layers of arcs
+     * @param layerNodes  first node of each layer, then the number of nodes, of size <i>n+2</i>
+     * @param origs       origin of each arc
+     * @param values      value of each arc
+     * @param dests       destination of each arc
+     */
+    public LayeredGraph(IEnvironment environment, int n, int[] layerNodes, int[] origs, int[] values, int[] dests) {
+        this(environment, n, new Arcs(layerNodes, origs, values, dests, null));
+    }
+
+    private LayeredGraph(IEnvironment environment, int n, Arcs arcs) {
+        this.n = n;
+        this.layerNodes = arcs.layerNodes;
+        this.origs = arcs.origs;
+        this.dests = arcs.dests;
+        this.values = arcs.values;
+        this.costs = arcs.costs;
+        this.nbNodes = layerNodes[n + 1];
+        this.nodeLayers = new int[nbNodes];
+        this.nodes = new int[nbNodes];
+        this.nodePos = new int[nbNodes];
+        int width = 0;
+        for (int l = 0; l <= n; l++) {
+            Arrays.fill(nodeLayers, layerNodes[l], layerNodes[l + 1], l);
+            width = Math.max(width, layerNodes[l + 1] - layerNodes[l]);
+        }
+        for (int x = 0; x < nbNodes; x++) {
+            nodes[x] = nodePos[x] = x;
+        }
+        int nbArcs = origs.length;
+        // values and arcs of each layer
+        this.offsets = new int[n];
+        this.starts = new int[n + 1];
+        int[] mins = new int[n], maxs = new int[n], sizes = new int[n];
+        Arrays.fill(mins, Integer.MAX_VALUE);
+        Arrays.fill(maxs, Integer.MIN_VALUE);
+        for (int a = 0; a < nbArcs; a++) {
+            int l = nodeLayers[origs[a]];
+            mins[l] = Math.min(mins[l], values[a]);
+            maxs[l] = Math.max(maxs[l], values[a]);
+            sizes[l]++;
+        }
+        for (int l = 0; l < n; l++) {
+            offsets[l] = mins[l] <= maxs[l] ? mins[l] : 0;
+            starts[l + 1] = starts[l] + (mins[l] <= maxs[l] ? maxs[l] - mins[l] + 1 : 0);
+            width = Math.max(width, starts[l + 1] - starts[l]);
+        }
+        // outgoing arcs, incoming arcs and supports, in compressed form
+        this.outStarts = new int[nbNodes + 1];
+        this.inStarts = new int[nbNodes + 1];
+        this.supStarts = new int[starts[n] + 1];
+        for (int a = 0; a < nbArcs; a++) {
+            outStarts[origs[a] + 1]++;
+            inStarts[dests[a] + 1]++;
+            supStarts[index(nodeLayers[origs[a]], values[a]) + 1]++;
+        }
+        for (int x = 0; x < nbNodes; x++) {
+            outStarts[x + 1] += outStarts[x];
+            inStarts[x + 1] += inStarts[x];
+        }
+        for (int i = 0; i < starts[n]; i++) {
+            supStarts[i + 1] += supStarts[i];
+        }
+        this.outArcs = new int[nbArcs];
+        this.outPos = new int[nbArcs];
+        this.inArcs = new int[nbArcs];
+        this.inPos = new int[nbArcs];
+        this.supArcs = new int[nbArcs];
+        this.supPos = new int[nbArcs];
+        int[] fillIn = Arrays.copyOf(inStarts, nbNodes);
+        int[] fillSup = Arrays.copyOf(supStarts, starts[n]);
+        for (int a = 0; a < nbArcs; a++) {
+            outArcs[a] = outPos[a] = a;
+            inPos[a] = fillIn[dests[a]]++;
+            inArcs[inPos[a]] = a;
+            supPos[a] = fillSup[index(nodeLayers[origs[a]], values[a])]++;
+            supArcs[supPos[a]] = a;
+        }
+        // reversible part
+        this.layerSizes = 2 * nbNodes + starts[n];
+        this.layerArcs = layerSizes + n + 1;
+        this.counters = environment.makeIntVector(layerArcs + n, 0);
+        for (int x = 0; x < nbNodes; x++) {
+            counters.quickSet(x, outStarts[x + 1] - outStarts[x]);
+            counters.quickSet(nbNodes + x, inStarts[x + 1] - inStarts[x]);
+        }
+        for (int i = 0; i < starts[n]; i++) {
+            counters.quickSet(2 * nbNodes + i, supStarts[i + 1] - supStarts[i]);
+        }
+        for (int l = 0; l <= n; l++) {
+            counters.quickSet(layerSizes + l, layerNodes[l + 1] - layerNodes[l]);
+        }
+        for (int l = 0; l < n; l++) {
+            counters.quickSet(layerArcs + l, sizes[l]);
+        }
+        this.removed = new int[width];
+        this.dying = new int[width];
+        this.next = new int[width];
+        this.up = new int[width];
+        this.fill = new int[width];
+        this.fill2 = new int[width];
+        if (costs != null) {
+            int maxArcs = 0;
+            for (int l = 0; l < n; l++) {
+                maxArcs = Math.max(maxArcs, sizes[l]);
+            }
+            this.toRemove = new int[maxArcs];
+            initPaths(environment);
+        }
+    }
+
+    /**
+     * Unfolds <i>automaton</i> over the domains of the first <i>n</i> variables of <i>vars</i>,
+     * keeping only states reachable from the initial state and from which a final state can be reached.
+     */
+    private static Arcs unfold(IntVar[] vars, int n, IAutomaton automaton, boolean valued) {
+        int nbStates = automaton.getNbStates();
+        TIntHashSet nexts = new TIntHashSet();
+        // forward pass: states reachable from the initial state
+        BitSet[] states = new BitSet[n + 1];
+        for (int l = 0; l <= n; l++) {
+            states[l] = new BitSet(nbStates);
+        }
+        states[0].set(automaton.getInitialState());
+        for (int l = 0; l < n; l++) {
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                for (int j = vars[l].getLB(); j <= vars[l].getUB(); j = vars[l].nextValue(j)) {
+                    nexts.clear();
+                    automaton.delta(k, j, nexts);
+                    for (int q : nexts.toArray()) {
+                        states[l + 1].set(q);
+                    }
+                }
+            }
+        }
+        // backward pass: states from which a final state can be reached
+        for (int k = states[n].nextSetBit(0); k >= 0; k = states[n].nextSetBit(k + 1)) {
+            if (automaton.isNotFinal(k)) {
+                states[n].clear(k);
+            }
+        }
+        int nbArcs = 0;
+        for (int l = n - 1; l >= 0; l--) {
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                int arcs = nbArcs;
+                for (int j = vars[l].getLB(); j <= vars[l].getUB(); j = vars[l].nextValue(j)) {
+                    nexts.clear();
+                    automaton.delta(k, j, nexts);
+                    for (int q : nexts.toArray()) {
+                        if (states[l + 1].get(q)) {
+                            nbArcs++;
+                        }
+                    }
+                }
+                if (arcs == nbArcs) {
+                    states[l].clear(k);
+                }
+            }
+        }
+        // numbering nodes layer by layer
+        int[] layerNodes = new int[n + 2];
+        int[] ids = new int[(n + 1) * nbStates];
+        for (int l = 0; l <= n; l++) {
+            layerNodes[l + 1] = layerNodes[l] + states[l].cardinality();
+            int id = layerNodes[l];
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                ids[l * nbStates + k] = id++;
+            }
+        }
+        // numbering arcs layer by layer, by origin
+        int[] origs = new int[nbArcs];
+        int[] dests = new int[nbArcs];
+        int[] values = new int[nbArcs];
+        double[] costs = valued ? new double[nbArcs] : null;
+        int a = 0;
+        for (int l = 0; l < n; l++) {
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                for (int j = vars[l].getLB(); j <= vars[l].getUB(); j = vars[l].nextValue(j)) {
+                    nexts.clear();
+                    automaton.delta(k, j, nexts);
+                    for (int q : nexts.toArray()) {
+                        if (states[l + 1].get(q)) {
+                            origs[a] = ids[l * nbStates + k];
+                            dests[a] = ids[(l + 1) * nbStates + q];
+                            values[a] = j;
+                            if (valued) {
+                                costs[a] = ((ICostAutomaton) automaton).getCostByState(l, j, k);
+                            }
+                            a++;
+                        }
+                    }
+                }
+            }
+        }
+        return new Arcs(layerNodes, origs, values, dests, costs);
+    }
+
+    private static final class Arcs {
+        private final int[] layerNodes, origs, values, dests;
+        private final double[] costs;
+
+        private Arcs(int[] layerNodes, int[] origs, int[] values, int[] dests, double[] costs) {
+            this.layerNodes = layerNodes;
+            this.origs = origs;
+            this.values = values;
+            this.dests = dests;
+            this.costs = costs;
+        }
+    }
+
+
+
+    //***********************************************************************************
+    // STRUCTURE
+    //***********************************************************************************
+
+    private int index(int l, int value) {
+        return starts[l] + value - offsets[l];
+    }
+
+    private int outDegree(int x) {
+        return counters.quickGet(x);
+    }
+
+    private int inDegree(int x) {
+        return counters.quickGet(nbNodes + x);
+    }
+
+    private int support(int i) {
+        return counters.quickGet(2 * nbNodes + i);
+    }
+
+    /**
+     * @return the index, in {@link #nodes}, following the remaining nodes of layer <i>l</i>
+     */
+    private int layerEnd(int l) {
+        return layerNodes[l] + counters.quickGet(layerSizes + l);
+    }
+
+    /**
+     * @return the source of the graph, -1 if the graph is empty
+     */
+    public int getSource() {
+        return nbNodes > 0 && nodeLayers[0] == 0 ? 0 : -1;
+    }
+
+    /**
+     * @param x a node
+     * @param value a value
+     * @return an arc labeled with <i>value</i> out of <i>x</i> in the initial graph, -1 if there is none
+     */
+    public int getArc(int x, int value) {
+        for (int a = outStarts[x]; a < outStarts[x + 1]; a++) {
+            if (values[a] == value) {
+                return a;
+            }
+        }
+        return -1;
+    }
+
+    public int getOrig(int a) {
+        return origs[a];
+    }
+
+    public int getDest(int a) {
+        return dests[a];
+    }
+
+    public int getValue(int a) {
+        return values[a];
+    }
+
+    public double getCost(int a) {
+        return costs[a];
+    }
+
+    /**
+     * @return the number of nodes of the initial graph
+     */
+    public int getNbNodes() {
+        return nbNodes;
+    }
+
+    /**
+     * @return the number of arcs of the initial graph
+     */
+    public int getNbArcs() {
+        return origs.length;
+    }
+
+    /**
+     * @param x a node
+     * @return the layer of <i>x</i>
+     */
+    public int getLayer(int x) {
+        return nodeLayers[x];
+    }
+
+    /**
+     * @param l a layer of nodes
+     * @return the number of remaining nodes of layer <i>l</i>
+     */
+    public int getLayerSize(int l) {
+        return counters.quickGet(layerSizes + l);
+    }
+
+    /**
+     * @param l a layer of nodes
+     * @param i an index in <i>[0, getLayerSize(l))</i>
+     * @return the <i>i</i>-th remaining node of layer <i>l</i>
+     */
+    public int getNode(int l, int i) {
+        return nodes[layerNodes[l] + i];
+    }
+
+    /**
+     * @param x a node
+     * @return the number of remaining outgoing arcs of <i>x</i>
+     */
+    public int getOutDegree(int x) {
+        return outDegree(x);
+    }
+
+    /**
+     * @param x a node
+     * @param i an index in <i>[0, getOutDegree(x))</i>
+     * @return the <i>i</i>-th remaining outgoing arc of <i>x</i>
+     */
+    public int getOutArc(int x, int i) {
+        return outArcs[outStarts[x] + i];
+    }
+
+    /**
+     * @param x a node
+     * @return the number of remaining incoming arcs of <i>x</i>
+     */
+    public int getInDegree(int x) {
+        return inDegree(x);
+    }
+
+    /**
+     * @param x a node
+     * @param i an index in <i>[0, getInDegree(x))</i>
+     * @return the <i>i</i>-th remaining incoming arc of <i>x</i>
+     */
+    public int getInArc(int x, int i) {
+        return inArcs[inStarts[x] + i];
+    }
+
+    /**
+     * @param l     index of a variable
+     * @param value a value
+     * @return the number of remaining arcs of layer <i>l</i> labeled with <i>value</i>
+     */
+    public int getSupportSize(int l, int value) {
+        return value >= offsets[l] && value < offsets[l] + starts[l + 1] - starts[l] ? support(index(l, value)) : 0;
+    }
+
+    /**
+     * @param l     index of a variable
+     * @param value a value
+     * @param i     an index in <i>[0, getSupportSize(l, value))</i>
+     * @return the <i>i</i>-th remaining arc of layer <i>l</i> labeled with <i>value</i>
+     */
+    public int getSupportArc(int l, int value, int i) {
+        return supArcs[supStarts[index(l, value)] + i];
+    }
+
+    /**
+     * @param a an arc
+     * @return <i>true</i> if <i>a</i> is still in the graph
+     */
+    public boolean isLive(int a) {
+        int i = index(nodeLayers[origs[a]], values[a]);
+        return supPos[a] < supStarts[i] + support(i);
+    }
+
+    /**
+     * @param l     index of a variable
+     * @param value a value
+     * @return <i>true</i> if an arc of layer <i>l</i> labeled with <i>value</i> is still in the graph
+     */
+    public boolean hasSupport(int l, int value) {
+        return value >= offsets[l] && value < offsets[l] + starts[l + 1] - starts[l]
+                && support(index(l, value)) > 0;
+    }
+
+    /**
+     * Records that <i>value</i> was removed from the variable <i>l</i>.
+     * Its arcs are removed by the next call to {@link #removeValues(int, Propagator)}.
+     *
+     * @param l     index of a variable
+     * @param value a value removed from the variable
+     */
+    public void removeValue(int l, int value) {
+        if (hasSupport(l, value)) {
+            removed[nbRemoved++] = index(l, value);
+        }
+    }
+
+    /**
+     * Removes the arcs of layer <i>l</i> labeled with the values recorded by {@link #removeValue(int, int)},
+     * and the nodes and arcs which do not belong to a path from the source to a sink anymore.
+     *
+     * @param l index of a variable
+     * @param p the propagator, which removes values without support
+     * @throws ContradictionException if a domain becomes empty
+     */
+    public void removeValues(int l, Propagator<IntVar> p) throws ContradictionException {
+        int nb = nbRemoved;
+        nbRemoved = 0;
+        if (nb == 0) {
+            return;
+        }
+        int del = 0;
+        for (int k = 0; k < nb; k++) {
+            del += support(removed[k]);
+        }
+        int rem = counters.quickGet(layerArcs + l) - del;
+        counters.quickSet(layerArcs + l, rem);
+        changed(l);
+        int nbUp = 0, nbDown = 0;
+        if (del <= rem) {
+            for (int k = 0; k < nb; k++) {
+                int i = removed[k];
+                int end = supStarts[i] + support(i);
+                counters.quickSet(2 * nbNodes + i, 0);
+                for (int s = supStarts[i]; s < end; s++) {
+                    int a = supArcs[s];
+                    if (remove(outArcs, outPos, outStarts[origs[a]], origs[a], a) == 0) {
+                        up[nbUp++] = origs[a];
+                    }
+                    if (remove(inArcs, inPos, inStarts[dests[a]], nbNodes + dests[a], a) == 0) {
+                        dying[nbDown++] = dests[a];
+                    }
+                }
+            }
+        } else {
+            for (int k = 0; k < nb; k++) {
+                counters.quickSet(2 * nbNodes + removed[k], 0);
+            }
+            // rebuilds the outgoing arcs of layer l and the incoming arcs of layer l+1 from the remaining arcs
+            for (int i = starts[l]; i < starts[l + 1]; i++) {
+                int end = supStarts[i] + support(i);
+                for (int s = supStarts[i]; s < end; s++) {
+                    int a = supArcs[s];
+                    int x = origs[a], y = dests[a];
+                    move(outArcs, outPos, outStarts[x] + fill[nodePos[x] - layerNodes[l]]++, a);
+                    move(inArcs, inPos, inStarts[y] + fill2[nodePos[y] - layerNodes[l + 1]]++, a);
+                }
+            }
+            nbUp = store(l, 0, fill, up);
+            nbDown = store(l + 1, nbNodes, fill2, dying);
+        }
+        sweep(l + 1, nbDown, true, p);
+        System.arraycopy(up, 0, dying, 0, nbUp);
+        sweep(l, nbUp, false, p);
+    }
+
+    /**
+     * Removes the nodes <code>dying[0..nb)</code> of layer <i>k</i>, which lost all their incoming arcs
+     * (resp. outgoing arcs when <i>down</i> is set to <i>false</i>), then their outgoing (resp. incoming) arcs,
+     * and so on with the nodes of the next (resp. previous) layer which lose all their incoming (resp. outgoing) arcs.
+     */
+    private void sweep(int k, int nb, boolean down, Propagator<IntVar> p) throws ContradictionException {
+        // arcs leaving the removed nodes, and arcs of the nodes they reach
+        int[] lStarts = down ? outStarts : inStarts;
+        int[] lArcs = down ? outArcs : inArcs;
+        int lc = down ? 0 : nbNodes;
+        int[] ends = down ? dests : origs;
+        int[] oStarts = down ? inStarts : outStarts;
+        int[] oArcs = down ? inArcs : outArcs;
+        int[] oPos = down ? inPos : outPos;
+        int oc = down ? nbNodes : 0;
+        int step = down ? 1 : -1;
+        while (nb > 0) {
+            for (int j = 0; j < nb; j++) {
+                removeNode(dying[j]);
+            }
+            if (k == (down ? n : 0)) {
+                break;
+            }
+            int al = down ? k : k - 1;
+            int del = 0;
+            for (int j = 0; j < nb; j++) {
+                del += counters.quickGet(lc + dying[j]);
+            }
+            int rem = counters.quickGet(layerArcs + al) - del;
+            counters.quickSet(layerArcs + al, rem);
+            changed(al);
+            int nbNext = 0;
+            if (del <= rem) {
+                for (int j = 0; j < nb; j++) {
+                    int x = dying[j];
+                    int end = lStarts[x] + counters.quickGet(lc + x);
+                    for (int s = lStarts[x]; s < end; s++) {
+                        int a = lArcs[s];
+                        int i = index(al, values[a]);
+                        if (remove(supArcs, supPos, supStarts[i], 2 * nbNodes + i, a) == 0) {
+                            p.getVar(al).removeValue(values[a], p);
+                        }
+                        int y = ends[a];
+                        if (remove(oArcs, oPos, oStarts[y], oc + y, a) == 0) {
+                            next[nbNext++] = y;
+                        }
+                    }
+                }
+            } else {
+                // rebuilds the supports of layer al, and the arcs of layer k + step, from the arcs of the kept nodes
+                int ol = k + step;
+                int last = layerEnd(k);
+                for (int t = layerNodes[k]; t < last; t++) {
+                    int x = nodes[t];
+                    int end = lStarts[x] + counters.quickGet(lc + x);
+                    for (int s = lStarts[x]; s < end; s++) {
+                        int a = lArcs[s];
+                        int i = index(al, values[a]);
+                        int y = ends[a];
+                        move(supArcs, supPos, supStarts[i] + fill[i - starts[al]]++, a);
+                        move(oArcs, oPos, oStarts[y] + fill2[nodePos[y] - layerNodes[ol]]++, a);
+                    }
+                }
+                nbNext = store(ol, oc, fill2, next);
+                for (int i = starts[al]; i < starts[al + 1]; i++) {
+                    counters.quickSet(2 * nbNodes + i, fill[i - starts[al]]);
+                    fill[i - starts[al]] = 0;
+                }
+                for (int i = starts[al]; i < starts[al + 1]; i++) {
+                    if (support(i) == 0) {
+                        p.getVar(al).removeValue(i - starts[al] + offsets[al], p);
+                    }
+                }
+            }
+            int[] tmp = dying;
+            dying = next;
+            next = tmp;
+            nb = nbNext;
+            k += step;
+        }
+    }
+
+    /**
+     * Removes the arc <i>a</i>, for propagators which remove arcs one by one.
+     * Its origin (resp. destination) is removed from its layer when it loses its last outgoing (resp. incoming) arc,
+     * but the arcs which do not belong to a path from the source to a sink anymore are not removed,
+     * and values are not removed from variables: it is up to the caller.
+     *
+     * @param a an arc
+     */
+    public void removeArc(int a) {
+        if (!isLive(a)) {
+            return;
+        }
+        int x = origs[a], y = dests[a];
+        int l = nodeLayers[x];
+        counters.quickSet(layerArcs + l, counters.quickGet(layerArcs + l) - 1);
+        changed(l);
+        int i = index(l, values[a]);
+        remove(supArcs, supPos, supStarts[i], 2 * nbNodes + i, a);
+        if (remove(outArcs, outPos, outStarts[x], x, a) == 0 && nodePos[x] < layerEnd(l)) {
+            removeNode(x);
+        }
+        if (remove(inArcs, inPos, inStarts[y], nbNodes + y, a) == 0 && nodePos[y] < layerEnd(l + 1)) {
+            removeNode(y);
+        }
+    }
+
+    /**
+     * Removes <i>x</i> from the remaining nodes of its layer
+     */
+    private void removeNode(int x) {
+        int l = nodeLayers[x];
+        int last = layerEnd(l) - 1;
+        int y = nodes[last];
+        int px = nodePos[x];
+        nodes[px] = y;
+        nodePos[y] = px;
+        nodes[last] = x;
+        nodePos[x] = last;
+        counters.quickSet(layerSizes + l, last - layerNodes[l]);
+    }
+
+    /**
+     * Sets the sizes of the lists of the remaining nodes of layer <i>l</i>, which are the counters from <i>c</i>,
+     * to the numbers of arcs moved back into them, read from <i>fill</i> which is reset,
+     * and stores in <i>into</i> the nodes whose lists are empty.
+     * Since arcs only move within the part of the lists which remained, the lists are restored on backtrack.
+     *
+     * @return the number of nodes with empty lists
+     */
+    private int store(int l, int c, int[] fill, int[] into) {
+        int nb = 0;
+        int from = layerNodes[l];
+        int last = layerEnd(l);
+        for (int t = from; t < last; t++) {
+            int x = nodes[t];
+            int f = fill[t - from];
+            fill[t - from] = 0;
+            counters.quickSet(c + x, f);
+            if (f == 0) {
+                into[nb++] = x;
+            }
+        }
+        return nb;
+    }
+
+    /**
+     * Moves <i>a</i> after the remaining arcs of the list starting at <i>from</i>, whose size is the counter <i>c</i>,
+     * and decreases the size of the list.
+     *
+     * @return the new size of the list
+     */
+    private int remove(int[] list, int[] pos, int from, int c, int a) {
+        int size = counters.quickGet(c) - 1;
+        move(list, pos, from + size, a);
+        counters.quickSet(c, size);
+        return size;
+    }
+
+    private static void move(int[] list, int[] pos, int to, int a) {
+        int b = list[to];
+        int pa = pos[a];
+        list[pa] = b;
+        pos[b] = pa;
+        list[to] = a;
+        pos[a] = to;
+    }
+
+    /**
+     * Records that arcs of layer <i>l</i> were removed, for the relaxation of paths
+     */
+    private void changed(int l) {
+        if (costs != null) {
+            backward[l] = true;
+            forward[l + 1] = true;
+        }
+    }
+
+    //***********************************************************************************
+    // PATHS
+    //***********************************************************************************
+
+    private void initPaths(IEnvironment environment) {
+        spfs = environment.makeDoubleVector(nbNodes, Double.POSITIVE_INFINITY);
+        lpfs = environment.makeDoubleVector(nbNodes, Double.NEGATIVE_INFINITY);
+        spft = environment.makeDoubleVector(nbNodes, Double.POSITIVE_INFINITY);
+        lpft = environment.makeDoubleVector(nbNodes, Double.NEGATIVE_INFINITY);
+        forward = new boolean[n + 1];
+        backward = new boolean[n + 1];
+        check = new boolean[n];
+        if (nbNodes == 0) {
+            return;
+        }
+        spfs.quickSet(0, 0.);
+        lpfs.quickSet(0, 0.);
+        for (int x = layerNodes[n]; x < nbNodes; x++) {
+            spft.quickSet(x, 0.);
+            lpft.quickSet(x, 0.);
+        }
+        Arrays.fill(forward, 1, n + 1, true);
+        Arrays.fill(backward, 0, n, true);
+        relax();
+    }
+
+    /**
+     * @return the length of the shortest path from the source to the sink
+     */
+    public double getShortestPathValue() {
+        return nbNodes > 0 ? spft.quickGet(0) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the length of the longest path from the source to the sink
+     */
+    public double getLongestPathValue() {
+        return nbNodes > 0 ? lpft.quickGet(0) : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Relaxes again the paths of the nodes of the layers which lost arcs since the last call,
+     * and of the following (resp. preceding) layers as long as path values change.
+     */
+    private void relax() {
+        boolean changed = false;
+        for (int l = 1; l <= n; l++) {
+            if (changed || forward[l]) {
+                forward[l] = false;
+                changed = false;
+                int last = layerEnd(l);
+                for (int t = layerNodes[l]; t < last; t++) {
+                    int x = nodes[t];
+                    int end = inStarts[x] + inDegree(x);
+                    double sp = Double.POSITIVE_INFINITY, lp = Double.NEGATIVE_INFINITY;
+                    for (int s = inStarts[x]; s < end; s++) {
+                        int a = inArcs[s];
+                        sp = Math.min(sp, spfs.quickGet(origs[a]) + costs[a]);
+                        lp = Math.max(lp, lpfs.quickGet(origs[a]) + costs[a]);
+                    }
+                    changed |= spfs.quickSet(x, sp) != sp | lpfs.quickSet(x, lp) != lp;
+                }
+                if (changed && l < n) {
+                    check[l] = true;
+                }
+            }
+        }
+        changed = false;
+        for (int l = n - 1; l >= 0; l--) {
+            if (changed || backward[l]) {
+                backward[l] = false;
+                changed = false;
+                int last = layerEnd(l);
+                for (int t = layerNodes[l]; t < last; t++) {
+                    int x = nodes[t];
+                    int end = outStarts[x] + outDegree(x);
+                    double sp = Double.POSITIVE_INFINITY, lp = Double.NEGATIVE_INFINITY;
+                    for (int s = outStarts[x]; s < end; s++) {
+                        int a = outArcs[s];
+                        sp = Math.min(sp, spft.quickGet(dests[a]) + costs[a]);
+                        lp = Math.max(lp, lpft.quickGet(dests[a]) + costs[a]);
+                    }
+                    changed |= spft.quickSet(x, sp) != sp | lpft.quickSet(x, lp) != lp;
+                }
+                if (changed && l > 0) {
+                    check[l - 1] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the arcs which do not belong to a path of length in <i>[lb, ub]</i>, until a fix point is reached.
+     * Only the layers whose nodes changed path values are scanned, unless <i>all</i> is set to <i>true</i>.
+     *
+     * @param lb  lower bound of the length of a path
+     * @param ub  upper bound of the length of a path
+     * @param all set to <i>true</i> to scan all arcs, for instance when the bounds changed
+     * @param p   the propagator, which removes values without support
+     * @throws ContradictionException if a domain becomes empty
+     */
+    public void filterPaths(double lb, double ub, boolean all, Propagator<IntVar> p) throws ContradictionException {
+        if (all) {
+            Arrays.fill(check, true);
+        }
+        boolean again;
+        do {
+            relax();
+            again = false;
+            for (int l = 0; l < n; l++) {
+                if (check[l]) {
+                    check[l] = false;
+                    int nb = 0;
+                    int last = layerEnd(l);
+                    for (int t = layerNodes[l]; t < last; t++) {
+                        int x = nodes[t];
+                        int end = outStarts[x] + outDegree(x);
+                        for (int s = outStarts[x]; s < end; s++) {
+                            int a = outArcs[s];
+                            double c = costs[a];
+                            if (spfs.quickGet(x) + c + spft.quickGet(dests[a]) > ub
+                                    || lpfs.quickGet(x) + c + lpft.quickGet(dests[a]) < lb) {
+                                toRemove[nb++] = a;
+                            }
+                        }
+                    }
+                    if (nb > 0) {
+                        again = true;
+                        removeArcs(l, nb, p);
+                    }
+                }
+            }
+        } while (again);
+    }
+
+    /**
+     * Removes the arcs <code>toRemove[0..nb)</code> of layer <i>l</i>,
+     * and the nodes and arcs which do not belong to a path from the source to a sink anymore.
+     */
+    private void removeArcs(int l, int nb, Propagator<IntVar> p) throws ContradictionException {
+        counters.quickSet(layerArcs + l, counters.quickGet(layerArcs + l) - nb);
+        changed(l);
+        int nbUp = 0, nbDown = 0;
+        for (int k = 0; k < nb; k++) {
+            int a = toRemove[k];
+            int i = index(l, values[a]);
+            if (remove(supArcs, supPos, supStarts[i], 2 * nbNodes + i, a) == 0) {
+                p.getVar(l).removeValue(values[a], p);
+            }
+            if (remove(outArcs, outPos, outStarts[origs[a]], origs[a], a) == 0) {
+                up[nbUp++] = origs[a];
+            }
+            if (remove(inArcs, inPos, inStarts[dests[a]], nbNodes + dests[a], a) == 0) {
+                dying[nbDown++] = dests[a];
+            }
+        }
+        sweep(l + 1, nbDown, true, p);
+        System.arraycopy(up, 0, dying, 0, nbUp);
+        sweep(l, nbUp, false, p);
+    }
+
+    /**
+     * Forgets the modifications pending from a propagation interrupted by a failure.
+     */
+    public void clear() {
+        nbRemoved = 0;
+        if (costs != null) {
+            Arrays.fill(check, false);
+        }
+    }
+}
@@ -16,7 +16,9 @@ import org.chocosolver.solver.constraints.nary.automata.structure.Node;
  * User: julien
  * Date: Oct 30, 2009
  * Time: 3:48:11 PM
+ * @deprecated only used by {@link StoredValuedDirectedMultiGraph}, this class will be removed in next release
  */
+@Deprecated
 public class Arc extends org.chocosolver.solver.constraints.nary.automata.structure.regular.Arc {
 
     public double cost;
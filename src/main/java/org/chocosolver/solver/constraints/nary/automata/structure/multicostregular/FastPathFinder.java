@@ -23,7 +23,10 @@ import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
  * Mail: julien.menana{at}emn.fr
  * Date: Nov 19, 2009
  * Time: 5:50:53 PM
+ * @deprecated {@link org.chocosolver.solver.constraints.nary.automata.PropMultiCostRegular} is now based on
+ * {@link MultiCostPathFinder}, this class will be removed in next release
  */
+@Deprecated
 public class FastPathFinder {
 
     //***********************************************************************************
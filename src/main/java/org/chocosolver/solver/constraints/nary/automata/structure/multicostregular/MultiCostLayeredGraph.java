@@ -0,0 +1,478 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure.multicostregular;
+
+import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.stack.TIntStack;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.BitSet;
+
+/**
+ * Layered graph of the words recognized by the automaton of a multi-cost-regular constraint, stored in a
+ * {@link LayeredGraph}, with the cost of each arc for each resource,
+ * and the shortest and longest paths from the source and to the sink of each node for each resource.
+ * <p>
+ * The last layer of arcs, labeled with 0 and of cost 0, links the final states to a single sink,
+ * so that the paths from the source to the sink give the bounds of the cost variables.
+ * Costs and path values are stored in flat arrays of double: the entry of an arc, or a node, <i>i</i>
+ * for the resource <i>r</i> is at <code>i * nbR + r</code>.
+ * <p>
+ * Arcs are removed one by one, through a stack: the nodes whose shortest or longest path went through a removed arc
+ * have their path values updated, resource by resource, and the arcs which then exceed the bounds of the cost
+ * variables are stacked in turn. Paths are not recorded: an arc lies on a shortest (resp. longest) path of a node
+ * when the path value of the node is reached through it, so a node may be updated for nothing on ties.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class MultiCostLayeredGraph {
+
+    /**
+     * Layers, nodes and arcs, with their reversible sparse sets
+     */
+    private final LayeredGraph graph;
+    /**
+     * Number of variables
+     */
+    private final int n;
+    /**
+     * Number of resources
+     */
+    final int nbR;
+    final int sourceIndex, tinIndex;
+    private final IntVar[] z;
+    /**
+     * Cost of each arc for each resource
+     */
+    final double[] costs;
+    /**
+     * Shortest and longest path from the source, and to the sink, of each node for each resource
+     */
+    final double[] spfs, spft, lpfs, lpft;
+    /**
+     * Arcs to be removed
+     */
+    private final BitSet inStack;
+    private final MultiCostPathFinder pf;
+    private final double[] layerCosts;
+    private final int[] minmax = new int[2];
+
+    /**
+     * Builds the graph of the words of length <i>vars.length</i> recognized by <i>pi</i>,
+     * based on the current domains of <i>vars</i>.
+     *
+     * @param environment backtracking environment
+     * @param vars        decision variables
+     * @param pi          finite automaton with costs
+     * @param z           cost variables, one per resource
+     */
+    public MultiCostLayeredGraph(IEnvironment environment, IntVar[] vars, ICostAutomaton pi, IntVar[] z) {
+        this.n = vars.length;
+        this.nbR = pi.getNbResources();
+        this.z = z;
+        int nbStates = pi.getNbStates();
+        TIntHashSet nexts = new TIntHashSet();
+        // forward pass: states reachable from the initial state
+        BitSet[] states = new BitSet[n + 1];
+        for (int l = 0; l <= n; l++) {
+            states[l] = new BitSet(nbStates);
+        }
+        states[0].set(pi.getInitialState());
+        for (int l = 0; l < n; l++) {
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                for (int j = vars[l].getLB(); j <= vars[l].getUB(); j = vars[l].nextValue(j)) {
+                    nexts.clear();
+                    pi.delta(k, j, nexts);
+                    for (int q : nexts.toArray()) {
+                        states[l + 1].set(q);
+                    }
+                }
+            }
+        }
+        // backward pass: states from which a final state can be reached
+        for (int k = states[n].nextSetBit(0); k >= 0; k = states[n].nextSetBit(k + 1)) {
+            if (pi.isNotFinal(k)) {
+                states[n].clear(k);
+            }
+        }
+        int nbArcs = states[n].cardinality();
+        for (int l = n - 1; l >= 0; l--) {
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                int arcs = nbArcs;
+                for (int j = vars[l].getLB(); j <= vars[l].getUB(); j = vars[l].nextValue(j)) {
+                    nexts.clear();
+                    pi.delta(k, j, nexts);
+                    for (int q : nexts.toArray()) {
+                        if (states[l + 1].get(q)) {
+                            nbArcs++;
+                        }
+                    }
+                }
+                if (arcs == nbArcs) {
+                    states[l].clear(k);
+                }
+            }
+        }
+        // numbering nodes layer by layer, the sink is alone in layer n + 1
+        int[] layerNodes = new int[n + 3];
+        int[] ids = new int[(n + 1) * nbStates];
+        for (int l = 0; l <= n; l++) {
+            layerNodes[l + 1] = layerNodes[l] + states[l].cardinality();
+            int id = layerNodes[l];
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                ids[l * nbStates + k] = id++;
+            }
+        }
+        layerNodes[n + 2] = layerNodes[n + 1] + (states[n].isEmpty() ? 0 : 1);
+        int nbNodes = layerNodes[n + 2];
+        // numbering arcs layer by layer, by origin
+        int[] origs = new int[nbArcs];
+        int[] dests = new int[nbArcs];
+        int[] values = new int[nbArcs];
+        this.costs = new double[nbArcs * nbR];
+        int a = 0;
+        for (int l = 0; l < n; l++) {
+            for (int k = states[l].nextSetBit(0); k >= 0; k = states[l].nextSetBit(k + 1)) {
+                for (int j = vars[l].getLB(); j <= vars[l].getUB(); j = vars[l].nextValue(j)) {
+                    nexts.clear();
+                    pi.delta(k, j, nexts);
+                    for (int q : nexts.toArray()) {
+                        if (states[l + 1].get(q)) {
+                            origs[a] = ids[l * nbStates + k];
+                            dests[a] = ids[(l + 1) * nbStates + q];
+                            values[a] = j;
+                            for (int r = 0; r < nbR; r++) {
+                                costs[a * nbR + r] = pi.getCostByResourceAndState(l, j, r, k);
+                            }
+                            a++;
+                        }
+                    }
+                }
+            }
+        }
+        for (int x = layerNodes[n]; x < layerNodes[n + 1]; x++) {
+            origs[a] = x;
+            dests[a] = nbNodes - 1;
+            a++;
+        }
+        this.graph = new LayeredGraph(environment, n + 1, layerNodes, origs, values, dests);
+        this.sourceIndex = 0;
+        this.tinIndex = nbNodes - 1;
+        this.inStack = new BitSet(nbArcs);
+        this.spfs = new double[nbNodes * nbR];
+        this.spft = new double[nbNodes * nbR];
+        this.lpfs = new double[nbNodes * nbR];
+        this.lpft = new double[nbNodes * nbR];
+        this.layerCosts = new double[nbR];
+        this.pf = new MultiCostPathFinder(this);
+    }
+
+    /**
+     * @return the layers, nodes and arcs of the graph
+     */
+    public final LayeredGraph getLayeredGraph() {
+        return graph;
+    }
+
+    /**
+     * @return <i>true</i> if no word is recognized
+     */
+    public final boolean isEmpty() {
+        return graph.getSource() < 0;
+    }
+
+    public final MultiCostPathFinder getPathFinder() {
+        return pf;
+    }
+
+    /**
+     * @param a        an arc
+     * @param resource a resource
+     * @return the cost of <i>a</i> for <i>resource</i>, 0 for the arcs leading to the sink
+     */
+    public final double getCost(int a, int resource) {
+        return costs[a * nbR + resource];
+    }
+
+    public void delayedBoundUpdate(TIntStack toRemove, IntVar[] z, int... dim) {
+        for (int i = 0; i < n; i++) {
+            for (int t = 0; t < graph.getLayerSize(i); t++) {
+                int orig = graph.getNode(i, t);
+                for (int s = 0; s < graph.getOutDegree(orig); s++) {
+                    int arc = graph.getOutArc(orig, s);
+                    int dest = graph.getDest(arc);
+                    for (int k : dim) {
+                        double cost = costs[arc * nbR + k];
+                        if (spfs[orig * nbR + k] + cost + spft[dest * nbR + k] > z[k].getUB() ||
+                                lpfs[orig * nbR + k] + cost + lpft[dest * nbR + k] < z[k].getLB()) {
+                            if (!isInStack(arc)) {
+                                setInStack(arc);
+                                toRemove.push(arc);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void removeArc(int arcId, TIntStack toRemove, TIntStack[] updateLeft, TIntStack[] updateRight,
+                          Propagator<IntVar> propagator) throws ContradictionException {
+        inStack.clear(arcId);
+        int orig = graph.getOrig(arcId);
+        int dest = graph.getDest(arcId);
+        int layer = graph.getLayer(orig);
+        int value = graph.getValue(arcId);
+
+        graph.removeArc(arcId);
+        if (layer < n && graph.getSupportSize(layer, value) == 0) {
+            propagator.getVar(layer).removeValue(value, propagator);
+        }
+
+        if (graph.getOutDegree(orig) == 0) {
+            if (layer > 0) {
+                for (int i = 0; i < graph.getInDegree(orig); i++) {
+                    int id = graph.getInArc(orig, i);
+                    if (!isInStack(id)) {
+                        setInStack(id);
+                        toRemove.push(id);
+                    }
+                }
+            }
+        } else {
+            for (int k = 0; k < nbR; k++) {
+                double cost = costs[arcId * nbR + k];
+                if (spft[orig * nbR + k] == spft[dest * nbR + k] + cost
+                        || lpft[orig * nbR + k] == lpft[dest * nbR + k] + cost) {
+                    updateRight[k].push(orig);
+                }
+            }
+        }
+
+        if (graph.getInDegree(dest) == 0) {
+            if (layer + 1 < n) {
+                for (int i = 0; i < graph.getOutDegree(dest); i++) {
+                    int id = graph.getOutArc(dest, i);
+                    if (!isInStack(id)) {
+                        setInStack(id);
+                        toRemove.push(id);
+                    }
+                }
+            }
+        } else {
+            for (int k = 0; k < nbR; k++) {
+                double cost = costs[arcId * nbR + k];
+                if (spfs[dest * nbR + k] == spfs[orig * nbR + k] + cost
+                        || lpfs[dest * nbR + k] == lpfs[orig * nbR + k] + cost) {
+                    updateLeft[k].push(dest);
+                }
+            }
+        }
+    }
+
+    public void updateRight(TIntStack updateRight, TIntStack toRemove, int dim, boolean[] modBound,
+                            Propagator<IntVar> propagator) throws ContradictionException {
+        int nid = updateRight.pop();
+        double tempPval = Double.POSITIVE_INFINITY;
+        double tempPval2 = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < graph.getOutDegree(nid); i++) {
+            int arcId = graph.getOutArc(nid, i);
+            int dest = graph.getDest(arcId);
+            tempPval = Math.min(tempPval, spft[dest * nbR + dim] + costs[arcId * nbR + dim]);
+            tempPval2 = Math.max(tempPval2, lpft[dest * nbR + dim] + costs[arcId * nbR + dim]);
+        }
+        int idx = nid * nbR + dim;
+        double old = spft[idx];
+        spft[idx] = tempPval;
+        double old2 = lpft[idx];
+        lpft[idx] = tempPval2;
+
+        if (nid == sourceIndex) {
+            if (dim == 0) {
+                modBound[0] |= z[0].updateLowerBound((int) Math.ceil(tempPval), propagator);
+                modBound[1] |= z[0].updateUpperBound((int) Math.floor(tempPval2), propagator);
+            } else {
+                z[dim].updateLowerBound((int) Math.ceil(tempPval), propagator);
+                z[dim].updateUpperBound((int) Math.floor(tempPval2), propagator);
+            }
+        }
+
+        if (nid != sourceIndex && (old != tempPval || old2 != tempPval2)) {
+            for (int i = 0; i < graph.getInDegree(nid); i++) {
+                int arcId = graph.getInArc(nid, i);
+                int orig = graph.getOrig(arcId);
+                double acost = costs[arcId * nbR + dim];
+                if ((old != tempPval && spft[orig * nbR + dim] == old + acost)
+                        || (old2 != tempPval2 && lpft[orig * nbR + dim] == old2 + acost)) {
+                    updateRight.push(orig);
+                }
+                double spfs = this.spfs[orig * nbR + dim];
+                double lpfs = this.lpfs[orig * nbR + dim];
+                if (!isInStack(arcId) && (tempPval + spfs + acost > z[dim].getUB()
+                        || tempPval2 + lpfs + acost < z[dim].getLB())) {
+                    setInStack(arcId);
+                    toRemove.push(arcId);
+                }
+            }
+        }
+    }
+
+    public void updateLeft(TIntStack updateLeft, TIntStack toRemove, int dim, boolean[] modBound,
+                           Propagator<IntVar> propagator) throws ContradictionException {
+        int nid = updateLeft.pop();
+        double tempPval = Double.POSITIVE_INFINITY;
+        double tempPval2 = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < graph.getInDegree(nid); i++) {
+            int arcId = graph.getInArc(nid, i);
+            int orig = graph.getOrig(arcId);
+            tempPval = Math.min(tempPval, spfs[orig * nbR + dim] + costs[arcId * nbR + dim]);
+            tempPval2 = Math.max(tempPval2, lpfs[orig * nbR + dim] + costs[arcId * nbR + dim]);
+        }
+        int idx = nid * nbR + dim;
+        double old = spfs[idx];
+        spfs[idx] = tempPval;
+        double old2 = lpfs[idx];
+        lpfs[idx] = tempPval2;
+
+        if (nid == tinIndex) {
+            if (dim == 0) {
+                modBound[0] |= z[0].updateLowerBound((int) Math.ceil(tempPval), propagator);
+                modBound[1] |= z[0].updateUpperBound((int) Math.floor(tempPval2), propagator);
+            } else {
+                z[dim].updateLowerBound((int) Math.ceil(tempPval), propagator);
+                z[dim].updateUpperBound((int) Math.floor(tempPval2), propagator);
+            }
+        }
+
+        if (nid != tinIndex && (old != tempPval || old2 != tempPval2)) {
+            for (int i = 0; i < graph.getOutDegree(nid); i++) {
+                int arcId = graph.getOutArc(nid, i);
+                int dest = graph.getDest(arcId);
+                double acost = costs[arcId * nbR + dim];
+                if ((old != tempPval && spfs[dest * nbR + dim] == old + acost)
+                        || (old2 != tempPval2 && lpfs[dest * nbR + dim] == old2 + acost)) {
+                    updateLeft.push(dest);
+                }
+                double spft = this.spft[dest * nbR + dim];
+                double lpft = this.lpft[dest * nbR + dim];
+                if (!isInStack(arcId) && (tempPval + spft + acost > z[dim].getUB()
+                        || tempPval2 + lpft + acost < z[dim].getLB())) {
+                    setInStack(arcId);
+                    toRemove.push(arcId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Getter to the is arc in to be removed stack bitSet
+     *
+     * @return a bitset
+     */
+    public final BitSet getInStack() {
+        return inStack;
+    }
+
+    /**
+     * Getter, the idx th bit of the inStack bitSet
+     *
+     * @param idx the index of the arc
+     * @return true if a given arc is to be deleted
+     */
+    public final boolean isInStack(int idx) {
+        return inStack.get(idx);
+    }
+
+    /**
+     * Set the idx th bit of the to be removed bitset
+     *
+     * @param idx the index of the bit
+     */
+    public final void setInStack(int idx) {
+        inStack.set(idx);
+    }
+
+    /**
+     * @return the cost, summed over <i>resources</i>, of the shortest path through the arcs of <i>layer</i> labeled
+     * with <i>value</i>, minus the cost of the shortest path
+     */
+    public int getRegret(int layer, int value, int... resources) {
+        int result = getMinPathCostForAssignment(layer, value, resources);
+        for (int r : resources) {
+            result -= spft[sourceIndex * nbR + r];
+        }
+        return result;
+    }
+
+    public int getMinPathCostForAssignment(int layer, int value, int... resources) {
+        int result = Integer.MAX_VALUE;
+        for (int i = 0; i < graph.getSupportSize(layer, value); i++) {
+            int cost = (int) pathCost(graph.getSupportArc(layer, value, i), resources);
+            if (cost < result)
+                result = cost;
+        }
+        return result;
+    }
+
+    public int[] getMinMaxPathCostForAssignment(int layer, int value, int... resources) {
+        minmax[0] = Integer.MAX_VALUE;
+        minmax[1] = Integer.MIN_VALUE;
+        for (int i = 0; i < graph.getSupportSize(layer, value); i++) {
+            int cost = (int) pathCost(graph.getSupportArc(layer, value, i), resources);
+            if (cost < minmax[0])
+                minmax[0] = cost;
+            if (cost > minmax[1])
+                minmax[1] = cost;
+        }
+        return minmax;
+    }
+
+    /**
+     * @return the cost, summed over <i>resources</i>, of the shortest path through <i>arcId</i>
+     */
+    private double pathCost(int arcId, int... resources) {
+        int origId = graph.getOrig(arcId);
+        int destId = graph.getDest(arcId);
+        double cost = 0d;
+        for (int r : resources) {
+            cost += spfs[origId * nbR + r] + costs[arcId * nbR + r] + spft[destId * nbR + r];
+        }
+        return cost;
+    }
+
+    /**
+     * @return the costs, for each resource, of the first remaining arc of <i>layer</i>,
+     * in an array overwritten by the next call
+     */
+    public double[] getInstantiatedLayerCosts(int layer) {
+        int node = graph.getNode(layer, 0);
+        int arcId = graph.getOutArc(node, 0);
+        System.arraycopy(costs, arcId * nbR, layerCosts, 0, nbR);
+        return layerCosts;
+    }
+
+    public int getMinPathCost(int... resources) {
+        double result = 0;
+        for (int r : resources) {
+            result += spft[sourceIndex * nbR + r];
+        }
+        return (int) result;
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure.multicostregular;
+
+import gnu.trove.stack.TIntStack;
+
+import org.chocosolver.solver.constraints.nary.automata.PropMultiCostRegular;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * Path finding algorithms over a {@link MultiCostLayeredGraph}: the shortest and longest paths for each resource,
+ * and the shortest and longest paths of the Lagrangian subproblems of {@link PropMultiCostRegular},
+ * computed over the whole graph, since the costs of the arcs change with the Lagrangian multipliers.
+ * The arcs to be removed are ignored.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class MultiCostPathFinder {
+
+    private final MultiCostLayeredGraph graph;
+    private final LayeredGraph layers;
+    private final int[] sp;
+    private final int nbLayer;
+    /**
+     * Number of resources relaxed in the Lagrangian subproblems
+     */
+    private final int nbR;
+    private final boolean[] modified = new boolean[2];
+    /**
+     * Shortest and longest path from the source, and to the sink, of each node in the last Lagrangian subproblem
+     */
+    private final double[] spfs, spft, lpfs, lpft;
+    /**
+     * Arc of the shortest and longest path to the sink of each node in the last Lagrangian subproblem
+     */
+    private final int[] nextSP, nextLP;
+    /**
+     * Cost of each arc in the last Lagrangian subproblem
+     */
+    private final double[] temporaryCost;
+    private final double[] tmpU;
+
+    public MultiCostPathFinder(MultiCostLayeredGraph graph) {
+        this.graph = graph;
+        this.layers = graph.getLayeredGraph();
+        this.nbLayer = graph.tinIndex < 0 ? 0 : layers.getLayer(graph.tinIndex);
+        this.sp = new int[nbLayer];
+        this.nbR = graph.nbR - 1;
+        this.tmpU = new double[nbR];
+        int nbNodes = layers.getNbNodes();
+        this.spfs = new double[nbNodes];
+        this.spft = new double[nbNodes];
+        this.lpfs = new double[nbNodes];
+        this.lpft = new double[nbNodes];
+        this.nextSP = new int[nbNodes];
+        this.nextLP = new int[nbNodes];
+        Arrays.fill(nextSP, Integer.MIN_VALUE);
+        Arrays.fill(nextLP, Integer.MIN_VALUE);
+        this.temporaryCost = new double[layers.getNbArcs()];
+    }
+
+    private double getCost(int e, int resource, double[] u, boolean lagrange, boolean max) {
+        double cost;
+        if (!lagrange)
+            cost = graph.getCost(e, resource);
+        else {
+            double tmp = 0.0;
+            for (int k = 1; k <= nbR; k++) {
+                tmp += (u[k - 1]) * graph.getCost(e, k);
+            }
+            if (max) tmp = -tmp;
+            cost = graph.getCost(e, 0) + tmp;
+        }
+        temporaryCost[e] = cost;
+        return cost;
+    }
+
+    private double[] simplifyLagrangian(double[] u) {
+        for (int k = 1; k <= nbR; k++)
+            tmpU[k - 1] = u[k - 1] - u[k - 1 + nbR];
+        return tmpU;
+    }
+
+    private static boolean isAllZero(double[] u) {
+        for (double d : u) {
+            if (d != 0.0)
+                return false;
+        }
+        return true;
+    }
+
+    public void computeLongestPath(TIntStack removed, double lb, double[] u, boolean lagrange, boolean max,
+                                   int resource, PropMultiCostRegular propagator) throws ContradictionException {
+        boolean update;
+        if (lagrange) {
+            if (isAllZero(u)) {
+                u = null;
+                lagrange = false;
+                resource = 0;
+            } else {
+                u = simplifyLagrangian(u);
+            }
+        }
+
+        lpfs[graph.sourceIndex] = 0.0;
+        lpft[graph.tinIndex] = 0.0;
+
+        for (int i = 1; i <= nbLayer; i++) {
+            update = false;
+            for (int w = layers.getLayerSize(i) - 1; w >= 0; w--) {
+                int dest = layers.getNode(i, w);
+                assert (layers.getInDegree(dest) > 0);
+                lpfs[dest] = Double.NEGATIVE_INFINITY;
+                for (int x = 0; x < layers.getInDegree(dest); x++) {
+                    int e = layers.getInArc(dest, x);
+                    if (!graph.isInStack(e)) {
+                        int orig = layers.getOrig(e);
+                        double newCost = lpfs[orig] + getCost(e, resource, u, lagrange, max);
+                        if (lpfs[dest] < newCost) {
+                            lpfs[dest] = newCost;
+                            update = true;
+                        }
+                    }
+                }
+            }
+            if (!update) propagator.fails();
+        }
+        for (int i = nbLayer - 1; i >= 0; i--) {
+            update = false;
+            for (int w = layers.getLayerSize(i) - 1; w >= 0; w--) {
+                int orig = layers.getNode(i, w);
+                assert (layers.getOutDegree(orig) > 0);
+                lpft[orig] = Double.NEGATIVE_INFINITY;
+                for (int x = 0; x < layers.getOutDegree(orig); x++) {
+                    int e = layers.getOutArc(orig, x);
+                    if (!graph.isInStack(e)) {
+                        int next = layers.getDest(e);
+                        double newCost = lpft[next] + temporaryCost[e];
+                        if (newCost + lpfs[orig] - lb <= -propagator._MCR_DECIMAL_PREC) {
+                            graph.setInStack(e);
+                            removed.push(e);
+                        } else if (lpft[orig] < newCost) {
+                            lpft[orig] = newCost;
+                            nextLP[orig] = e;
+                            update = true;
+                        }
+                    }
+                }
+            }
+            if (!update) propagator.fails();
+        }
+    }
+
+    public final double getLongestPathValue() {
+        return lpft[graph.sourceIndex];
+    }
+
+    public int[] getLongestPath() {
+        int i = 0;
+        int current = graph.sourceIndex;
+        do {
+            int e = nextLP[current];
+            sp[i++] = e;
+            current = layers.getDest(e);
+        } while (nextLP[current] != Integer.MIN_VALUE);
+        return sp;
+    }
+
+    public void computeShortestPath(TIntStack removed, double ub, double[] u, boolean lagrange, boolean max,
+                                    int resource, PropMultiCostRegular propagator) throws ContradictionException {
+        spfs[graph.sourceIndex] = 0.0;
+        spft[graph.tinIndex] = 0.0;
+        boolean update;
+        if (lagrange) {
+            if (isAllZero(u)) {
+                u = null;
+                lagrange = false;
+                resource = 0;
+            } else {
+                u = simplifyLagrangian(u);
+            }
+        }
+
+        for (int i = 1; i <= nbLayer; i++) {
+            update = false;
+            for (int w = layers.getLayerSize(i) - 1; w >= 0; w--) {
+                int dest = layers.getNode(i, w);
+                spfs[dest] = Double.POSITIVE_INFINITY;
+                assert (layers.getInDegree(dest) > 0);
+                for (int x = 0; x < layers.getInDegree(dest); x++) {
+                    int e = layers.getInArc(dest, x);
+                    if (!graph.isInStack(e)) {
+                        int orig = layers.getOrig(e);
+                        double newCost = spfs[orig] + getCost(e, resource, u, lagrange, max);
+                        if (spfs[dest] > newCost) {
+                            spfs[dest] = newCost;
+                            update = true;
+                        }
+                    }
+                }
+            }
+            if (!update) propagator.fails();
+        }
+        for (int i = nbLayer - 1; i >= 0; i--) {
+            update = false;
+            for (int w = layers.getLayerSize(i) - 1; w >= 0; w--) {
+                int orig = layers.getNode(i, w);
+                spft[orig] = Double.POSITIVE_INFINITY;
+                assert (layers.getOutDegree(orig) > 0);
+                for (int x = 0; x < layers.getOutDegree(orig); x++) {
+                    int e = layers.getOutArc(orig, x);
+                    if (!graph.isInStack(e)) {
+                        int dest = layers.getDest(e);
+                        double newCost = spft[dest] + temporaryCost[e];
+                        if (newCost + spfs[orig] - ub >= propagator._MCR_DECIMAL_PREC) {
+                            graph.setInStack(e);
+                            removed.push(e);
+                        } else if (spft[orig] > newCost) {
+                            spft[orig] = newCost;
+                            nextSP[orig] = e;
+                            update = true;
+                        }
+                    }
+                }
+            }
+            if (!update) propagator.fails();
+        }
+    }
+
+    public final double getShortestPathValue() {
+        return spft[graph.sourceIndex];
+    }
+
+    public int[] getShortestPath() {
+        int i = 0;
+        int current = graph.sourceIndex;
+        do {
+            int e = nextSP[current];
+            sp[i++] = e;
+            current = layers.getDest(e);
+        } while (nextSP[current] != Integer.MIN_VALUE);
+        return sp;
+    }
+
+    public boolean[] computeShortestAndLongestPath(TIntStack removed, IntVar[] z,
+                                                   PropMultiCostRegular propagator) throws ContradictionException {
+        int nbr = z.length;
+        int r = graph.nbR;
+        double[] spfs = graph.spfs, spft = graph.spft, lpfs = graph.lpfs, lpft = graph.lpft;
+        int s = graph.sourceIndex * r, t = graph.tinIndex * r;
+        for (int i = 0; i < nbr; i++) {
+            spfs[s + i] = 0.0;
+            spft[t + i] = 0.0;
+            lpfs[s + i] = 0.0;
+            lpft[t + i] = 0.0;
+        }
+        boolean update;
+
+        for (int i = 1; i <= nbLayer; i++) {
+            update = false;
+            for (int w = layers.getLayerSize(i) - 1; w >= 0; w--) {
+                int dest = layers.getNode(i, w);
+                Arrays.fill(spfs, dest * r, dest * r + nbr, Double.POSITIVE_INFINITY);
+                Arrays.fill(lpfs, dest * r, dest * r + nbr, Double.NEGATIVE_INFINITY);
+                assert (layers.getInDegree(dest) > 0);
+                for (int x = 0; x < layers.getInDegree(dest); x++) {
+                    int e = layers.getInArc(dest, x);
+                    if (!graph.isInStack(e)) {
+                        int orig = layers.getOrig(e);
+                        for (int d = 0; d < nbr; d++) {
+                            double cost = graph.costs[e * r + d];
+                            if (spfs[dest * r + d] > cost + spfs[orig * r + d]) {
+                                spfs[dest * r + d] = cost + spfs[orig * r + d];
+                                update = true;
+                            }
+                            if (lpfs[dest * r + d] < lpfs[orig * r + d] + cost) {
+                                lpfs[dest * r + d] = lpfs[orig * r + d] + cost;
+                                update = true;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!update) propagator.fails();
+        }
+        for (int i = nbLayer - 1; i >= 0; i--) {
+            update = false;
+            for (int w = layers.getLayerSize(i) - 1; w >= 0; w--) {
+                int orig = layers.getNode(i, w);
+                Arrays.fill(spft, orig * r, orig * r + nbr, Double.POSITIVE_INFINITY);
+                Arrays.fill(lpft, orig * r, orig * r + nbr, Double.NEGATIVE_INFINITY);
+                assert (layers.getOutDegree(orig) > 0);
+                for (int x = 0; x < layers.getOutDegree(orig); x++) {
+                    int e = layers.getOutArc(orig, x);
+                    if (!graph.isInStack(e)) {
+                        int dest = layers.getDest(e);
+                        for (int d = 0; d < nbr; d++) {
+                            double cost = graph.costs[e * r + d];
+                            if (spft[dest * r + d] + cost + spfs[orig * r + d] - z[d].getUB() >= propagator._MCR_DECIMAL_PREC) {
+                                graph.setInStack(e);
+                                removed.push(e);
+                                break;
+                            } else if (spft[orig * r + d] > spft[dest * r + d] + cost) {
+                                spft[orig * r + d] = spft[dest * r + d] + cost;
+                                update = true;
+                            }
+
+                            if (lpft[dest * r + d] + cost + lpfs[orig * r + d] - z[d].getLB() <= -propagator._MCR_DECIMAL_PREC) {
+                                graph.setInStack(e);
+                                removed.push(e);
+                                break;
+                            } else if (lpft[orig * r + d] < lpft[dest * r + d] + cost) {
+                                lpft[orig * r + d] = lpft[dest * r + d] + cost;
+                                update = true;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!update) propagator.fails();
+        }
+
+        modified[0] = z[0].updateLowerBound((int) Math.ceil(spft[s]), propagator);
+        modified[1] = z[0].updateUpperBound((int) Math.floor(lpft[s]), propagator);
+
+        for (int i = 1; i < nbr; i++) {
+            z[i].updateLowerBound((int) Math.ceil(spft[s + i]), propagator);
+            z[i].updateUpperBound((int) Math.floor(lpft[s + i]), propagator);
+        }
+
+        return modified;
+    }
+}
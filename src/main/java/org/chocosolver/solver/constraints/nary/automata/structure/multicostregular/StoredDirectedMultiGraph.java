@@ -31,7 +31,10 @@ import org.jgrapht.graph.DirectedMultigraph;
  * Mail: julien.menana{at}emn.fr
  * Date: Nov 4, 2009
  * Time: 1:07:19 PM
+ * @deprecated {@link org.chocosolver.solver.constraints.nary.automata.PropMultiCostRegular} is now based on
+ * {@link MultiCostLayeredGraph}, this class will be removed in next release
  */
+@Deprecated
 public class StoredDirectedMultiGraph {
 
     private int[] starts;
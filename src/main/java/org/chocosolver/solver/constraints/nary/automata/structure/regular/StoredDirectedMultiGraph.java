@@ -30,7 +30,10 @@ import java.util.Set;
  * Mail: julien.menana{at}emn.fr
  * Date: Nov 4, 2009
  * Time: 1:07:19 PM
+ * @deprecated {@link org.chocosolver.solver.constraints.nary.automata.PropRegular} is now based on
+ * {@link org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph}, this class will be removed in next release
  */
+@Deprecated
 public class StoredDirectedMultiGraph {
 
 	private int[] starts;
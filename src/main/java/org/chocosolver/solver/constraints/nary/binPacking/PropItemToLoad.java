@@ -17,7 +17,7 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import static org.chocosolver.solver.variables.events.IEventType.ALL_EVENTS;
@@ -48,10 +48,10 @@ public class PropItemToLoad extends Propagator<IntVar> {
 	private IIntDeltaMonitor[] monitors;
 
 	// method to be called for each removed value
-	private UnaryIntProcedure<Integer> procedure = new UnaryIntProcedure<Integer>() {
+	private IndexedIntProcedure procedure = new IndexedIntProcedure() {
 		int item;
 		@Override
-		public UnaryIntProcedure<Integer> set(Integer itemIdx) {
+		public IndexedIntProcedure set(int itemIdx) {
 			item = itemIdx;
 			return this;
 		}
@@ -145,7 +145,7 @@ public class PropItemToLoad extends Propagator<IntVar> {
 	@Override
 	public void propagate(int item, int evtmask) throws ContradictionException {
 		monitors[item].freeze();
-		monitors[item].forEachRemVal(procedure.set(item));
+		monitors[item].forEachRemVal(procedure, item);
 		monitors[item].unfreeze();
 		if(binOfItem[item].isInstantiated()){
 			int bin = binOfItem[item].getValue()-offset;
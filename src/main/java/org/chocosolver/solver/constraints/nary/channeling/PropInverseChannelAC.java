@@ -16,7 +16,7 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.Arrays;
@@ -76,7 +76,7 @@ public class PropInverseChannelAC extends Propagator<IntVar> {
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
         idms[varIdx].freeze();
-        idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
+        idms[varIdx].forEachRemVal(rem_proc, varIdx);
         idms[varIdx].unfreeze();
     }
 
@@ -102,11 +102,11 @@ public class PropInverseChannelAC extends Propagator<IntVar> {
         }
     }
 
-    private class RemProc implements UnaryIntProcedure<Integer> {
+    private class RemProc implements IndexedIntProcedure {
         private int var;
 
         @Override
-        public UnaryIntProcedure set(Integer idxVar) {
+        public IndexedIntProcedure set(int idxVar) {
             this.var = idxVar;
             return this;
         }
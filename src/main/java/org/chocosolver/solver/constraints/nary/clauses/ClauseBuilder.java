@@ -119,6 +119,17 @@ public class ClauseBuilder {
      * @return the contraint or null if always true
      */
     public void buildNogood(Model model) {
+        buildNogood(model, false);
+    }
+
+    /**
+     * Build the nogood in memory and post it to <i>model</i>
+     *
+     * @param model  the model to post the nogood in
+     * @param shared set to <i>true</i> when the nogood was learnt by another solver
+     *               (see {@link ClauseStore#addShared(IntVar[], IntIterableRangeSet[])})
+     */
+    public void buildNogood(Model model, boolean shared) {
         if ((status & ALWAYSTRUE) == 0) {
             if ((status & UNKNOWN) != 0) { // at least one clause is unknown
                 if (ELIMINATE_VIEWS) eliminateViews();
@@ -137,7 +148,11 @@ public class ClauseBuilder {
                         for (int i = 0; i < _vars.length; i++) {
                             ranges[i] = sets.get(_vars[i].getId());
                         }
-                        model.getClauseConstraint().addClause(_vars, ranges);
+                        if (shared) {
+                            model.getClauseConstraint().addSharedClause(_vars, ranges);
+                        } else {
+                            model.getClauseConstraint().addClause(_vars, ranges);
+                        }
                         break;
                 }
             } else {
@@ -42,6 +42,10 @@ public class ClauseConstraint extends Constraint {
         clauseStore.add(vars, ranges);
     }
 
+    public void addSharedClause(IntVar[] vars, IntIterableRangeSet[] ranges){
+        clauseStore.addShared(vars, ranges);
+    }
+
     @Override
     public ESat isSatisfied() {
         return clauseStore.isEntailed();
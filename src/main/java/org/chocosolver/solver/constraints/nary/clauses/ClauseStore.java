@@ -29,8 +29,8 @@ import org.chocosolver.util.objects.tree.IntervalTree;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Stack;
@@ -55,6 +55,18 @@ public class ClauseStore extends Propagator<IntVar> {
 
     public static boolean INTERVAL_TREE = true;
 
+    /**
+     * Variables whose domain spans more values than this, when they are watched for the first time,
+     * index their watched literals in an {@link IntervalTree}; others use a flat watch list.
+     */
+    public static int LARGE_DOMAIN = 1 << 10;
+
+    /**
+     * Tiers of learnt clauses: core clauses are never reduced, tier-2 clauses are kept while they are used
+     * and local clauses are reduced based on their activity
+     */
+    private static final int CORE = 0, TIER2 = 1, LOCAL = 2;
+
     /**
      * Signed clause unique ID -- for toString() mainly
      */
@@ -81,12 +93,36 @@ public class ClauseStore extends Propagator<IntVar> {
     private final double ratio;
 
     private final int domPerimeter;
+    /**
+     * Largest LBD of core and tier-2 learnt clauses
+     */
+    private final int lbdCore, lbdTier2;
+    /**
+     * Number of learnt clauses in the core and tier-2 tiers, other learnt clauses are local
+     */
+    private int nbCore, nbTier2;
+    /**
+     * LBD of the next learnt clause
+     */
+    private int nextLBD = Integer.MAX_VALUE;
     /**
      * Reference to the last learnt signed clause, for checking routine
      */
     private SignedClause last;
 
-    private HashMap<IntVar, IntervalTree<Container>> watches;
+    /**
+     * Watched literals of each variable, indexed like {@link #vars}
+     */
+    private Watches[] watches;
+    /**
+     * Position of each watched variable in {@link #vars}, indexed by variable ID, or -1
+     */
+    private int[] indices;
+    /**
+     * Stamp of each decision level, to count distinct levels when updating the LBD of a clause
+     */
+    private int[] marks = new int[16];
+    private int mark;
     /**
      * Amount to bump clause with.
      */
@@ -104,10 +140,13 @@ public class ClauseStore extends Propagator<IntVar> {
         this.nbMaxLearnts = model.getSettings().getNbMaxLearntClauses();
         this.ratio = model.getSettings().getRatioForClauseStoreReduction();
         this.domPerimeter = model.getSettings().getLearntClausesDominancePerimeter();
+        this.lbdCore = model.getSettings().getLBDLimitForCoreClauses();
+        this.lbdTier2 = model.getSettings().getLBDLimitForTier2Clauses();
         this.clauses = new ArrayList<>();
         this.learnts = new ArrayList<>();
         last = null;
-        this.watches = new HashMap<>();
+        this.watches = new Watches[0];
+        this.indices = new int[0];
         setActive0();
     }
 
@@ -119,22 +158,61 @@ public class ClauseStore extends Propagator<IntVar> {
         return learnts.size();
     }
 
+    /**
+     * Set the literal block distance of the next learnt clause added to this store,
+     * that is the number of distinct decision levels among its literals.
+     * The LBD of a clause defines its tier in the clause database (see {@link org.chocosolver.solver.Settings#getLBDLimitForCoreClauses()}).
+     * Learnt clauses with unknown LBD are local ones.
+     *
+     * @param lbd literal block distance of the next learnt clause
+     */
+    public void setNextLBD(int lbd) {
+        this.nextLBD = lbd;
+    }
+
     /**
      * Declare a new signed clause in this store
      */
     public void add(IntVar[] vars, IntIterableRangeSet[] ranges) {
+        add(vars, ranges, false);
+    }
+
+    /**
+     * Declare a new signed clause in this store, learnt by another solver.
+     * Such a clause is managed like any learnt clause but, since it is not related to the current conflict,
+     * it is not checked on the next call to {@link #forget()}.
+     */
+    public void addShared(IntVar[] vars, IntIterableRangeSet[] ranges) {
+        add(vars, ranges, true);
+    }
+
+    private void add(IntVar[] vars, IntIterableRangeSet[] ranges, boolean shared) {
         if (INTERVAL_TREE) {
             SignedClause cl = new SignedClause(vars, ranges);
-            attach(new Watcher(cl.pos[0], cl));
-            attach(new Watcher(cl.pos[1], cl));
+            attach(cl, cl.pos[0]);
+            attach(cl, cl.pos[1]);
             if (model.getSolver().getEngine().isInitialized()) {
                 this.learnts.add(cl);
-                last = cl;
-                last.activity = clauseInc;
-                last.rawActivity = 1;
+                if (!shared) {
+                    last = cl;
+                }
+                cl.activity = clauseInc;
+                cl.rawActivity = 1;
+                cl.lbd = nextLBD;
+                cl.tier = tierOf(nextLBD);
+                if (cl.tier == CORE) {
+                    nbCore++;
+                } else if (cl.tier == TIER2) {
+                    nbTier2++;
+                }
+                if (!shared) {
+                    mSolver.getMeasures().incLearntClauseCount();
+                }
                 if (PRINT_CLAUSE) System.out.printf("learn: %s\n", cl);
             } else {
                 if (PRINT_CLAUSE) System.out.printf("add: %s\n", cl);
+                // clauses of the model are never reduced, like core clauses, but are not counted as such
+                cl.tier = CORE;
                 this.clauses.add(cl);
             }
             mSolver.getEngine().dynamicAddition(true, cl);
@@ -143,22 +221,44 @@ public class ClauseStore extends Propagator<IntVar> {
             if (PRINT_CLAUSE) System.out.printf("learn: %s\n", cl);
             new Constraint("SC", cl).post();
         }
+        nextLBD = Integer.MAX_VALUE;
     }
 
-    private void attach(Watcher w) {
-        IntVar var = w.c.v(w.p);
-        IntervalTree<Container> wm = watches.get(var);
-        if (wm == null) {
-            wm = new IntervalTree<>();
-            watches.put(var, wm);
-            this.addVariable(var);
+    /**
+     * @return the tier of a learnt clause whose literal block distance is <i>lbd</i>
+     */
+    private int tierOf(int lbd) {
+        if (lbd <= lbdCore) {
+            return CORE;
+        } else if (lbd <= lbdTier2) {
+            return TIER2;
+        }
+        return LOCAL;
+    }
+
+    /**
+     * Watch the literal at position <i>p</i> in <i>c</i>
+     */
+    private void attach(SignedClause c, int p) {
+        IntVar var = c.v(p);
+        int id = var.getId();
+        if (id >= indices.length) {
+            int n = indices.length;
+            indices = Arrays.copyOf(indices, Math.max(id + 1, n * 3 / 2 + 1));
+            Arrays.fill(indices, n, indices.length, -1);
         }
-        Container ct = wm.get(w.c.l(w.p), w.c.u(w.p));
-        if (ct == null) {
-            ct = new Container(w.c.l(w.p), w.c.u(w.p));
-            wm.insert(ct);
+        int idx = indices[id];
+        if (idx == -1) {
+            idx = indices[id] = vars.length;
+            this.addVariable(var);
+            watches = Arrays.copyOf(watches, vars.length);
+            if ((long) var.getUB() - var.getLB() + 1 > LARGE_DOMAIN) {
+                watches[idx] = new TreeWatches();
+            } else {
+                watches[idx] = new FlatWatches();
+            }
         }
-        ct.add(w);
+        watches[idx].add(c, p);
     }
 
     /**
@@ -168,6 +268,12 @@ public class ClauseStore extends Propagator<IntVar> {
      */
     private void remove(int idx) {
         SignedClause ng = learnts.remove(idx);
+        if (ng.tier == CORE) {
+            nbCore--;
+        } else if (ng.tier == TIER2) {
+            nbTier2--;
+        }
+        mSolver.getMeasures().incDeletedClauseCount(1);
         mSolver.getEngine().dynamicDeletion(ng);
         ng.pos[0] = ng.pos[1] = -1; // to remove it from watchers
     }
@@ -223,6 +329,7 @@ public class ClauseStore extends Propagator<IntVar> {
         // 2. reduce database
         reduceDB();
         last = null;
+        mSolver.getMeasures().setClauseDatabaseSizes(nbCore, nbTier2, learnts.size() - nbCore - nbTier2);
     }
 
     private void decayActivity() {
@@ -257,14 +364,25 @@ public class ClauseStore extends Propagator<IntVar> {
     }
 
     /**
-     * Remove sclauses with a lifespan greater than <i>lifespan</i> and which did not filtered in
-     * the current branch.
+     * Reduce the database when there are too many tier-2 and local clauses.
+     * Core clauses are kept, tier-2 clauses which did not take part in a conflict since the last reduction
+     * become local clauses, and only the most active local clauses are kept.
      */
     private void reduceDB() {
         int size = learnts.size();
-        if (size >= nbMaxLearnts) {
-            learnts.sort(Comparator.comparingDouble(c -> -c.activity));
-            long to = Math.round(ratio * size);
+        if (size - nbCore >= nbMaxLearnts) {
+            mSolver.getMeasures().incClauseDatabaseReductionCount();
+            for (int i = 0; i < size; i++) {
+                SignedClause ng = learnts.get(i);
+                if (ng.tier == TIER2 && !ng.used) {
+                    ng.tier = LOCAL;
+                    nbTier2--;
+                }
+                ng.used = false;
+            }
+            learnts.sort(Comparator.<SignedClause>comparingInt(c -> c.tier).thenComparingDouble(c -> -c.activity));
+            int locals = size - nbCore - nbTier2;
+            long to = size - locals + Math.round(ratio * locals);
             for (int i = size - 1; i >= to; i--) {
                 SignedClause ng = learnts.get(i);
                 if (ng.isNotLocked() && ng != last) {
@@ -274,17 +392,8 @@ public class ClauseStore extends Propagator<IntVar> {
             if (size > learnts.size() && model.getSettings().warnUser()) {
                 System.out.printf("Reduce DB: %d -> %d\n", size, learnts.size());
             }
-            for (IntervalTree<Container> t : watches.values()) {
-                Stack<Container> del = new Stack<>();
-                for (Container c : t) {
-                    c.watchers.removeIf(w -> !w.c.isConnected());
-                    if(c.watchers.isEmpty()){
-                        del.push(c);
-                    }
-                }
-                while(!del.isEmpty()){
-                    t.delete(del.pop());
-                }
+            for (Watches w : watches) {
+                w.clean();
             }
         }
     }
@@ -320,20 +429,7 @@ public class ClauseStore extends Propagator<IntVar> {
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         // iterate over clauses that needs to be propagator
-        IntVar var = vars[idxVarInProp];
-        IntervalTree<Container> wm = watches.get(var);
-        int lb = var.getLB();
-        int ub = var.getUB();
-        if (IntEventType.isInstantiate(mask) || IntEventType.isRemove(mask)) {
-            sweep(wm.iterator(), var, lb, ub);
-        } else {
-            if (IntEventType.isInclow(mask)) {
-                wm.forAllBelow(lb, c -> checkCont(c, var, lb, ub));
-            }
-            if (IntEventType.isDecupp(mask)) {
-                wm.forAllAbove(ub, c -> checkCont(c, var, lb, ub));
-            }
-        }
+        watches[idxVarInProp].propagate(vars[idxVarInProp], mask);
     }
 
     @Override
@@ -349,23 +445,196 @@ public class ClauseStore extends Propagator<IntVar> {
     }
 
 
-    private void sweep(Iterator<Container> it, IntVar v, int lb, int ub) {
-        while (it.hasNext()) {
-            checkCont(it.next(), v, lb, ub);
+    /**
+     * Watched literals of a variable
+     */
+    private abstract class Watches {
+
+        /**
+         * Watch the literal at position <i>p</i> in <i>c</i>
+         */
+        abstract void add(SignedClause c, int p);
+
+        /**
+         * Schedule the clauses whose watched literal on <i>var</i> became false
+         */
+        abstract void propagate(IntVar var, int mask);
+
+        /**
+         * Forget watchers of clauses removed from the store
+         */
+        abstract void clean();
+
+        /**
+         * A watched literal of <i>c</i> became false, schedule <i>c</i> if needed.
+         *
+         * @param c a clause
+         * @param p the literal of the clause
+         * @return <i>false</i> if the watcher has to be forgotten
+         */
+        boolean onFalse(SignedClause c, int p) {
+            int q;
+            if (p == c.pos[q = 0] || p == c.pos[++q]) {
+                if (c.isScheduled()) { // clause already scheduled, skip it
+                    return true;
+                }
+                if (!c.isActive()) {
+                    // clause passive, forget it
+                    model.getEnvironment().save(() -> {
+                        if (c.isConnected()) {
+                            attach(c, p);
+                        }
+                    });
+                    return false;
+                }
+                // keep it, even it is false, since propagation may change the other WL
+                mSolver.getEngine().schedule(c, q, 1);
+                return true;
+            }
+            // watched literal loss, forget it
+            return false;
+        }
+    }
+
+    /**
+     * Watched literals of a variable with a small domain, in flat arrays:
+     * on each event, literals whose bounds are affected are checked in turn.
+     */
+    private final class FlatWatches extends Watches {
+
+        SignedClause[] clauses = new SignedClause[4];
+        /**
+         * Position of the literal in the clause, and its bounds
+         */
+        int[] lits = new int[4], los = new int[4], ups = new int[4];
+        int size;
+
+        @Override
+        void add(SignedClause c, int p) {
+            if (size == clauses.length) {
+                int n = size * 3 / 2 + 1;
+                clauses = Arrays.copyOf(clauses, n);
+                lits = Arrays.copyOf(lits, n);
+                los = Arrays.copyOf(los, n);
+                ups = Arrays.copyOf(ups, n);
+            }
+            clauses[size] = c;
+            lits[size] = p;
+            los[size] = c.l(p);
+            ups[size++] = c.u(p);
+        }
+
+        @Override
+        void propagate(IntVar var, int mask) {
+            int lb = var.getLB();
+            int ub = var.getUB();
+            boolean all = IntEventType.isInstantiate(mask) || IntEventType.isRemove(mask);
+            boolean low = IntEventType.isInclow(mask);
+            boolean upp = IntEventType.isDecupp(mask);
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                SignedClause c = clauses[i];
+                int p = lits[i];
+                boolean keep;
+                if (c.pos[0] != p && c.pos[1] != p) {
+                    // watched literal loss, forget it
+                    keep = false;
+                } else if ((all || low && los[i] < lb || upp && ups[i] > ub)
+                        && check(lb, ub, los[i], ups[i], var) == FALSE) {
+                    keep = onFalse(c, p);
+                } else {
+                    keep = true;
+                }
+                if (keep) {
+                    clauses[j] = c;
+                    lits[j] = p;
+                    los[j] = los[i];
+                    ups[j++] = ups[i];
+                }
+            }
+            Arrays.fill(clauses, j, size, null);
+            size = j;
+        }
+
+        @Override
+        void clean() {
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (clauses[i].isConnected()) {
+                    clauses[j] = clauses[i];
+                    lits[j] = lits[i];
+                    los[j] = los[i];
+                    ups[j++] = ups[i];
+                }
+            }
+            Arrays.fill(clauses, j, size, null);
+            size = j;
         }
     }
 
-    private void checkCont(Container ct, IntVar v, int lb, int ub) {
-        if (!ct.isActive()) return;
-        ESat check = check(lb, ub, ct.s, ct.e, v);
-        if (check != UNDEFINED) {
-            if (check == FALSE) {
-                ct.sweepOnFalse();
+    /**
+     * Watched literals of a variable with a large domain, grouped by interval in an {@link IntervalTree}:
+     * on each event, only the intervals which may be affected are checked.
+     */
+    private final class TreeWatches extends Watches {
+
+        IntervalTree<Container> tree = new IntervalTree<>();
+
+        @Override
+        void add(SignedClause c, int p) {
+            Container ct = tree.get(c.l(p), c.u(p));
+            if (ct == null) {
+                ct = new Container(c.l(p), c.u(p));
+                tree.insert(ct);
+            }
+            ct.add(new Watcher(p, c));
+        }
+
+        @Override
+        void propagate(IntVar var, int mask) {
+            int lb = var.getLB();
+            int ub = var.getUB();
+            if (IntEventType.isInstantiate(mask) || IntEventType.isRemove(mask)) {
+                Iterator<Container> it = tree.iterator();
+                while (it.hasNext()) {
+                    checkCont(it.next(), var, lb, ub);
+                }
             } else {
-                ct.sweepOnTrue();
+                if (IntEventType.isInclow(mask)) {
+                    tree.forAllBelow(lb, c -> checkCont(c, var, lb, ub));
+                }
+                if (IntEventType.isDecupp(mask)) {
+                    tree.forAllAbove(ub, c -> checkCont(c, var, lb, ub));
+                }
+            }
+        }
+
+        private void checkCont(Container ct, IntVar v, int lb, int ub) {
+            if (!ct.isActive()) return;
+            ESat check = check(lb, ub, ct.s, ct.e, v);
+            if (check != UNDEFINED) {
+                if (check == FALSE) {
+                    ct.sweepOnFalse(this);
+                } else {
+                    ct.sweepOnTrue();
+                }
+                model.getEnvironment().save(ct::setActive);
+                ct.setPassive();
+            }
+        }
+
+        @Override
+        void clean() {
+            Stack<Container> del = new Stack<>();
+            for (Container c : tree) {
+                c.watchers.removeIf(w -> !w.c.isConnected());
+                if (c.watchers.isEmpty()) {
+                    del.push(c);
+                }
+            }
+            while (!del.isEmpty()) {
+                tree.delete(del.pop());
             }
-            model.getEnvironment().save(ct::setActive);
-            ct.setPassive();
         }
     }
 
@@ -407,34 +676,14 @@ public class ClauseStore extends Propagator<IntVar> {
             active = true;
         }
 
-        void sweepOnFalse() {
+        void sweepOnFalse(Watches owner) {
             int i = 0;
             int j = i;
-            int p;
             int s = watchers.size();
             while (i < s) {
                 Watcher w = watchers.get(i++);
-                SignedClause c = w.c;
-                if (w.p != c.pos[p = 0] && w.p != c.pos[++p]) {
-                    // watched literal loss, forget it
-                    continue;
-                }
-                if (w.c.isScheduled()) { // clause already scheduled, skip it
+                if (owner.onFalse(w.c, w.p)) {
                     watchers.set(j++, w);
-                    continue;
-                }
-                if (!w.c.isActive()) {
-                    // clause passive, forget it
-                    model.getEnvironment().save(() -> {
-                        if (w.c.isConnected()) {
-                            attach(w);
-                        }
-                    });
-                    continue;
-                }/*else*/
-                {
-                    watchers.set(j++, w); // keep it, even it is false, since propagation may change the other WL
-                    mSolver.getEngine().schedule(w.c, p, 1);
                 }
             }
             // shrink
@@ -530,6 +779,12 @@ public class ClauseStore extends Propagator<IntVar> {
         private double activity = 0d;
 
         private int rawActivity = 0;
+        /**
+         * Literal block distance, tier in the database and whether it took part in a conflict since the last reduction
+         */
+        private int lbd = Integer.MAX_VALUE;
+        private int tier = LOCAL;
+        private boolean used;
 
         private int id;
 
@@ -690,7 +945,7 @@ public class ClauseStore extends Propagator<IntVar> {
                         pos[1] = l;
                         pos[k] = pos[--to];
                         pos[to] = l1;
-                        attach(new Watcher(l, this));
+                        attach(this, l);
                         if (b == TRUE) {
                             setPassive();
                             FL = F0;
@@ -883,11 +1138,55 @@ public class ClauseStore extends Propagator<IntVar> {
             return u ? UNDEFINED : FALSE;
         }
 
+        /**
+         * Compute the LBD of this clause again, when it takes part in a conflict,
+         * and move it to a higher tier if it decreases.
+         */
+        private void updateLBD(Implications ig) {
+            if (tier == CORE) {
+                return;
+            }
+            mark++;
+            int n = 0;
+            for (int i = 0; i < mvars.length; i++) {
+                if (i > 0 && mvars[i - 1] == mvars[i]) {
+                    continue;
+                }
+                int dl = ig.getDecisionLevelOf(mvars[i]);
+                if (dl > 1) {
+                    if (dl >= marks.length) {
+                        marks = Arrays.copyOf(marks, dl * 3 / 2 + 1);
+                    }
+                    if (marks[dl] != mark) {
+                        marks[dl] = mark;
+                        if (++n >= lbd) {
+                            return;
+                        }
+                    }
+                }
+            }
+            lbd = n;
+            int t = tierOf(n);
+            if (t < tier) {
+                if (tier == TIER2) {
+                    nbTier2--;
+                }
+                if (t == CORE) {
+                    nbCore++;
+                } else {
+                    nbTier2++;
+                }
+                tier = t;
+            }
+        }
+
         public void explain(ExplanationForSignedClause explanation, ValueSortedMap<IntVar> front, Implications ig, int p) {
             IntVar pivot = ig.getIntVarAt(p);
             IntIterableRangeSet set;
             activity += clauseInc;
             rawActivity += 1;
+            used = true;
+            updateLBD(ig);
             int i = 0;
             while (i < mvars.length) {
                 IntVar v = mvars[i];
@@ -0,0 +1,870 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.learn.ExplanationForSignedClause;
+import org.chocosolver.solver.learn.Implications;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.objects.ValueSortedMap;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.chocosolver.util.sort.ArraySort;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Explanations of the deductions of {@link PropCumulative}, for learning signed clauses.
+ * <p>
+ * Whatever the filter which made a deduction, the deduction is explained from the domains at the time it was made,
+ * by the first rule which holds among:
+ * <ul>
+ * <li>the relations between start, duration and end of a task, and the bounds of heights and durations,</li>
+ * <li>pointwise time-table reasoning[1]: a bound of a task is explained by a few time points where
+ * the compulsory parts of other tasks leave no room for the task, each time point being explained by
+ * a minimal subset of the compulsory parts which overlap it,</li>
+ * <li>detectable precedences between two tasks which cannot overlap,</li>
+ * <li>edge-finding[2]: a task <i>i</i> and the tasks &Omega; which execute within a time window do not fit in it
+ * while <i>i</i> starts in the window, so <i>i</i> ends after the window; then the tasks which execute within
+ * a window ending before <i>i</i> ends leave too little room to <i>i</i>,</li>
+ * <li>precedences by energy, as made by {@link DisjunctiveTaskIntervalFilter}: when a task <i>i</i> and a task <i>j</i>
+ * cannot overlap, and the window from the start of <i>i</i> to the end of <i>j</i> cannot hold both of them
+ * and the minimal energy of the other tasks within it, <i>j</i> precedes <i>i</i>,</li>
+ * <li>energetic reasoning[3]: the minimal energy of the other tasks within a time window, from their bounds or their
+ * compulsory parts, leaves too little room to a task, as made by time-table edge-finding and energetic reasoning.</li>
+ * </ul>
+ * When no rule holds, the caller falls back to the default explanation.
+ * Failures of the propagator itself are always given the default explanation by the learner.
+ * Bounds of the pivot variable are only explained when all the values removed by the deduction are covered,
+ * so that the clause is asserting.
+ * <p>
+ * [1]: A. Schutt, T. Feydy, P.J. Stuckey and M.G. Wallace, Explaining the cumulative propagator, Constraints 16, 2011.
+ * <br/>
+ * [2]: P. Vil&iacute;m, Edge Finding Filtering Algorithm for Discrete Cumulative Resources in O(kn log n), CP-09.
+ * <br/>
+ * [3]: P. Baptiste, C. Le Pape and W. Nuijten, Constraint-Based Scheduling, Kluwer, 2001.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+final class CumulExplanation {
+
+    private final PropCumulative prop;
+    private final int n;
+    /**
+     * Bounds of the variables at the time of the deduction to explain
+     */
+    private final int[] smin, smax, emin, emax, dmin, dmax, hmin;
+    private int cmax;
+    /**
+     * Premises of the explanation: each variable is in [lo,hi], in insertion order
+     */
+    private final Map<IntVar, int[]> premises;
+    /**
+     * Resource profile made of compulsory parts: load on [start[k], start[k+1])
+     */
+    private final int[] start, load;
+    private int nbSegments;
+    private final long[] events;
+    /**
+     * Tasks overlapping a time point, sorted by decreasing height
+     */
+    private final int[] overlap;
+    /**
+     * For edge-finding: best adjustment of a start from the windows which end at the latest end of each task,
+     * and the start of the window which gives it
+     */
+    private final long[] adjustment;
+    private final int[] adjustmentFrom;
+    private final ArraySort<?> sorter;
+
+    private ExplanationForSignedClause explanation;
+    private ValueSortedMap<IntVar> front;
+    private Implications ig;
+
+    CumulExplanation(PropCumulative prop) {
+        this.prop = prop;
+        this.n = prop.n;
+        smin = new int[n];
+        smax = new int[n];
+        emin = new int[n];
+        emax = new int[n];
+        dmin = new int[n];
+        dmax = new int[n];
+        hmin = new int[n];
+        premises = new LinkedHashMap<>();
+        start = new int[2 * n + 1];
+        load = new int[2 * n + 1];
+        events = new long[2 * n];
+        overlap = new int[n];
+        adjustment = new long[n];
+        adjustmentFrom = new int[n];
+        sorter = new ArraySort<>(n, false, true);
+    }
+
+    /**
+     * Explain the deduction at position <i>p</i> in <i>ig</i>.
+     *
+     * @return <i>true</i> if an explanation has been added to <i>explanation</i>,
+     * <i>false</i> if the default explanation is needed
+     */
+    boolean explain(ExplanationForSignedClause explanation, ValueSortedMap<IntVar> front, Implications ig, int p) {
+        this.explanation = explanation;
+        this.front = front;
+        this.ig = ig;
+        premises.clear();
+        try {
+            if (p == -1) {
+                return false;
+            }
+            readBounds();
+            IntVar pivot = ig.getIntVarAt(p);
+            int mask = ig.getEventMaskAt(p);
+            int m = ig.getValueAt(p);
+            IntIterableRangeSet before = dom(pivot);
+            if (mask == IntEventType.INCLOW.getMask()) {
+                return explainLB(pivot, m, before.min());
+            } else if (mask == IntEventType.DECUPP.getMask()) {
+                return explainUB(pivot, m, before.max());
+            } else if (mask == IntEventType.INSTANTIATE.getMask()) {
+                if (m == before.min()) {
+                    return explainUB(pivot, m, before.max());
+                } else if (m == before.max()) {
+                    return explainLB(pivot, m, before.min());
+                }
+            }
+            return false;
+        } finally {
+            this.explanation = null;
+            this.front = null;
+            this.ig = null;
+        }
+    }
+
+    //***********************************************************************************
+    // BOUNDS
+    //***********************************************************************************
+
+    private IntIterableRangeSet dom(IntVar var) {
+        return ig.getDomainAt(front.getValue(var));
+    }
+
+    private void readBounds() {
+        for (int i = 0; i < n; i++) {
+            IntIterableRangeSet ds = dom(prop.s[i]);
+            smin[i] = ds.min();
+            smax[i] = ds.max();
+            ds = dom(prop.e[i]);
+            emin[i] = ds.min();
+            emax[i] = ds.max();
+            ds = dom(prop.d[i]);
+            dmin[i] = ds.min();
+            dmax[i] = ds.max();
+            hmin[i] = dom(prop.h[i]).min();
+        }
+        cmax = dom(prop.capa).max();
+    }
+
+    /**
+     * Explain that <i>pivot</i> &ge; <i>m</i>, knowing that the smallest value removed is <i>lo</i>
+     */
+    private boolean explainLB(IntVar pivot, int m, int lo) {
+        for (int i = 0; i < n; i++) {
+            if (prop.s[i] == pivot) {
+                if (emin[i] - dmax[i] >= m) {
+                    premise(prop.e[i], emin[i], Integer.MAX_VALUE);
+                    premise(prop.d[i], Integer.MIN_VALUE, dmax[i]);
+                    return commit(pivot, Integer.MIN_VALUE, m - 1);
+                }
+                if (timetableStart(i, m, lo)) {
+                    return commit(pivot, lo, m - 1);
+                }
+                if (precedenceStart(i, m)) {
+                    return commit(pivot, Integer.MIN_VALUE, m - 1);
+                }
+                int a = edgeFinding(i, m, lo, false);
+                if (a == Integer.MAX_VALUE) {
+                    a = precedenceInterval(i, m, lo, false);
+                }
+                if (a == Integer.MAX_VALUE) {
+                    a = energetic(i, m, lo, false);
+                }
+                if (a != Integer.MAX_VALUE) {
+                    return commit(pivot, a, m - 1);
+                }
+            }
+            if (prop.e[i] == pivot && smin[i] + dmin[i] >= m) {
+                premise(prop.s[i], smin[i], Integer.MAX_VALUE);
+                premise(prop.d[i], dmin[i], Integer.MAX_VALUE);
+                return commit(pivot, Integer.MIN_VALUE, m - 1);
+            }
+            if (prop.d[i] == pivot) {
+                if (m <= 0) {
+                    return commit(pivot, Integer.MIN_VALUE, m - 1);
+                }
+                if (emin[i] - smax[i] >= m) {
+                    premise(prop.e[i], emin[i], Integer.MAX_VALUE);
+                    premise(prop.s[i], Integer.MIN_VALUE, smax[i]);
+                    return commit(pivot, Integer.MIN_VALUE, m - 1);
+                }
+            }
+            if (prop.h[i] == pivot && m <= 0) {
+                return commit(pivot, Integer.MIN_VALUE, m - 1);
+            }
+        }
+        if (prop.capa == pivot && timetableCapacity(m)) {
+            return commit(pivot, Integer.MIN_VALUE, m - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Explain that <i>pivot</i> &le; <i>m</i>, knowing that the largest value removed is <i>hi</i>
+     */
+    private boolean explainUB(IntVar pivot, int m, int hi) {
+        for (int i = 0; i < n; i++) {
+            if (prop.s[i] == pivot && emax[i] - dmin[i] <= m) {
+                premise(prop.e[i], Integer.MIN_VALUE, emax[i]);
+                premise(prop.d[i], dmin[i], Integer.MAX_VALUE);
+                return commit(pivot, m + 1, Integer.MAX_VALUE);
+            }
+            if (prop.e[i] == pivot) {
+                if (smax[i] + dmax[i] <= m) {
+                    premise(prop.s[i], Integer.MIN_VALUE, smax[i]);
+                    premise(prop.d[i], Integer.MIN_VALUE, dmax[i]);
+                    return commit(pivot, m + 1, Integer.MAX_VALUE);
+                }
+                if (timetableEnd(i, m, hi)) {
+                    return commit(pivot, m + 1, hi);
+                }
+                if (precedenceEnd(i, m)) {
+                    return commit(pivot, m + 1, Integer.MAX_VALUE);
+                }
+                int a = edgeFinding(i, -m, -hi, true);
+                if (a == Integer.MAX_VALUE) {
+                    a = precedenceInterval(i, -m, -hi, true);
+                }
+                if (a == Integer.MAX_VALUE) {
+                    a = energetic(i, -m, -hi, true);
+                }
+                if (a != Integer.MAX_VALUE) {
+                    return commit(pivot, m + 1, -a);
+                }
+            }
+            if (prop.d[i] == pivot) {
+                if (emax[i] - smin[i] <= m) {
+                    premise(prop.e[i], Integer.MIN_VALUE, emax[i]);
+                    premise(prop.s[i], smin[i], Integer.MAX_VALUE);
+                    return commit(pivot, m + 1, Integer.MAX_VALUE);
+                }
+                if (m >= 0 && hmin[i] > cmax) {
+                    premise(prop.h[i], hmin[i], Integer.MAX_VALUE);
+                    premise(prop.capa, Integer.MIN_VALUE, cmax);
+                    return commit(pivot, m + 1, Integer.MAX_VALUE);
+                }
+            }
+            if (prop.h[i] == pivot) {
+                if (m >= cmax && dmin[i] > 0) {
+                    premise(prop.capa, Integer.MIN_VALUE, cmax);
+                    premise(prop.d[i], 1, Integer.MAX_VALUE);
+                    return commit(pivot, m + 1, Integer.MAX_VALUE);
+                }
+                if (timetableHeight(i, m)) {
+                    return commit(pivot, m + 1, Integer.MAX_VALUE);
+                }
+            }
+        }
+        if (prop.capa == pivot && m >= 1) {
+            for (CumulFilter f : prop.filters) {
+                if (f instanceof DisjunctiveTaskIntervalFilter) {
+                    // the filter states that the resource is unary
+                    return commit(pivot, m + 1, Integer.MAX_VALUE);
+                }
+            }
+        }
+        return false;
+    }
+
+    //***********************************************************************************
+    // PREMISES
+    //***********************************************************************************
+
+    /**
+     * Declare that the explanation holds when <i>var</i> &isin; [<i>lo</i>,<i>hi</i>]
+     */
+    private void premise(IntVar var, int lo, int hi) {
+        int[] b = premises.get(var);
+        if (b == null) {
+            premises.put(var, new int[]{lo, hi});
+        } else {
+            b[0] = Math.max(b[0], lo);
+            b[1] = Math.min(b[1], hi);
+        }
+    }
+
+    /**
+     * Add the explanation: <i>pivot</i> &notin; [<i>lo</i>,<i>hi</i>] or one of the premises does not hold.
+     *
+     * @return <i>false</i> if the pivot is also a premise, the explanation is then discarded
+     */
+    private boolean commit(IntVar pivot, int lo, int hi) {
+        if (premises.containsKey(pivot)) {
+            premises.clear();
+            return false;
+        }
+        addPremises();
+        IntIterableRangeSet set = explanation.getRootSet(pivot);
+        set.removeBetween(lo, hi);
+        explanation.addLiteral(pivot, set, true);
+        return true;
+    }
+
+    private void addPremises() {
+        for (Map.Entry<IntVar, int[]> entry : premises.entrySet()) {
+            IntIterableRangeSet set = explanation.getRootSet(entry.getKey());
+            set.removeBetween(entry.getValue()[0], entry.getValue()[1]);
+            explanation.addLiteral(entry.getKey(), set, false);
+        }
+        premises.clear();
+    }
+
+    //***********************************************************************************
+    // TIME-TABLE
+    //***********************************************************************************
+
+    /**
+     * Build the profile of compulsory parts of all tasks but <i>except</i>
+     */
+    private void buildProfile(int except) {
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != except && smax[j] < emin[j] && hmin[j] > 0) {
+                events[k++] = ((long) smax[j] << 32) | (2 * j);
+                events[k++] = ((long) emin[j] << 32) | (2 * j + 1);
+            }
+        }
+        Arrays.sort(events, 0, k);
+        nbSegments = 0;
+        int l = 0;
+        for (int x = 0; x < k; x++) {
+            int t = (int) (events[x] >> 32);
+            int j = (int) (events[x] & 0xFFFFFFFFL);
+            l += (j & 1) == 0 ? hmin[j >> 1] : -hmin[j >> 1];
+            if (nbSegments > 0 && start[nbSegments - 1] == t) {
+                load[nbSegments - 1] = l;
+            } else {
+                start[nbSegments] = t;
+                load[nbSegments++] = l;
+            }
+        }
+    }
+
+    /**
+     * @return the load of the profile at <i>t</i>
+     */
+    private int loadAt(int t) {
+        int k = segmentOf(t);
+        return k == -1 ? 0 : load[k];
+    }
+
+    /**
+     * @return the last segment which starts before or at <i>t</i>, or -1
+     */
+    private int segmentOf(int t) {
+        int lo = 0, hi = nbSegments - 1, k = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start[mid] <= t) {
+                k = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return k;
+    }
+
+    /**
+     * @return the largest time point in [a,b] where the load exceeds <i>threshold</i>, or <i>a - 1</i>
+     */
+    private int lastAbove(int a, int b, int threshold) {
+        if (threshold < 0) {
+            return b;
+        }
+        for (int k = segmentOf(b); k >= 0; k--) {
+            int end = k + 1 < nbSegments ? start[k + 1] - 1 : Integer.MAX_VALUE;
+            if (end < a) {
+                break;
+            }
+            if (load[k] > threshold) {
+                return Math.min(b, end);
+            }
+        }
+        return a - 1;
+    }
+
+    /**
+     * @return the smallest time point in [a,b] where the load exceeds <i>threshold</i>, or <i>b + 1</i>
+     */
+    private int firstAbove(int a, int b, int threshold) {
+        if (threshold < 0) {
+            return a;
+        }
+        int k = segmentOf(a);
+        if (k == -1) {
+            k = 0;
+        }
+        for (; k < nbSegments && start[k] <= b; k++) {
+            int end = k + 1 < nbSegments ? start[k + 1] - 1 : Integer.MAX_VALUE;
+            if (load[k] > threshold && end >= a) {
+                return Math.max(a, start[k]);
+            }
+        }
+        return b + 1;
+    }
+
+    /**
+     * Declare premises for the compulsory parts overlapping <i>t</i> to weigh at least <i>need</i>,
+     * with as few tasks as possible, ignoring task <i>except</i>
+     */
+    private void explainPoint(int t, int need, int except) {
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != except && smax[j] <= t && t < emin[j] && hmin[j] > 0) {
+                overlap[k++] = j;
+            }
+        }
+        sorter.sort(overlap, k, (j1, j2) -> hmin[j2] - hmin[j1]);
+        int sum = 0;
+        for (int x = 0; x < k && sum < need; x++) {
+            int j = overlap[x];
+            sum += hmin[j];
+            premise(prop.s[j], Integer.MIN_VALUE, t);
+            premise(prop.e[j], t + 1, Integer.MAX_VALUE);
+            premise(prop.h[j], hmin[j], Integer.MAX_VALUE);
+        }
+        assert sum >= need;
+    }
+
+    /**
+     * Explain that the start of task <i>i</i> cannot be in [<i>lo</i>, <i>m</i> - 1]:
+     * each start in this range makes the task overlap an overloaded time point.
+     */
+    private boolean timetableStart(int i, int m, int lo) {
+        premises.clear();
+        int dl = dmin[i], hl = hmin[i];
+        if (dl <= 0 || hl <= 0) {
+            return false;
+        }
+        buildProfile(i);
+        int threshold = cmax - hl;
+        int v = m - 1;
+        while (v >= lo) {
+            // a time point covered by all starts in [t - dl + 1, t]
+            int t = lastAbove(v, v + dl - 1, threshold);
+            if (t < v) {
+                premises.clear();
+                return false;
+            }
+            explainPoint(t, threshold + 1, i);
+            v = t - dl;
+        }
+        premise(prop.d[i], dl, Integer.MAX_VALUE);
+        premise(prop.h[i], hl, Integer.MAX_VALUE);
+        premise(prop.capa, Integer.MIN_VALUE, cmax);
+        return true;
+    }
+
+    /**
+     * Explain that the end of task <i>i</i> cannot be in [<i>m</i> + 1, <i>hi</i>]
+     */
+    private boolean timetableEnd(int i, int m, int hi) {
+        premises.clear();
+        int dl = dmin[i], hl = hmin[i];
+        if (dl <= 0 || hl <= 0) {
+            return false;
+        }
+        buildProfile(i);
+        int threshold = cmax - hl;
+        int w = m + 1;
+        while (w <= hi) {
+            // a time point covered by all ends in [t + 1, t + dl]
+            int t = firstAbove(w - dl, w - 1, threshold);
+            if (t > w - 1) {
+                premises.clear();
+                return false;
+            }
+            explainPoint(t, threshold + 1, i);
+            w = t + dl + 1;
+        }
+        premise(prop.d[i], dl, Integer.MAX_VALUE);
+        premise(prop.h[i], hl, Integer.MAX_VALUE);
+        premise(prop.capa, Integer.MIN_VALUE, cmax);
+        return true;
+    }
+
+    /**
+     * Explain that the height of task <i>i</i> is at most <i>m</i>,
+     * from the most loaded time point of its compulsory part
+     */
+    private boolean timetableHeight(int i, int m) {
+        premises.clear();
+        if (smax[i] >= emin[i]) {
+            return false;
+        }
+        buildProfile(i);
+        int need = cmax - m;
+        int t = firstAbove(smax[i], emin[i] - 1, need - 1);
+        if (t > emin[i] - 1) {
+            return false;
+        }
+        explainPoint(t, need, i);
+        premise(prop.s[i], Integer.MIN_VALUE, t);
+        premise(prop.e[i], t + 1, Integer.MAX_VALUE);
+        premise(prop.capa, Integer.MIN_VALUE, cmax);
+        return true;
+    }
+
+    /**
+     * Explain that the capacity is at least <i>m</i>
+     */
+    private boolean timetableCapacity(int m) {
+        if (m <= 0) {
+            return false;
+        }
+        buildProfile(-1);
+        int t = firstAbove(Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2, m - 1);
+        if (t > Integer.MAX_VALUE / 2 || loadAt(t) < m) {
+            return false;
+        }
+        explainPoint(t, m, -1);
+        return true;
+    }
+
+    //***********************************************************************************
+    // PRECEDENCES
+    //***********************************************************************************
+
+    /**
+     * @return <i>true</i> if tasks <i>i</i> and <i>j</i> cannot overlap
+     */
+    private boolean disjoint(int i, int j) {
+        return dmin[i] > 0 && dmin[j] > 0 && hmin[i] + hmin[j] > cmax;
+    }
+
+    private void disjointPremises(int i, int j) {
+        premise(prop.d[i], dmin[i], Integer.MAX_VALUE);
+        premise(prop.d[j], dmin[j], Integer.MAX_VALUE);
+        premise(prop.h[i], hmin[i], Integer.MAX_VALUE);
+        premise(prop.h[j], hmin[j], Integer.MAX_VALUE);
+        premise(prop.capa, Integer.MIN_VALUE, cmax);
+    }
+
+    /**
+     * Explain that task <i>i</i> starts at <i>m</i> or later: it cannot overlap a task <i>j</i>
+     * which ends at <i>m</i> or later, and it cannot end before <i>j</i> starts
+     */
+    private boolean precedenceStart(int i, int m) {
+        premises.clear();
+        for (int j = 0; j < n; j++) {
+            if (j != i && emin[j] >= m && emin[i] > smax[j] && disjoint(i, j)) {
+                disjointPremises(i, j);
+                premise(prop.e[j], m, Integer.MAX_VALUE);
+                premise(prop.e[i], smax[j] + 1, Integer.MAX_VALUE);
+                premise(prop.s[j], Integer.MIN_VALUE, smax[j]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Explain that task <i>i</i> ends at <i>m</i> or before: it cannot overlap a task <i>j</i>
+     * which starts at <i>m</i> or before, and it cannot start after <i>j</i> ends
+     */
+    private boolean precedenceEnd(int i, int m) {
+        premises.clear();
+        for (int j = 0; j < n; j++) {
+            if (j != i && smax[j] <= m && emin[j] > smax[i] && disjoint(i, j)) {
+                disjointPremises(i, j);
+                premise(prop.s[j], Integer.MIN_VALUE, m);
+                premise(prop.s[i], Integer.MIN_VALUE, emin[j] - 1);
+                premise(prop.e[j], emin[j], Integer.MAX_VALUE);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //***********************************************************************************
+    // ENERGY
+    //***********************************************************************************
+
+    /**
+     * @return the earliest start of task <i>j</i>, on mirrored tasks if <i>mirror</i> is set to <i>true</i>
+     */
+    private int est(int j, boolean mirror) {
+        return mirror ? -emax[j] : smin[j];
+    }
+
+    /**
+     * @return the latest end of task <i>j</i>, on mirrored tasks if <i>mirror</i> is set to <i>true</i>
+     */
+    private int lct(int j, boolean mirror) {
+        return mirror ? -smin[j] : emax[j];
+    }
+
+    /**
+     * Declare that task <i>j</i> executes within [<i>a</i>,<i>b</i>), on mirrored tasks if <i>mirror</i> is set to
+     * <i>true</i>, with at least its minimal energy
+     */
+    private void within(int j, int a, int b, boolean mirror) {
+        if (mirror) {
+            premise(prop.s[j], -b, Integer.MAX_VALUE);
+            premise(prop.e[j], Integer.MIN_VALUE, -a);
+        } else {
+            premise(prop.s[j], a, Integer.MAX_VALUE);
+            premise(prop.e[j], Integer.MIN_VALUE, b);
+        }
+        premise(prop.d[j], dmin[j], Integer.MAX_VALUE);
+        premise(prop.h[j], hmin[j], Integer.MAX_VALUE);
+    }
+
+    /**
+     * Explain that task <i>i</i> starts at <i>m</i> or later by edge-finding, on mirrored tasks if <i>mirror</i> is
+     * set to <i>true</i>.
+     * When <i>i</i> starts at <i>a</i> or later and cannot end within [<i>a</i>,<i>b</i>) with the tasks &Omega; which
+     * execute within it, <i>i</i> ends after <i>b</i>. For any window [<i>a'</i>,<i>b'</i>) with <i>b'</i> &le;
+     * <i>b</i>, the tasks &Omega;' which execute within it need more energy <i>r</i> than left by <i>i</i>
+     * once started, so <i>i</i> starts at <i>a'</i> + &lceil;<i>r</i> / h<sub>i</sub>&rceil; or later.
+     *
+     * @return the smallest start of <i>i</i> to keep in the explanation,
+     * or {@link Integer#MAX_VALUE} if the rule does not hold
+     */
+    private int edgeFinding(int i, int m, int lo, boolean mirror) {
+        premises.clear();
+        long c = hmin[i];
+        if (dmin[i] <= 0 || c <= 0 || c > cmax) {
+            return Integer.MAX_VALUE;
+        }
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != i && dmin[j] > 0 && hmin[j] > 0) {
+                overlap[k++] = j;
+            }
+        }
+        // sort tasks by decreasing earliest start
+        sorter.sort(overlap, k, (j1, j2) -> Integer.compare(est(j2, mirror), est(j1, mirror)));
+        // best adjustment for each window end
+        for (int y = 0; y < k; y++) {
+            int b = lct(overlap[y], mirror);
+            long energy = 0;
+            adjustment[y] = Long.MIN_VALUE;
+            for (int x = 0; x < k; x++) {
+                int j = overlap[x];
+                if (lct(j, mirror) <= b) {
+                    int a = est(j, mirror);
+                    energy += (long) dmin[j] * hmin[j];
+                    long rest = energy - (cmax - c) * ((long) b - a);
+                    if (rest > 0 && a + (rest + c - 1) / c > adjustment[y]) {
+                        adjustment[y] = a + (rest + c - 1) / c;
+                        adjustmentFrom[y] = a;
+                    }
+                }
+            }
+        }
+        // detection
+        long ei = dmin[i] * c;
+        for (int y = 0; y < k; y++) {
+            int b = lct(overlap[y], mirror);
+            long energy = ei;
+            for (int x = 0; x < k; x++) {
+                int j = overlap[x];
+                int a = est(j, mirror);
+                if (lct(j, mirror) <= b) {
+                    energy += (long) dmin[j] * hmin[j];
+                    if (a <= lo && energy > cmax * ((long) b - a)) {
+                        for (int z = 0; z < k; z++) {
+                            int b2 = lct(overlap[z], mirror);
+                            if (b2 <= b && adjustment[z] >= m) {
+                                explainWindow(k, a, b, mirror);
+                                explainWindow(k, adjustmentFrom[z], b2, mirror);
+                                premise(prop.d[i], dmin[i], Integer.MAX_VALUE);
+                                premise(prop.h[i], hmin[i], Integer.MAX_VALUE);
+                                premise(prop.capa, Integer.MIN_VALUE, cmax);
+                                return a;
+                            }
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Declare premises for the first <i>k</i> tasks of {@link #overlap} which execute within [<i>a</i>,<i>b</i>)
+     */
+    private void explainWindow(int k, int a, int b, boolean mirror) {
+        for (int x = 0; x < k; x++) {
+            int j = overlap[x];
+            if (est(j, mirror) >= a && lct(j, mirror) <= b) {
+                within(j, a, b, mirror);
+            }
+        }
+    }
+
+    /**
+     * Explain that task <i>i</i> starts at <i>m</i> or later, on mirrored tasks if <i>mirror</i> is set to
+     * <i>true</i>: a task <i>j</i> which cannot overlap <i>i</i> and ends at <i>m</i> or later precedes <i>i</i>,
+     * since <i>i</i>, <i>j</i> and the minimal energy of the other tasks within [<i>a</i>,<i>b</i>) do not fit in
+     * it, where <i>a</i> is the earliest start of <i>i</i> and <i>b</i> the latest end of <i>j</i>.
+     *
+     * @return the smallest start of <i>i</i> to keep in the explanation,
+     * or {@link Integer#MAX_VALUE} if the rule does not hold
+     */
+    private int precedenceInterval(int i, int m, int lo, boolean mirror) {
+        premises.clear();
+        if (dmin[i] <= 0 || hmin[i] <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        int a = lo;
+        for (int j = 0; j < n; j++) {
+            // the earliest end of j, which does not depend on the start of i
+            int ec = mirror ? -smax[j] : emin[j];
+            int b = lct(j, mirror);
+            if (j == i || ec < m || b <= a || !disjoint(i, j)) {
+                continue;
+            }
+            long energy = (long) dmin[i] * hmin[i] + (long) dmin[j] * hmin[j];
+            for (int k = 0; k < n; k++) {
+                energy += k == i || k == j ? 0 : minimalEnergy(k, a, b, mirror);
+            }
+            if (energy > cmax * ((long) b - a)) {
+                explainEnergy(i, j, a, b, mirror);
+                disjointPremises(i, j);
+                if (mirror) {
+                    premise(prop.s[j], -b, -m);
+                } else {
+                    premise(prop.e[j], m, b);
+                }
+                return a;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Explain that task <i>i</i> starts at <i>m</i> or later by energetic reasoning[3], on mirrored tasks if
+     * <i>mirror</i> is set to <i>true</i>: there is a window [<i>a</i>,<i>b</i>) where the minimal energy of the
+     * other tasks leaves too little room to <i>i</i>, whatever its start in [<i>lo</i>, <i>m</i>-1].
+     * This covers time-table edge-finding, where the minimal energy of a task within a window may come from its
+     * compulsory part. The rule is cubic in the number of tasks, it is only tried when the other ones do not hold.
+     *
+     * @return the smallest start of <i>i</i> to keep in the explanation,
+     * or {@link Integer#MAX_VALUE} if the rule does not hold
+     */
+    private int energetic(int i, int m, int lo, boolean mirror) {
+        premises.clear();
+        if (dmin[i] <= 0 || hmin[i] <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        for (int x = -1; x < n; x++) {
+            int a = x == -1 ? lo : est(x, mirror);
+            if (x > -1 && a == lo) {
+                continue;
+            }
+            for (int y = 0; y < 2 * n; y++) {
+                int k = y >> 1;
+                int b = (y & 1) == 0 ? lct(k, mirror) : mirror ? -smax[k] : emin[k];
+                if (b <= a) {
+                    continue;
+                }
+                long available = cmax * ((long) b - a);
+                for (int j = 0; j < n && available >= 0; j++) {
+                    available -= j == i ? 0 : minimalEnergy(j, a, b, mirror);
+                }
+                if (intersection(i, lo, a, b) > available && intersection(i, m - 1, a, b) > available) {
+                    explainEnergy(i, -1, a, b, mirror);
+                    premise(prop.d[i], dmin[i], Integer.MAX_VALUE);
+                    premise(prop.h[i], hmin[i], Integer.MAX_VALUE);
+                    premise(prop.capa, Integer.MIN_VALUE, cmax);
+                    return lo;
+                }
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the minimal energy of task <i>i</i> within [<i>a</i>,<i>b</i>) when it starts at <i>t</i>
+     */
+    private long intersection(int i, int t, int a, int b) {
+        return Math.max(0, Math.min((long) t + dmin[i], b) - Math.max(t, a)) * hmin[i];
+    }
+
+    /**
+     * Declare premises for the minimal energy within [<i>a</i>,<i>b</i>) of all tasks but <i>i</i> and <i>j</i>,
+     * on mirrored tasks if <i>mirror</i> is set to <i>true</i>
+     */
+    private void explainEnergy(int i, int j, int a, int b, boolean mirror) {
+        for (int k = 0; k < n; k++) {
+            if (k == i || k == j) {
+                continue;
+            }
+            long shift = shiftEnergy(k, a, b, mirror);
+            long compulsory = compulsoryEnergy(k, a, b, mirror);
+            if (shift > 0 && shift >= compulsory) {
+                within(k, est(k, mirror), lct(k, mirror), mirror);
+            } else if (compulsory > 0) {
+                premise(prop.s[k], Integer.MIN_VALUE, smax[k]);
+                premise(prop.e[k], emin[k], Integer.MAX_VALUE);
+                premise(prop.h[k], hmin[k], Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * @return the minimal energy of task <i>k</i> within [<i>a</i>,<i>b</i>), on mirrored tasks if <i>mirror</i>
+     * is set to <i>true</i>
+     */
+    private long minimalEnergy(int k, int a, int b, boolean mirror) {
+        return Math.max(shiftEnergy(k, a, b, mirror), compulsoryEnergy(k, a, b, mirror));
+    }
+
+    /**
+     * @return the minimal energy of task <i>k</i> within [<i>a</i>,<i>b</i>), knowing that it executes within
+     * its earliest start and latest end, on mirrored tasks if <i>mirror</i> is set to <i>true</i>
+     */
+    private long shiftEnergy(int k, int a, int b, boolean mirror) {
+        if (dmin[k] <= 0 || hmin[k] <= 0) {
+            return 0;
+        }
+        long left = dmin[k] - Math.max(0L, (long) a - est(k, mirror));
+        long right = dmin[k] - Math.max(0L, (long) lct(k, mirror) - b);
+        return Math.max(0, Math.min((long) b - a, Math.min(left, right))) * hmin[k];
+    }
+
+    /**
+     * @return the energy of the compulsory part of task <i>k</i> within [<i>a</i>,<i>b</i>),
+     * on mirrored tasks if <i>mirror</i> is set to <i>true</i>
+     */
+    private long compulsoryEnergy(int k, int a, int b, boolean mirror) {
+        if (hmin[k] <= 0) {
+            return 0;
+        }
+        long from = Math.max(a, mirror ? -emin[k] : smax[k]);
+        long to = Math.min(b, mirror ? -smax[k] : emin[k]);
+        return Math.max(0, to - from) * hmin[k];
+    }
+}
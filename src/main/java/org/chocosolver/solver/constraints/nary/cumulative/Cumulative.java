@@ -43,7 +43,11 @@ public class Cumulative extends Constraint {
      *                         (efficient in practice as long as the time horizon is not too high)
      *                         - SWEEP: filters time-table with a sweep-based algorithm
      *                         - NRJ: greedy energy-based filter.
-     *                         BEWARE: should not be used alone, use it in addition to either SWEEP or TIME.
+     *                         - EDGE_FINDING, TIME_TABLE_EDGE_FINDING, ENERGETIC_REASONING: stronger energy-based filters,
+     *                         see {@link EdgeFindingCumulFilter}, {@link TimeTableEdgeFindingCumulFilter} and
+     *                         {@link EnergeticReasoningCumulFilter}, whose budget can be set with {@link Filter#make(int, long)}
+     *                         and the other constructor.
+     *                         BEWARE: energy-based filters should not be used alone, use them in addition to either SWEEP or TIME.
      *
      */
     public Cumulative(Task[] tasks, IntVar[] heights, IntVar capacity, boolean graphBased, Filter... filters) {
@@ -116,6 +120,16 @@ public class Cumulative extends Constraint {
 
 	/**
 	 * Filtering algorithms for Cumulative constraint
+	 * <p>
+	 * When learning signed clauses, deductions are explained by {@link CumulExplanation} from the tasks involved:
+	 * time-table, precedence, edge-finding and energetic rules are tried on the deductions of every filter.
+	 * A deduction which none of these rules recognises, such as some of those of ENERGETIC_REASONING on windows
+	 * which do not start or end at a bound of a task, or those of DEFAULT, falls back to the default explanation
+	 * of the propagator, made of the domains of all its variables.
+	 * Failures of the propagator always get the default explanation.
+	 * <p>
+	 * The work per call of EDGE_FINDING, TIME_TABLE_EDGE_FINDING and ENERGETIC_REASONING can be bounded
+	 * with {@link #make(int, long)}.
 	 */
 	public enum Filter {
 		/**
@@ -185,6 +199,51 @@ public class Cumulative extends Constraint {
 				return new DisjunctiveTaskIntervalFilter(n);
 			}
 		},
+		/**
+		 * edge-finding in O(kn log n), where k is the number of distinct heights
+		 * not idempotent
+		 * not enough to ensure correctness (only an additional filtering)
+		 */
+		EDGE_FINDING {
+			public CumulFilter make(int n){
+				return new EdgeFindingCumulFilter(n);
+			}
+
+			@Override
+			public CumulFilter make(int n, long budget) {
+				return new EdgeFindingCumulFilter(n, budget);
+			}
+		},
+		/**
+		 * time-table edge-finding, in O(n^2) within a budget of windows
+		 * not idempotent
+		 * not enough to ensure correctness (only an additional filtering)
+		 */
+		TIME_TABLE_EDGE_FINDING {
+			public CumulFilter make(int n){
+				return new TimeTableEdgeFindingCumulFilter(n);
+			}
+
+			@Override
+			public CumulFilter make(int n, long budget) {
+				return new TimeTableEdgeFindingCumulFilter(n, budget);
+			}
+		},
+		/**
+		 * energetic reasoning, in O(n^3) within a budget of evaluations
+		 * not idempotent
+		 * not enough to ensure correctness (only an additional filtering)
+		 */
+		ENERGETIC_REASONING {
+			public CumulFilter make(int n){
+				return new EnergeticReasoningCumulFilter(n);
+			}
+
+			@Override
+			public CumulFilter make(int n, long budget) {
+				return new EnergeticReasoningCumulFilter(n, budget);
+			}
+		},
 		/**
 		 * Combines above filters as a black-box
 		 * not idempotent
@@ -201,5 +260,18 @@ public class Cumulative extends Constraint {
 		 * @return an instance of the filtering algorithm
 		 */
 		public abstract CumulFilter make(int n);
+
+		/**
+		 * Create an instance of the filtering algorithm, whose work per call is bounded by <i>budget</i>.
+		 * The unit of the budget depends on the algorithm, see {@link EdgeFindingCumulFilter},
+		 * {@link TimeTableEdgeFindingCumulFilter} and {@link EnergeticReasoningCumulFilter}.
+		 * Algorithms without budget ignore it.
+		 * @param n			maximum number of tasks
+		 * @param budget	maximum amount of work per call
+		 * @return an instance of the filtering algorithm
+		 */
+		public CumulFilter make(int n, long budget) {
+			return make(n);
+		}
 	}
 }
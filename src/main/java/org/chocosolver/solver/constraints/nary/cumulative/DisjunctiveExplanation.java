@@ -0,0 +1,458 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.learn.ExplanationForSignedClause;
+import org.chocosolver.solver.learn.Implications;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.objects.ValueSortedMap;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.chocosolver.util.sort.ArraySort;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Explanations of the deductions of {@link PropDisjunctive}[1], for learning signed clauses.
+ * <p>
+ * A deduction is explained from the domains at the time it was made, by a set of tasks &Omega; found again
+ * from these domains, which is as small as the rule allows:
+ * <ul>
+ * <li>detectable precedences: when <i>i</i> cannot end before the latest start of each task of &Omega;,
+ * &Omega; precedes <i>i</i>,</li>
+ * <li>edge-finding: when <i>i</i> and the tasks &Omega; executing within [a,b) do not fit in it, while <i>i</i>
+ * starts at <i>a</i> or later, <i>i</i> ends after <i>b</i> and so &Omega; precedes <i>i</i>,</li>
+ * <li>not-first: when <i>i</i> cannot end before the tasks &Omega; which end at <i>b</i> or before have
+ * to start, one task of &Omega; precedes <i>i</i>.</li>
+ * </ul>
+ * Earliest starts are explained, latest ends are explained by the same rules on mirrored tasks,
+ * so not-first also explains not-last.
+ * When no rule holds, the caller falls back to the default explanation.
+ * Failures of the propagator itself (overloads) are always given the default explanation by the learner.
+ * <p>
+ * [1]: P. Vil&iacute;m, O(n log n) Filtering Algorithms for Unary Resource Constraint, CPAIOR-04.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+final class DisjunctiveExplanation {
+
+    private final IntVar[] s, d, e;
+    private final int n;
+    /**
+     * Bounds of the variables at the time of the deduction to explain
+     */
+    private final int[] smin, smax, emin, emax, dmin;
+    /**
+     * Bounds of the tasks, mirrored or not: earliest start, latest start, earliest and latest completion times
+     */
+    private final int[] est, lst, ect, lct;
+    private boolean mirrored;
+    /**
+     * Premises of the explanation: each variable is in [lo,hi], in insertion order
+     */
+    private final Map<IntVar, int[]> premises;
+    /**
+     * Candidate tasks of a rule
+     */
+    private final int[] tasks;
+    private final ArraySort<?> sorter;
+
+    private ExplanationForSignedClause explanation;
+    private ValueSortedMap<IntVar> front;
+    private Implications ig;
+
+    DisjunctiveExplanation(IntVar[] s, IntVar[] d, IntVar[] e) {
+        this.s = s;
+        this.d = d;
+        this.e = e;
+        this.n = s.length;
+        smin = new int[n];
+        smax = new int[n];
+        emin = new int[n];
+        emax = new int[n];
+        dmin = new int[n];
+        est = new int[n];
+        lst = new int[n];
+        ect = new int[n];
+        lct = new int[n];
+        premises = new LinkedHashMap<>();
+        tasks = new int[n];
+        sorter = new ArraySort<>(n, false, true);
+    }
+
+    /**
+     * Explain the deduction at position <i>p</i> in <i>ig</i>.
+     *
+     * @return <i>true</i> if an explanation has been added to <i>explanation</i>,
+     * <i>false</i> if the default explanation is needed
+     */
+    boolean explain(ExplanationForSignedClause explanation, ValueSortedMap<IntVar> front, Implications ig, int p) {
+        this.explanation = explanation;
+        this.front = front;
+        this.ig = ig;
+        premises.clear();
+        try {
+            if (p == -1) {
+                return false;
+            }
+            readBounds();
+            IntVar pivot = ig.getIntVarAt(p);
+            int mask = ig.getEventMaskAt(p);
+            int m = ig.getValueAt(p);
+            IntIterableRangeSet before = dom(pivot);
+            boolean inclow = mask == IntEventType.INCLOW.getMask()
+                    || mask == IntEventType.INSTANTIATE.getMask() && m == before.max();
+            boolean decupp = mask == IntEventType.DECUPP.getMask()
+                    || mask == IntEventType.INSTANTIATE.getMask() && m == before.min();
+            for (int i = 0; i < n; i++) {
+                if (dmin[i] <= 0) {
+                    continue;
+                }
+                if (inclow && s[i] == pivot) {
+                    mirror(false);
+                    if (explainStart(i, m, before.min())) {
+                        return true;
+                    }
+                }
+                if (decupp && e[i] == pivot) {
+                    mirror(true);
+                    if (explainStart(i, -m, -before.max())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            this.explanation = null;
+            this.front = null;
+            this.ig = null;
+        }
+    }
+
+    //***********************************************************************************
+    // BOUNDS
+    //***********************************************************************************
+
+    private IntIterableRangeSet dom(IntVar var) {
+        return ig.getDomainAt(front.getValue(var));
+    }
+
+    private void readBounds() {
+        for (int i = 0; i < n; i++) {
+            IntIterableRangeSet ds = dom(s[i]);
+            smin[i] = ds.min();
+            smax[i] = ds.max();
+            ds = dom(e[i]);
+            emin[i] = ds.min();
+            emax[i] = ds.max();
+            dmin[i] = dom(d[i]).min();
+        }
+    }
+
+    /**
+     * Compute the bounds of the tasks as {@link PropDisjunctive} does, on mirrored tasks (time is reversed)
+     * if <i>mirror</i> is set to <i>true</i>
+     */
+    private void mirror(boolean mirror) {
+        mirrored = mirror;
+        for (int i = 0; i < n; i++) {
+            int ls = Math.min(smax[i], emax[i] - dmin[i]);
+            int ec = Math.max(emin[i], smin[i] + dmin[i]);
+            if (mirror) {
+                est[i] = -emax[i];
+                lst[i] = -ec;
+                ect[i] = -ls;
+                lct[i] = -smin[i];
+            } else {
+                est[i] = smin[i];
+                lst[i] = ls;
+                ect[i] = ec;
+                lct[i] = emax[i];
+            }
+        }
+    }
+
+    //***********************************************************************************
+    // RULES
+    //***********************************************************************************
+
+    /**
+     * Explain that task <i>i</i> starts at <i>m</i> or later, knowing that it started at <i>lo</i> or later.
+     * The values in [<i>lo</i>, <i>m</i>-1] have been removed.
+     */
+    private boolean explainStart(int i, int m, int lo) {
+        return detectablePrecedence(i, m, lo)
+                || edgeFinding(i, m, lo)
+                || notFirst(i, m, lo);
+    }
+
+    /**
+     * Detectable precedences: the tasks &Omega; which start before task <i>i</i> can end precede it,
+     * and so <i>i</i> starts after &Omega; ends.
+     */
+    private boolean detectablePrecedence(int i, int m, int lo) {
+        // largest end of i which can be explained
+        int c = Math.max(otherEnd(i), lo + dmin[i]);
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != i && dmin[j] > 0 && lst[j] < c) {
+                tasks[k++] = j;
+            }
+        }
+        int a = completion(k, m);
+        if (a == Integer.MIN_VALUE) {
+            return false;
+        }
+        int last = Integer.MIN_VALUE;
+        for (int x = 0; x < k; x++) {
+            int j = tasks[x];
+            if (est[j] >= a) {
+                startAfter(j, a);
+                startBefore(j, lst[j]);
+                last = Math.max(last, lst[j]);
+            }
+        }
+        return commit(i, endAfter(i, last + 1, lo), m);
+    }
+
+    /**
+     * Edge-finding: task <i>i</i> and the tasks &Omega; which execute within [a,b) do not fit in it,
+     * so <i>i</i> ends after <i>b</i> and starts after &Omega; ends.
+     */
+    private boolean edgeFinding(int i, int m, int lo) {
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != i && dmin[j] > 0) {
+                tasks[k++] = j;
+            }
+        }
+        sorter.sort(tasks, k, (j1, j2) -> Integer.compare(est[j2], est[j1]));
+        for (int y = 0; y < k; y++) {
+            int b = lct[tasks[y]];
+            long energy = dmin[i];
+            int best = Integer.MIN_VALUE;
+            long end = Long.MIN_VALUE;
+            // sweep Omega by decreasing earliest start
+            for (int x = 0; x < k; x++) {
+                int j = tasks[x];
+                if (lct[j] <= b) {
+                    energy += dmin[j];
+                    if (est[j] + energy - dmin[i] > end) {
+                        end = est[j] + energy - dmin[i];
+                        best = est[j];
+                    }
+                    int a = est[j];
+                    if (a <= lo && end >= m && a + energy > b) {
+                        for (int z = 0; z <= x; z++) {
+                            int w = tasks[z];
+                            if (lct[w] <= b) {
+                                startAfter(w, Math.max(a, est[w] >= best ? best : a));
+                                endBefore(w, b);
+                            }
+                        }
+                        premise(d[i], dmin[i], Integer.MAX_VALUE);
+                        return commit(i, a, m);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Not-first: task <i>i</i> cannot end before the tasks &Omega; which end at <i>b</i> or before have to start,
+     * so one of them precedes <i>i</i>.
+     */
+    private boolean notFirst(int i, int m, int lo) {
+        int c = Math.max(otherEnd(i), lo + dmin[i]);
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != i && dmin[j] > 0 && ect[j] >= m) {
+                tasks[k++] = j;
+            }
+        }
+        sorter.sort(tasks, k, (j1, j2) -> Integer.compare(lct[j1], lct[j2]));
+        long energy = 0;
+        for (int x = 0; x < k; x++) {
+            int j = tasks[x];
+            energy += dmin[j];
+            int b = lct[j];
+            if ((x == k - 1 || lct[tasks[x + 1]] > b) && c + energy > b) {
+                for (int y = 0; y <= x; y++) {
+                    endBefore(tasks[y], b);
+                    endAfter(tasks[y], m);
+                }
+                return commit(i, endAfter(i, (int) (b - energy + 1), lo), m);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Among the first <i>k</i> candidate tasks, find the largest <i>a</i> such that the tasks starting at <i>a</i>
+     * or later cannot all end before <i>m</i>.
+     *
+     * @return <i>a</i>, or {@link Integer#MIN_VALUE} if there is none
+     */
+    private int completion(int k, int m) {
+        sorter.sort(tasks, k, (j1, j2) -> Integer.compare(est[j2], est[j1]));
+        long energy = 0;
+        for (int x = 0; x < k; x++) {
+            energy += dmin[tasks[x]];
+            if (est[tasks[x]] + energy >= m) {
+                return est[tasks[x]];
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    //***********************************************************************************
+    // PREMISES
+    //***********************************************************************************
+
+    /**
+     * @return the earliest end of task <i>i</i> which does not depend on the explained bound of its start
+     */
+    private int otherEnd(int i) {
+        return mirrored ? -smax[i] : emin[i];
+    }
+
+    /**
+     * Declare that task <i>i</i>, which is the pivot, ends at <i>c</i> or later.
+     *
+     * @return the smallest start of <i>i</i> to keep in the explanation
+     */
+    private int endAfter(int i, int c, int lo) {
+        premise(d[i], dmin[i], Integer.MAX_VALUE);
+        if (otherEnd(i) >= c) {
+            if (mirrored) {
+                premise(s[i], Integer.MIN_VALUE, -c);
+            } else {
+                premise(e[i], c, Integer.MAX_VALUE);
+            }
+            return Integer.MIN_VALUE;
+        }
+        // the start of i is then at least c - d(i)
+        return Math.min(lo, c - dmin[i]);
+    }
+
+    /**
+     * Declare that task <i>j</i> starts at <i>a</i> or later
+     */
+    private void startAfter(int j, int a) {
+        premise(d[j], dmin[j], Integer.MAX_VALUE);
+        if (mirrored) {
+            premise(e[j], Integer.MIN_VALUE, -a);
+        } else {
+            premise(s[j], a, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Declare that task <i>j</i> ends at <i>b</i> or before
+     */
+    private void endBefore(int j, int b) {
+        premise(d[j], dmin[j], Integer.MAX_VALUE);
+        if (mirrored) {
+            premise(s[j], -b, Integer.MAX_VALUE);
+        } else {
+            premise(e[j], Integer.MIN_VALUE, b);
+        }
+    }
+
+    /**
+     * Declare that task <i>j</i> starts at <i>x</i> or before, from its start or from its end
+     */
+    private void startBefore(int j, int x) {
+        premise(d[j], dmin[j], Integer.MAX_VALUE);
+        if (mirrored) {
+            // the end is at -x or later
+            if (emin[j] >= -x) {
+                premise(e[j], -x, Integer.MAX_VALUE);
+            } else {
+                premise(s[j], -x - dmin[j], Integer.MAX_VALUE);
+            }
+        } else {
+            if (smax[j] <= x) {
+                premise(s[j], Integer.MIN_VALUE, x);
+            } else {
+                premise(e[j], Integer.MIN_VALUE, x + dmin[j]);
+            }
+        }
+    }
+
+    /**
+     * Declare that task <i>j</i> ends at <i>x</i> or later, from its end or from its start
+     */
+    private void endAfter(int j, int x) {
+        premise(d[j], dmin[j], Integer.MAX_VALUE);
+        if (mirrored) {
+            // the start is at -x or before
+            if (smax[j] <= -x) {
+                premise(s[j], Integer.MIN_VALUE, -x);
+            } else {
+                premise(e[j], Integer.MIN_VALUE, -x + dmin[j]);
+            }
+        } else {
+            if (emin[j] >= x) {
+                premise(e[j], x, Integer.MAX_VALUE);
+            } else {
+                premise(s[j], x - dmin[j], Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Declare that the explanation holds when <i>var</i> &isin; [<i>lo</i>,<i>hi</i>]
+     */
+    private void premise(IntVar var, int lo, int hi) {
+        int[] b = premises.get(var);
+        if (b == null) {
+            premises.put(var, new int[]{lo, hi});
+        } else {
+            b[0] = Math.max(b[0], lo);
+            b[1] = Math.min(b[1], hi);
+        }
+    }
+
+    /**
+     * Add the explanation: task <i>i</i> starts in [<i>a</i>, <i>m</i> - 1] or one of the premises does not hold.
+     *
+     * @return <i>false</i> if the pivot is also a premise, the explanation is then discarded
+     */
+    private boolean commit(int i, int a, int m) {
+        IntVar pivot = mirrored ? e[i] : s[i];
+        if (premises.containsKey(pivot)) {
+            premises.clear();
+            return false;
+        }
+        addPremises();
+        IntIterableRangeSet set = explanation.getRootSet(pivot);
+        if (mirrored) {
+            set.removeBetween(-m + 1, a == Integer.MIN_VALUE ? Integer.MAX_VALUE : -a);
+        } else {
+            set.removeBetween(a, m - 1);
+        }
+        explanation.addLiteral(pivot, set, true);
+        return true;
+    }
+
+    private void addPremises() {
+        for (Map.Entry<IntVar, int[]> entry : premises.entrySet()) {
+            IntIterableRangeSet set = explanation.getRootSet(entry.getKey());
+            set.removeBetween(entry.getValue()[0], entry.getValue()[1]);
+            explanation.addLiteral(entry.getKey(), set, false);
+        }
+        premises.clear();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.sort.ArraySort;
+
+/**
+ * Edge-finding for the cumulative constraint, in O(kn log n) where k is the number of distinct heights[1].
+ * <p>
+ * Tasks are sorted by latest completion time and removed one by one from a {@link ThetaLambdaTree}:
+ * when the energy envelope of the remaining tasks &Theta; plus one removed task <i>i</i> exceeds the capacity
+ * available until the latest completion time of &Theta;, <i>i</i> has to end after all the tasks of &Theta;.
+ * The earliest start time of <i>i</i> is then updated from the subset of &Theta; which leaves the less room to
+ * <i>i</i>, which is computed for each distinct height with a second tree.
+ * The overload of the resource is detected on the way.
+ * <p>
+ * The budget bounds the number of modifications of the trees per call, the updates of the
+ * earliest start times are skipped once it is exhausted.
+ * <p>
+ * [1]: P. Vil&iacute;m, Edge Finding Filtering Algorithm for Discrete Cumulative Resources in O(kn log n), CP-09.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class EdgeFindingCumulFilter extends MirrorCumulFilter {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final ThetaLambdaTree tree, treeC;
+    /**
+     * Tasks by increasing earliest start time, and rank of each task
+     */
+    private final int[] byEst, rank;
+    /**
+     * Tasks by increasing latest completion time
+     */
+    private final int[] byLct;
+    /**
+     * Position in {@link #byLct} of the largest set of tasks each task has to end after, or -1
+     */
+    private final int[] prec;
+    /**
+     * Best earliest start time from the first tasks of {@link #byLct}, for a given height
+     */
+    private final long[] update;
+    private final ArraySort<?> sorter;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Edge-finding, with no budget
+     *
+     * @param n maximum number of tasks
+     */
+    public EdgeFindingCumulFilter(int n) {
+        this(n, Long.MAX_VALUE);
+    }
+
+    /**
+     * Edge-finding
+     *
+     * @param n      maximum number of tasks
+     * @param budget maximum number of modifications of Theta-Lambda trees per call
+     */
+    public EdgeFindingCumulFilter(int n, long budget) {
+        super(n, budget);
+        tree = new ThetaLambdaTree(n);
+        treeC = new ThetaLambdaTree(n);
+        byEst = new int[n];
+        rank = new int[n];
+        byLct = new int[n];
+        prec = new int[n];
+        update = new long[n];
+        sorter = new ArraySort<>(n, false, true);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    protected void filterStarts() throws ContradictionException {
+        for (int k = 0; k < m; k++) {
+            byEst[k] = k;
+            byLct[k] = k;
+        }
+        sorter.sort(byEst, m, (i, j) -> Integer.compare(est[i], est[j]));
+        sorter.sort(byLct, m, (i, j) -> Integer.compare(lct[i], lct[j]));
+        for (int r = 0; r < m; r++) {
+            rank[byEst[r]] = r;
+        }
+        if (detect()) {
+            adjust();
+        }
+    }
+
+    /**
+     * Detect precedences and overload.
+     *
+     * @return <i>true</i> if a precedence has been detected
+     */
+    private boolean detect() throws ContradictionException {
+        tree.reset(m);
+        for (int k = 0; k < m; k++) {
+            tree.addToTheta(rank[k], (long) capa * est[k], (long) p[k] * c[k]);
+            prec[k] = -1;
+        }
+        exhausted(m);
+        boolean found = false;
+        for (int q = m - 1; q >= 0; q--) {
+            int j = byLct[q];
+            long bound = (long) capa * lct[j];
+            if (tree.getEnvelope() > bound) {
+                fail();
+            }
+            while (tree.getLambdaEnvelope() > bound) {
+                int i = byEst[tree.getResponsibleForLambdaEnvelope()];
+                prec[i] = q;
+                found = true;
+                tree.remove(rank[i]);
+            }
+            tree.moveToLambda(rank[j]);
+            if (exhausted(1)) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Update earliest start times of tasks with a detected precedence, height by height.
+     */
+    private void adjust() throws ContradictionException {
+        for (int k = 0; k < m; k++) {
+            if (prec[k] == -1) {
+                continue;
+            }
+            int h = c[k];
+            if (exhausted(2L * m)) {
+                return;
+            }
+            computeUpdates(h);
+            // apply to all tasks of the same height
+            for (int l = k; l < m; l++) {
+                if (prec[l] != -1 && c[l] == h) {
+                    long v = update[prec[l]];
+                    prec[l] = -1;
+                    if (v > est[l]) {
+                        updateStart(l, (int) Math.min(v, Integer.MAX_VALUE / 2));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * For each position q in {@link #byLct}, compute the best earliest start time for a task of height <i>h</i>
+     * which has to end after the first q+1 tasks
+     */
+    private void computeUpdates(int h) {
+        tree.reset(m);
+        treeC.reset(m);
+        long best = Long.MIN_VALUE;
+        for (int q = 0; q < m; q++) {
+            int j = byLct[q];
+            long en = (long) p[j] * c[j];
+            tree.addToTheta(rank[j], (long) (capa - h) * est[j], en);
+            treeC.addToTheta(rank[j], (long) capa * est[j], en);
+            long threshold = (long) (capa - h) * lct[j];
+            if (tree.getEnvelope() > threshold) {
+                // the rightmost subset of tasks which leaves less than (capa - h) * length to others
+                int a = tree.rightmostAbove(threshold);
+                long env = Math.max(treeC.envelopeBefore(a), (long) capa * est[byEst[a]])
+                        + treeC.getEnergy() - treeC.energyBefore(a);
+                long diff = -Math.floorDiv(threshold - env, h);
+                best = Math.max(best, diff);
+            }
+            update[q] = best;
+        }
+    }
+}
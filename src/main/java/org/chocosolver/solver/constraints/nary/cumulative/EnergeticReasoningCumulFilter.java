@@ -0,0 +1,154 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.exception.ContradictionException;
+
+import java.util.Arrays;
+
+/**
+ * Energetic reasoning for the cumulative constraint[1].
+ * <p>
+ * For a time interval [t1,t2), the minimal intersection of a task is the smallest part of its energy
+ * which lies in the interval, whether it starts as soon or as late as possible.
+ * The resource is overloaded if the minimal intersections exceed the capacity of the interval,
+ * otherwise the earliest start time of a task is increased when its part in the interval, if it starts as soon as
+ * possible, does not fit in the capacity left by the other tasks.
+ * <p>
+ * Intervals are built from O(n<sup>2</sup>) pairs of relevant dates (starts from earliest start, latest start and
+ * earliest completion times, ends from latest completion, earliest completion and latest start times),
+ * and each interval is processed in O(n), which makes O(n<sup>3</sup>) per call.
+ * The budget bounds the number of pairs (interval, task) evaluated per call.
+ * <p>
+ * [1]: P. Baptiste, C. Le Pape and W. Nuijten, Satisfiability Tests and Time-Bound Adjustments for Cumulative
+ * Scheduling Problems, Annals of Operations Research, 1999.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class EnergeticReasoningCumulFilter extends MirrorCumulFilter {
+
+    /**
+     * Default maximum number of pairs (interval, task) evaluated per call
+     */
+    public static final long DEFAULT_BUDGET = 1 << 22;
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /**
+     * Candidate dates for the lower and upper bounds of intervals, sorted
+     */
+    private final int[] lows, ups;
+    /**
+     * Minimal intersection of each task with the current interval
+     */
+    private final long[] mi;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Energetic reasoning, with the default budget
+     *
+     * @param n maximum number of tasks
+     */
+    public EnergeticReasoningCumulFilter(int n) {
+        this(n, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Energetic reasoning
+     *
+     * @param n      maximum number of tasks
+     * @param budget maximum number of pairs (interval, task) evaluated per call
+     */
+    public EnergeticReasoningCumulFilter(int n, long budget) {
+        super(n, budget);
+        lows = new int[3 * n];
+        ups = new int[3 * n];
+        mi = new long[n];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    protected void filterStarts() throws ContradictionException {
+        for (int k = 0; k < m; k++) {
+            lows[3 * k] = est[k];
+            lows[3 * k + 1] = lst[k];
+            lows[3 * k + 2] = ect[k];
+            ups[3 * k] = lct[k];
+            ups[3 * k + 1] = ect[k];
+            ups[3 * k + 2] = lst[k];
+        }
+        int nl = distinct(lows, 3 * m);
+        int nu = distinct(ups, 3 * m);
+        for (int x = 0; x < nl; x++) {
+            int t1 = lows[x];
+            for (int y = nu - 1; y >= 0 && ups[y] > t1; y--) {
+                if (exhausted(m)) {
+                    return;
+                }
+                filterInterval(t1, ups[y]);
+            }
+        }
+    }
+
+    /**
+     * Sort and remove duplicates from the first <i>n</i> values of <i>values</i>
+     *
+     * @return the number of distinct values
+     */
+    private static int distinct(int[] values, int n) {
+        Arrays.sort(values, 0, n);
+        int k = 0;
+        for (int x = 0; x < n; x++) {
+            if (k == 0 || values[k - 1] != values[x]) {
+                values[k++] = values[x];
+            }
+        }
+        return k;
+    }
+
+    /**
+     * @return the length of [<i>s</i>, <i>s</i> + <i>d</i>) &cap; [<i>t1</i>, <i>t2</i>)
+     */
+    private static long overlap(int s, int d, int t1, int t2) {
+        return Math.max(0L, Math.min((long) t2, (long) s + d) - Math.max(t1, s));
+    }
+
+    private void filterInterval(int t1, int t2) throws ContradictionException {
+        long total = 0;
+        for (int k = 0; k < m; k++) {
+            long left = overlap(est[k], p[k], t1, t2);
+            long right = overlap(lst[k], p[k], t1, t2);
+            mi[k] = c[k] * Math.min(left, right);
+            total += mi[k];
+        }
+        long available = (long) capa * (t2 - t1);
+        if (total > available) {
+            fail();
+        }
+        for (int k = 0; k < m; k++) {
+            long left = overlap(est[k], p[k], t1, t2);
+            long rest = available - total + mi[k];
+            if (c[k] * left > rest) {
+                // the task cannot start as soon as possible, it can only overlap the end of the interval
+                updateStart(k, (int) (t2 - rest / c[k]));
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+
+/**
+ * Base class of filters which increase earliest start times of tasks:
+ * earliest start times are filtered first, then latest end times, by running the same algorithm
+ * on mirrored tasks (time is reversed).
+ * <p>
+ * Only tasks with a positive duration and a positive height not greater than the capacity are considered,
+ * others cannot be pushed by energetic reasoning.
+ * The work done on each call is limited by a budget, whose unit depends on the algorithm:
+ * when it is exhausted, the algorithm stops and only the deductions made so far are applied.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public abstract class MirrorCumulFilter extends CumulFilter {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /**
+     * Number of tasks considered, and index of each one
+     */
+    protected int m;
+    protected final int[] map;
+    /**
+     * Bounds of the tasks considered: earliest/latest start, earliest/latest completion time,
+     * minimum duration and height
+     */
+    protected final int[] est, lst, ect, lct, p, c;
+    /**
+     * Maximum capacity
+     */
+    protected int capa;
+    /**
+     * Maximum amount of work per call
+     */
+    protected final long budget;
+    /**
+     * Amount of work left for the current call
+     */
+    protected long credit;
+
+    private boolean mirrored;
+    private IntVar[] s, e;
+    private Propagator<IntVar> aCause;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * @param nbMaxTasks maximum number of tasks
+     * @param budget     maximum amount of work per call
+     */
+    protected MirrorCumulFilter(int nbMaxTasks, long budget) {
+        super(nbMaxTasks);
+        this.budget = budget;
+        map = new int[nbMaxTasks];
+        est = new int[nbMaxTasks];
+        lst = new int[nbMaxTasks];
+        ect = new int[nbMaxTasks];
+        lct = new int[nbMaxTasks];
+        p = new int[nbMaxTasks];
+        c = new int[nbMaxTasks];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public void filter(IntVar[] s, IntVar[] d, IntVar[] e, IntVar[] h, IntVar capa, ISet tasks, Propagator<IntVar> aCause) throws ContradictionException {
+        this.s = s;
+        this.e = e;
+        this.aCause = aCause;
+        this.credit = budget;
+        try {
+            for (boolean mirror : new boolean[]{false, true}) {
+                mirrored = mirror;
+                collect(s, d, e, h, capa, tasks);
+                if (m > 0) {
+                    filterStarts();
+                }
+            }
+        } finally {
+            this.s = this.e = null;
+            this.aCause = null;
+        }
+    }
+
+    private void collect(IntVar[] s, IntVar[] d, IntVar[] e, IntVar[] h, IntVar capa, ISet tasks) {
+        this.capa = capa.getUB();
+        m = 0;
+        ISetIterator tIter = tasks.iterator();
+        while (tIter.hasNext()) {
+            int i = tIter.nextInt();
+            int dl = d[i].getLB(), hl = h[i].getLB();
+            if (dl > 0 && hl > 0 && hl <= this.capa) {
+                int es = s[i].getLB();
+                int ls = Math.min(s[i].getUB(), e[i].getUB() - dl);
+                int ec = Math.max(e[i].getLB(), es + dl);
+                int lc = e[i].getUB();
+                if (mirrored) {
+                    est[m] = -lc;
+                    lst[m] = -ec;
+                    ect[m] = -ls;
+                    lct[m] = -es;
+                } else {
+                    est[m] = es;
+                    lst[m] = ls;
+                    ect[m] = ec;
+                    lct[m] = lc;
+                }
+                p[m] = dl;
+                c[m] = hl;
+                map[m++] = i;
+            }
+        }
+    }
+
+    /**
+     * Increase earliest start times of the tasks considered.
+     *
+     * @throws ContradictionException if the resource is overloaded
+     */
+    protected abstract void filterStarts() throws ContradictionException;
+
+    /**
+     * Set the earliest start time of the k<sup>th</sup> task considered to at least <i>value</i>
+     * (its latest end time in the mirrored problem).
+     *
+     * @param k     index of a task considered
+     * @param value a new earliest start time
+     * @throws ContradictionException if the domain of the task becomes empty
+     */
+    protected void updateStart(int k, int value) throws ContradictionException {
+        if (value > est[k]) {
+            if (mirrored) {
+                e[map[k]].updateUpperBound(-value, aCause);
+            } else {
+                s[map[k]].updateLowerBound(value, aCause);
+            }
+        }
+    }
+
+    /**
+     * @throws ContradictionException always, the resource is overloaded
+     */
+    protected void fail() throws ContradictionException {
+        aCause.fails();
+    }
+
+    /**
+     * Consume some budget.
+     *
+     * @param amount amount of work
+     * @return <i>true</i> if the budget is exhausted
+     */
+    protected boolean exhausted(long amount) {
+        credit -= amount;
+        return credit < 0;
+    }
+}
@@ -13,10 +13,13 @@ import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.learn.ExplanationForSignedClause;
+import org.chocosolver.solver.learn.Implications;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.ValueSortedMap;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
@@ -45,6 +48,7 @@ public class PropCumulative extends Propagator<IntVar> {
     protected CumulFilter[] filters;
     protected ISet allTasks;
     protected final IStateInt lastCapaMax;
+    private CumulExplanation explainer;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -190,6 +194,20 @@ public class PropCumulative extends Propagator<IntVar> {
         return ESat.UNDEFINED;
     }
 
+    /**
+     * Explains deductions and failures by time-table, precedence and energetic reasoning on the domains
+     * at the time they were made, see {@link CumulExplanation}, or by the default explanation otherwise.
+     */
+    @Override
+    public void explain(ExplanationForSignedClause explanation, ValueSortedMap<IntVar> front, Implications ig, int p) {
+        if (explainer == null) {
+            explainer = new CumulExplanation(this);
+        }
+        if (!explainer.explain(explanation, front, ig, p)) {
+            Propagator.defaultExplain(this, explanation, front, ig, p);
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(this.getClass().getSimpleName() + "(");
@@ -0,0 +1,347 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.learn.ExplanationForSignedClause;
+import org.chocosolver.solver.learn.Implications;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.ValueSortedMap;
+import org.chocosolver.util.sort.ArraySort;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for a unary resource: tasks of positive duration cannot overlap[1].
+ * <p>
+ * Each call runs, up to a fixpoint and on both the tasks and the mirrored tasks (time is reversed),
+ * the following rules, in O(n log n) each with a {@link ThetaLambdaTree} whose envelope is the earliest completion
+ * time of a set of tasks:
+ * <ul>
+ * <li>overload checking, as part of edge-finding,</li>
+ * <li>detectable precedences,</li>
+ * <li>not-last (not-first on mirrored tasks),</li>
+ * <li>edge-finding.</li>
+ * </ul>
+ * Tasks whose duration can be zero are ignored until their duration is positive.
+ * <p>
+ * When learning signed clauses, deductions are explained by the tasks involved in the rule which made them,
+ * see {@link DisjunctiveExplanation}.
+ * <p>
+ * [1]: P. Vil&iacute;m, O(n log n) Filtering Algorithms for Unary Resource Constraint, CPAIOR-04.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class PropDisjunctive extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n;
+    private final IntVar[] s, d, e;
+    private final ThetaLambdaTree tree;
+    /**
+     * Number of tasks considered, index of each one and their bounds:
+     * earliest/latest start, earliest/latest completion time and minimum duration
+     */
+    private int m;
+    private final int[] map, est, lst, ect, lct, p;
+    /**
+     * Tasks sorted by increasing est, lst, ect and lct, and rank of each task in {@link #byEst}
+     */
+    private final int[] byEst, byLst, byEct, byLct, rank;
+    /**
+     * New bounds computed by a rule
+     */
+    private final long[] bound;
+    private final ArraySort<?> sorter;
+    private boolean mirrored;
+    private boolean modified;
+    private DisjunctiveExplanation explainer;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Unary resource propagator
+     *
+     * @param s start variables
+     * @param d duration variables
+     * @param e end variables
+     */
+    public PropDisjunctive(IntVar[] s, IntVar[] d, IntVar[] e) {
+        super(ArrayUtils.append(s, d, e), PropagatorPriority.QUADRATIC, false);
+        this.n = s.length;
+        if (!(n == d.length && n == e.length)) {
+            throw new UnsupportedOperationException();
+        }
+        this.s = Arrays.copyOfRange(vars, 0, n);
+        this.d = Arrays.copyOfRange(vars, n, 2 * n);
+        this.e = Arrays.copyOfRange(vars, 2 * n, 3 * n);
+        tree = new ThetaLambdaTree(n);
+        map = new int[n];
+        est = new int[n];
+        lst = new int[n];
+        ect = new int[n];
+        lct = new int[n];
+        p = new int[n];
+        byEst = new int[n];
+        byLst = new int[n];
+        byEct = new int[n];
+        byLct = new int[n];
+        rank = new int[n];
+        bound = new long[n];
+        sorter = new ArraySort<>(n, false, true);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        do {
+            modified = false;
+            for (boolean mirror : new boolean[]{false, true}) {
+                mirrored = mirror;
+                collect();
+                if (m > 1) {
+                    edgeFinding();
+                    detectablePrecedences();
+                    notLast();
+                }
+            }
+        } while (modified);
+    }
+
+    private void collect() {
+        m = 0;
+        for (int i = 0; i < n; i++) {
+            int dl = d[i].getLB();
+            if (dl > 0) {
+                int es = s[i].getLB();
+                int lc = e[i].getUB();
+                int ls = Math.min(s[i].getUB(), lc - dl);
+                int ec = Math.max(e[i].getLB(), es + dl);
+                if (mirrored) {
+                    est[m] = -lc;
+                    lst[m] = -ec;
+                    ect[m] = -ls;
+                    lct[m] = -es;
+                } else {
+                    est[m] = es;
+                    lst[m] = ls;
+                    ect[m] = ec;
+                    lct[m] = lc;
+                }
+                p[m] = dl;
+                map[m++] = i;
+            }
+        }
+        for (int k = 0; k < m; k++) {
+            byEst[k] = byLst[k] = byEct[k] = byLct[k] = k;
+        }
+        sorter.sort(byEst, m, (i, j) -> Integer.compare(est[i], est[j]));
+        sorter.sort(byLst, m, (i, j) -> Integer.compare(lst[i], lst[j]));
+        sorter.sort(byEct, m, (i, j) -> Integer.compare(ect[i], ect[j]));
+        sorter.sort(byLct, m, (i, j) -> Integer.compare(lct[i], lct[j]));
+        for (int r = 0; r < m; r++) {
+            rank[byEst[r]] = r;
+        }
+    }
+
+    /**
+     * Set the earliest start time of the k<sup>th</sup> task considered to at least <i>value</i>
+     * (its latest end time in the mirrored problem).
+     */
+    private void updateStart(int k, long value) throws ContradictionException {
+        if (value > est[k]) {
+            int v = (int) Math.min(value, Integer.MAX_VALUE / 2);
+            if (mirrored) {
+                modified |= e[map[k]].updateUpperBound(-v, this);
+            } else {
+                modified |= s[map[k]].updateLowerBound(v, this);
+            }
+        }
+    }
+
+    /**
+     * Set the latest completion time of the k<sup>th</sup> task considered to at most <i>value</i>
+     * (its earliest start time in the mirrored problem).
+     */
+    private void updateEnd(int k, long value) throws ContradictionException {
+        if (value < lct[k]) {
+            int v = (int) Math.max(value, Integer.MIN_VALUE / 2);
+            if (mirrored) {
+                modified |= s[map[k]].updateLowerBound(-v, this);
+            } else {
+                modified |= e[map[k]].updateUpperBound(v, this);
+            }
+        }
+    }
+
+    private void addToTheta(int k) {
+        tree.addToTheta(rank[k], est[k], p[k]);
+    }
+
+    /**
+     * Overload checking and edge-finding: when a task <i>i</i> cannot complete before the latest completion time of
+     * a set of tasks &Theta;, <i>i</i> has to start after the earliest completion time of &Theta;.
+     */
+    private void edgeFinding() throws ContradictionException {
+        tree.reset(m);
+        for (int k = 0; k < m; k++) {
+            addToTheta(k);
+            bound[k] = est[k];
+        }
+        for (int q = m - 1; q >= 0; q--) {
+            int j = byLct[q];
+            if (tree.getEnvelope() > lct[j]) {
+                fails();
+            }
+            while (tree.getLambdaEnvelope() > lct[j]) {
+                int r = tree.getResponsibleForLambdaEnvelope();
+                int i = byEst[r];
+                bound[i] = Math.max(bound[i], tree.getEnvelope());
+                tree.remove(r);
+            }
+            tree.moveToLambda(rank[j]);
+        }
+        for (int k = 0; k < m; k++) {
+            updateStart(k, bound[k]);
+        }
+    }
+
+    /**
+     * Detectable precedences: a task <i>j</i> such that lst<sub>j</sub> &lt; ect<sub>i</sub>
+     * has to precede the task <i>i</i>.
+     */
+    private void detectablePrecedences() throws ContradictionException {
+        tree.reset(m);
+        int q = 0;
+        for (int x = 0; x < m; x++) {
+            int i = byEct[x];
+            while (q < m && lst[byLst[q]] < ect[i]) {
+                addToTheta(byLst[q++]);
+            }
+            boolean in = lst[i] < ect[i];
+            if (in) {
+                tree.remove(rank[i]);
+            }
+            bound[i] = Math.max(est[i], tree.getEnvelope());
+            if (in) {
+                addToTheta(i);
+            }
+        }
+        for (int k = 0; k < m; k++) {
+            updateStart(k, bound[k]);
+        }
+    }
+
+    /**
+     * Not-last: when the tasks &Omega; which can start before the latest completion time of <i>i</i>
+     * cannot all complete before the latest start time of <i>i</i>,
+     * <i>i</i> has to complete before the latest start time of one of them.
+     */
+    private void notLast() throws ContradictionException {
+        tree.reset(m);
+        int q = 0;
+        for (int x = 0; x < m; x++) {
+            int i = byLct[x];
+            while (q < m && lst[byLst[q]] < lct[i]) {
+                addToTheta(byLst[q++]);
+            }
+            bound[i] = lct[i];
+            // the task of Omega with the largest latest start time
+            int last = q > 0 && byLst[q - 1] == i ? (q > 1 ? byLst[q - 2] : -1) : (q > 0 ? byLst[q - 1] : -1);
+            if (last > -1) {
+                boolean in = lst[i] < lct[i];
+                if (in) {
+                    tree.remove(rank[i]);
+                }
+                if (tree.getEnvelope() > lst[i]) {
+                    bound[i] = Math.min(lct[i], lst[last]);
+                }
+                if (in) {
+                    addToTheta(i);
+                }
+            }
+        }
+        for (int k = 0; k < m; k++) {
+            updateEnd(k, bound[k]);
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        for (int i = 0; i < n; i++) {
+            if (s[i].getLB() + d[i].getLB() > e[i].getUB()
+                    || s[i].getUB() + d[i].getUB() < e[i].getLB()) {
+                return ESat.FALSE;
+            }
+        }
+        // compulsory parts cannot overlap
+        boolean instantiated = true;
+        for (int i = 0; i < n; i++) {
+            instantiated &= s[i].isInstantiated() && d[i].isInstantiated() && e[i].isInstantiated();
+            if (d[i].getLB() > 0 && s[i].getUB() < e[i].getLB()) {
+                for (int j = i + 1; j < n; j++) {
+                    if (d[j].getLB() > 0 && s[j].getUB() < e[j].getLB()
+                            && Math.max(s[i].getUB(), s[j].getUB()) < Math.min(e[i].getLB(), e[j].getLB())) {
+                        return ESat.FALSE;
+                    }
+                }
+            }
+        }
+        return instantiated ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    /**
+     * Explains deductions and failures by the tasks involved in the rule which made them,
+     * see {@link DisjunctiveExplanation}, or by the default explanation otherwise.
+     */
+    @Override
+    public void explain(ExplanationForSignedClause explanation, ValueSortedMap<IntVar> front, Implications ig, int p) {
+        if (explainer == null) {
+            explainer = new DisjunctiveExplanation(s, d, e);
+        }
+        if (!explainer.explain(explanation, front, ig, p)) {
+            Propagator.defaultExplain(this, explanation, front, ig, p);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(this.getClass().getSimpleName() + "(");
+        for (int i = 0; i < n; i++) {
+            sb.append("[").append(s[i].toString());
+            sb.append(",").append(d[i].toString());
+            sb.append(",").append(e[i].toString()).append("]");
+            if (i < n - 1) {
+                sb.append(",");
+            }
+        }
+        return sb.append(")").toString();
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+/**
+ * Theta-Lambda tree[1], to compute energy envelopes of sets of tasks in O(log n) per modification.
+ * <p>
+ * Leaves are tasks, sorted by increasing earliest start time by the caller.
+ * Each leaf is either empty, in the set Theta (white) or in the set Lambda (gray),
+ * and is given an energy <i>e</i> and a base <i>b</i>, usually C*est where C is the capacity of the resource.
+ * The envelope of a set of leaves &Omega; is the maximum, over each leaf <i>a</i> of &Omega;,
+ * of b<sub>a</sub> + sum of the energies of the leaves of &Omega; from <i>a</i> to the right.
+ * <p>
+ * The tree maintains the energy and the envelope of Theta,
+ * and the largest energy and envelope of Theta plus at most one leaf of Lambda, with the responsible leaf.
+ * <p>
+ * [1]: P. Vil&iacute;m, Edge Finding Filtering Algorithm for Discrete Cumulative Resources in O(kn log n), CP-09.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class ThetaLambdaTree {
+
+    /**
+     * Envelope of an empty set
+     */
+    public static final long EMPTY = Long.MIN_VALUE / 4;
+
+    /**
+     * Index of the first leaf in the arrays
+     */
+    private int first;
+    /**
+     * Energy and envelope of Theta in each node
+     */
+    private long[] e, env;
+    /**
+     * Energy and envelope of Theta and at most one leaf of Lambda, in each node
+     */
+    private long[] eL, envL;
+    /**
+     * Leaf of Lambda responsible for eL and envL in each node, or -1
+     */
+    private int[] respE, respEnv;
+    /**
+     * Base and energy of each leaf
+     */
+    private long[] base, energy;
+
+    /**
+     * Create a tree, to be initialized with {@link #reset(int)}.
+     *
+     * @param n maximum number of leaves
+     */
+    public ThetaLambdaTree(int n) {
+        allocate(Math.max(n, 1));
+    }
+
+    private void allocate(int n) {
+        first = 1;
+        while (first < n) {
+            first <<= 1;
+        }
+        e = new long[2 * first];
+        env = new long[2 * first];
+        eL = new long[2 * first];
+        envL = new long[2 * first];
+        respE = new int[2 * first];
+        respEnv = new int[2 * first];
+        base = new long[first];
+        energy = new long[first];
+    }
+
+    /**
+     * Empty the tree and make room for <i>n</i> leaves.
+     *
+     * @param n number of leaves
+     */
+    public void reset(int n) {
+        if (n > first) {
+            allocate(n);
+        }
+        for (int k = 1; k < 2 * first; k++) {
+            e[k] = 0;
+            env[k] = EMPTY;
+            eL[k] = 0;
+            envL[k] = EMPTY;
+            respE[k] = -1;
+            respEnv[k] = -1;
+        }
+    }
+
+    /**
+     * Put a leaf in Theta.
+     *
+     * @param leaf   rank of the leaf
+     * @param b      base of the envelope of the leaf
+     * @param energy energy of the leaf
+     */
+    public void addToTheta(int leaf, long b, long energy) {
+        this.base[leaf] = b;
+        this.energy[leaf] = energy;
+        int k = first + leaf;
+        e[k] = eL[k] = energy;
+        env[k] = envL[k] = b + energy;
+        respE[k] = respEnv[k] = -1;
+        update(k >> 1);
+    }
+
+    /**
+     * Put a leaf in Lambda.
+     *
+     * @param leaf   rank of the leaf
+     * @param b      base of the envelope of the leaf
+     * @param energy energy of the leaf
+     */
+    public void addToLambda(int leaf, long b, long energy) {
+        this.base[leaf] = b;
+        this.energy[leaf] = energy;
+        int k = first + leaf;
+        e[k] = 0;
+        env[k] = EMPTY;
+        eL[k] = energy;
+        envL[k] = b + energy;
+        respE[k] = respEnv[k] = leaf;
+        update(k >> 1);
+    }
+
+    /**
+     * Move a leaf from Theta to Lambda, with the same base and energy.
+     *
+     * @param leaf rank of the leaf
+     */
+    public void moveToLambda(int leaf) {
+        addToLambda(leaf, base[leaf], energy[leaf]);
+    }
+
+    /**
+     * Remove a leaf from Theta or Lambda.
+     *
+     * @param leaf rank of the leaf
+     */
+    public void remove(int leaf) {
+        int k = first + leaf;
+        e[k] = eL[k] = 0;
+        env[k] = envL[k] = EMPTY;
+        respE[k] = respEnv[k] = -1;
+        update(k >> 1);
+    }
+
+    private void update(int k) {
+        while (k > 0) {
+            int l = 2 * k, r = l + 1;
+            e[k] = e[l] + e[r];
+            env[k] = Math.max(env[r], env[l] + e[r]);
+            if (eL[l] + e[r] > e[l] + eL[r]) {
+                eL[k] = eL[l] + e[r];
+                respE[k] = respE[l];
+            } else {
+                eL[k] = e[l] + eL[r];
+                respE[k] = respE[r];
+            }
+            envL[k] = envL[r];
+            respEnv[k] = respEnv[r];
+            if (envL[l] + e[r] > envL[k]) {
+                envL[k] = envL[l] + e[r];
+                respEnv[k] = respEnv[l];
+            }
+            if (env[l] + eL[r] > envL[k]) {
+                envL[k] = env[l] + eL[r];
+                respEnv[k] = respE[r];
+            }
+            k >>= 1;
+        }
+    }
+
+    /**
+     * @return the energy of Theta
+     */
+    public long getEnergy() {
+        return e[1];
+    }
+
+    /**
+     * @return the envelope of Theta, or {@link #EMPTY}
+     */
+    public long getEnvelope() {
+        return env[1];
+    }
+
+    /**
+     * @return the largest envelope of Theta plus one leaf of Lambda
+     */
+    public long getLambdaEnvelope() {
+        return envL[1];
+    }
+
+    /**
+     * @return the leaf of Lambda responsible for {@link #getLambdaEnvelope()}, or -1 if none is
+     */
+    public int getResponsibleForLambdaEnvelope() {
+        return respEnv[1];
+    }
+
+    /**
+     * Find the rightmost leaf <i>a</i> of Theta such that the envelope of the leaves of Theta from <i>a</i>
+     * to the right, based on <i>a</i>, exceeds <i>threshold</i>.
+     *
+     * @param threshold a threshold, smaller than {@link #getEnvelope()}
+     * @return the rank of the leaf
+     */
+    public int rightmostAbove(long threshold) {
+        assert env[1] > threshold;
+        int k = 1;
+        while (k < first) {
+            int r = 2 * k + 1;
+            if (env[r] > threshold) {
+                k = r;
+            } else {
+                threshold -= e[r];
+                k = r - 1;
+            }
+        }
+        return k - first;
+    }
+
+    /**
+     * @param leaf rank of a leaf
+     * @return the envelope of the leaves of Theta strictly on the left of <i>leaf</i>
+     */
+    public long envelopeBefore(int leaf) {
+        long acc = EMPTY;
+        int k = 1, lo = 0, size = first;
+        while (k < first) {
+            size >>= 1;
+            if (leaf >= lo + size) {
+                int l = 2 * k;
+                acc = Math.max(env[l], acc + e[l]);
+                lo += size;
+                k = l + 1;
+            } else {
+                k = 2 * k;
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * @param leaf rank of a leaf
+     * @return the energy of the leaves of Theta strictly on the left of <i>leaf</i>
+     */
+    public long energyBefore(int leaf) {
+        long acc = 0;
+        int k = 1, lo = 0, size = first;
+        while (k < first) {
+            size >>= 1;
+            if (leaf >= lo + size) {
+                acc += e[2 * k];
+                lo += size;
+                k = 2 * k + 1;
+            } else {
+                k = 2 * k;
+            }
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.sort.ArraySort;
+
+import java.util.Arrays;
+
+/**
+ * Time-table edge-finding for the cumulative constraint[1,2].
+ * <p>
+ * Each task is split into its compulsory part, which is accounted for in the time-table, and its free part.
+ * The energy required in a time window [a,b) is the energy of the time-table in the window
+ * plus the free energy of the tasks which have to execute within the window.
+ * <ul>
+ * <li>The overload of windows is checked in O(n log n) with a {@link ThetaLambdaTree}
+ * whose leaves are based on the time-table energy after their earliest start time[1].</li>
+ * <li>Earliest start times are then updated in O(n<sup>2</sup>) by scanning windows[2]:
+ * in each window, the task which starts within the window, ends after it and requires the largest free energy in
+ * the window if it starts as soon as possible is pushed so that its free energy fits in the window.</li>
+ * </ul>
+ * The budget bounds the number of windows scanned per call.
+ * <p>
+ * [1]: P. Vil&iacute;m, Timetable Edge Finding Filtering Algorithm for Discrete Cumulative Resources, CPAIOR-11.<br/>
+ * [2]: A. Schutt, A. Wolf, A New O(n<sup>2</sup> log n) Not-First/Not-Last Pruning Algorithm for Cumulative
+ * Resource Constraints, CP-10, and A. Schutt, T. Feydy, P.J. Stuckey, Explaining Time-Table-Edge-Finding
+ * Propagation for the Cumulative Resource Constraint, CPAIOR-13.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class TimeTableEdgeFindingCumulFilter extends MirrorCumulFilter {
+
+    /**
+     * Default maximum number of windows scanned per call
+     */
+    public static final long DEFAULT_BUDGET = 1 << 20;
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final ThetaLambdaTree tree;
+    private final int[] byEst, rank, byLct;
+    /**
+     * Free duration of each task
+     */
+    private final int[] free;
+    /**
+     * Time-table: load on [times[k], times[k+1]), and energy after times[k]
+     */
+    private final int[] times, loads;
+    private final long[] after;
+    private int nbTimes;
+    private final long[] events;
+    private final ArraySort<?> sorter;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Time-table edge-finding, with the default budget
+     *
+     * @param n maximum number of tasks
+     */
+    public TimeTableEdgeFindingCumulFilter(int n) {
+        this(n, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Time-table edge-finding
+     *
+     * @param n      maximum number of tasks
+     * @param budget maximum number of windows scanned per call to update earliest start times
+     */
+    public TimeTableEdgeFindingCumulFilter(int n, long budget) {
+        super(n, budget);
+        tree = new ThetaLambdaTree(n);
+        byEst = new int[n];
+        rank = new int[n];
+        byLct = new int[n];
+        free = new int[n];
+        times = new int[2 * n + 1];
+        loads = new int[2 * n + 1];
+        after = new long[2 * n + 1];
+        events = new long[2 * n];
+        sorter = new ArraySort<>(n, false, true);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    protected void filterStarts() throws ContradictionException {
+        for (int k = 0; k < m; k++) {
+            byEst[k] = k;
+            byLct[k] = k;
+            free[k] = Math.max(0, p[k] - Math.max(0, ect[k] - lst[k]));
+        }
+        sorter.sort(byEst, m, (i, j) -> Integer.compare(est[i], est[j]));
+        sorter.sort(byLct, m, (i, j) -> Integer.compare(lct[i], lct[j]));
+        for (int r = 0; r < m; r++) {
+            rank[byEst[r]] = r;
+        }
+        buildTimeTable();
+        checkOverload();
+        filterWindows();
+    }
+
+    private void buildTimeTable() {
+        int k = 0;
+        for (int i = 0; i < m; i++) {
+            if (lst[i] < ect[i]) {
+                events[k++] = ((long) lst[i] << 32) | (2 * i);
+                events[k++] = ((long) ect[i] << 32) | (2 * i + 1);
+            }
+        }
+        Arrays.sort(events, 0, k);
+        nbTimes = 0;
+        int load = 0;
+        for (int x = 0; x < k; x++) {
+            int t = (int) (events[x] >> 32);
+            int i = (int) (events[x] & 0xFFFFFFFFL);
+            load += (i & 1) == 0 ? c[i >> 1] : -c[i >> 1];
+            if (nbTimes > 0 && times[nbTimes - 1] == t) {
+                loads[nbTimes - 1] = load;
+            } else {
+                times[nbTimes] = t;
+                loads[nbTimes++] = load;
+            }
+        }
+        if (nbTimes > 0) {
+            after[nbTimes - 1] = 0;
+            for (int x = nbTimes - 2; x >= 0; x--) {
+                after[x] = after[x + 1] + (long) loads[x] * (times[x + 1] - times[x]);
+            }
+        }
+    }
+
+    /**
+     * @return the energy of the time-table after <i>t</i>
+     */
+    private long energyAfter(int t) {
+        if (nbTimes == 0 || t >= times[nbTimes - 1]) {
+            return 0;
+        }
+        if (t < times[0]) {
+            return after[0];
+        }
+        int lo = 0, hi = nbTimes - 1;
+        while (lo < hi - 1) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] <= t) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return after[lo + 1] + (long) loads[lo] * (times[lo + 1] - t);
+    }
+
+    /**
+     * Check that no window [est, lct) requires more energy than available.
+     */
+    private void checkOverload() throws ContradictionException {
+        tree.reset(m);
+        for (int q = 0; q < m; q++) {
+            int j = byLct[q];
+            tree.addToTheta(rank[j], (long) capa * est[j] + energyAfter(est[j]), (long) c[j] * free[j]);
+            if (tree.getEnvelope() > (long) capa * lct[j] + energyAfter(lct[j])) {
+                fail();
+            }
+        }
+    }
+
+    /**
+     * @return the length of the compulsory part of task <i>i</i> before <i>b</i>
+     */
+    private int compulsoryBefore(int i, int b) {
+        return Math.max(0, Math.min(b, ect[i]) - lst[i]);
+    }
+
+    private void filterWindows() throws ContradictionException {
+        for (int q = m - 1; q >= 0; q--) {
+            int b = lct[byLct[q]];
+            if (q > 0 && lct[byLct[q - 1]] == b) {
+                continue;
+            }
+            long in = 0;
+            long reqU = 0;
+            int u = -1;
+            for (int r = m - 1; r >= 0; r--) {
+                int i = byEst[r];
+                if (lct[i] <= b) {
+                    in += (long) c[i] * free[i];
+                } else if (est[i] < b) {
+                    long req = (long) c[i] * (Math.min(b - est[i], p[i]) - compulsoryBefore(i, b));
+                    if (req > reqU) {
+                        reqU = req;
+                        u = i;
+                    }
+                }
+                int a = est[i];
+                if (a >= b || (r > 0 && est[byEst[r - 1]] == a)) {
+                    continue;
+                }
+                long avail = (long) capa * (b - a) - (energyAfter(a) - energyAfter(b)) - in;
+                if (avail < 0) {
+                    fail();
+                }
+                if (u > -1 && reqU > avail) {
+                    long x = compulsoryBefore(u, b) + avail / c[u];
+                    if (x < p[u]) {
+                        updateStart(u, (int) (b - x));
+                    }
+                }
+                if (exhausted(1)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -20,7 +20,7 @@ import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinde
 import org.chocosolver.util.objects.graphs.DirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 
 import java.util.BitSet;
 
@@ -50,7 +50,7 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> {
     private DirectedGraph digraph;
     private int[] nodeSCC;
     private BitSet free;
-    private UnaryIntProcedure<Integer> remProc;
+    private IndexedIntProcedure remProc;
     private final IIntDeltaMonitor[] idms;
     private StrongConnectivityFinder SCCfinder;
     // for augmenting matching (BFS)
@@ -294,7 +294,7 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> {
     public void propagate(int varIdx, int mask) throws ContradictionException {
         if (varIdx < n) {
             idms[varIdx].freeze();
-            idms[varIdx].forEachRemVal(remProc.set(varIdx));
+            idms[varIdx].forEachRemVal(remProc, varIdx);
             idms[varIdx].unfreeze();
         }
         forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
@@ -329,7 +329,7 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> {
         return ESat.UNDEFINED;
     }
 
-    private class DirectedRemProc implements UnaryIntProcedure<Integer> {
+    private class DirectedRemProc implements IndexedIntProcedure {
 
         private int idx;
 
@@ -339,8 +339,8 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> {
         }
 
         @Override
-        public UnaryIntProcedure set(Integer integer) {
-            this.idx = integer;
+        public IndexedIntProcedure set(int idxVar) {
+            this.idx = idxVar;
             return this;
         }
     }
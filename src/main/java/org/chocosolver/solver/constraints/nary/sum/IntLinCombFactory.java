@@ -286,6 +286,11 @@ public class IntLinCombFactory {
                 //TODO: deal with clauses and reification
                 Model model = VARS[0].getModel();
                 if (nbools == VARS.length) {
+                    if ((OPERATOR == Operator.LE || OPERATOR == Operator.GE)
+                            && model.getSettings().enableWatchedLiteralsOnBoolSum(tmpV.length)
+                            && 2 * (PropSumFullBoolWatch.nbWatches(tmpV.length, b, OPERATOR, RESULT)) <= tmpV.length) {
+                        return new SumConstraint(new PropSumFullBoolWatch(model.toBoolVar(tmpV), b, OPERATOR, RESULT));
+                    }
                     if (model.getSettings().enableIncrementalityOnBoolSum(tmpV.length)) {
                         return new SumConstraint(new PropSumFullBoolIncr(model.toBoolVar(tmpV), b, OPERATOR, RESULT));
                     } else {
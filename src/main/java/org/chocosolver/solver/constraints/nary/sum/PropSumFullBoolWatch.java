@@ -0,0 +1,235 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.sum;
+
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * A propagator for SUM(x_i) &le; b or SUM(x_i) &ge; b, where x_i are boolean variables,
+ * based on watched literals.
+ * <p>
+ * The constraint is first rewritten as a cardinality constraint on literals: at least <i>k</i> literals
+ * among <i>n</i> have to be true, where the literal of a variable is either the variable itself or its negation.
+ * Only <i>k</i>+1 literals which are not false are watched:
+ * the propagator is only linked to their variables, and is not awaken on instantiation of the other ones.
+ * When a watched literal becomes false, another literal which is not false replaces it.
+ * When no replacement exists, the <i>k</i> remaining watched literals are set to true.
+ * <p>
+ * Watches are not backtrackable: a literal which is not false remains not false after a backtrack.
+ * Thus, this propagator is relevant when <i>k</i> is small compared to <i>n</i>, as in large covering
+ * constraints (e.g., SUM(x_i) &ge; 1).
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class PropSumFullBoolWatch extends PropSumFullBool {
+
+    /**
+     * For each variable, the value which makes its literal true
+     */
+    private final int[] val;
+    /**
+     * Minimum number of literals to be true
+     */
+    private final int k;
+    /**
+     * For each variable, <i>true</i> if its literal is watched, and thus, if this propagator is linked to it
+     */
+    private final boolean[] watched;
+    /**
+     * Position from which the next replacement of a watched literal is looked for
+     */
+    private int cursor;
+
+    /**
+     * Creates a sum propagator: SUM(x_i) Op b, where x_i are boolean variables and Op is either LE or GE.
+     * Coefficients are induced by <code>pos</code>:
+     * those before <code>pos</code> (included) are equal to 1,
+     * the other ones are equal to -1.
+     *
+     * @param variables list of boolean variables
+     * @param pos       position of the last positive (induced) coefficient
+     * @param o         operator, either LE or GE
+     * @param b         bound to respect
+     */
+    public PropSumFullBoolWatch(BoolVar[] variables, int pos, Operator o, int b) {
+        super(variables, pos, o, b, true);
+        if (o != Operator.LE && o != Operator.GE) {
+            throw new IllegalArgumentException("Watched literals only deal with LE and GE operators");
+        }
+        this.val = new int[l];
+        this.watched = new boolean[l];
+        for (int i = 0; i < l; i++) {
+            // on posting, this propagator is linked to all its variables
+            watched[i] = !vars[i].isAConstant();
+        }
+        for (int i = 0; i < l; i++) {
+            val[i] = (i < pos) == (o == Operator.GE) ? 1 : 0;
+        }
+        this.k = minTrue(l, pos, o, b);
+    }
+
+    /**
+     * @param n   number of variables
+     * @param pos position of the last positive (induced) coefficient
+     * @param o   operator, either LE or GE
+     * @param b   bound to respect
+     * @return the minimum number of literals to be true
+     */
+    private static int minTrue(int n, int pos, Operator o, int b) {
+        // a negative coefficient is a negated literal: -x = (1 - x) - 1
+        int c = b + n - pos;
+        if (o == Operator.GE) {
+            // at least c literals are true
+            return c;
+        } else {
+            // at most c literals are true, that is, at least n - c negated literals are true
+            return n - c;
+        }
+    }
+
+    /**
+     * @param n   number of variables
+     * @param pos position of the last positive (induced) coefficient
+     * @param o   operator, either LE or GE
+     * @param b   bound to respect
+     * @return the number of literals watched by this propagator
+     */
+    public static int nbWatches(int n, int pos, Operator o, int b) {
+        return Math.max(0, Math.min(n, minTrue(n, pos, o, b) + 1));
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.INSTANTIATE.getMask();
+    }
+
+    private boolean isFalse(int i) {
+        return vars[i].isInstantiatedTo(1 - val[i]);
+    }
+
+    private void watch(int i) {
+        watched[i] = true;
+        if (!vars[i].isAConstant()) {
+            setVIndices(i, vars[i].link(this, i));
+        }
+    }
+
+    private void unwatch(int i) {
+        watched[i] = false;
+        if (!vars[i].isAConstant()) {
+            vars[i].unlink(this, i);
+            setVIndices(i, -1);
+        }
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            int nonFalse = 0;
+            for (int i = 0; i < l; i++) {
+                if (!isFalse(i)) {
+                    nonFalse++;
+                }
+            }
+            if (nonFalse < k) {
+                fails();
+            } else if (nonFalse == k) {
+                for (int i = 0; i < l; i++) {
+                    if (!isFalse(i)) {
+                        vars[i].instantiateTo(val[i], this);
+                    }
+                }
+                setPassive();
+            } else if (k <= 0) {
+                setPassive();
+            } else {
+                // watch k + 1 literals which are not false, and only them
+                int nbw = 0;
+                for (int i = 0; i < l; i++) {
+                    if (watched[i]) {
+                        if (nbw <= k && !isFalse(i)) {
+                            nbw++;
+                        } else {
+                            unwatch(i);
+                        }
+                    }
+                }
+                for (int i = 0; i < l && nbw <= k; i++) {
+                    if (!watched[i] && !isFalse(i)) {
+                        watch(i);
+                        nbw++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Only pass through the fine events of variables linked to this propagator,
+     * the full propagation of the super class would scan all variables.
+     */
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (!watched[idxVarInProp] || !isFalse(idxVarInProp)) {
+            // not watched anymore, or the literal became true
+            return;
+        }
+        for (int j = 0; j < l; j++) {
+            int r = cursor;
+            cursor = cursor + 1 == l ? 0 : cursor + 1;
+            if (!watched[r] && !isFalse(r)) {
+                unwatch(idxVarInProp);
+                watch(r);
+                return;
+            }
+        }
+        // no replacement: the other watched literals have to be true
+        for (int i = 0; i < l; i++) {
+            if (watched[i] && i != idxVarInProp) {
+                vars[i].instantiateTo(val[i], this);
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        int t = 0, f = 0;
+        for (int i = 0; i < l; i++) {
+            if (vars[i].isInstantiated()) {
+                if (vars[i].getValue() == val[i]) {
+                    t++;
+                } else {
+                    f++;
+                }
+            }
+        }
+        if (t >= k) {
+            return ESat.TRUE;
+        } else if (l - f < k) {
+            return ESat.FALSE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    protected PropSum opposite() {
+        BoolVar[] bvars = new BoolVar[vars.length];
+        //noinspection SuspiciousSystemArraycopy
+        System.arraycopy(vars, 0, bvars, 0, bvars.length);
+        return new PropSumFullBoolWatch(bvars, pos, nop(o), b + nb(o));
+    }
+}
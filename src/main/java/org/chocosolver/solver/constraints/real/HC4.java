@@ -0,0 +1,947 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import gnu.trove.list.array.TIntArrayList;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.expression.continuous.arithmetic.CArExpression.Operator;
+import org.chocosolver.solver.expression.continuous.relational.CReExpression;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.VariableUtils;
+
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.POSITIVE_INFINITY;
+import static java.lang.Math.nextDown;
+import static java.lang.Math.nextUp;
+
+/**
+ * An interval contractor for real constraints, running in the JVM: an alternative to Ibex
+ * (see {@link org.chocosolver.solver.Settings#enableIbex()}).
+ * <p>
+ * Functions are declared with the syntax of Ibex (see {@link HC4Parser}).
+ * Each relation is filtered with HC4-revise: a forward evaluation of the intervals of the nodes of its tree,
+ * from the leaves to the root, then a backward projection of the relation on each node, from the root to the leaves.
+ * Relations are revised until no domain shrinks by more than 10%. When box consistency is enabled,
+ * the bounds of real variables are then shaved by dichotomy, down to the precision of the variables,
+ * by refuting slices of their domain with interval evaluations.
+ * <p>
+ * Intervals are made of doubles rounded outward, so that no solution is ever lost:
+ * additions, subtractions, multiplications and divisions are rounded exactly in the right direction
+ * (using error-free transformations), other functions are widened by a few ulps.
+ * Strict inequalities are relaxed into non-strict ones.
+ * Trigonometric functions and atan2 are only evaluated, not projected.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class HC4 {
+
+    /**
+     * Kind of node: constant interval
+     */
+    static final byte CST = 0;
+    /**
+     * Kind of node: variable
+     */
+    static final byte VAR = 1;
+    /**
+     * Kind of node: operation
+     */
+    static final byte OPR = 2;
+
+    /**
+     * Relations are revised again as long as a domain shrinks by more than this ratio
+     */
+    private static final double RATIO = .1;
+
+    /**
+     * A bound of a real variable is updated only if it moves by more than this fraction of its precision
+     */
+    private static final double PUSH = .01;
+
+    /**
+     * Marks power nodes whose exponent is not a non-negative integer
+     */
+    private static final int NO_EXPONENT = -1;
+
+    private static final double SPLIT = 134217729.0d; // 2^27 + 1
+
+    private final Variable[] vars;
+    /**
+     * Precision of real variables, -1 for integer variables
+     */
+    private final double[] precisions;
+    private final byte[] kinds;
+    private final Operator[] ops;
+    private final int[] left;
+    private final int[] right;
+    /**
+     * Index of the variable for variable nodes
+     */
+    private final int[] index;
+    private final double[] clo;
+    private final double[] chi;
+    private final int[] firsts;
+    private final int[] roots;
+    private final CReExpression.Operator[] rels;
+    /**
+     * Relations each variable appears in
+     */
+    private final int[][] relationsOf;
+    /**
+     * Intervals of the nodes
+     */
+    private final double[] lo;
+    private final double[] hi;
+    /**
+     * Current box and box at the beginning of a pass
+     */
+    private final double[] blo;
+    private final double[] bhi;
+    private final double[] plo;
+    private final double[] phi;
+    private final boolean boxConsistency;
+
+    /**
+     * Creates a contractor for one or more continuous functions, separated with semi-colon ";".
+     * The '{i}' tag refers to the variable <code>vars[i]</code>.
+     *
+     * @param functions      list of functions, separated by a semi-colon
+     * @param vars           real or integer variables
+     * @param boxConsistency set to <i>true</i> to shave the bounds of real variables
+     * @throws org.chocosolver.solver.exception.SolverException if the functions are malformed
+     */
+    public HC4(String functions, Variable[] vars, boolean boxConsistency) {
+        HC4Parser parser = new HC4Parser(functions, vars.length);
+        parser.parse();
+        this.vars = vars;
+        this.boxConsistency = boxConsistency;
+        this.kinds = parser.kinds.toArray();
+        this.ops = parser.ops.toArray(new Operator[0]);
+        this.left = parser.left.toArray();
+        this.right = parser.right.toArray();
+        this.index = parser.index.toArray();
+        this.clo = parser.clo.toArray();
+        this.chi = parser.chi.toArray();
+        this.firsts = parser.firsts.toArray();
+        this.roots = parser.roots.toArray();
+        this.rels = parser.rels.toArray(new CReExpression.Operator[0]);
+        int n = kinds.length;
+        this.lo = new double[n];
+        this.hi = new double[n];
+        this.precisions = new double[vars.length];
+        for (int v = 0; v < vars.length; v++) {
+            precisions[v] = VariableUtils.isReal(vars[v]) ? ((RealVar) vars[v]).getPrecision() : -1;
+        }
+        TIntArrayList[] rs = new TIntArrayList[vars.length];
+        for (int r = 0; r < roots.length; r++) {
+            for (int i = firsts[r]; i <= roots[r]; i++) {
+                if (kinds[i] == VAR) {
+                    int v = index[i];
+                    if (rs[v] == null) {
+                        rs[v] = new TIntArrayList();
+                    }
+                    if (!rs[v].contains(r)) {
+                        rs[v].add(r);
+                    }
+                }
+            }
+        }
+        this.relationsOf = new int[vars.length][];
+        for (int v = 0; v < vars.length; v++) {
+            relationsOf[v] = rs[v] == null ? new int[0] : rs[v].toArray();
+        }
+        this.blo = new double[vars.length];
+        this.bhi = new double[vars.length];
+        this.plo = new double[vars.length];
+        this.phi = new double[vars.length];
+    }
+
+    /**
+     * @return {@link ESat#TRUE} if all relations are satisfied by all points of the current domains,
+     * {@link ESat#FALSE} if a relation is satisfied by none of them, {@link ESat#UNDEFINED} otherwise.
+     */
+    public ESat isSatisfied() {
+        load();
+        ESat sat = ESat.TRUE;
+        for (int r = 0; r < roots.length; r++) {
+            ESat s = check(r);
+            if (s == ESat.FALSE) {
+                return ESat.FALSE;
+            } else if (s == ESat.UNDEFINED) {
+                sat = ESat.UNDEFINED;
+            }
+        }
+        return sat;
+    }
+
+    /**
+     * Contracts the current domains of the variables with respect to the relations, or to their negation.
+     * The contracted box is stored internally, see {@link #inject(ICause)}.
+     * The negation of several relations, or of an equality, is not contracted, it is only checked.
+     *
+     * @param negated set to <i>true</i> to contract the negation of the relations
+     * @return <i>false</i> if the box is proven to contain no solution
+     */
+    public boolean contract(boolean negated) {
+        if (negated && (roots.length > 1 || rels[0] == CReExpression.Operator.EQ)) {
+            // the box is left unchanged
+            return isSatisfied() != ESat.TRUE;
+        }
+        load();
+        do {
+            System.arraycopy(blo, 0, plo, 0, blo.length);
+            System.arraycopy(bhi, 0, phi, 0, bhi.length);
+            for (int r = 0; r < roots.length; r++) {
+                if (!revise(r, negated ? negation(rels[r]) : rels[r]) || !round()) {
+                    return false;
+                }
+            }
+            if (boxConsistency && !negated) {
+                for (int v = 0; v < vars.length; v++) {
+                    if (precisions[v] > 0) {
+                        shave(v);
+                    }
+                }
+            }
+        } while (shrunk());
+        return true;
+    }
+
+    /**
+     * Updates the domains of the variables with the box computed by the last call to {@link #contract(boolean)}.
+     *
+     * @param cause the cause of the modifications
+     * @throws ContradictionException if a domain becomes empty
+     */
+    public void inject(ICause cause) throws ContradictionException {
+        for (int v = 0; v < vars.length; v++) {
+            if (precisions[v] >= 0) {
+                RealVar rvar = (RealVar) vars[v];
+                double l = rvar.getLB();
+                double u = rvar.getUB();
+                double t = PUSH * precisions[v];
+                rvar.updateBounds(blo[v] - l > t ? blo[v] : l, u - bhi[v] > t ? bhi[v] : u, cause);
+            } else {
+                IntVar ivar = (IntVar) vars[v];
+                ivar.updateBounds(toInt(blo[v]), toInt(bhi[v]), cause);
+            }
+        }
+    }
+
+    private static int toInt(double d) {
+        return d <= Integer.MIN_VALUE ? Integer.MIN_VALUE : d >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) d;
+    }
+
+    private void load() {
+        for (int v = 0; v < vars.length; v++) {
+            if (precisions[v] >= 0) {
+                RealVar rvar = (RealVar) vars[v];
+                blo[v] = rvar.getLB();
+                bhi[v] = rvar.getUB();
+            } else {
+                IntVar ivar = (IntVar) vars[v];
+                blo[v] = ivar.getLB();
+                bhi[v] = ivar.getUB();
+            }
+        }
+    }
+
+    /**
+     * Rounds the bounds of integer variables
+     */
+    private boolean round() {
+        for (int v = 0; v < vars.length; v++) {
+            if (precisions[v] < 0) {
+                blo[v] = Math.ceil(blo[v]);
+                bhi[v] = Math.floor(bhi[v]);
+            }
+            if (blo[v] > bhi[v]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return <i>true</i> if a domain shrank significantly during the last pass
+     */
+    private boolean shrunk() {
+        for (int v = 0; v < vars.length; v++) {
+            double w = phi[v] - plo[v];
+            double eps = Math.max(precisions[v] < 0 ? .5 : precisions[v], RATIO * w);
+            if (blo[v] > plo[v] && (plo[v] == NEGATIVE_INFINITY || blo[v] - plo[v] > eps)
+                    || bhi[v] < phi[v] && (phi[v] == POSITIVE_INFINITY || phi[v] - bhi[v] > eps)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CReExpression.Operator negation(CReExpression.Operator rel) {
+        switch (rel) {
+            case LT:
+                return CReExpression.Operator.GE;
+            case LE:
+                return CReExpression.Operator.GT;
+            case GE:
+                return CReExpression.Operator.LT;
+            case GT:
+                return CReExpression.Operator.LE;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * HC4-revise of the relation <i>r</i>, considered as <i>rel</i>.
+     */
+    private boolean revise(int r, CReExpression.Operator rel) {
+        int first = firsts[r];
+        int root = roots[r];
+        for (int i = first; i <= root; i++) {
+            if (!forward(i)) {
+                return false;
+            }
+        }
+        boolean ok;
+        switch (rel) {
+            case EQ:
+                ok = narrow(root, 0, 0);
+                break;
+            case LT:
+            case LE:
+                ok = narrow(root, NEGATIVE_INFINITY, 0);
+                break;
+            default:
+                ok = narrow(root, 0, POSITIVE_INFINITY);
+                break;
+        }
+        for (int i = root; ok && i >= first; i--) {
+            ok = backward(i);
+        }
+        return ok;
+    }
+
+    /**
+     * @return <i>false</i> if the relation <i>r</i> is proven to be unsatisfiable with the current box
+     */
+    private boolean feasible(int r) {
+        int root = roots[r];
+        for (int i = firsts[r]; i <= root; i++) {
+            if (!forward(i)) {
+                return false;
+            }
+        }
+        switch (rels[r]) {
+            case EQ:
+                return lo[root] <= 0 && hi[root] >= 0;
+            case LT:
+            case LE:
+                return lo[root] <= 0;
+            default:
+                return hi[root] >= 0;
+        }
+    }
+
+    private ESat check(int r) {
+        int root = roots[r];
+        for (int i = firsts[r]; i <= root; i++) {
+            if (!forward(i)) {
+                return ESat.FALSE;
+            }
+        }
+        double l = lo[root];
+        double h = hi[root];
+        switch (rels[r]) {
+            case EQ:
+                return l > 0 || h < 0 ? ESat.FALSE : l == 0 && h == 0 ? ESat.TRUE : ESat.UNDEFINED;
+            case LT:
+            case LE:
+                return l > 0 ? ESat.FALSE : h <= 0 ? ESat.TRUE : ESat.UNDEFINED;
+            default:
+                return h < 0 ? ESat.FALSE : l >= 0 ? ESat.TRUE : ESat.UNDEFINED;
+        }
+    }
+
+    /**
+     * Shaves the bounds of the real variable <i>v</i>: slices of its domain are removed
+     * when one of its relations is proven unsatisfiable on them.
+     * The width of the slices doubles after a success, and halves after a failure, down to the precision of <i>v</i>.
+     */
+    private void shave(int v) {
+        double p = precisions[v];
+        double l = blo[v];
+        double h = bhi[v];
+        if (Double.isInfinite(l) || Double.isInfinite(h) || h - l <= p) {
+            return;
+        }
+        double w = (h - l) / 2;
+        while (w >= p) {
+            if (refuted(v, l, l + w)) {
+                l += w;
+                w *= 2;
+            } else {
+                w /= 2;
+            }
+            w = Math.min(w, (h - l) / 2);
+        }
+        w = (h - l) / 2;
+        while (w >= p) {
+            if (refuted(v, h - w, h)) {
+                h -= w;
+                w *= 2;
+            } else {
+                w /= 2;
+            }
+            w = Math.min(w, (h - l) / 2);
+        }
+        blo[v] = l;
+        bhi[v] = h;
+    }
+
+    private boolean refuted(int v, double l, double h) {
+        double ol = blo[v];
+        double oh = bhi[v];
+        blo[v] = l;
+        bhi[v] = h;
+        boolean refuted = false;
+        for (int k = 0; k < relationsOf[v].length && !refuted; k++) {
+            refuted = !feasible(relationsOf[v][k]);
+        }
+        blo[v] = ol;
+        bhi[v] = oh;
+        return refuted;
+    }
+
+    private boolean set(int i, double l, double h) {
+        lo[i] = l != l ? NEGATIVE_INFINITY : l;
+        hi[i] = h != h ? POSITIVE_INFINITY : h;
+        return lo[i] <= hi[i];
+    }
+
+    private boolean narrow(int i, double l, double h) {
+        if (l > lo[i]) {
+            lo[i] = l;
+        }
+        if (h < hi[i]) {
+            hi[i] = h;
+        }
+        return lo[i] <= hi[i];
+    }
+
+    /**
+     * Narrows node <i>i</i> to the hull of its intersections with [l,h] and [-h,-l], where 0 &le; l.
+     */
+    private boolean narrowSymmetric(int i, double l, double h) {
+        double pl = Math.max(lo[i], l);
+        double ph = Math.min(hi[i], h);
+        double nl = Math.max(lo[i], -h);
+        double nh = Math.min(hi[i], -l);
+        if (pl > ph) {
+            return narrow(i, nl, nh);
+        } else if (nl > nh) {
+            return narrow(i, pl, ph);
+        }
+        return narrow(i, nl, ph);
+    }
+
+    //***********************************************************************************
+    // FORWARD EVALUATION
+    //***********************************************************************************
+
+    private boolean forward(int i) {
+        switch (kinds[i]) {
+            case CST:
+                return set(i, clo[i], chi[i]);
+            case VAR:
+                return set(i, blo[index[i]], bhi[index[i]]);
+        }
+        int a = left[i];
+        int b = right[i];
+        double al = lo[a];
+        double ah = hi[a];
+        switch (ops[i]) {
+            case ADD:
+                return set(i, addDn(al, lo[b]), addUp(ah, hi[b]));
+            case SUB:
+                return set(i, addDn(al, -hi[b]), addUp(ah, -lo[b]));
+            case NEG:
+                return set(i, -ah, -al);
+            case MUL:
+                return set(i,
+                        min(mulDn(al, lo[b]), mulDn(al, hi[b]), mulDn(ah, lo[b]), mulDn(ah, hi[b])),
+                        max(mulUp(al, lo[b]), mulUp(al, hi[b]), mulUp(ah, lo[b]), mulUp(ah, hi[b])));
+            case DIV:
+                return div(i, al, ah, lo[b], hi[b]);
+            case POW:
+                int k = exponent(b);
+                if (k != NO_EXPONENT) {
+                    return set(i, powDn(al, ah, k), powUp(al, ah, k));
+                } else if (al < 0) {
+                    return set(i, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+                }
+                double p1 = Math.pow(al, lo[b]);
+                double p2 = Math.pow(al, hi[b]);
+                double p3 = Math.pow(ah, lo[b]);
+                double p4 = Math.pow(ah, hi[b]);
+                return set(i, Math.max(0, nextDown(min(p1, p2, p3, p4))), nextUp(max(p1, p2, p3, p4)));
+            case MIN:
+                return set(i, Math.min(al, lo[b]), Math.min(ah, hi[b]));
+            case MAX:
+                return set(i, Math.max(al, lo[b]), Math.max(ah, hi[b]));
+            case ABS:
+                if (al >= 0) {
+                    return set(i, al, ah);
+                } else if (ah <= 0) {
+                    return set(i, -ah, -al);
+                }
+                return set(i, 0, Math.max(-al, ah));
+            case SQRT:
+                if (ah < 0) {
+                    return false;
+                }
+                return set(i, sqrtDn(Math.max(al, 0)), sqrtUp(ah));
+            case EXP:
+                return set(i, Math.max(0, nextDown(Math.exp(al))), nextUp(Math.exp(ah)));
+            case LN:
+                if (ah < 0) {
+                    return false;
+                }
+                return set(i, al <= 0 ? NEGATIVE_INFINITY : nextDown(Math.log(al)), nextUp(Math.log(ah)));
+            case COS:
+                return periodic(i, al, ah, false);
+            case SIN:
+                return periodic(i, al, ah, true);
+            case TAN:
+                if (Double.isInfinite(al) || Double.isInfinite(ah) || ah - al >= Math.PI
+                        || contains(al, ah, Math.PI / 2, Math.PI)) {
+                    return set(i, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+                }
+                return set(i, nextDown(Math.tan(al)), nextUp(Math.tan(ah)));
+            case ACOS:
+                if (al > 1 || ah < -1) {
+                    return false;
+                }
+                return set(i, Math.max(0, nextDown(Math.acos(Math.min(ah, 1)))),
+                        nextUp(Math.acos(Math.max(al, -1))));
+            case ASIN:
+                if (al > 1 || ah < -1) {
+                    return false;
+                }
+                return set(i, nextDown(Math.asin(Math.max(al, -1))), nextUp(Math.asin(Math.min(ah, 1))));
+            case ATAN:
+                return set(i, nextDown(Math.atan(al)), nextUp(Math.atan(ah)));
+            case COSH:
+                double m = al >= 0 ? al : ah <= 0 ? -ah : 0;
+                return set(i, Math.max(1, dn(Math.cosh(m), 3)), up(Math.cosh(Math.max(-al, ah)), 3));
+            case SINH:
+                return set(i, dn(Math.sinh(al), 3), up(Math.sinh(ah), 3));
+            case TANH:
+                return set(i, Math.max(-1, dn(Math.tanh(al), 3)), Math.min(1, up(Math.tanh(ah), 3)));
+            case ACOSH:
+                if (ah < 1) {
+                    return false;
+                }
+                return set(i, Math.max(0, dn(acosh(Math.max(al, 1)), 8)), up(acosh(ah), 8));
+            case ASINH:
+                return set(i, dn(asinh(al), 8), up(asinh(ah), 8));
+            case ATANH:
+                if (al >= 1 || ah <= -1) {
+                    return false;
+                }
+                return set(i, al <= -1 ? NEGATIVE_INFINITY : dn(atanh(al), 8),
+                        ah >= 1 ? POSITIVE_INFINITY : up(atanh(ah), 8));
+            case ATAN2:
+                return atan2(i, al, ah, lo[b], hi[b]);
+            default:
+                throw new UnsupportedOperationException("HC4 does not support " + ops[i].name());
+        }
+    }
+
+    /**
+     * @return the value of node <i>e</i> if it is a small non-negative integer, {@link #NO_EXPONENT} otherwise
+     */
+    private int exponent(int e) {
+        double v = lo[e];
+        return v == hi[e] && v >= 0 && v <= 64 && v == Math.rint(v) ? (int) v : NO_EXPONENT;
+    }
+
+    private boolean div(int i, double al, double ah, double bl, double bh) {
+        if (bl == 0 && bh == 0) {
+            return false;
+        } else if (bl <= 0 && bh >= 0) {
+            return set(i, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+        }
+        return set(i,
+                min(divDn(al, bl), divDn(al, bh), divDn(ah, bl), divDn(ah, bh)),
+                max(divUp(al, bl), divUp(al, bh), divUp(ah, bl), divUp(ah, bh)));
+    }
+
+    /**
+     * Evaluates sin(x) or cos(x), for x in [l,h]
+     */
+    private boolean periodic(int i, double l, double h, boolean sine) {
+        if (Double.isInfinite(l) || Double.isInfinite(h) || h - l >= 2 * Math.PI) {
+            return set(i, -1, 1);
+        }
+        double fl = sine ? Math.sin(l) : Math.cos(l);
+        double fh = sine ? Math.sin(h) : Math.cos(h);
+        double mn = Math.max(-1, nextDown(Math.min(fl, fh)));
+        double mx = Math.min(1, nextUp(Math.max(fl, fh)));
+        // maximum reached on 2k.pi (cos) or pi/2 + 2k.pi (sin), minimum on pi + 2k.pi or -pi/2 + 2k.pi
+        if (contains(l, h, sine ? Math.PI / 2 : 0, 2 * Math.PI)) {
+            mx = 1;
+        }
+        if (contains(l, h, sine ? -Math.PI / 2 : Math.PI, 2 * Math.PI)) {
+            mn = -1;
+        }
+        return set(i, mn, mx);
+    }
+
+    /**
+     * @return <i>true</i> if a point <i>offset + k.period</i> may belong to [l,h]
+     */
+    private static boolean contains(double l, double h, double offset, double period) {
+        double slack = 1e-9 * (1 + Math.max(Math.abs(l), Math.abs(h)));
+        double k = Math.ceil((l - slack - offset) / period);
+        return offset + k * period <= h + slack;
+    }
+
+    private boolean atan2(int i, double yl, double yh, double xl, double xh) {
+        if (xl > 0 || yl > 0 || yh < 0) {
+            // the box does not cross the branch cut: extrema are reached on corners
+            double a1 = Math.atan2(yl, xl);
+            double a2 = Math.atan2(yl, xh);
+            double a3 = Math.atan2(yh, xl);
+            double a4 = Math.atan2(yh, xh);
+            return set(i, Math.max(-Math.PI, dn(min(a1, a2, a3, a4), 2)), up(max(a1, a2, a3, a4), 2));
+        }
+        return set(i, -nextUp(Math.PI), nextUp(Math.PI));
+    }
+
+    //***********************************************************************************
+    // BACKWARD PROJECTION
+    //***********************************************************************************
+
+    private boolean backward(int i) {
+        switch (kinds[i]) {
+            case CST:
+                return true;
+            case VAR:
+                int v = index[i];
+                if (lo[i] > blo[v]) {
+                    blo[v] = lo[i];
+                }
+                if (hi[i] < bhi[v]) {
+                    bhi[v] = hi[i];
+                }
+                return blo[v] <= bhi[v];
+        }
+        int a = left[i];
+        int b = right[i];
+        double nl = lo[i];
+        double nh = hi[i];
+        switch (ops[i]) {
+            case ADD:
+                return narrow(a, addDn(nl, -hi[b]), addUp(nh, -lo[b]))
+                        && narrow(b, addDn(nl, -hi[a]), addUp(nh, -lo[a]));
+            case SUB:
+                return narrow(a, addDn(nl, lo[b]), addUp(nh, hi[b]))
+                        && narrow(b, addDn(lo[a], -nh), addUp(hi[a], -nl));
+            case NEG:
+                return narrow(a, -nh, -nl);
+            case MUL:
+                return divInto(a, nl, nh, lo[b], hi[b]) && divInto(b, nl, nh, lo[a], hi[a]);
+            case DIV:
+                return narrow(a,
+                        min(mulDn(nl, lo[b]), mulDn(nl, hi[b]), mulDn(nh, lo[b]), mulDn(nh, hi[b])),
+                        max(mulUp(nl, lo[b]), mulUp(nl, hi[b]), mulUp(nh, lo[b]), mulUp(nh, hi[b])))
+                        && divInto(b, lo[a], hi[a], nl, nh);
+            case POW:
+                int k = exponent(b);
+                if (k == NO_EXPONENT || k == 0) {
+                    return true;
+                } else if ((k & 1) == 1) {
+                    return narrow(a, rootDn(nl, k), rootUp(nh, k));
+                }
+                return narrowSymmetric(a, rootDn(Math.max(nl, 0), k), rootUp(nh, k));
+            case MIN:
+                return narrow(a, nl, lo[b] > nh ? nh : POSITIVE_INFINITY)
+                        && narrow(b, nl, lo[a] > nh ? nh : POSITIVE_INFINITY);
+            case MAX:
+                return narrow(a, hi[b] < nl ? nl : NEGATIVE_INFINITY, nh)
+                        && narrow(b, hi[a] < nl ? nl : NEGATIVE_INFINITY, nh);
+            case ABS:
+                return narrowSymmetric(a, Math.max(nl, 0), nh);
+            case SQRT:
+                return narrow(a, mulDn(Math.max(nl, 0), Math.max(nl, 0)), mulUp(nh, nh));
+            case EXP:
+                return narrow(a, nl <= 0 ? NEGATIVE_INFINITY : nextDown(Math.log(nl)), nextUp(Math.log(nh)));
+            case LN:
+                return narrow(a, nextDown(Math.exp(nl)), nextUp(Math.exp(nh)));
+            case ATAN:
+                return narrow(a, nl <= -Math.PI / 2 ? NEGATIVE_INFINITY : nextDown(Math.tan(nl)),
+                        nh >= Math.PI / 2 ? POSITIVE_INFINITY : nextUp(Math.tan(nh)));
+            case ASIN:
+                return narrow(a, nl <= -Math.PI / 2 ? -1 : nextDown(Math.sin(nl)),
+                        nh >= Math.PI / 2 ? 1 : nextUp(Math.sin(nh)));
+            case ACOS:
+                return narrow(a, nh >= Math.PI ? -1 : nextDown(Math.cos(nh)),
+                        nl <= 0 ? 1 : nextUp(Math.cos(nl)));
+            case COSH:
+                return narrowSymmetric(a, nl <= 1 ? 0 : dn(acosh(nl), 8), up(acosh(Math.max(nh, 1)), 8));
+            case SINH:
+                return narrow(a, dn(asinh(nl), 8), up(asinh(nh), 8));
+            case TANH:
+                return narrow(a, nl <= -1 ? NEGATIVE_INFINITY : dn(atanh(nl), 8),
+                        nh >= 1 ? POSITIVE_INFINITY : up(atanh(nh), 8));
+            case ACOSH:
+                return narrow(a, dn(Math.cosh(Math.max(nl, 0)), 3), up(Math.cosh(nh), 3));
+            case ASINH:
+                return narrow(a, dn(Math.sinh(nl), 3), up(Math.sinh(nh), 3));
+            case ATANH:
+                return narrow(a, dn(Math.tanh(nl), 3), up(Math.tanh(nh), 3));
+            default:
+                // COS, SIN, TAN, ATAN2: not projected
+                return true;
+        }
+    }
+
+    /**
+     * Narrows node <i>i</i> to [nl,nh] / [dl,dh], unless the divisor contains 0.
+     */
+    private boolean divInto(int i, double nl, double nh, double dl, double dh) {
+        if (dl <= 0 && dh >= 0) {
+            // 0 * x = n has a solution for any x only if n contains 0
+            return !(dl == 0 && dh == 0) || nl <= 0 && nh >= 0;
+        }
+        return narrow(i,
+                min(divDn(nl, dl), divDn(nl, dh), divDn(nh, dl), divDn(nh, dh)),
+                max(divUp(nl, dl), divUp(nl, dh), divUp(nh, dl), divUp(nh, dh)));
+    }
+
+    //***********************************************************************************
+    // ROUNDING
+    //***********************************************************************************
+
+    private static double min(double a, double b, double c, double d) {
+        return Math.min(Math.min(a, b), Math.min(c, d));
+    }
+
+    private static double max(double a, double b, double c, double d) {
+        return Math.max(Math.max(a, b), Math.max(c, d));
+    }
+
+    private static double dn(double d, int ulps) {
+        for (int k = 0; k < ulps; k++) {
+            d = nextDown(d);
+        }
+        return d;
+    }
+
+    private static double up(double d, int ulps) {
+        for (int k = 0; k < ulps; k++) {
+            d = nextUp(d);
+        }
+        return d;
+    }
+
+    /**
+     * @return the rounding error of <i>s = a + b</i>, that is <i>a + b - s</i>, computed exactly
+     */
+    private static double sumErr(double a, double b, double s) {
+        if (Double.isInfinite(s)) {
+            return Double.isInfinite(a) || Double.isInfinite(b) ? 0 : -s;
+        }
+        double bb = s - a;
+        return (a - (s - bb)) + (b - bb);
+    }
+
+    /**
+     * @return the rounding error of <i>p = a * b</i>, that is <i>a * b - p</i>,
+     * computed exactly, or NaN if it cannot be computed
+     */
+    private static double prodErr(double a, double b, double p) {
+        if (Double.isInfinite(p)) {
+            return Double.isInfinite(a) || Double.isInfinite(b) ? 0 : -p;
+        }
+        if (Math.abs(a) > 1e299 || Math.abs(b) > 1e299 || Math.abs(p) < 1e-290) {
+            return Double.NaN;
+        }
+        double c = SPLIT * a;
+        double ah = c - (c - a);
+        double al = a - ah;
+        c = SPLIT * b;
+        double bh = c - (c - b);
+        double bl = b - bh;
+        return ((ah * bh - p) + ah * bl + al * bh) + al * bl;
+    }
+
+    /**
+     * @return a value whose sign is the one of <i>a / b - q</i>, or NaN if it cannot be computed
+     */
+    private static double divErr(double a, double b, double q) {
+        if (Double.isInfinite(q)) {
+            return Double.isInfinite(a) ? 0 : -q;
+        }
+        if (q == 0) {
+            return a == 0 || Double.isInfinite(b) ? 0 : Double.NaN;
+        }
+        double p = q * b;
+        double e = prodErr(q, b, p);
+        double r = (a - p) - e;
+        return b > 0 ? r : -r;
+    }
+
+    private static double addDn(double a, double b) {
+        double s = a + b;
+        return sumErr(a, b, s) < 0 ? nextDown(s) : s;
+    }
+
+    private static double addUp(double a, double b) {
+        double s = a + b;
+        return sumErr(a, b, s) > 0 ? nextUp(s) : s;
+    }
+
+    private static double mulDn(double a, double b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        double p = a * b;
+        double e = prodErr(a, b, p);
+        return e < 0 || e != e ? nextDown(p) : p;
+    }
+
+    private static double mulUp(double a, double b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        double p = a * b;
+        double e = prodErr(a, b, p);
+        return e > 0 || e != e ? nextUp(p) : p;
+    }
+
+    private static double divDn(double a, double b) {
+        double q = a / b;
+        double e = divErr(a, b, q);
+        return e < 0 || e != e ? nextDown(q) : q;
+    }
+
+    private static double divUp(double a, double b) {
+        double q = a / b;
+        double e = divErr(a, b, q);
+        return e > 0 || e != e ? nextUp(q) : q;
+    }
+
+    private static double sqrtDn(double x) {
+        double r = Math.sqrt(x);
+        return mulUp(r, r) <= x ? r : nextDown(r);
+    }
+
+    private static double sqrtUp(double x) {
+        double r = Math.sqrt(x);
+        return mulDn(r, r) >= x ? r : nextUp(r);
+    }
+
+    /**
+     * @return a lower bound of x<sup>k</sup>, for x &ge; 0
+     */
+    private static double posPowDn(double x, int k) {
+        double r = 1;
+        for (int j = 0; j < k; j++) {
+            r = mulDn(r, x);
+        }
+        return r;
+    }
+
+    /**
+     * @return an upper bound of x<sup>k</sup>, for x &ge; 0
+     */
+    private static double posPowUp(double x, int k) {
+        double r = 1;
+        for (int j = 0; j < k; j++) {
+            r = mulUp(r, x);
+        }
+        return r;
+    }
+
+    private static double powDn(double l, double h, int k) {
+        if ((k & 1) == 1) {
+            return l >= 0 ? posPowDn(l, k) : -posPowUp(-l, k);
+        }
+        return l >= 0 ? posPowDn(l, k) : h <= 0 ? posPowDn(-h, k) : 0;
+    }
+
+    private static double powUp(double l, double h, int k) {
+        if ((k & 1) == 1) {
+            return h >= 0 ? posPowUp(h, k) : -posPowDn(-h, k);
+        }
+        return posPowUp(Math.max(-l, h), k);
+    }
+
+    /**
+     * @return a lower bound of the real k-th root of y (y &ge; 0 if k is even)
+     */
+    private static double rootDn(double y, int k) {
+        if (y < 0) {
+            return -rootUp(-y, k);
+        } else if (Double.isInfinite(y)) {
+            return y;
+        }
+        double r = Math.max(0, dn(Math.pow(y, 1.0 / k), 2));
+        while (r > 0 && posPowUp(r, k) > y) {
+            r = nextDown(r);
+        }
+        return r;
+    }
+
+    /**
+     * @return an upper bound of the real k-th root of y (y &ge; 0 if k is even)
+     */
+    private static double rootUp(double y, int k) {
+        if (y < 0) {
+            return -rootDn(-y, k);
+        } else if (Double.isInfinite(y)) {
+            return y;
+        }
+        double r = up(Math.pow(y, 1.0 / k), 2);
+        while (posPowDn(r, k) < y) {
+            r = nextUp(r);
+        }
+        return r;
+    }
+
+    private static double asinh(double x) {
+        double a = Math.abs(x);
+        double r = a > 1e8 ? Math.log(a) + Math.log(2) : Math.log1p(a + a * a / (1 + Math.sqrt(1 + a * a)));
+        return x < 0 ? -r : r;
+    }
+
+    private static double acosh(double x) {
+        if (x > 1e8) {
+            return Math.log(x) + Math.log(2);
+        }
+        double t = x - 1;
+        return Math.log1p(t + Math.sqrt(2 * t + t * t));
+    }
+
+    private static double atanh(double x) {
+        double a = Math.abs(x);
+        double r = .5 * Math.log1p(2 * a / (1 - a));
+        return x < 0 ? -r : r;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import gnu.trove.list.array.TByteArrayList;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.expression.continuous.arithmetic.CArExpression.Operator;
+import org.chocosolver.solver.expression.continuous.relational.CReExpression;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser of the functions declared in a {@link RealPropagator}, following the syntax of Ibex
+ * (e.g., <code>"({0}*{1})+sin({0})=1.0;ln({0}+[-0.1,0.1])>=2.6"</code>), for {@link HC4}.
+ * <p>
+ * Each relation is turned into a tree of nodes, stored in post-order: children come before their parent,
+ * and the root of a relation is the difference between its left and right hand sides.
+ * Decimal constants which cannot be represented exactly by a double are replaced by the smallest enclosing interval.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+final class HC4Parser {
+
+    private final String functions;
+    private final int nbVars;
+    private int pos;
+
+    final TByteArrayList kinds = new TByteArrayList();
+    final List<Operator> ops = new ArrayList<>();
+    final TIntArrayList left = new TIntArrayList();
+    final TIntArrayList right = new TIntArrayList();
+    final TIntArrayList index = new TIntArrayList();
+    final TDoubleArrayList clo = new TDoubleArrayList();
+    final TDoubleArrayList chi = new TDoubleArrayList();
+    final TIntArrayList firsts = new TIntArrayList();
+    final TIntArrayList roots = new TIntArrayList();
+    final List<CReExpression.Operator> rels = new ArrayList<>();
+
+    /**
+     * @param functions list of functions, separated by a semi-colon
+     * @param nbVars    number of variables that can be referred to
+     */
+    HC4Parser(String functions, int nbVars) {
+        this.functions = functions;
+        this.nbVars = nbVars;
+    }
+
+    /**
+     * Parses the functions.
+     *
+     * @throws SolverException if the functions are malformed
+     */
+    void parse() {
+        while (true) {
+            skipBlanks();
+            if (pos == functions.length()) {
+                break;
+            }
+            relation();
+            skipBlanks();
+            if (pos < functions.length()) {
+                expect(';');
+            }
+        }
+        if (roots.isEmpty()) {
+            throw error("no relation");
+        }
+    }
+
+    private void relation() {
+        int first = kinds.size();
+        int lhs = expression();
+        CReExpression.Operator rel = comparison();
+        int rhs = expression();
+        firsts.add(first);
+        roots.add(operation(Operator.SUB, lhs, rhs));
+        rels.add(rel);
+    }
+
+    private CReExpression.Operator comparison() {
+        skipBlanks();
+        char c = peek();
+        if (c == '=') {
+            pos++;
+            if (peek() == '=') {
+                pos++;
+            }
+            return CReExpression.Operator.EQ;
+        } else if (c == '<') {
+            pos++;
+            if (peek() == '=') {
+                pos++;
+                return CReExpression.Operator.LE;
+            }
+            return CReExpression.Operator.LT;
+        } else if (c == '>') {
+            pos++;
+            if (peek() == '=') {
+                pos++;
+                return CReExpression.Operator.GE;
+            }
+            return CReExpression.Operator.GT;
+        }
+        throw error("comparison operator expected");
+    }
+
+    private int expression() {
+        int n = term();
+        while (true) {
+            skipBlanks();
+            char c = peek();
+            if (c == '+') {
+                pos++;
+                n = operation(Operator.ADD, n, term());
+            } else if (c == '-') {
+                pos++;
+                n = operation(Operator.SUB, n, term());
+            } else {
+                return n;
+            }
+        }
+    }
+
+    private int term() {
+        int n = factor();
+        while (true) {
+            skipBlanks();
+            char c = peek();
+            if (c == '*') {
+                pos++;
+                n = operation(Operator.MUL, n, factor());
+            } else if (c == '/') {
+                pos++;
+                n = operation(Operator.DIV, n, factor());
+            } else {
+                return n;
+            }
+        }
+    }
+
+    private int factor() {
+        skipBlanks();
+        char c = peek();
+        if (c == '-') {
+            pos++;
+            return operation(Operator.NEG, factor(), -1);
+        } else if (c == '+') {
+            pos++;
+            return factor();
+        }
+        int n = primary();
+        skipBlanks();
+        if (peek() == '^') {
+            pos++;
+            // right-associative, and binds tighter than unary minus: -x^2 = -(x^2)
+            return operation(Operator.POW, n, factor());
+        }
+        return n;
+    }
+
+    private int primary() {
+        skipBlanks();
+        char c = peek();
+        if (c == '(') {
+            pos++;
+            int n = expression();
+            expect(')');
+            return n;
+        } else if (c == '{') {
+            pos++;
+            int start = pos;
+            while (Character.isDigit(peek())) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("variable index expected");
+            }
+            int v = Integer.parseInt(functions.substring(start, pos));
+            if (v >= nbVars) {
+                throw error("unknown variable {" + v + "}");
+            }
+            expect('}');
+            return node(HC4.VAR, null, -1, -1, v, 0, 0);
+        } else if (c == '[') {
+            pos++;
+            double[] l = number();
+            expect(',');
+            double[] h = number();
+            expect(']');
+            if (l[0] > h[1]) {
+                throw error("empty interval");
+            }
+            return node(HC4.CST, null, -1, -1, -1, l[0], h[1]);
+        } else if (Character.isDigit(c) || c == '.') {
+            double[] b = number();
+            return node(HC4.CST, null, -1, -1, -1, b[0], b[1]);
+        } else if (Character.isLetter(c)) {
+            int start = pos;
+            while (Character.isLetterOrDigit(peek())) {
+                pos++;
+            }
+            return function(functions.substring(start, pos).toLowerCase());
+        }
+        throw error("unexpected character");
+    }
+
+    private int function(String name) {
+        if (name.equals("pi")) {
+            return node(HC4.CST, null, -1, -1, -1, Math.nextDown(Math.PI), Math.nextUp(Math.PI));
+        }
+        Operator op;
+        boolean binary = false;
+        switch (name) {
+            case "abs": op = Operator.ABS; break;
+            case "sqr": op = Operator.POW; break;
+            case "sqrt": op = Operator.SQRT; break;
+            case "exp": op = Operator.EXP; break;
+            case "ln":
+            case "log": op = Operator.LN; break;
+            case "cos": op = Operator.COS; break;
+            case "sin": op = Operator.SIN; break;
+            case "tan": op = Operator.TAN; break;
+            case "acos": op = Operator.ACOS; break;
+            case "asin": op = Operator.ASIN; break;
+            case "atan": op = Operator.ATAN; break;
+            case "cosh": op = Operator.COSH; break;
+            case "sinh": op = Operator.SINH; break;
+            case "tanh": op = Operator.TANH; break;
+            case "acosh": op = Operator.ACOSH; break;
+            case "asinh": op = Operator.ASINH; break;
+            case "atanh": op = Operator.ATANH; break;
+            case "min": op = Operator.MIN; binary = true; break;
+            case "max": op = Operator.MAX; binary = true; break;
+            case "atan2": op = Operator.ATAN2; binary = true; break;
+            default:
+                throw error("unknown function " + name);
+        }
+        expect('(');
+        int a = expression();
+        int b = -1;
+        if (binary) {
+            expect(',');
+            b = expression();
+        } else if (name.equals("sqr")) {
+            b = node(HC4.CST, null, -1, -1, -1, 2, 2);
+        }
+        expect(')');
+        return operation(op, a, b);
+    }
+
+    /**
+     * Reads a decimal number, with an optional sign, and returns the smallest interval of doubles enclosing it.
+     */
+    private double[] number() {
+        skipBlanks();
+        int start = pos;
+        if (peek() == '-' || peek() == '+') {
+            pos++;
+        }
+        while (Character.isDigit(peek()) || peek() == '.') {
+            pos++;
+        }
+        if (peek() == 'e' || peek() == 'E') {
+            pos++;
+            if (peek() == '-' || peek() == '+') {
+                pos++;
+            }
+            while (Character.isDigit(peek())) {
+                pos++;
+            }
+        }
+        String text = functions.substring(start, pos);
+        double d;
+        BigDecimal exact;
+        try {
+            d = Double.parseDouble(text);
+            exact = new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw error("number expected");
+        }
+        if (Double.isInfinite(d)) {
+            return d > 0 ? new double[]{Double.MAX_VALUE, d} : new double[]{d, -Double.MAX_VALUE};
+        }
+        int cmp = exact.compareTo(new BigDecimal(d));
+        return new double[]{cmp < 0 ? Math.nextDown(d) : d, cmp > 0 ? Math.nextUp(d) : d};
+    }
+
+    private int operation(Operator op, int a, int b) {
+        return node(HC4.OPR, op, a, b, -1, 0, 0);
+    }
+
+    private int node(byte kind, Operator op, int a, int b, int idx, double l, double h) {
+        kinds.add(kind);
+        ops.add(op);
+        left.add(a);
+        right.add(b);
+        index.add(idx);
+        clo.add(l);
+        chi.add(h);
+        return kinds.size() - 1;
+    }
+
+    private char peek() {
+        return pos < functions.length() ? functions.charAt(pos) : 0;
+    }
+
+    private void skipBlanks() {
+        while (pos < functions.length() && Character.isWhitespace(functions.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private void expect(char c) {
+        skipBlanks();
+        if (peek() != c) {
+            throw error("'" + c + "' expected");
+        }
+        pos++;
+    }
+
+    private SolverException error(String msg) {
+        return new SolverException("Malformed function \"" + functions + "\" at " + pos + ": " + msg);
+    }
+}
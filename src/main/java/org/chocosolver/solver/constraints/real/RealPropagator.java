@@ -32,6 +32,7 @@ public class RealPropagator extends Propagator<Variable> {
     //***********************************************************************************
 
     private final IbexHandler ibex;
+    private final HC4 hc4;
     protected final String functions;
     BoolVar reified;
 
@@ -40,7 +41,8 @@ public class RealPropagator extends Propagator<Variable> {
     //***********************************************************************************
 
     /**
-     * Create a propagator on real variables, propagated using IBEX. <br/> A constraint is defined
+     * Create a propagator on real variables, propagated using IBEX, or using {@link HC4} when
+     * {@link org.chocosolver.solver.Settings#enableIbex()} returns <i>false</i>. <br/> A constraint is defined
      * using <code>functions</code>. A function is a string declared using the following format:
      * <br/>- the '{i}' tag defines a variable, where 'i' is an explicit index the array of
      * variables <code>vars</code>, <br/>- one or more operators :'+,-,*,/,=,<,>,<=,>=,exp( ),ln(
@@ -57,9 +59,15 @@ public class RealPropagator extends Propagator<Variable> {
      */
     public RealPropagator(String functions, Variable[] vars) {
         super(vars, PropagatorPriority.LINEAR, false);
-        this.ibex = model.getIbexHandler();
         this.functions = functions;
-        ibex.declare(this);
+        if (model.getSettings().enableIbex()) {
+            this.ibex = model.getIbexHandler();
+            this.hc4 = null;
+            ibex.declare(this);
+        } else {
+            this.ibex = null;
+            this.hc4 = new HC4(functions, this.vars, model.getSettings().enableBoxConsistencyOnReals());
+        }
     }
 
     protected void reify(BoolVar r) {
@@ -82,12 +90,36 @@ public class RealPropagator extends Propagator<Variable> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        ibex.contract(this);
+        if (hc4 == null) {
+            ibex.contract(this);
+        } else if (reified == null || reified.isInstantiated()) {
+            if (!hc4.contract(reified != null && reified.isInstantiatedTo(0))) {
+                fails();
+            }
+            hc4.inject(this);
+        } else {
+            ESat sat = hc4.isSatisfied();
+            if (sat == ESat.FALSE) {
+                reified.setToFalse(this);
+                propagate(evtmask);
+            } else if (sat == ESat.TRUE) {
+                reified.setToTrue(this);
+            }
+        }
     }
 
     @Override
     public ESat isEntailed() {
-        return ESat.TRUE;
+        if (hc4 == null) {
+            return ESat.TRUE;
+        }
+        ESat sat = hc4.isSatisfied();
+        if (reified == null || reified.isInstantiatedTo(1)) {
+            return sat;
+        } else if (reified.isInstantiatedTo(0)) {
+            return ESat.not(sat);
+        }
+        return ESat.UNDEFINED;
     }
 
 
@@ -0,0 +1,100 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.objects.setDataStructures.bitset.IDenseBitSet;
+
+/**
+ * Utilities for set propagators filtering set variables stored as dense bitsets
+ * (see {@link org.chocosolver.solver.Settings#getMaxSizeForDenseSetVars()}) 64 elements at once.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+final class DenseSetUtils {
+
+    private DenseSetUtils() {
+    }
+
+    /**
+     * @param vars set variables
+     * @return <i>true</i> if the kernel and the envelope of every variable are dense bitsets,
+     * and the universes of all variables together are not larger than the maximum size of dense set variables
+     */
+    static boolean isDense(SetVar... vars) {
+        if (vars.length == 0) {
+            return false;
+        }
+        for (SetVar var : vars) {
+            if (!(var.getLB() instanceof IDenseBitSet) || !(var.getUB() instanceof IDenseBitSet)) {
+                return false;
+            }
+        }
+        IDenseBitSet[] envelopes = envelopes(vars);
+        int nbWords = lastWord(envelopes) - firstWord(envelopes) + 1;
+        return nbWords <= (vars[0].getModel().getSettings().getMaxSizeForDenseSetVars() >> 6) + 1;
+    }
+
+    static IDenseBitSet[] kernels(SetVar[] vars) {
+        IDenseBitSet[] sets = new IDenseBitSet[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            sets[i] = (IDenseBitSet) vars[i].getLB();
+        }
+        return sets;
+    }
+
+    static IDenseBitSet[] envelopes(SetVar[] vars) {
+        IDenseBitSet[] sets = new IDenseBitSet[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            sets[i] = (IDenseBitSet) vars[i].getUB();
+        }
+        return sets;
+    }
+
+    static int firstWord(IDenseBitSet[] sets) {
+        int first = Integer.MAX_VALUE;
+        for (IDenseBitSet set : sets) {
+            first = Math.min(first, set.firstWord());
+        }
+        return first;
+    }
+
+    static int lastWord(IDenseBitSet[] sets) {
+        int last = Integer.MIN_VALUE;
+        for (IDenseBitSet set : sets) {
+            last = Math.max(last, set.lastWord());
+        }
+        return last;
+    }
+
+    /**
+     * Adds to the kernel of <i>var</i> the elements of the word <i>w</i> whose bits are set in <i>bits</i>.
+     */
+    static void force(SetVar var, int w, long bits, ICause cause) throws ContradictionException {
+        while (bits != 0) {
+            var.force((w << 6) + Long.numberOfTrailingZeros(bits), cause);
+            bits &= bits - 1;
+        }
+    }
+
+    /**
+     * Removes from the envelope of <i>var</i> the elements of the word <i>w</i> whose bits are set in <i>bits</i>.
+     */
+    static void remove(SetVar var, int w, long bits, ICause cause) throws ContradictionException {
+        while (bits != 0) {
+            var.remove((w << 6) + Long.numberOfTrailingZeros(bits), cause);
+            bits &= bits - 1;
+        }
+    }
+}
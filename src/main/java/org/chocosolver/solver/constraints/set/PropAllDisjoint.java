@@ -18,6 +18,7 @@ import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.IDenseBitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 
 /**
@@ -35,6 +36,8 @@ public class PropAllDisjoint extends Propagator<SetVar> {
     private int n, currentSet;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure elementForced;
+    private IDenseBitSet[] ker, env;
+    private int first, last;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -42,13 +45,22 @@ public class PropAllDisjoint extends Propagator<SetVar> {
 
     /**
      * Ensures that all non-empty sets are disjoint
-     * In order to forbid multiple empty set, use propagator PropAtMost1Empty in addition
+     * In order to forbid multiple empty set, use propagator PropAtMost1Empty in addition.
+     * When all variables are stored as dense bitsets, the propagator is not incremental
+     * and filters 64 elements at once.
      *
      * @param sets array of set variables
      */
     public PropAllDisjoint(SetVar[] sets) {
-        super(sets, PropagatorPriority.LINEAR, true);
+        super(sets, PropagatorPriority.LINEAR, !DenseSetUtils.isDense(sets));
         n = sets.length;
+        if (!reactToFineEvt) {
+            ker = DenseSetUtils.kernels(vars);
+            env = DenseSetUtils.envelopes(vars);
+            first = DenseSetUtils.firstWord(env);
+            last = DenseSetUtils.lastWord(env);
+            return;
+        }
         // delta monitors
         sdm = new ISetDeltaMonitor[n];
         for (int i = 0; i < n; i++) {
@@ -74,6 +86,10 @@ public class PropAllDisjoint extends Propagator<SetVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
+        if (!reactToFineEvt) {
+            filterWords();
+            return;
+        }
         if (PropagatorEventType.isFullPropagation(evtmask)) {
             for (int i = 0; i < n; i++) {
                 for (int j : vars[i].getLB()) {
@@ -90,6 +106,26 @@ public class PropAllDisjoint extends Propagator<SetVar> {
         }
     }
 
+    private void filterWords() throws ContradictionException {
+        for (int w = first; w <= last; w++) {
+            long one = 0, two = 0;
+            for (int i = 0; i < n; i++) {
+                long k = ker[i].getWord(w);
+                // elements mandatory in at least one set, in at least two sets
+                two |= one & k;
+                one |= k;
+            }
+            if (two != 0) {
+                fails(); // TODO: could be more precise, for explanation purpose
+            }
+            if (one != 0) {
+                for (int i = 0; i < n; i++) {
+                    DenseSetUtils.remove(vars[i], w, env[i].getWord(w) & one & ~ker[i].getWord(w), this);
+                }
+            }
+        }
+    }
+
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         currentSet = idxVarInProp;
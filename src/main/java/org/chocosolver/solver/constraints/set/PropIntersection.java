@@ -25,6 +25,7 @@ import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.IDenseBitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
@@ -37,14 +38,32 @@ public class PropIntersection extends Propagator<SetVar> {
     private int k;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure intersectionForced, intersectionRemoved, setForced, setRemoved;
+    private IDenseBitSet[] ker, env;
+    private int first, last;
 
     //***********************************************************************************
     // CONSTRUCTORS
     //***********************************************************************************
 
+    /**
+     * The intersection of sets is equal to intersection.
+     * When all variables are stored as dense bitsets, the propagator is not incremental
+     * and filters 64 elements at once.
+     *
+     * @param sets set variables to intersect
+     * @param intersection resulting set variable
+     */
     public PropIntersection(SetVar[] sets, SetVar intersection) {
-        super(ArrayUtils.append(sets, new SetVar[]{intersection}), PropagatorPriority.LINEAR, true);
+        super(ArrayUtils.append(sets, new SetVar[]{intersection}), PropagatorPriority.LINEAR,
+                !DenseSetUtils.isDense(ArrayUtils.append(sets, new SetVar[]{intersection})));
         k = sets.length;
+        if (!reactToFineEvt) {
+            ker = DenseSetUtils.kernels(vars);
+            env = DenseSetUtils.envelopes(vars);
+            first = DenseSetUtils.firstWord(env);
+            last = DenseSetUtils.lastWord(env);
+            return;
+        }
         sdm = new ISetDeltaMonitor[k + 1];
         for (int i = 0; i <= k; i++) {
             sdm[i] = this.vars[i].monitorDelta(this);
@@ -102,7 +121,9 @@ public class PropIntersection extends Propagator<SetVar> {
     @Override
     public void propagate(int evtmask) throws ContradictionException {
         SetVar intersection = vars[k];
-        if (PropagatorEventType.isFullPropagation(evtmask)) {
+        if (!reactToFineEvt) {
+            filterWords();
+        } else if (PropagatorEventType.isFullPropagation(evtmask)) {
             ISetIterator iter = vars[0].getLB().iterator();
             while (iter.hasNext()){
                 int j = iter.nextInt();
@@ -138,6 +159,35 @@ public class PropIntersection extends Propagator<SetVar> {
         }
     }
 
+    private void filterWords() throws ContradictionException {
+        SetVar intersection = vars[k];
+        for (int w = first; w <= last; w++) {
+            long kerAnd = -1L, envAnd = -1L, one = 0, two = 0;
+            for (int i = 0; i < k; i++) {
+                long e = env[i].getWord(w);
+                long u = e & ~ker[i].getWord(w);
+                kerAnd &= ker[i].getWord(w);
+                envAnd &= e;
+                // elements undecided in at least one set, in at least two sets
+                two |= one & u;
+                one |= u;
+            }
+            DenseSetUtils.force(intersection, w, kerAnd & ~ker[k].getWord(w), this);
+            DenseSetUtils.remove(intersection, w, env[k].getWord(w) & ~envAnd, this);
+            long kerI = ker[k].getWord(w);
+            for (int i = 0; i < k; i++) {
+                DenseSetUtils.force(vars[i], w, kerI & ~ker[i].getWord(w), this);
+            }
+            // elements out of the intersection, possible in all sets and mandatory in all of them but one
+            long single = ~env[k].getWord(w) & envAnd & one & ~two;
+            for (int i = 0; i < k && single != 0; i++) {
+                long r = single & ~ker[i].getWord(w);
+                DenseSetUtils.remove(vars[i], w, r, this);
+                single &= ~r;
+            }
+        }
+    }
+
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         sdm[idxVarInProp].freeze();
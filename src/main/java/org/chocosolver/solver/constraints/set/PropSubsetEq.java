@@ -24,6 +24,7 @@ import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.IDenseBitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 
 /**
@@ -39,19 +40,29 @@ public class PropSubsetEq extends Propagator<SetVar> {
 
     private ISetDeltaMonitor[] sdm;
     private IntProcedure elementForced, elementRemoved;
+    private IDenseBitSet kerX, envX, kerY, envY;
 
     //***********************************************************************************
     // CONSTRUCTORS
     //***********************************************************************************
 
     /**
-     * Ensures that X subseteq Y
+     * Ensures that X subseteq Y.
+     * When both variables are stored as dense bitsets, the propagator is not incremental
+     * and filters 64 elements at once.
      *
      * @param X a set variable
      * @param Y a set variable
      */
     public PropSubsetEq(SetVar X, SetVar Y) {
-        super(new SetVar[]{X, Y}, PropagatorPriority.LINEAR, true);
+        super(new SetVar[]{X, Y}, PropagatorPriority.LINEAR, !DenseSetUtils.isDense(X, Y));
+        if (!reactToFineEvt) {
+            kerX = (IDenseBitSet) X.getLB();
+            envX = (IDenseBitSet) X.getUB();
+            kerY = (IDenseBitSet) Y.getLB();
+            envY = (IDenseBitSet) Y.getUB();
+            return;
+        }
         // delta monitors
         sdm = new ISetDeltaMonitor[2];
         for (int i = 0; i < 2; i++) {
@@ -75,6 +86,13 @@ public class PropSubsetEq extends Propagator<SetVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
+        if (!reactToFineEvt) {
+            for (int w = envX.firstWord(); w <= envX.lastWord(); w++) {
+                DenseSetUtils.force(vars[1], w, kerX.getWord(w) & ~kerY.getWord(w), this);
+                DenseSetUtils.remove(vars[0], w, envX.getWord(w) & ~envY.getWord(w), this);
+            }
+            return;
+        }
         ISetIterator iter = vars[0].getLB().iterator();
         while (iter.hasNext()){
             vars[1].force(iter.nextInt(), this);
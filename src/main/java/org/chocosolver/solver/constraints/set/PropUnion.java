@@ -25,6 +25,7 @@ import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.IDenseBitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
@@ -37,20 +38,32 @@ public class PropUnion extends Propagator<SetVar> {
     private int k;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure unionForced, unionRemoved, setForced, setRemoved;
+    private IDenseBitSet[] ker, env;
+    private int first, last;
 
     //***********************************************************************************
     // CONSTRUCTORS
     //***********************************************************************************
 
     /**
-     * The union of sets is equal to union
+     * The union of sets is equal to union.
+     * When all variables are stored as dense bitsets, the propagator is not incremental
+     * and filters 64 elements at once.
      *
      * @param sets set variables to unify
      * @param union resulting set variable
      */
     public PropUnion(SetVar[] sets, SetVar union) {
-        super(ArrayUtils.append(sets, new SetVar[]{union}), PropagatorPriority.LINEAR, true);
+        super(ArrayUtils.append(sets, new SetVar[]{union}), PropagatorPriority.LINEAR,
+                !DenseSetUtils.isDense(ArrayUtils.append(sets, new SetVar[]{union})));
         k = sets.length;
+        if (!reactToFineEvt) {
+            ker = DenseSetUtils.kernels(vars);
+            env = DenseSetUtils.envelopes(vars);
+            first = DenseSetUtils.firstWord(env);
+            last = DenseSetUtils.lastWord(env);
+            return;
+        }
         sdm = new ISetDeltaMonitor[k + 1];
         for (int i = 0; i <= k; i++) {
             sdm[i] = this.vars[i].monitorDelta(this);
@@ -106,7 +119,9 @@ public class PropUnion extends Propagator<SetVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        if (PropagatorEventType.isFullPropagation(evtmask)) {
+        if (!reactToFineEvt) {
+            filterWords();
+        } else if (PropagatorEventType.isFullPropagation(evtmask)) {
             SetVar union = vars[k];
             for (int i = 0; i < k; i++) {
                 ISetIterator iter = vars[i].getLB().iterator();
@@ -155,6 +170,31 @@ public class PropUnion extends Propagator<SetVar> {
         }
     }
 
+    private void filterWords() throws ContradictionException {
+        SetVar union = vars[k];
+        for (int w = first; w <= last; w++) {
+            long envU = env[k].getWord(w);
+            long kerOr = 0, one = 0, two = 0;
+            for (int i = 0; i < k; i++) {
+                DenseSetUtils.remove(vars[i], w, env[i].getWord(w) & ~envU, this);
+                long e = env[i].getWord(w);
+                // elements possible in at least one set, in at least two sets
+                two |= one & e;
+                one |= e;
+                kerOr |= ker[i].getWord(w);
+            }
+            DenseSetUtils.force(union, w, kerOr & ~ker[k].getWord(w), this);
+            DenseSetUtils.remove(union, w, envU & ~one, this);
+            // mandatory elements of the union possible in a single set
+            long single = ker[k].getWord(w) & one & ~two;
+            for (int i = 0; i < k && single != 0; i++) {
+                long f = single & env[i].getWord(w);
+                DenseSetUtils.force(vars[i], w, f & ~ker[i].getWord(w), this);
+                single &= ~f;
+            }
+        }
+    }
+
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         sdm[idxVarInProp].freeze();
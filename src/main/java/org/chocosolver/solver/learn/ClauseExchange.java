@@ -0,0 +1,294 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.learn;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.nary.clauses.ClauseBuilder;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded and lock-free exchange of learnt signed clauses between solvers running in parallel
+ * on the same problem (for instance, the workers of a {@link org.chocosolver.solver.ParallelPortfolio}).
+ * <p>
+ * Each solver is connected to this exchange through a {@link Port}.
+ * A port publishes short learnt clauses, filtered by cardinality and by literal block distance (LBD),
+ * into a ring buffer and imports, on restart, the clauses published by the other ports.
+ * Publishing never blocks: when the ring is full, the oldest clauses are overwritten and
+ * a slow port simply misses them.
+ * <p>
+ * Clauses are transferred in a model-independent way: each variable is identified by its index in
+ * {@link Model#getVars()}. Consequently, the connected models are expected to be built in the very same way.
+ * A clause which refers to a variable that does not exist in the importing model is ignored.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class ClauseExchange {
+
+    /**
+     * A clause in the ring buffer, stored as a conjunction of (variable index, ranges) pairs.
+     */
+    private static final class SharedClause {
+        /**
+         * Sequence number of this clause in the ring buffer
+         */
+        final long seq;
+        /**
+         * Identifier of the port that published this clause
+         */
+        final int producer;
+        /**
+         * Indices of the variables, in {@link Model#getVars()}
+         */
+        final int[] vars;
+        /**
+         * For each variable, its ranges given as a sequence of bounds: [lb0, ub0, lb1, ub1, ...]
+         */
+        final int[][] bounds;
+
+        SharedClause(long seq, int producer, int[] vars, int[][] bounds) {
+            this.seq = seq;
+            this.producer = producer;
+            this.vars = vars;
+            this.bounds = bounds;
+        }
+    }
+
+    /**
+     * The ring buffer
+     */
+    private final AtomicReferenceArray<SharedClause> ring;
+    /**
+     * Mask to get a position in {@link #ring} from a sequence number
+     */
+    private final int mask;
+    /**
+     * Sequence number of the next clause to publish
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * To give each port a unique identifier
+     */
+    private final AtomicInteger nbPorts = new AtomicInteger();
+    /**
+     * Maximum number of literals of a clause to be published
+     */
+    private final int maxCardinality;
+    /**
+     * Maximum literal block distance of a clause to be published
+     */
+    private final int maxLBD;
+
+    /**
+     * Create a clause exchange which stores up to 1024 clauses,
+     * each of them with at most 8 literals and a LBD of at most 4.
+     */
+    public ClauseExchange() {
+        this(1024, 8, 4);
+    }
+
+    /**
+     * Create a clause exchange.
+     *
+     * @param capacity       number of clauses stored in the ring buffer, rounded up to the next power of two
+     * @param maxCardinality maximum number of literals of a clause to be published
+     * @param maxLBD         maximum literal block distance of a clause to be published
+     */
+    public ClauseExchange(int capacity, int maxCardinality, int maxLBD) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity of a clause exchange must be in [1, 2^30]");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxCardinality = maxCardinality;
+        this.maxLBD = maxLBD;
+    }
+
+    /**
+     * Connect a model to this exchange.
+     * The variables of <i>model</i> have to be declared before calling this method.
+     *
+     * @param model a model
+     * @return the port <i>model</i> has to use to publish and import clauses
+     */
+    public Port connect(Model model) {
+        return new Port(model, nbPorts.getAndIncrement());
+    }
+
+    /**
+     * @return the number of clauses published so far in this exchange
+     */
+    public long getNbPublishedClauses() {
+        return head.get();
+    }
+
+    /**
+     * The connection of one model to a {@link ClauseExchange}.
+     * A port is not thread-safe and is expected to be used by the thread which solves the model only.
+     * As a restart monitor, it imports clauses published by other ports on each restart.
+     */
+    public final class Port implements IMonitorRestart {
+
+        /**
+         * The connected model
+         */
+        private final Model model;
+        /**
+         * Identifier of this port
+         */
+        private final int id;
+        /**
+         * Maps variable identifiers to their index in {@link Model#getVars()}
+         */
+        private final TIntIntHashMap indices;
+        /**
+         * Sequence number of the next clause to read
+         */
+        private long cursor;
+        /**
+         * Number of clauses published by this port
+         */
+        private long nbExported;
+        /**
+         * Number of clauses imported by this port
+         */
+        private long nbImported;
+
+        private Port(Model model, int id) {
+            this.model = model;
+            this.id = id;
+            Variable[] vars = model.getVars();
+            this.indices = new TIntIntHashMap(vars.length, .5f, -1, -1);
+            for (int i = 0; i < vars.length; i++) {
+                indices.put(vars[i].getId(), i);
+            }
+            this.cursor = head.get();
+        }
+
+        /**
+         * Publish the clause made of <i>literals</i>, if it is short enough.
+         * The sets are copied, so they can be modified once this method returns.
+         *
+         * @param literals the literals of the clause, each of them being (var &isin; set)
+         * @param lbd      the literal block distance of the clause
+         * @return <i>true</i> if the clause has been published
+         */
+        public boolean offer(Map<IntVar, IntIterableRangeSet> literals, int lbd) {
+            if (literals.isEmpty() || literals.size() > maxCardinality || lbd > maxLBD) {
+                return false;
+            }
+            int[] vars = new int[literals.size()];
+            int[][] bounds = new int[vars.length][];
+            int k = 0;
+            for (Map.Entry<IntVar, IntIterableRangeSet> lit : literals.entrySet()) {
+                vars[k] = indices.get(lit.getKey().getId());
+                if (vars[k] == -1) {
+                    // variable declared after the connection, can not be shared
+                    return false;
+                }
+                IntIterableRangeSet set = lit.getValue();
+                bounds[k] = new int[set.getNbRanges() << 1];
+                for (int r = 0; r < set.getNbRanges(); r++) {
+                    bounds[k][r << 1] = set.minOfRange(r);
+                    bounds[k][(r << 1) + 1] = set.maxOfRange(r);
+                }
+                k++;
+            }
+            long seq = head.getAndIncrement();
+            ring.set((int) (seq & mask), new SharedClause(seq, id, vars, bounds));
+            nbExported++;
+            return true;
+        }
+
+        /**
+         * Import in the connected model all clauses published by other ports since the last call.
+         * Clauses which have been overwritten in the meantime are lost.
+         *
+         * @return the number of clauses imported
+         */
+        public int importClauses() {
+            long to = head.get();
+            long s = Math.max(cursor, to - ring.length());
+            int n = 0;
+            for (; s < to; s++) {
+                SharedClause c = ring.get((int) (s & mask));
+                if (c == null || c.seq < s) {
+                    // not written yet, try again on next call
+                    break;
+                }
+                if (c.seq == s && c.producer != id && post(c)) {
+                    n++;
+                }
+                // else: overwritten by a more recent one or published by this port
+            }
+            cursor = s;
+            nbImported += n;
+            return n;
+        }
+
+        private boolean post(SharedClause c) {
+            int nbVars = model.getNbVars();
+            for (int i = 0; i < c.vars.length; i++) {
+                if (c.vars[i] >= nbVars || !(model.getVar(c.vars[i]) instanceof IntVar)) {
+                    return false;
+                }
+            }
+            ClauseBuilder ngb = model.getClauseBuilder();
+            for (int i = 0; i < c.vars.length; i++) {
+                IntIterableRangeSet set = new IntIterableRangeSet();
+                for (int r = 0; r < c.bounds[i].length; r += 2) {
+                    set.addBetween(c.bounds[i][r], c.bounds[i][r + 1]);
+                }
+                ngb.put((IntVar) model.getVar(c.vars[i]), set);
+            }
+            ngb.buildNogood(model, true);
+            return true;
+        }
+
+        /**
+         * @implNote clauses are imported before backtracking to the root node, that way,
+         * they are propagated in the root node by the restart itself.
+         * Otherwise, their root consequences would be wrongly attached to the first decision
+         * in the implication graph.
+         */
+        @Override
+        public void beforeRestart() {
+            importClauses();
+        }
+
+        /**
+         * @return the number of clauses published by this port
+         */
+        public long getNbExportedClauses() {
+            return nbExported;
+        }
+
+        /**
+         * @return the number of clauses imported by this port
+         */
+        public long getNbImportedClauses() {
+            return nbImported;
+        }
+    }
+}
@@ -9,6 +9,7 @@
  */
 package org.chocosolver.solver.learn;
 
+import gnu.trove.set.hash.TIntHashSet;
 import java.util.HashMap;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
@@ -82,6 +83,10 @@ public class ExplanationForSignedClause extends IExplanation {
     private final Implications mIG;
 
     private PoolManager<IntIterableRangeSet> manager;
+    /**
+     * Decision levels met when computing the literal block distance
+     */
+    private final TIntHashSet levels = new TIntHashSet();
 
     public ExplanationForSignedClause(Implications ig) {
         front = new ValueSortedMap<>();
@@ -167,7 +172,10 @@ public class ExplanationForSignedClause extends IExplanation {
         recycle();
         if (PROOF) System.out.print("<-----");
         initFront(cex);
-        loop();
+        // a global conflict is already explained, and may be asserting as is
+        if (cex.v != null || !stop()) {
+            loop();
+        }
         if (PROOF) System.out.print(">\n");
     }
 
@@ -406,6 +414,24 @@ public class ExplanationForSignedClause extends IExplanation {
         return literals.size();
     }
 
+    /**
+     * Compute the literal block distance of this explanation, that is the number of distinct decision levels,
+     * root level excluded, at which the variables of the literals were last modified.
+     * This is only relevant right after {@link #learnSignedClause(ContradictionException)},
+     * before any backtrack occurs.
+     * @return the literal block distance of this explanation
+     */
+    public int getLBD() {
+        levels.clear();
+        for (IntVar var : literals.keySet()) {
+            int dl = mIG.getDecisionLevelOf(var);
+            if (dl > 1) {
+                levels.add(dl);
+            }
+        }
+        return levels.size();
+    }
+
     /**
      * @return the decision to refute (ie, point to jump to wrt the current decision path).
      */
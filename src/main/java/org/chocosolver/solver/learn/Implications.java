@@ -113,6 +113,13 @@ public abstract class Implications {
      */
     public abstract int getDecisionLevelAt(int idx);
 
+    /**
+     * Get the decision level at which the domain of <i>var</i> was last modified
+     * @param var variable to query
+     * @return the decision level of the last modification of <i>var</i>, 0 if <i>var</i> is unknown
+     */
+    public abstract int getDecisionLevelOf(IntVar var);
+
     /**
      * Get the {@link IntIterableRangeSet} that represents domain declared in node <i>idx</i>
      * @param idx position of the node to query
@@ -504,6 +504,16 @@ public class LazyImplications extends Implications {
         return entries[idx].dl;
     }
 
+    @Override
+    public int getDecisionLevelOf(IntVar var) {
+        int size_ = size.get();
+        if (nbEntries != size_) {
+            synchronize(size_);
+        }
+        Entry root = rootEntries.get(var);
+        return root == null ? 0 : entries[root.p].dl;
+    }
+
     @Override
     public IntIterableRangeSet getDomainAt(int idx) {
         return entries[idx].d;
@@ -31,6 +31,10 @@ import java.util.function.Consumer;
  * <br/>On a call to {@code onVariableUpdate}, it stores the event generated and schedules the propagator in
  * one of the 7 queues wrt to its priority for future revision.
  * <p>
+ * When {@link org.chocosolver.solver.Settings#enableAdaptivePropagation()} is set,
+ * each propagator call is measured (see {@link PropagatorStatistics}) and
+ * propagators that are costly wrt the average call but rarely filter are scheduled in an additional queue,
+ * which is only processed once the seven others are empty.
  * <br/>
  *
  * @author Charles Prud'homme
@@ -45,6 +49,26 @@ public class PropagationEngine {
      * Mask to deal with emptiness (see {@link #notEmpty})
      */
     private static final int WORD_MASK = 0xffffffff;
+    /**
+     * Index of the queue of deferred propagators, in adaptive mode
+     */
+    private static final int DEFERRED = 8;
+    /**
+     * Minimum number of calls before a propagator can be deferred
+     */
+    private static final int WARMUP = 32;
+    /**
+     * A propagator whose moving average of fruitful calls is below this ratio can be deferred
+     */
+    private static final double MIN_YIELD = .1;
+    /**
+     * A propagator whose moving average of time per call exceeds the global one by this factor can be deferred
+     */
+    private static final double COST_RATIO = 4.;
+    /**
+     * Weight of the last call in the global moving average of time per call
+     */
+    private static final double ALPHA = 1. / 256;
     /**
      * The model declaring this engine
      */
@@ -89,6 +113,22 @@ public class PropagationEngine {
      * when set to '0b10', this workds as a variable- oriented propagation engine.
      */
     private final byte hybrid;
+    /**
+     * Set to <tt>true</tt> to measure propagators and defer the costly and unfruitful ones
+     */
+    private final boolean adaptive;
+    /**
+     * Statistics of propagators, indexed by their ID, in adaptive mode
+     */
+    private PropagatorStatistics[] statistics;
+    /**
+     * Number of domain modifications since the creation of this engine, in adaptive mode
+     */
+    private int nbEvents;
+    /**
+     * Moving average of the time per call, over all propagators, in nanoseconds
+     */
+    private double avgTime;
 
     /**
      * A seven-queue propagation engine.
@@ -101,8 +141,9 @@ public class PropagationEngine {
     public PropagationEngine(Model model) {
         this.model = model;
         //noinspection unchecked
-        this.pro_queue = new CircularQueue[8];
-        for (int i = 0; i < 8; i++) {
+        this.adaptive = model.getSettings().enableAdaptivePropagation();
+        this.pro_queue = new CircularQueue[adaptive ? DEFERRED + 1 : 8];
+        for (int i = 0; i < pro_queue.length; i++) {
             pro_queue[i] = new CircularQueue<>(16);
         }
         this.var_queue = new CircularQueue<>(16);
@@ -110,6 +151,7 @@ public class PropagationEngine {
         this.dynPropagators = new DynPropagators();
         this.propagators = new ArrayList<>();
         this.hybrid = model.getSettings().enableHybridizationOfPropagationEngine();
+        this.statistics = new PropagatorStatistics[adaptive ? 16 : 0];
     }
 
     /**
@@ -170,14 +212,10 @@ public class PropagationEngine {
                 // revision of the variable
                 lastProp.unschedule();
                 delayedPropagationType = 0;
-                if (lastProp.reactToFineEvent()) {
-                    lastProp.doFinePropagation();
-                    // now we can check whether a delayed propagation has been scheduled
-                    if (delayedPropagationType > 0) {
-                        lastProp.propagate(delayedPropagationType);
-                    }
-                } else if (lastProp.isActive()) { // need to be checked due to views
-                    lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                if (adaptive) {
+                    measure(lastProp);
+                } else {
+                    propagate(lastProp);
                 }
                 if (hybrid < 0b01) {
                     manageModifications();
@@ -189,6 +227,42 @@ public class PropagationEngine {
         } while (!var_queue.isEmpty());
     }
 
+    private void propagate(Propagator propagator) throws ContradictionException {
+        if (propagator.reactToFineEvent()) {
+            propagator.doFinePropagation();
+            // now we can check whether a delayed propagation has been scheduled
+            if (delayedPropagationType > 0) {
+                propagator.propagate(delayedPropagationType);
+            }
+        } else if (propagator.isActive()) { // need to be checked due to views
+            propagator.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
+
+    /**
+     * Propagate <i>propagator</i> and update its statistics
+     *
+     * @param propagator a propagator to propagate
+     * @throws ContradictionException if propagation fails
+     */
+    private void measure(Propagator propagator) throws ContradictionException {
+        PropagatorStatistics stat = getStatistics(propagator);
+        int evts = nbEvents;
+        long time = System.nanoTime();
+        boolean failed = true;
+        try {
+            propagate(propagator);
+            failed = false;
+        } finally {
+            long elapsed = System.nanoTime() - time;
+            stat.record(elapsed, nbEvents - evts, failed);
+            avgTime += ALPHA * (elapsed - avgTime);
+            stat.deferred = stat.calls >= WARMUP
+                    && stat.avgFruitful < MIN_YIELD
+                    && stat.avgTime > COST_RATIO * avgTime;
+        }
+    }
+
     /**
      * Checks if some propagators were added or have to be propagated on backtrack
      * @throws ContradictionException if a propagation fails
@@ -272,6 +346,9 @@ public class PropagationEngine {
         }
         var_queue.addLast(variable);
         variable.storeEvents(type.getMask(), cause);
+        if (adaptive) {
+            nbEvents++;
+        }
     }
 
     private void schedule(Variable variable) {
@@ -298,9 +375,41 @@ public class PropagationEngine {
         variable.clearEvents();
     }
 
+    @SuppressWarnings("unchecked")
     public void schedule(Propagator prop, int pindice, int mask) {
         prop.doScheduleEvent(pindice, mask);
-        notEmpty |= (1 << prop.doSchedule(pro_queue));
+        if (adaptive) {
+            if (!prop.isScheduled()) {
+                // a propagator already scheduled stays in its queue
+                notEmpty |= (1 << prop.doSchedule(pro_queue,
+                        getStatistics(prop).deferred ? DEFERRED : prop.getPriority().priority));
+            }
+        } else {
+            notEmpty |= (1 << prop.doSchedule(pro_queue));
+        }
+    }
+
+    /**
+     * Get the execution statistics of a propagator, only maintained when
+     * {@link org.chocosolver.solver.Settings#enableAdaptivePropagation()} is set.
+     *
+     * @param propagator a propagator
+     * @return the statistics of <i>propagator</i>, or <i>null</i> if this engine is not adaptive
+     */
+    public PropagatorStatistics getStatistics(Propagator propagator) {
+        if (!adaptive) {
+            return null;
+        }
+        int id = propagator.getId();
+        if (id >= statistics.length) {
+            PropagatorStatistics[] tmp = statistics;
+            statistics = new PropagatorStatistics[Math.max(id + 1, tmp.length * 3 / 2)];
+            System.arraycopy(tmp, 0, statistics, 0, tmp.length);
+        }
+        if (statistics[id] == null) {
+            statistics[id] = new PropagatorStatistics(propagator);
+        }
+        return statistics[id];
     }
 
     /**
@@ -0,0 +1,170 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.constraints.Propagator;
+
+/**
+ * Execution statistics of a propagator, maintained by an adaptive {@link PropagationEngine}
+ * (see {@link org.chocosolver.solver.Settings#enableAdaptivePropagation()}).
+ * <p>
+ * Each call made by the propagation loop is measured in time and in filtering yield,
+ * that is, the number of domain modifications it produced.
+ * A call is <i>fruitful</i> when it modifies at least one domain or fails.
+ * Besides the totals, exponential moving averages of the cost and of the ratio of fruitful calls
+ * reflect the recent behavior of the propagator.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public final class PropagatorStatistics {
+
+    /**
+     * Weight of the last call in moving averages
+     */
+    private static final double ALPHA = 1. / 16;
+
+    /**
+     * The propagator
+     */
+    private final Propagator propagator;
+    /**
+     * Number of calls
+     */
+    long calls;
+    /**
+     * Number of fruitful calls
+     */
+    long fruitful;
+    /**
+     * Number of failures
+     */
+    long failures;
+    /**
+     * Number of domain modifications
+     */
+    long events;
+    /**
+     * Time spent in calls, in nanoseconds
+     */
+    long time;
+    /**
+     * Moving average of the time per call, in nanoseconds
+     */
+    double avgTime;
+    /**
+     * Moving average of the ratio of fruitful calls
+     */
+    double avgFruitful = 1.;
+    /**
+     * Set to <i>true</i> when the engine defers this propagator
+     */
+    boolean deferred;
+
+    PropagatorStatistics(Propagator propagator) {
+        this.propagator = propagator;
+    }
+
+    /**
+     * Record a call.
+     *
+     * @param nanos   duration of the call
+     * @param nbEvents number of domain modifications
+     * @param failed  set to <i>true</i> if the call ended with a failure
+     */
+    void record(long nanos, int nbEvents, boolean failed) {
+        calls++;
+        time += nanos;
+        events += nbEvents;
+        boolean f = failed || nbEvents > 0;
+        if (f) {
+            fruitful++;
+        }
+        if (failed) {
+            failures++;
+        }
+        if (calls == 1) {
+            avgTime = nanos;
+        } else {
+            avgTime += ALPHA * (nanos - avgTime);
+        }
+        avgFruitful += ALPHA * ((f ? 1. : 0.) - avgFruitful);
+    }
+
+    /**
+     * @return the propagator these statistics are about
+     */
+    public Propagator getPropagator() {
+        return propagator;
+    }
+
+    /**
+     * @return the number of calls
+     */
+    public long getNbCalls() {
+        return calls;
+    }
+
+    /**
+     * @return the number of calls that modified at least one domain or failed
+     */
+    public long getNbFruitfulCalls() {
+        return fruitful;
+    }
+
+    /**
+     * @return the number of calls that failed
+     */
+    public long getNbFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the number of domain modifications
+     */
+    public long getNbEvents() {
+        return events;
+    }
+
+    /**
+     * @return the total time spent in calls, in nanoseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return the moving average of the time per call, in nanoseconds
+     */
+    public double getAverageTime() {
+        return avgTime;
+    }
+
+    /**
+     * @return the moving average of the ratio of fruitful calls, in [0,1]
+     */
+    public double getAverageYield() {
+        return avgFruitful;
+    }
+
+    /**
+     * @return <i>true</i> if the engine currently defers the propagator until the others reach a fix point
+     */
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls (%d fruitful, %d failures), %d events, %.3f ms%s",
+                propagator, calls, fruitful, failures, events, time / 1e6, deferred ? ", deferred" : "");
+    }
+}
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -211,6 +212,49 @@ public interface IResolutionHelper extends ISelf<Solver> {
         return StreamSupport.stream(it, false);
     }
 
+    /**
+     * Iterate over the solutions of the declared problem, restricted to <i>vars</i>.
+     * <p>
+     * Contrary to {@link #findAllSolutions(Criterion...)}, solutions are not stored: each one is a snapshot of the
+     * values of <i>vars</i> in a unique <code>int[]</code> buffer, which is overwritten on the next call to
+     * {@link SolutionIterator#hasNext()}.
+     * The search is resumed only when the next solution is requested, so memory is bounded whatever the number of
+     * solutions, and a slow consumer pauses the search.
+     * <p>
+     * Basically, this method enables running the following instructions:
+     * <pre>
+     * {@code
+     * 	SolutionIterator it = model.getSolver().iterateSolutions(vars);
+     * 	while (it.hasNext()) {
+     * 		int[] values = it.next(); // values[i] is the value of vars[i]
+     *    }
+     * }
+     * </pre>
+     *
+     * @param vars variables whose values are returned
+     * @param stop optional criterion to stop the search before finding all solutions
+     * @return an iterator over the solutions
+     */
+    default SolutionIterator iterateSolutions(IntVar[] vars, Criterion... stop) {
+        return new SolutionIterator(ref(), vars, stop);
+    }
+
+    /**
+     * Stream the solutions of the declared problem, restricted to <i>vars</i>.
+     * <p>
+     * This method relies on {@link #iterateSolutions(IntVar[], Criterion...)}, but each solution is a copy of the
+     * values of <i>vars</i>, since streams may buffer elements.
+     * No {@link Solution} is created.
+     *
+     * @param vars variables whose values are returned
+     * @param stop optional criterion to stop the search before finding all solutions
+     * @return a stream of the values of <i>vars</i> in each solution
+     */
+    default Stream<int[]> streamSolutions(IntVar[] vars, Criterion... stop) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterateSolutions(vars, stop),
+                Spliterator.ORDERED | Spliterator.NONNULL), false).map(int[]::clone);
+    }
+
     /**
      * Attempt to find the solution that optimizes the mono-objective problem defined by a unique objective variable and
      * an optimization criteria.
@@ -0,0 +1,136 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A pull-based iterator over the solutions of a problem, restricted to a fixed set of integer variables.
+ * <p>
+ * Each solution is a snapshot of the values of the variables, in the order given on construction,
+ * written into a unique <code>int[]</code> buffer: no object is allocated per solution.
+ * The buffer returned by {@link #next()} is overwritten by the next call to {@link #hasNext()},
+ * its content has to be copied if it has to be kept.
+ * <p>
+ * The search loop is only resumed when the next solution is requested:
+ * a slow consumer naturally pauses the search, and only the current solution is kept in memory,
+ * whatever the number of solutions enumerated.
+ * <p>
+ * Stop criteria given on construction are removed from the solver once the iteration is over.
+ * <pre>
+ * {@code
+ * SolutionIterator it = model.getSolver().iterateSolutions(vars);
+ * while (it.hasNext()) {
+ *     int[] values = it.next();
+ *     ...
+ * }
+ * }
+ * </pre>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class SolutionIterator implements Iterator<int[]> {
+
+    /**
+     * The solver to pull solutions from
+     */
+    private final Solver solver;
+    /**
+     * Variables to snapshot
+     */
+    private final IntVar[] vars;
+    /**
+     * Stop criteria, to remove at the end
+     */
+    private final Criterion[] stop;
+    /**
+     * Values of the last solution found
+     */
+    private final int[] buffer;
+    /**
+     * Set to <i>true</i> when a solution has been found but not returned yet
+     */
+    private boolean pending;
+    /**
+     * Set to <i>true</i> when the search is over
+     */
+    private boolean over;
+    /**
+     * Number of solutions returned so far
+     */
+    private long nbSolutions;
+
+    /**
+     * Create an iterator over the solutions of the problem declared in <i>solver</i>.
+     *
+     * @param solver the solver
+     * @param vars   variables whose values are snapshot on each solution
+     * @param stop   optional criteria to stop the search before finding all solutions
+     */
+    public SolutionIterator(Solver solver, IntVar[] vars, Criterion... stop) {
+        this.solver = solver;
+        this.vars = vars.clone();
+        this.stop = stop;
+        this.buffer = new int[vars.length];
+        solver.addStopCriterion(stop);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!pending && !over) {
+            if (solver.solve()) {
+                for (int i = 0; i < vars.length; i++) {
+                    buffer[i] = vars[i].getValue();
+                }
+                pending = true;
+            } else {
+                over = true;
+                solver.removeStopCriterion(stop);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * @return the values of the next solution, in a buffer which is overwritten by the next call to
+     * {@link #hasNext()}
+     * @throws NoSuchElementException if no more solution exists
+     */
+    @Override
+    public int[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        pending = false;
+        nbSolutions++;
+        return buffer;
+    }
+
+    /**
+     * @return the number of solutions returned so far by this iterator
+     */
+    public long getNbSolutions() {
+        return nbSolutions;
+    }
+
+    /**
+     * @return the variables whose values are returned, in the order of the returned arrays
+     */
+    public IntVar[] getVars() {
+        return vars.clone();
+    }
+}
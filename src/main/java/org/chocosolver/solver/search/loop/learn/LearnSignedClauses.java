@@ -12,6 +12,7 @@ package org.chocosolver.solver.search.loop.learn;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.nary.clauses.ClauseStore;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.learn.ClauseExchange;
 import org.chocosolver.solver.learn.ExplanationForSignedClause;
 import org.chocosolver.solver.search.strategy.decision.DecisionPath;
 import org.chocosolver.solver.search.strategy.decision.IntDecision;
@@ -53,6 +54,14 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
      * Maximum cardinality to add nogoods to the store
      */
     private final int max_card;
+    /**
+     * Port to share learnt clauses with other solvers, may be null
+     */
+    private ClauseExchange.Port exchange;
+    /**
+     * Literal block distance of the last explanation computed
+     */
+    private int lbd;
 
     /**
      * Build a learned able to learn signed clauses on conflicts and solutions.
@@ -74,6 +83,17 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
         return (E) lastExplanation;
     }
 
+    /**
+     * Share the learnt clauses through <i>port</i>.
+     * Only clauses learnt from failures are published.
+     * Note that <i>port</i> should also be plugged as a search monitor to import clauses learnt by other solvers.
+     *
+     * @param port a port connected to a clause exchange, or <i>null</i> to stop sharing clauses
+     */
+    public void setClauseExchange(ClauseExchange.Port port) {
+        this.exchange = port;
+    }
+
     @Override
     public boolean record(Solver solver) {
         if (nbsol == solver.getSolutionCount()) {
@@ -98,6 +118,8 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
             (cex.v != null) || (cex.c != null) :
             this.getClass().getName() + ".onContradiction incoherent state";
         lastExplanation.learnSignedClause(cex);
+        // LBD has to be computed before backtracking
+        lbd = lastExplanation.getLBD();
 
         int upto = mSolver.getDecisionPath().size() - lastExplanation.getAssertingLevel();
 
@@ -136,6 +158,8 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
         } else {
             // extract the decision path to build the nogood
             lastExplanation.learnSolution(mSolver.getDecisionPath());
+            // such a nogood only makes sense for this search, it is not shared
+            lbd = Integer.MAX_VALUE;
             mSolver.setJumpTo(-1);
         }
     }
@@ -143,6 +167,11 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
     private void addLearntConstraint() {
         if (lastExplanation != null && lastExplanation.getCardinality() > 0
             && lastExplanation.getCardinality() <= max_card) {
+            if (exchange != null) {
+                // must be done before extraction, which may modify the literals
+                exchange.offer(lastExplanation.getLiterals(), lbd);
+            }
+            ngstore.setNextLBD(lbd);
             lastExplanation.extractConstraint(mSolver.getModel(), ngstore);
         }
     }
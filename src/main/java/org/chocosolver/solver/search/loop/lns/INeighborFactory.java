@@ -32,6 +32,21 @@ public class INeighborFactory {
         );
     }
 
+    /**
+     * Creates an adaptive neighborhood which selects, with a UCB bandit, the neighbors of
+     * {@link #blackBox(IntVar...)} based on the objective improvement they bring per millisecond
+     * @param objective the objective variable
+     * @param vars the pool of variables to be freezed
+     * @return an adaptive neighborhood
+     */
+    public static INeighbor bandit(IntVar objective, IntVar... vars) {
+        return new BanditNeighborhood(objective, BanditNeighborhood.Policy.UCB, 0,
+                propagationGuided(vars),
+                reversedPropagationGuided(vars),
+                random(vars)
+        );
+    }
+
     /**
      * Create a random neighborhood fixing variables randomly
      * @param vars   the pool of variables to be freezed
@@ -0,0 +1,351 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.lns.neighbors;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * An adaptive large neighborhood search, where the neighbor to apply on each LNS run is selected by a multi-armed
+ * bandit.
+ * <p>
+ * The reward of a run is the improvement of the objective it brings per CPU millisecond,
+ * normalized by the best rate observed so far, so that it lies in [0,1].
+ * Neighbors are selected either with UCB1 (the largest upper confidence bound of the mean reward)
+ * or with Thompson sampling (a Beta distribution per neighbor, updated with a Bernoulli trial of the reward).
+ * <p>
+ * Each neighbor keeps its own fragment size: when a run ends without solution, only the neighbor which has been
+ * applied is relaxed (see {@link INeighbor#restrictLess()}).
+ * The number of runs, solutions, objective improvement and time of each neighbor are available.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class BanditNeighborhood implements INeighbor {
+
+    /**
+     * Selection policies of a {@link BanditNeighborhood}
+     */
+    public enum Policy {
+        /**
+         * Upper confidence bound: the neighbor with the largest mean reward plus
+         * sqrt(2 ln N / n<sub>i</sub>) is selected, where N is the number of runs and n<sub>i</sub> the number of runs
+         * of the neighbor
+         */
+        UCB,
+        /**
+         * Thompson sampling: the neighbor with the largest value drawn from its Beta distribution is selected
+         */
+        THOMPSON
+    }
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /**
+     * Neighbors declared, and their number
+     */
+    protected final INeighbor[] neighbors;
+    protected final int count;
+    private final IntVar objective;
+    private final Policy policy;
+    private final Random random;
+    private final ThreadMXBean bean;
+    /**
+     * Neighbor currently applied, or -1
+     */
+    private int who;
+    /**
+     * Objective value of the solution the current run started from, and whether it is known
+     */
+    private int reference;
+    private boolean known;
+    /**
+     * Objective improvement of the current run
+     */
+    private long gain;
+    /**
+     * Start time of the current run, in nanoseconds
+     */
+    private long start;
+    /**
+     * Statistics of each neighbor
+     */
+    private final long[] runs, solutions, improvement, time;
+    /**
+     * Sum of the rewards of each neighbor, and parameters of its Beta distribution
+     */
+    private final double[] rewards, alpha, beta;
+    /**
+     * Largest improvement per millisecond observed so far
+     */
+    private double bestRate;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Create an adaptive neighborhood
+     *
+     * @param objective the objective variable
+     * @param policy    the selection policy
+     * @param seed      for randomness
+     * @param neighbors neighbors to select from
+     */
+    public BanditNeighborhood(IntVar objective, Policy policy, long seed, INeighbor... neighbors) {
+        if (neighbors.length == 0) {
+            throw new SolverException("BanditNeighborhood requires at least one neighbor");
+        }
+        this.neighbors = neighbors;
+        this.count = neighbors.length;
+        this.objective = objective;
+        this.policy = policy;
+        this.random = new Random(seed);
+        ThreadMXBean tmx = ManagementFactory.getThreadMXBean();
+        this.bean = tmx.isCurrentThreadCpuTimeSupported() && tmx.isThreadCpuTimeEnabled() ? tmx : null;
+        this.who = -1;
+        this.runs = new long[count];
+        this.solutions = new long[count];
+        this.improvement = new long[count];
+        this.time = new long[count];
+        this.rewards = new double[count];
+        this.alpha = new double[count];
+        this.beta = new double[count];
+        Arrays.fill(alpha, 1d);
+        Arrays.fill(beta, 1d);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public void init() {
+        for (int i = 0; i < count; i++) {
+            neighbors[i].init();
+        }
+    }
+
+    @Override
+    public void recordSolution() {
+        int value = objective.getValue();
+        if (who > -1) {
+            solutions[who]++;
+            if (known) {
+                gain += Math.max(0, improves(value, reference));
+            }
+        }
+        reference = value;
+        known = true;
+        for (int i = 0; i < count; i++) {
+            neighbors[i].recordSolution();
+        }
+    }
+
+    @Override
+    public void loadFromSolution(Solution solution) {
+        try {
+            reference = solution.getIntVal(objective);
+            known = true;
+        } catch (SolverException e) {
+            // the objective is not recorded in the solution, the next improvement cannot be measured
+            known = false;
+        }
+        for (int i = 0; i < count; i++) {
+            neighbors[i].loadFromSolution(solution);
+        }
+    }
+
+    @Override
+    public void fixSomeVariables() throws ContradictionException {
+        endRun();
+        who = select();
+        runs[who]++;
+        gain = 0;
+        start = now();
+        neighbors[who].fixSomeVariables();
+    }
+
+    @Override
+    public void restrictLess() {
+        if (who > -1) {
+            neighbors[who].restrictLess();
+        }
+    }
+
+    @Override
+    public boolean isSearchComplete() {
+        boolean isComplete = false;
+        for (int i = 0; i < count; i++) {
+            isComplete |= neighbors[i].isSearchComplete();
+        }
+        return isComplete;
+    }
+
+    /**
+     * @return how much <i>value</i> improves on <i>than</i>, negative if it is worse
+     */
+    private long improves(int value, int than) {
+        long delta = (long) value - than;
+        return objective.getModel().getResolutionPolicy() == ResolutionPolicy.MAXIMIZE ? delta : -delta;
+    }
+
+    /**
+     * @return current CPU time of the thread, or wall-clock time if not supported, in nanoseconds
+     */
+    private long now() {
+        return bean != null ? bean.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Reward the neighbor applied on the run which ends.
+     */
+    private void endRun() {
+        if (who == -1) {
+            return;
+        }
+        long elapsed = Math.max(0, now() - start);
+        time[who] += elapsed;
+        improvement[who] += gain;
+        double rate = gain / Math.max(elapsed / 1e6, 1e-3);
+        if (rate > bestRate) {
+            bestRate = rate;
+        }
+        double reward = bestRate > 0 ? rate / bestRate : 0d;
+        rewards[who] += reward;
+        if (random.nextDouble() < reward) {
+            alpha[who]++;
+        } else {
+            beta[who]++;
+        }
+    }
+
+    private int select() {
+        int best = 0;
+        double score = Double.NEGATIVE_INFINITY;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += runs[i];
+        }
+        for (int i = 0; i < count; i++) {
+            double s;
+            if (policy == Policy.UCB) {
+                if (runs[i] == 0) {
+                    // each neighbor is applied once first
+                    return i;
+                }
+                s = rewards[i] / runs[i] + Math.sqrt(2 * Math.log(total) / runs[i]);
+            } else {
+                s = sampleBeta(alpha[i], beta[i]);
+            }
+            if (s > score) {
+                score = s;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return a value drawn from Beta(<i>a</i>, <i>b</i>)
+     */
+    private double sampleBeta(double a, double b) {
+        double x = sampleGamma(a);
+        double y = sampleGamma(b);
+        return x / (x + y);
+    }
+
+    /**
+     * Marsaglia and Tsang's method, for a shape at least 1
+     *
+     * @return a value drawn from Gamma(<i>shape</i>, 1)
+     */
+    private double sampleGamma(double shape) {
+        double d = shape - 1. / 3.;
+        double c = 1. / Math.sqrt(9. * d);
+        while (true) {
+            double x, v;
+            do {
+                x = random.nextGaussian();
+                v = 1. + c * x;
+            } while (v <= 0);
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (Math.log(u) < .5 * x * x + d - d * v + d * Math.log(v)) {
+                return d * v;
+            }
+        }
+    }
+
+    //***********************************************************************************
+    // STATISTICS
+    //***********************************************************************************
+
+    /**
+     * @param i index of a neighbor
+     * @return the number of LNS runs where the i<sup>th</sup> neighbor has been applied
+     */
+    public long getRuns(int i) {
+        return runs[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the number of solutions found by runs of the i<sup>th</sup> neighbor
+     */
+    public long getSolutions(int i) {
+        return solutions[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the objective improvement brought by completed runs of the i<sup>th</sup> neighbor
+     */
+    public long getImprovement(int i) {
+        return improvement[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the CPU time spent in completed runs of the i<sup>th</sup> neighbor, in milliseconds
+     */
+    public double getTime(int i) {
+        return time[i] / 1e6;
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the mean reward of the i<sup>th</sup> neighbor, in [0,1]
+     */
+    public double getMeanReward(int i) {
+        return runs[i] == 0 ? 0d : rewards[i] / runs[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("BanditNeighborhood(" + policy + ")");
+        for (int i = 0; i < count; i++) {
+            st.append(String.format("\n\t%s: %d runs, %d solutions, %d improvement, %.1f ms",
+                    neighbors[i].getClass().getSimpleName(), runs[i], solutions[i], improvement[i], getTime(i)));
+        }
+        return st.toString();
+    }
+}
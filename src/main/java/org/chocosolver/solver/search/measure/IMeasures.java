@@ -87,6 +87,36 @@ public interface IMeasures extends Serializable {
      */
     long getBackjumpCount();
 
+    /**
+     * @return the number of clauses learnt so far
+     */
+    long getLearntClauseCount();
+
+    /**
+     * @return the number of learnt clauses removed so far from the clause database
+     */
+    long getDeletedClauseCount();
+
+    /**
+     * @return the number of reductions of the clause database
+     */
+    long getClauseDatabaseReductionCount();
+
+    /**
+     * @return the number of learnt clauses currently in the core tier (never removed)
+     */
+    long getCoreClauseCount();
+
+    /**
+     * @return the number of learnt clauses currently in tier 2 (kept while used)
+     */
+    long getTier2ClauseCount();
+
+    /**
+     * @return the number of learnt clauses currently in the local tier (reduced by activity)
+     */
+    long getLocalClauseCount();
+
     /**
      * @return the restart count
      */
@@ -221,6 +251,17 @@ public interface IMeasures extends Serializable {
                 getFailCount(),
                 getRestartCount()
         ));
+        if (getLearntClauseCount() > 0) {
+            st.append(String.format("\n\tLearnt clauses: %,d (core: %,d, tier 2: %,d, local: %,d)\n" +
+                            "\tDeleted clauses: %,d (%,d reductions)",
+                    getLearntClauseCount(),
+                    getCoreClauseCount(),
+                    getTier2ClauseCount(),
+                    getLocalClauseCount(),
+                    getDeletedClauseCount(),
+                    getClauseDatabaseReductionCount()
+            ));
+        }
         return st.toString();
     }
 
@@ -102,6 +102,26 @@ public class Measures implements IMeasures, Cloneable {
      */
     protected long backjumpCount;
 
+    /**
+     * Counts the number of clauses learnt so far.
+     */
+    protected long learntClauseCount;
+
+    /**
+     * Counts the number of learnt clauses removed so far.
+     */
+    protected long deletedClauseCount;
+
+    /**
+     * Counts the number of reductions of the clause database.
+     */
+    protected long clauseDatabaseReductionCount;
+
+    /**
+     * Stores the number of learnt clauses in each tier of the clause database
+     */
+    protected long coreClauseCount, tier2ClauseCount, localClauseCount;
+
     //***********************************************************************************
     // CONSTRUCTOR
     //***********************************************************************************
@@ -136,6 +156,12 @@ public class Measures implements IMeasures, Cloneable {
         failCount = measures.getFailCount();
         depth = measures.getCurrentDepth();
         maxDepth = measures.getMaxDepth();
+        learntClauseCount = measures.getLearntClauseCount();
+        deletedClauseCount = measures.getDeletedClauseCount();
+        clauseDatabaseReductionCount = measures.getClauseDatabaseReductionCount();
+        coreClauseCount = measures.getCoreClauseCount();
+        tier2ClauseCount = measures.getTier2ClauseCount();
+        localClauseCount = measures.getLocalClauseCount();
     }
 
     //****************************************************************************************************************//
@@ -163,6 +189,36 @@ public class Measures implements IMeasures, Cloneable {
         return backjumpCount;
     }
 
+    @Override
+    public long getLearntClauseCount() {
+        return learntClauseCount;
+    }
+
+    @Override
+    public long getDeletedClauseCount() {
+        return deletedClauseCount;
+    }
+
+    @Override
+    public long getClauseDatabaseReductionCount() {
+        return clauseDatabaseReductionCount;
+    }
+
+    @Override
+    public long getCoreClauseCount() {
+        return coreClauseCount;
+    }
+
+    @Override
+    public long getTier2ClauseCount() {
+        return tier2ClauseCount;
+    }
+
+    @Override
+    public long getLocalClauseCount() {
+        return localClauseCount;
+    }
+
     @Override
     public final long getNodeCount() {
         return nodeCount;
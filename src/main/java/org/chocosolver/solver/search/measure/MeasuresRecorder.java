@@ -106,6 +106,9 @@ public final class MeasuresRecorder extends Measures {
         restartCount = 0;
         depth = 0;
         maxDepth = 0;
+        learntClauseCount = 0;
+        deletedClauseCount = 0;
+        clauseDatabaseReductionCount = 0;
     }
 
     //****************************************************************************************************************//
@@ -136,6 +139,40 @@ public final class MeasuresRecorder extends Measures {
         backjumpCount++;
     }
 
+    /**
+     * increment learnt clause counter
+     */
+    public final void incLearntClauseCount() {
+        learntClauseCount++;
+    }
+
+    /**
+     * increment deleted clause counter
+     * @param n number of learnt clauses removed
+     */
+    public final void incDeletedClauseCount(int n) {
+        deletedClauseCount += n;
+    }
+
+    /**
+     * increment clause database reduction counter
+     */
+    public final void incClauseDatabaseReductionCount() {
+        clauseDatabaseReductionCount++;
+    }
+
+    /**
+     * Update the number of learnt clauses in each tier of the clause database
+     * @param core number of core clauses
+     * @param tier2 number of tier-2 clauses
+     * @param local number of local clauses
+     */
+    public final void setClauseDatabaseSizes(long core, long tier2, long local) {
+        this.coreClauseCount = core;
+        this.tier2ClauseCount = tier2;
+        this.localClauseCount = local;
+    }
+
     /**
      * increment fail counter
      */
@@ -37,6 +37,7 @@ import org.chocosolver.solver.search.strategy.selectors.values.SetValueSelector;
 import org.chocosolver.solver.search.strategy.selectors.variables.ActivityBased;
 import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
 import org.chocosolver.solver.search.strategy.selectors.variables.DomOverWDeg;
+import org.chocosolver.solver.search.strategy.selectors.variables.DomOverWDegRef;
 import org.chocosolver.solver.search.strategy.selectors.variables.FirstFail;
 import org.chocosolver.solver.search.strategy.selectors.variables.GeneralizedMinDomVarSelector;
 import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
@@ -324,6 +325,18 @@ public class Search {
         return new DomOverWDeg(vars, 0, new IntDomainMin());
     }
 
+    /**
+     * Assignment strategy which selects a variable according to <code>DomOverWDegRef</code>,
+     * that is dom/wdeg with the ca.cd weighting, and assign it to its lower bound.
+     * Variables are selected incrementally, which pays off on large sets of variables.
+     *
+     * @param vars list of variables
+     * @return assignment strategy
+     */
+    public static AbstractStrategy<IntVar> domOverWDegRefSearch(IntVar... vars) {
+        return new DomOverWDegRef(vars, 0, new IntDomainMin());
+    }
+
     /**
      * Create an Activity based search strategy.
      * <p>
@@ -0,0 +1,146 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+/**
+ * Incremental implementation of DowOverWDeg[1], for large sets of decision variables.
+ * <p>
+ * Instead of scanning all variables on each decision, as {@link DomOverWDeg} does,
+ * the weighted degree of each variable is maintained on failure and
+ * the variables are stored in a {@link ScoreHeap}, updated on domain events,
+ * so that a variable is selected in O(log n).
+ * <p>
+ * The weighted degree of a variable is increased on each failure of one of its propagators.
+ * Unlike {@link DomOverWDeg}, it does not exclude propagators with only one uninstantiated variable,
+ * since that would require to update the scores of all variables of a propagator on each instantiation.
+ * Ties are broken randomly, based on a fixed random order of the variables.
+ * <p>
+ * [1]: F. Boussemart, F. Hemery, C. Lecoutre, and L. Sais, Boosting Systematic Search by Weighting
+ * Constraints, ECAI-04. <br/>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class DomOverWDegIncr extends AbstractStrategy<IntVar> implements IMonitorContradiction {
+
+    /**
+     * The way value is selected for a given variable
+     */
+    private final IntValueSelector valueSelector;
+
+    /**
+     * Weighted degree of each variable
+     */
+    protected final double[] weights;
+
+    /**
+     * Uninstantiated variables, ordered by decreasing ratio weighted degree / domain size
+     */
+    protected final ScoreHeap heap;
+
+    /**
+     * Creates an incremental DomOverWDeg variable selector
+     *
+     * @param variables     decision variables
+     * @param seed          seed for breaking ties randomly
+     * @param valueSelector a value selector
+     */
+    public DomOverWDegIncr(IntVar[] variables, long seed, IntValueSelector valueSelector) {
+        super(variables);
+        this.valueSelector = valueSelector;
+        this.weights = new double[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            weights[i] = 1.;
+        }
+        this.heap = new ScoreHeap(vars, i -> weights[i] / vars[i].getDomainSize(), seed);
+    }
+
+    @Override
+    public boolean init() {
+        Solver solver = vars[0].getModel().getSolver();
+        if (!solver.getSearchMonitors().contains(this)) {
+            solver.plugMonitor(this);
+            heap.plug();
+        }
+        return true;
+    }
+
+    @Override
+    public void remove() {
+        Solver solver = vars[0].getModel().getSolver();
+        if (solver.getSearchMonitors().contains(this)) {
+            solver.unplugMonitor(this);
+            heap.unplug();
+        }
+    }
+
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        if (cex.c instanceof Propagator) {
+            Propagator<?> p = (Propagator<?>) cex.c;
+            int fut = p.arity();
+            Variable[] pvars = p.getVars();
+            for (int k = 0; k < pvars.length; k++) {
+                for (int i = heap.indexOf(pvars[k].getId()); i > -1; i = heap.nextIndex(i)) {
+                    double inc = increment(i, fut);
+                    if (inc > 0.) {
+                        weights[i] += inc;
+                        heap.touch(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param i   index of a variable of a propagator which has just failed
+     * @param fut number of uninstantiated variables of the propagator
+     * @return the increment of the weighted degree of the i<sup>th</sup> variable
+     */
+    protected double increment(int i, int fut) {
+        return 1.;
+    }
+
+    /**
+     * @param var a decision variable
+     * @return the weighted degree of <i>var</i>, or 0 if <i>var</i> is not a decision variable
+     */
+    public double getWeightedDegree(IntVar var) {
+        int i = heap.indexOf(var.getId());
+        return i > -1 ? weights[i] : 0.;
+    }
+
+    @Override
+    public Decision<IntVar> computeDecision(IntVar variable) {
+        if (variable == null || variable.isInstantiated()) {
+            return null;
+        }
+        int currentVal = valueSelector.selectValue(variable);
+        return variable.getModel().getSolver().getDecisionPath().makeIntDecision(variable, DecisionOperatorFactory.makeIntEq(), currentVal);
+    }
+
+    @Override
+    public Decision<IntVar> getDecision() {
+        int i = heap.best();
+        return computeDecision(i > -1 ? vars[i] : null);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Incremental implementation of dom/wdeg<sup>ca.cd</sup>[1], a refinement of DowOverWDeg.
+ * <p>
+ * On failure of a propagator <i>c</i>, the weighted degree of each uninstantiated variable <i>x</i> of <i>c</i>
+ * is increased by 1 / (|fut(c)| * |dom(x)|), where fut(c) are the uninstantiated variables of <i>c</i>:
+ * variables of propagators with a few uninstantiated variables and small domains, which are likely
+ * to be responsible for the failure, are rewarded more than the others.
+ * <p>
+ * [1]: H. Wattez, C. Lecoutre, A. Paparrizou, and S. Tabary, Refining Constraint Weighting, ICTAI-19. <br/>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class DomOverWDegRef extends DomOverWDegIncr {
+
+    /**
+     * Creates a dom/wdeg<sup>ca.cd</sup> variable selector
+     *
+     * @param variables     decision variables
+     * @param seed          seed for breaking ties randomly
+     * @param valueSelector a value selector
+     */
+    public DomOverWDegRef(IntVar[] variables, long seed, IntValueSelector valueSelector) {
+        super(variables, seed, valueSelector);
+    }
+
+    @Override
+    protected double increment(int i, int fut) {
+        if (vars[i].isInstantiated()) {
+            return 0.;
+        }
+        return 1. / (Math.max(fut, 1) * vars[i].getDomainSize());
+    }
+}
@@ -68,6 +68,8 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
 
     private int idx = 0;
 
+    private ScoreHeap heap; // uninstantiated variables ordered by impact, when selection is incremental
+
     /**
      * Create an Impact-based search strategy with Node Impact strategy.
      * <p/>
@@ -82,6 +84,27 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
      * @param initOnly   only apply the initialisation phase, do not update impact thereafter
      */
     public ImpactBased(IntVar[] ivariables, int alpha, int split, int nodeImpact, long seed, boolean initOnly) { //TODO: node impacts
+        this(ivariables, alpha, split, nodeImpact, seed, initOnly, false);
+    }
+
+    /**
+     * Create an Impact-based search strategy with Node Impact strategy.
+     * <p/>
+     * When <i>incremental</i> is set to <i>true</i>, the impact of variables are stored in a {@link ScoreHeap},
+     * updated on domain events and impact updates, so that a variable is selected in O(log n)
+     * instead of computing the impact of all variables on each decision.
+     * Ties are then broken by a random order of the variables, fixed on construction.
+     *
+     * @param ivariables  variables of the problem (should be integers)
+     * @param alpha       aging parameter
+     * @param split       split parameter for subdomains computation
+     * @param nodeImpact  force update of impacts every <code>nodeImpact</code> nodes. Set value to 0 to avoid using it.
+     * @param seed        a seed for random
+     * @param initOnly    only apply the initialisation phase, do not update impact thereafter
+     * @param incremental maintain the impacts of variables incrementally
+     */
+    public ImpactBased(IntVar[] ivariables, int alpha, int split, int nodeImpact, long seed, boolean initOnly,
+                       boolean incremental) {
         super(ivariables);
         this.model = ivariables[0].getModel();
         this.aging = alpha;
@@ -90,6 +113,9 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
         random = new Random(seed);
         this.nodeImpact = nodeImpact;
         this.initOnly = initOnly;
+        if (incremental) {
+            this.heap = new ScoreHeap(vars, this::computeImpact, seed);
+        }
     }
 
     public ImpactBased(IntVar[] vars, boolean initOnly){
@@ -141,6 +167,13 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
     public Decision<IntVar> getDecision() {
         reevaluateImpact();
         IntVar best = null;
+        if (heap != null) {
+            currentVar = heap.best();
+            if (currentVar > -1) {
+                best = vars[currentVar];
+            }
+            return computeDecision(best);
+        }
         // 1. first select the variable with the largest impact
         bests.clear();
         double bestImpact = Double.NEGATIVE_INFINITY;
@@ -255,6 +288,9 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
                 }
             }
         }
+        if (heap != null) {
+            heap.plug();
+        }
         if (learnsAndFails) {
             // If the initialisation detects a failure, then the problem has no solution!
             learnsAndFails = false;
@@ -283,6 +319,9 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
         if (!initOnly && model.getSolver().getSearchMonitors().contains(this)) {
             model.getSolver().unplugMonitor(this);
         }
+        if (heap != null) {
+            heap.unplug();
+        }
     }
 
     @Override
@@ -412,6 +451,9 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
         impact /= aging;
         assert !Double.isNaN(impact);
         Ilabel[varIdx][valIdx] = impact;
+        if (heap != null) {
+            heap.touch(varIdx);
+        }
     }
 
     private void reevaluateImpact() {
@@ -0,0 +1,233 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.variables.IVariableMonitor;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.util.objects.IntMap;
+import org.chocosolver.util.objects.queues.IndexedMaxHeap;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * An indexed priority heap of uninstantiated variables, ordered by decreasing score,
+ * which is maintained incrementally to select the best variable in O(log n) instead of scanning all variables.
+ * <p>
+ * The score of a variable is given by a function and is assumed to only depend on the domain of the variable
+ * and on data declared to have changed with {@link #touch(int)}.
+ * The score of a variable is computed again on the next call to {@link #best()} when:
+ * <ul>
+ * <li>its domain is modified (this object monitors the variables, see {@link #plug()}),</li>
+ * <li>its domain is restored on backtrack: modified variables are recorded in a trailed stack,
+ * entries of worlds which have been undone are detected by comparing the size of the stack to its largest size,</li>
+ * <li>{@link #touch(int)} is called.</li>
+ * </ul>
+ * Ties are broken by a random order of the variables, drawn on construction.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class ScoreHeap implements IVariableMonitor<IntVar> {
+
+    /**
+     * Variables to select from
+     */
+    private final IntVar[] vars;
+    /**
+     * Score of each variable, given its index, the larger the better
+     */
+    private final IntToDoubleFunction score;
+    /**
+     * Uninstantiated variables, by rank
+     */
+    private final IndexedMaxHeap heap;
+    /**
+     * Rank of each variable, to break ties, and variable of each rank
+     */
+    private final int[] rank, order;
+    /**
+     * Map (variable id - index of the variable), the next index of the same variable is given by {@link #twin}
+     */
+    private final IntMap v2i;
+    private final int[] twin;
+    private final IEnvironment environment;
+    /**
+     * Variables modified in the current branch, at most once per world, in <code>modified[0..size)</code>
+     */
+    private int[] modified;
+    private final IStateInt size;
+    /**
+     * Largest size of {@link #modified} since the last call to {@link #best()}
+     */
+    private int highWater;
+    /**
+     * Time stamp of the last record of each variable
+     */
+    private final int[] stamps;
+    /**
+     * Variables whose score has to be computed again
+     */
+    private final int[] dirty;
+    private int nbDirty;
+    private final BitSet isDirty;
+
+    /**
+     * Create a heap of variables, monitoring must be started with {@link #plug()}.
+     *
+     * @param vars  variables to select from
+     * @param score score of a variable, given its index in <i>vars</i>, the larger the better
+     * @param seed  seed to break ties randomly
+     */
+    public ScoreHeap(IntVar[] vars, IntToDoubleFunction score, long seed) {
+        this.vars = vars;
+        this.score = score;
+        int n = vars.length;
+        this.heap = new IndexedMaxHeap(n);
+        this.rank = new int[n];
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        for (int r = 0; r < n; r++) {
+            rank[order[r]] = r;
+        }
+        this.v2i = new IntMap(n * 3 / 2 + 1, -1);
+        this.twin = new int[n];
+        for (int i = 0; i < n; i++) {
+            twin[i] = v2i.get(vars[i].getId());
+            v2i.put(vars[i].getId(), i);
+        }
+        this.environment = vars[0].getModel().getEnvironment();
+        this.modified = new int[n];
+        this.size = environment.makeInt(0);
+        this.stamps = new int[n];
+        for (int i = 0; i < n; i++) {
+            stamps[i] = -1;
+        }
+        this.dirty = new int[n];
+        this.isDirty = new BitSet(n);
+    }
+
+    /**
+     * Start monitoring the variables, all scores are computed on the next call to {@link #best()}.
+     */
+    public void plug() {
+        for (int i = 0; i < vars.length; i++) {
+            vars[i].addMonitor(this);
+        }
+        touchAll();
+    }
+
+    /**
+     * Stop monitoring the variables.
+     */
+    public void unplug() {
+        for (int i = 0; i < vars.length; i++) {
+            vars[i].removeMonitor(this);
+        }
+    }
+
+    /**
+     * @param vid id of a variable
+     * @return the index of the variable in the array given on construction, or -1 if it is not selected from.
+     * If the variable appears many times, other indices are given by {@link #nextIndex(int)}.
+     */
+    public int indexOf(int vid) {
+        return v2i.get(vid);
+    }
+
+    /**
+     * @param i index of a variable
+     * @return another index of the same variable, or -1
+     */
+    public int nextIndex(int i) {
+        return twin[i];
+    }
+
+    /**
+     * Declare that the score of the i<sup>th</sup> variable has changed.
+     *
+     * @param i index of a variable
+     */
+    public void touch(int i) {
+        if (!isDirty.get(i)) {
+            isDirty.set(i);
+            dirty[nbDirty++] = i;
+        }
+    }
+
+    /**
+     * Declare that the scores of all variables have changed.
+     */
+    public void touchAll() {
+        for (int i = 0; i < vars.length; i++) {
+            touch(i);
+        }
+    }
+
+    @Override
+    public void onUpdate(IntVar var, IEventType evt) {
+        int ts = environment.getTimeStamp();
+        for (int i = v2i.get(var.getId()); i > -1; i = twin[i]) {
+            touch(i);
+            if (stamps[i] != ts) {
+                stamps[i] = ts;
+                int p = size.get();
+                if (p < highWater) {
+                    // the entry belongs to an undone world
+                    touch(modified[p]);
+                } else if (p == modified.length) {
+                    int[] tmp = modified;
+                    modified = new int[tmp.length * 3 / 2 + 1];
+                    System.arraycopy(tmp, 0, modified, 0, p);
+                }
+                modified[p++] = i;
+                size.set(p);
+                highWater = Math.max(highWater, p);
+            }
+        }
+    }
+
+    /**
+     * @return the index of the uninstantiated variable with the largest score, or -1 if all variables are instantiated
+     */
+    public int best() {
+        int p = size.get();
+        for (int k = p; k < highWater; k++) {
+            touch(modified[k]);
+        }
+        highWater = p;
+        for (int k = 0; k < nbDirty; k++) {
+            int i = dirty[k];
+            isDirty.clear(i);
+            if (vars[i].isInstantiated()) {
+                heap.remove(rank[i]);
+            } else {
+                heap.set(rank[i], score.applyAsDouble(i));
+            }
+        }
+        nbDirty = 0;
+        int r = heap.peek();
+        return r == -1 ? -1 : order[r];
+    }
+}
@@ -10,6 +10,7 @@
 package org.chocosolver.solver.variables.delta;
 
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.procedure.IndexedIntProcedure;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
@@ -35,6 +36,16 @@ public interface IIntDeltaMonitor extends IDeltaMonitor {
 
     void forEachRemVal(IntProcedure proc) throws ContradictionException;
 
+    /**
+     * Apply 'proc' on each value removed, after having set its context to 'idx'. Filtering allowed
+     * @param proc a procedure
+     * @param idx the context of 'proc', typically the index of the variable in the propagator
+     * @throws ContradictionException if contradiction occurs
+     */
+    default void forEachRemVal(IndexedIntProcedure proc, int idx) throws ContradictionException {
+        forEachRemVal(proc.set(idx));
+    }
+
 	/**
      * @return a rough estimation of the number of removed values 
      */
@@ -28,6 +28,7 @@ import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.chocosolver.util.objects.setDataStructures.Set_ReadOnly;
+import org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_DenseBitSet;
 
 /**
  * Set variable to represent a set of integers, i.e. a value is a set
@@ -51,7 +52,10 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
     //***********************************************************************************
 
 	/**
-	 * Creates a Set variable
+	 * Creates a Set variable.
+	 * When both data structures are {@link SetType#BITSET} and the envelope spans no more than
+	 * {@link org.chocosolver.solver.Settings#getMaxSizeForDenseSetVars()} values,
+	 * the kernel and the envelope are stored as dense bitsets over that universe.
 	 *
 	 * @param name		name of the variable
 	 * @param ker		initial kernel domain
@@ -65,13 +69,26 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
 		ker = new TIntHashSet(ker).toArray();
 		env = new TIntHashSet(env).toArray();
 		int offSet = env.length>0?env[0]:0;
+		int max = offSet;
 		for(int i:env){
 			offSet = Math.min(offSet,i);
+			max = Math.max(max,i);
+		}
+		if (kerType == SetType.BITSET && envType == SetType.BITSET && env.length > 0
+				&& (long) max - offSet < model.getSettings().getMaxSizeForDenseSetVars()) {
+			// small universe: dense bitsets, readable word by word through the read-only views
+			Set_Std_DenseBitSet denseLB = new Set_Std_DenseBitSet(model.getEnvironment(), offSet, max);
+			Set_Std_DenseBitSet denseUB = new Set_Std_DenseBitSet(model.getEnvironment(), offSet, max);
+			lb = denseLB;
+			ub = denseUB;
+			lbReadOnly = denseLB.readOnly();
+			ubReadOnly = denseUB.readOnly();
+		} else {
+			lb = SetFactory.makeStoredSet(kerType, offSet, model);
+			ub = SetFactory.makeStoredSet(envType, offSet, model);
+			lbReadOnly = new Set_ReadOnly(lb);
+			ubReadOnly = new Set_ReadOnly(ub);
 		}
-		lb = SetFactory.makeStoredSet(kerType, offSet, model);
-		ub = SetFactory.makeStoredSet(envType, offSet, model);
-		lbReadOnly = new Set_ReadOnly(lb);
-		ubReadOnly = new Set_ReadOnly(ub);
 		for(int i:env){
 			ub.add(i);
 		}
@@ -10,12 +10,20 @@
 package org.chocosolver.util.objects.graphs;
 
 import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
 import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
 import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
 
 /**
  * A Multi-valued Decision Diagram (MDD for short) to store
@@ -57,6 +65,12 @@ public class MultivaluedDecisionDiagram  {
      */
     private int nextFreeCell;
 
+    /**
+     * Cells before this one may belong to nodes shared by several parents since the last reduction,
+     * such nodes are copied before adding a tuple through them
+     */
+    private int frozen;
+
     private final boolean compactOnce;
     private final boolean sortTuples;
 
@@ -167,6 +181,122 @@ public class MultivaluedDecisionDiagram  {
         init(TRANSITIONS);
     }
 
+    /**
+     * Create an MDD storing the words of length VARIABLES.length recognized by an automaton,
+     * based on the current domains of VARIABLES. The MDD is then reduced.
+     * Non-deterministic automata are determinized on the fly, layer by layer.
+     *
+     * @param VARIABLES array of variables
+     * @param AUTOMATON an automaton
+     */
+    public MultivaluedDecisionDiagram(IntVar[] VARIABLES, IAutomaton AUTOMATON) {
+        this(flattenDomain(VARIABLES));
+        TIntHashSet nexts = new TIntHashSet();
+        ArrayList<BitSet> states = new ArrayList<>();
+        TIntArrayList nodes = new TIntArrayList();
+        BitSet initial = new BitSet();
+        initial.set(AUTOMATON.getInitialState());
+        states.add(initial);
+        nodes.add(0);
+        for (int i = 0; i < nbLayers; i++) {
+            HashMap<BitSet, Integer> children = new HashMap<>();
+            ArrayList<BitSet> nstates = new ArrayList<>();
+            TIntArrayList nnodes = new TIntArrayList();
+            for (int k = 0; k < nodes.size(); k++) {
+                BitSet from = states.get(k);
+                int node = nodes.get(k);
+                int ub = VARIABLES[i].getUB();
+                for (int v = VARIABLES[i].getLB(); v <= ub; v = VARIABLES[i].nextValue(v)) {
+                    BitSet to = new BitSet();
+                    for (int q = from.nextSetBit(0); q >= 0; q = from.nextSetBit(q + 1)) {
+                        nexts.clear();
+                        AUTOMATON.delta(q, v, nexts);
+                        for (int r : nexts.toArray()) {
+                            to.set(r);
+                        }
+                    }
+                    if (i + 1 == nbLayers) { // if this is the last variable => terminal node
+                        for (int q = to.nextSetBit(0); q >= 0; q = to.nextSetBit(q + 1)) {
+                            if (AUTOMATON.isFinal(q)) {
+                                mdd[node + v - offsets[i]] = TERMINAL;
+                                break;
+                            }
+                        }
+                    } else if (!to.isEmpty()) { // otherwise, share the node of the same set of states
+                        Integer child = children.get(to);
+                        if (child == null) {
+                            child = nextFreeCell;
+                            ensureCapacity(nextFreeCell + sizes[i + 1]);
+                            nextFreeCell += sizes[i + 1];
+                            children.put(to, child);
+                            nstates.add(to);
+                            nnodes.add(child);
+                        }
+                        mdd[node + v - offsets[i]] = child;
+                    }
+                }
+            }
+            states = nstates;
+            nodes = nnodes;
+        }
+        reduce();
+    }
+
+    /**
+     * Create an MDD based on an array of flatten domains and a stream of tuples,
+     * without storing the tuples. The MDD is reduced periodically while tuples are added, and at the end.
+     *
+     * @param VARIABLES array of variables
+     * @param TUPLES    iterator over (allowed) tuples, a tuple is not read anymore once the next one is requested
+     */
+    public MultivaluedDecisionDiagram(IntVar[] VARIABLES, Iterator<int[]> TUPLES) {
+        this(flattenDomain(VARIABLES), TUPLES);
+    }
+
+    /**
+     * Create an MDD based on an array of flatten domains and a stream of tuples,
+     * without storing the tuples. The MDD is reduced periodically while tuples are added, and at the end.
+     *
+     * @param FLATDOM array of flatten domains
+     * @param TUPLES  iterator over (allowed) tuples, a tuple is not read anymore once the next one is requested
+     */
+    public MultivaluedDecisionDiagram(int[][] FLATDOM, Iterator<int[]> TUPLES) {
+        this(FLATDOM);
+        int limit = Math.max(mdd.length, 1 << 16);
+        while (TUPLES.hasNext()) {
+            addTuple(TUPLES.next());
+            if (nextFreeCell > limit) {
+                reduce();
+                limit = Math.max(limit, 2 * nextFreeCell);
+            }
+        }
+        reduce();
+    }
+
+    /**
+     * Create an empty MDD based on an array of flatten domains
+     *
+     * @param FLATDOM array of flatten domains
+     */
+    private MultivaluedDecisionDiagram(int[][] FLATDOM) {
+        this.nbLayers = FLATDOM.length;
+        this.offsets = new int[nbLayers];
+        this.sizes = new int[nbLayers];
+        this.compactOnce = true;
+        this.sortTuples = false;
+        int maxDom = 0;
+        for (int i = 0; i < nbLayers; i++) {
+            offsets[i] = FLATDOM[i][0];
+            sizes[i] = FLATDOM[i][FLATDOM[i].length - 1] - FLATDOM[i][0] + 1;
+            if (maxDom < sizes[i]) {
+                maxDom = sizes[i];
+            }
+        }
+        mdd = new int[nbLayers * maxDom];
+        nextFreeCell = sizes[0];
+        _pos = new int[nbLayers];
+    }
+
     @SuppressWarnings("unchecked")
     private void init(Tuples TUPLES) {
         nextFreeCell = sizes[0];
@@ -224,6 +354,12 @@ public class MultivaluedDecisionDiagram  {
                     nextFreeCell += sizes[i + 1];
                 }
             } else { // if the child already exists
+                if (i + 1 < nbLayers && mdd[p] < frozen) { // and may be shared, it is copied first
+                    ensureCapacity(nextFreeCell + sizes[i + 1]);
+                    System.arraycopy(mdd, mdd[p], mdd, nextFreeCell, sizes[i + 1]);
+                    mdd[p] = nextFreeCell;
+                    nextFreeCell += sizes[i + 1];
+                }
                 p = mdd[p];
             }
         }
@@ -459,6 +595,188 @@ public class MultivaluedDecisionDiagram  {
         }
     }
 
+    /**
+     * Reduce the MDD: nodes which do not lead to the terminal node are removed,
+     * and nodes with the same children are merged, layer by layer from the last one.
+     * Unlike the compaction applied to MDDs built from tuples, this handles nodes shared by several parents,
+     * and runs in time linear in the size of the MDD.
+     */
+    public void reduce() {
+        // nodes of each layer, from the root
+        TIntArrayList[] layers = new TIntArrayList[nbLayers];
+        BitSet visited = new BitSet(nextFreeCell);
+        layers[0] = new TIntArrayList();
+        layers[0].add(0);
+        for (int i = 0; i + 1 < nbLayers; i++) {
+            layers[i + 1] = new TIntArrayList();
+            for (int k = 0; k < layers[i].size(); k++) {
+                int node = layers[i].get(k);
+                for (int j = 0; j < sizes[i]; j++) {
+                    int child = mdd[node + j];
+                    if (child > EMPTY && !visited.get(child)) {
+                        visited.set(child);
+                        layers[i + 1].add(child);
+                    }
+                }
+            }
+        }
+        // merge nodes with the same children, from the last layer
+        int[] reps = new int[nextFreeCell];
+        int size = 0;
+        for (int i = nbLayers - 1; i >= 0; i--) {
+            HashMap<Node, Integer> known = new HashMap<>();
+            for (int k = 0; k < layers[i].size(); k++) {
+                int node = layers[i].get(k);
+                boolean empty = true;
+                for (int j = 0; j < sizes[i]; j++) {
+                    if (mdd[node + j] > EMPTY) {
+                        mdd[node + j] = reps[mdd[node + j]];
+                    }
+                    empty &= mdd[node + j] == EMPTY;
+                }
+                if (empty && i > 0) {
+                    reps[node] = EMPTY;
+                } else {
+                    Integer rep = known.putIfAbsent(new Node(node, sizes[i]), node);
+                    reps[node] = rep == null ? node : rep;
+                    if (rep == null) {
+                        size += sizes[i];
+                    }
+                }
+            }
+        }
+        // copy the remaining nodes, layer by layer
+        int[] compacted = new int[size];
+        int[] positions = new int[nextFreeCell];
+        int next = 0;
+        for (int i = 0; i < nbLayers; i++) {
+            for (int k = 0; k < layers[i].size(); k++) {
+                int node = layers[i].get(k);
+                if (reps[node] == node) {
+                    positions[node] = next;
+                    System.arraycopy(mdd, node, compacted, next, sizes[i]);
+                    next += sizes[i];
+                }
+            }
+        }
+        for (int c = 0; c < next; c++) {
+            if (compacted[c] > EMPTY) {
+                compacted[c] = positions[compacted[c]];
+            }
+        }
+        mdd = compacted;
+        nextFreeCell = next;
+        frozen = next;
+    }
+
+    /**
+     * A node of the diagram, compared with other nodes of the same layer by its children
+     */
+    private final class Node {
+        private final int node;
+        private final int size;
+
+        private Node(int node, int size) {
+            this.node = node;
+            this.size = size;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 1;
+            for (int j = 0; j < size; j++) {
+                h = 31 * h + mdd[node + j];
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) o;
+            for (int j = 0; j < size; j++) {
+                if (mdd[node + j] != mdd[other.node + j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Merge this MDD with another one, defined over the same number of variables.
+     * The resulting MDD, which is reduced, stores the tuples of both; the two MDDs are not modified.
+     *
+     * @param MDD another MDD
+     * @return a new MDD, union of this and MDD
+     */
+    public MultivaluedDecisionDiagram merge(MultivaluedDecisionDiagram MDD) {
+        if (MDD.nbLayers != nbLayers) {
+            throw new SolverException("Cannot merge MDDs over " + nbLayers + " and " + MDD.nbLayers + " variables");
+        }
+        int[][] flatdom = new int[nbLayers][];
+        for (int i = 0; i < nbLayers; i++) {
+            flatdom[i] = new int[]{
+                    Math.min(offsets[i], MDD.offsets[i]),
+                    Math.max(offsets[i] + sizes[i], MDD.offsets[i] + MDD.sizes[i]) - 1};
+        }
+        MultivaluedDecisionDiagram merged = new MultivaluedDecisionDiagram(flatdom);
+        // a node of the merged MDD stands for a pair of nodes of this and MDD
+        TLongArrayList pairs = new TLongArrayList();
+        TIntArrayList nodes = new TIntArrayList();
+        pairs.add(0L);
+        nodes.add(0);
+        for (int i = 0; i < nbLayers; i++) {
+            TLongIntHashMap children = new TLongIntHashMap();
+            TLongArrayList npairs = new TLongArrayList();
+            TIntArrayList nnodes = new TIntArrayList();
+            for (int k = 0; k < pairs.size(); k++) {
+                int n1 = (int) (pairs.get(k) >>> 32);
+                int n2 = (int) pairs.get(k);
+                int node = nodes.get(k);
+                for (int j = 0; j < merged.sizes[i]; j++) {
+                    int v = merged.offsets[i] + j;
+                    int c1 = child(n1, i, v);
+                    int c2 = MDD.child(n2, i, v);
+                    if (c1 == EMPTY && c2 == EMPTY) {
+                        continue;
+                    }
+                    if (i + 1 == nbLayers) { // if this is the last variable => terminal node
+                        merged.mdd[node + j] = TERMINAL;
+                    } else {
+                        long pair = ((long) c1 << 32) | (c2 & 0xFFFFFFFFL);
+                        int child = children.get(pair);
+                        if (child == EMPTY) {
+                            child = merged.nextFreeCell;
+                            merged.ensureCapacity(merged.nextFreeCell + merged.sizes[i + 1]);
+                            merged.nextFreeCell += merged.sizes[i + 1];
+                            children.put(pair, child);
+                            npairs.add(pair);
+                            nnodes.add(child);
+                        }
+                        merged.mdd[node + j] = child;
+                    }
+                }
+            }
+            pairs = npairs;
+            nodes = nnodes;
+        }
+        merged.reduce();
+        return merged;
+    }
+
+    /**
+     * @return the child of node, in layer, for value, EMPTY if there is none
+     */
+    private int child(int node, int layer, int value) {
+        if ((node == EMPTY && layer > 0) || value < offsets[layer] || value >= offsets[layer] + sizes[layer]) {
+            return EMPTY;
+        }
+        return mdd[node + value - offsets[layer]];
+    }
+
     /**
      * Return the diagram (not a copy) of the MDD
      */
@@ -0,0 +1,219 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.queues;
+
+/**
+ * A binary max-heap of integers in [0, n-1], each of them being associated with a key.
+ * <p>
+ * The position of each element in the heap is stored, so that an element can be removed
+ * or its key can be changed in O(log n).
+ * Among elements with the same key, the smallest element has the highest priority.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class IndexedMaxHeap {
+
+    //***********************************************************************************
+    // VARIABLE
+    //***********************************************************************************
+
+    /**
+     * Elements, in heap order
+     */
+    private final int[] heap;
+    /**
+     * Position of each element in {@link #heap}, or -1 if the element is not in the heap
+     */
+    private final int[] position;
+    /**
+     * Key of each element
+     */
+    private final double[] keys;
+    /**
+     * Number of elements in the heap
+     */
+    private int size;
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Create an empty heap
+     *
+     * @param n elements are in [0, n-1]
+     */
+    public IndexedMaxHeap(int n) {
+        heap = new int[n];
+        position = new int[n];
+        keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            position[i] = -1;
+        }
+    }
+
+    //***********************************************************************************
+    // API
+    //***********************************************************************************
+
+    /**
+     * @return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return <i>true</i> if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param e an element
+     * @return <i>true</i> if <i>e</i> is in the heap
+     */
+    public boolean contains(int e) {
+        return position[e] != -1;
+    }
+
+    /**
+     * @param e an element
+     * @return the key of <i>e</i>, meaningless if <i>e</i> is not in the heap
+     */
+    public double getKey(int e) {
+        return keys[e];
+    }
+
+    /**
+     * Add <i>e</i> with the key <i>key</i>, or change its key if <i>e</i> is already in the heap.
+     *
+     * @param e   an element
+     * @param key its key
+     */
+    public void set(int e, double key) {
+        int p = position[e];
+        if (p == -1) {
+            keys[e] = key;
+            p = size++;
+            heap[p] = e;
+            position[e] = p;
+            siftUp(p);
+        } else {
+            double old = keys[e];
+            keys[e] = key;
+            if (key > old) {
+                siftUp(p);
+            } else if (key < old) {
+                siftDown(p);
+            }
+        }
+    }
+
+    /**
+     * Remove <i>e</i> from the heap, if it is in.
+     *
+     * @param e an element
+     */
+    public void remove(int e) {
+        int p = position[e];
+        if (p != -1) {
+            position[e] = -1;
+            int last = heap[--size];
+            if (p < size) {
+                heap[p] = last;
+                position[last] = p;
+                siftDown(p);
+                siftUp(position[last]);
+            }
+        }
+    }
+
+    /**
+     * @return the element with the largest key, or -1 if the heap is empty
+     */
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Remove and return the element with the largest key.
+     *
+     * @return the element with the largest key, or -1 if the heap is empty
+     */
+    public int pop() {
+        int e = peek();
+        if (e != -1) {
+            remove(e);
+        }
+        return e;
+    }
+
+    /**
+     * Remove all elements.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    //***********************************************************************************
+    // INTERNALS
+    //***********************************************************************************
+
+    /**
+     * @return <i>true</i> if <i>e1</i> has a higher priority than <i>e2</i>
+     */
+    private boolean before(int e1, int e2) {
+        return keys[e1] > keys[e2] || (keys[e1] == keys[e2] && e1 < e2);
+    }
+
+    private void siftUp(int p) {
+        int e = heap[p];
+        while (p > 0) {
+            int q = (p - 1) >> 1;
+            int f = heap[q];
+            if (!before(e, f)) {
+                break;
+            }
+            heap[p] = f;
+            position[f] = p;
+            p = q;
+        }
+        heap[p] = e;
+        position[e] = p;
+    }
+
+    private void siftDown(int p) {
+        int e = heap[p];
+        int half = size >> 1;
+        while (p < half) {
+            int c = (p << 1) + 1;
+            int r = c + 1;
+            if (r < size && before(heap[r], heap[c])) {
+                c = r;
+            }
+            int s = heap[c];
+            if (!before(s, e)) {
+                break;
+            }
+            heap[p] = s;
+            position[s] = p;
+            p = c;
+        }
+        heap[p] = e;
+        position[e] = p;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.bitset;
+
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+/**
+ * A set of integers over a fixed universe, whose content can be read 64 elements at once.
+ * <p>
+ * Words are indexed in absolute terms: the word <i>w</i> holds the elements from <i>64.w</i> to <i>64.w+63</i>,
+ * element <i>64.w+b</i> being stored in bit <i>b</i>. Hence, words of two dense sets with the same index
+ * always cover the same elements, whatever their universes.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public interface IDenseBitSet extends ISet {
+
+    /**
+     * @return index of the first word of the universe
+     */
+    int firstWord();
+
+    /**
+     * @return index of the last word of the universe
+     */
+    int lastWord();
+
+    /**
+     * @param w index of a word
+     * @return the elements of the set from <i>64.w</i> to <i>64.w+63</i>, 0 if <i>w</i> is outside the universe
+     */
+    long getWord(int w);
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.bitset;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.objects.setDataStructures.Set_ReadOnly;
+
+/**
+ * Backtrackable dense bitset over a fixed universe <i>[min, max]</i>, possibly with negative numbers.
+ * <p>
+ * Unlike {@link Set_Std_BitSet}, the words are allocated once, aligned on multiples of 64,
+ * and can be read directly (see {@link IDenseBitSet}), which enables word-parallel operations between sets.
+ * Each word is stored in its own {@link IStateLong}, so that only modified words are trailed.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class Set_Std_DenseBitSet implements IDenseBitSet {
+
+	//***********************************************************************************
+	// VARIABLE
+	//***********************************************************************************
+
+	private final IStateLong[] words;
+	private final IStateInt card;	// enables to get the cardinality in O(1)
+	private final int first;		// index of the first word
+	private final ISetIterator iter;
+
+	//***********************************************************************************
+	// CONSTRUCTOR
+	//***********************************************************************************
+
+	/**
+	 * Creates an empty bitset able to store the integers from <code>min</code> to <code>max</code> (possibly < 0)
+	 *
+	 * @param environment backtracking environment
+	 * @param min smallest allowed value in the set
+	 * @param max largest allowed value in the set
+	 */
+	public Set_Std_DenseBitSet(IEnvironment environment, int min, int max) {
+		first = min >> 6;
+		words = new IStateLong[(max >> 6) - first + 1];
+		for (int w = 0; w < words.length; w++) {
+			words[w] = environment.makeLong(0);
+		}
+		card = environment.makeInt(0);
+		iter = newIterator();
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public int firstWord() {
+		return first;
+	}
+
+	@Override
+	public int lastWord() {
+		return first + words.length - 1;
+	}
+
+	@Override
+	public long getWord(int w) {
+		w -= first;
+		return w >= 0 && w < words.length ? words[w].get() : 0L;
+	}
+
+	@Override
+	public boolean add(int element) {
+		int w = (element >> 6) - first;
+		if (w < 0 || w >= words.length) {
+			throw new IllegalStateException("Cannot add " + element + " to set of universe ["
+					+ (first << 6) + ", " + ((lastWord() << 6) + 63) + "]");
+		}
+		long word = words[w].get();
+		long bit = 1L << element;
+		if ((word & bit) != 0) {
+			return false;
+		}
+		words[w].set(word | bit);
+		card.add(1);
+		return true;
+	}
+
+	@Override
+	public boolean remove(int element) {
+		int w = (element >> 6) - first;
+		if (w < 0 || w >= words.length) {
+			return false;
+		}
+		long word = words[w].get();
+		long bit = 1L << element;
+		if ((word & bit) == 0) {
+			return false;
+		}
+		words[w].set(word & ~bit);
+		card.add(-1);
+		return true;
+	}
+
+	@Override
+	public boolean contains(int element) {
+		return (getWord(element >> 6) & (1L << element)) != 0;
+	}
+
+	@Override
+	public int size() {
+		return card.get();
+	}
+
+	@Override
+	public void clear() {
+		for (IStateLong word : words) {
+			if (word.get() != 0) {
+				word.set(0);
+			}
+		}
+		card.set(0);
+	}
+
+	@Override
+	public SetType getSetType(){
+		return SetType.BITSET;
+	}
+
+	@Override
+	public int min() {
+		if(isEmpty()) throw new IllegalStateException("cannot find minimum of an empty set");
+		return (int) nextSetBit((long) first << 6);
+	}
+
+	@Override
+	public int max() {
+		if(isEmpty()) throw new IllegalStateException("cannot find maximum of an empty set");
+		int w = words.length - 1;
+		while (words[w].get() == 0) {
+			w--;
+		}
+		return ((first + w) << 6) + 63 - Long.numberOfLeadingZeros(words[w].get());
+	}
+
+	/**
+	 * @param from an integer of the universe, or the largest allowed value + 1
+	 * @return the smallest element of the set greater or equal than <code>from</code>,
+	 * or the largest allowed value + 1 if there is none.
+	 */
+	private long nextSetBit(long from) {
+		int w = (int) ((from >> 6) - first);
+		if (w >= words.length) {
+			return from;
+		}
+		long word = words[w].get() & (-1L << from);
+		while (word == 0) {
+			if (++w == words.length) {
+				return (long) (first + w) << 6;
+			}
+			word = words[w].get();
+		}
+		return ((long) (first + w) << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * @return a read-only view of this set, which still gives access to its words
+	 */
+	public IDenseBitSet readOnly() {
+		return new ReadOnly();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder st = new StringBuilder("{");
+		ISetIterator iter = newIterator();
+		while (iter.hasNext()) {
+			st.append(iter.nextInt()).append(", ");
+		}
+		st.append("}");
+		return st.toString().replace(", }","}");
+	}
+
+	//***********************************************************************************
+	// ITERATOR
+	//***********************************************************************************
+
+	@Override
+	public ISetIterator iterator(){
+		iter.reset();
+		return iter;
+	}
+
+	@Override
+	public ISetIterator newIterator(){
+		return new ISetIterator() {
+			private long next = (long) first << 6;
+			@Override
+			public void reset() {
+				next = (long) first << 6;
+			}
+			@Override
+			public boolean hasNext() {
+				next = nextSetBit(next);
+				return (next >> 6) <= lastWord();
+			}
+			@Override
+			public int nextInt() {
+				int current = (int) nextSetBit(next);
+				next = current + 1L;
+				return current;
+			}
+		};
+	}
+
+	private class ReadOnly extends Set_ReadOnly implements IDenseBitSet {
+
+		ReadOnly() {
+			super(Set_Std_DenseBitSet.this);
+		}
+
+		@Override
+		public int firstWord() {
+			return first;
+		}
+
+		@Override
+		public int lastWord() {
+			return Set_Std_DenseBitSet.this.lastWord();
+		}
+
+		@Override
+		public long getWord(int w) {
+			return Set_Std_DenseBitSet.this.getWord(w);
+		}
+	}
+}
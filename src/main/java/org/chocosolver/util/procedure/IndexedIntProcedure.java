@@ -0,0 +1,30 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.procedure;
+
+/**
+ * An {@link IntProcedure} whose context is an int, typically the index of the variable whose removed values
+ * are iterated.
+ * Unlike {@link UnaryIntProcedure}, setting the context does not box it.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public interface IndexedIntProcedure extends IntProcedure {
+
+    /**
+     * Set the context of the next executions
+     *
+     * @param idx an int, typically the index of a variable
+     * @return this
+     */
+    IndexedIntProcedure set(int idx);
+}
@@ -9,6 +9,10 @@
  */
 package org.chocosolver.memory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -25,7 +29,9 @@ public class EnvironmentTest {
     private Object[][] env() {
         return new IEnvironment[][]{
                 {new EnvironmentBuilder().fromFlat().build()},
-                {new EnvironmentBuilder().fromChunk().build()}
+                {new EnvironmentBuilder().fromChunk().build()},
+                {new EnvironmentBuilder().fromOffHeap().build()},
+                {new EnvironmentBuilder().buildCopying()}
         };
     }
 
@@ -43,6 +49,20 @@ public class EnvironmentTest {
         Assert.assertEquals(prim.toString(), "false");
     }
 
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCommit() {
+        IEnvironment environment = new EnvironmentBuilder().fromFlat().build();
+        IStateInt prim = environment.makeInt(0);
+        environment.worldPush();
+        prim.set(10);
+        environment.worldPush();
+        prim.set(20);
+        environment.worldCommit();
+        Assert.assertEquals(prim.get(), 20);
+        environment.worldPop();
+        Assert.assertEquals(prim.get(), 0);
+    }
+
     @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
     public void testInt(IEnvironment environment) {
         IStateInt prim = environment.makeInt(0);
@@ -148,5 +168,128 @@ public class EnvironmentTest {
         }catch (IndexOutOfBoundsException e){}
     }
 
-}
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOffHeapVsFlat() {
+        // small pages and few worlds, to stress page allocation and fake histories
+        IEnvironment flat = new EnvironmentBuilder().setWorldSize(4).setWorldNumber(2).fromFlat().build();
+        IEnvironment offh = new EnvironmentBuilder().setWorldSize(4).setWorldNumber(2).fromOffHeap().build();
+        Random rnd = new Random(0);
+        List<Object[]> states = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            int action = rnd.nextInt(10);
+            if (action == 0 && flat.getWorldIndex() < 50) {
+                flat.worldPush();
+                offh.worldPush();
+            } else if (action == 1 && flat.getWorldIndex() > 0) {
+                flat.worldPop();
+                offh.worldPop();
+            } else if (action == 2 || states.isEmpty()) {
+                int v = rnd.nextInt(100);
+                switch (rnd.nextInt(4)) {
+                    case 0:
+                        states.add(new Object[]{flat.makeInt(v), offh.makeInt(v)});
+                        break;
+                    case 1:
+                        states.add(new Object[]{flat.makeLong(v), offh.makeLong(v)});
+                        break;
+                    case 2:
+                        states.add(new Object[]{flat.makeBool(v % 2 == 0), offh.makeBool(v % 2 == 0)});
+                        break;
+                    default:
+                        states.add(new Object[]{flat.makeFloat(v / 3.), offh.makeFloat(v / 3.)});
+                        break;
+                }
+            } else {
+                Object[] pair = states.get(rnd.nextInt(states.size()));
+                int v = rnd.nextInt(100);
+                if (pair[0] instanceof IStateInt) {
+                    ((IStateInt) pair[0]).set(v);
+                    ((IStateInt) pair[1]).set(v);
+                } else if (pair[0] instanceof IStateLong) {
+                    ((IStateLong) pair[0]).set(v * 1_000_000_000L);
+                    ((IStateLong) pair[1]).set(v * 1_000_000_000L);
+                } else if (pair[0] instanceof IStateBool) {
+                    ((IStateBool) pair[0]).set(v % 2 == 0);
+                    ((IStateBool) pair[1]).set(v % 2 == 0);
+                } else {
+                    ((IStateDouble) pair[0]).set(-v / 7.);
+                    ((IStateDouble) pair[1]).set(-v / 7.);
+                }
+            }
+            for (Object[] pair : states) {
+                Assert.assertEquals(pair[1].toString(), pair[0].toString());
+            }
+        }
+    }
 
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyingVsFlat() {
+        IEnvironment flat = new EnvironmentBuilder().fromFlat().build();
+        flat.buildFakeHistoryOn(new Except_0());
+        IEnvironment copy = new EnvironmentBuilder().buildCopying();
+        Random rnd = new Random(0);
+        List<Object[]> states = new ArrayList<>();
+        for (int step = 0; step < 20000; step++) {
+            int action = rnd.nextInt(12);
+            if (action == 0 && flat.getWorldIndex() < 50) {
+                flat.worldPush();
+                copy.worldPush();
+            } else if (action == 1 && flat.getWorldIndex() > 0) {
+                flat.worldPop();
+                copy.worldPop();
+            } else if (action == 2 && flat.getWorldIndex() > 0 && rnd.nextInt(4) == 0) {
+                flat.worldCommit();
+                copy.worldCommit();
+            } else if (action == 3 || states.isEmpty()) {
+                int v = rnd.nextInt(100);
+                switch (rnd.nextInt(5)) {
+                    case 0:
+                        states.add(new Object[]{flat.makeInt(v), copy.makeInt(v)});
+                        break;
+                    case 1:
+                        states.add(new Object[]{flat.makeLong(v), copy.makeLong(v)});
+                        break;
+                    case 2:
+                        states.add(new Object[]{flat.makeBool(v % 2 == 0), copy.makeBool(v % 2 == 0)});
+                        break;
+                    case 3:
+                        states.add(new Object[]{flat.makeFloat(v / 3.), copy.makeFloat(v / 3.)});
+                        break;
+                    default:
+                        if (flat.getWorldIndex() == 0) {
+                            states.add(new Object[]{flat.makeIntVector(5, v), copy.makeIntVector(5, v)});
+                        }
+                        break;
+                }
+            } else {
+                Object[] pair = states.get(rnd.nextInt(states.size()));
+                int v = rnd.nextInt(100);
+                if (pair[0] instanceof IStateInt) {
+                    ((IStateInt) pair[0]).set(v);
+                    ((IStateInt) pair[1]).set(v);
+                } else if (pair[0] instanceof IStateLong) {
+                    ((IStateLong) pair[0]).set(v * 1_000_000_000L);
+                    ((IStateLong) pair[1]).set(v * 1_000_000_000L);
+                } else if (pair[0] instanceof IStateBool) {
+                    ((IStateBool) pair[0]).set(v % 2 == 0);
+                    ((IStateBool) pair[1]).set(v % 2 == 0);
+                } else if (pair[0] instanceof IStateDouble) {
+                    ((IStateDouble) pair[0]).set(-v / 7.);
+                    ((IStateDouble) pair[1]).set(-v / 7.);
+                } else {
+                    ((IStateIntVector) pair[0]).quickSet(v % 5, v);
+                    ((IStateIntVector) pair[1]).quickSet(v % 5, v);
+                }
+            }
+            for (Object[] pair : states) {
+                if (pair[0] instanceof IStateIntVector) {
+                    for (int i = 0; i < 5; i++) {
+                        Assert.assertEquals(((IStateIntVector) pair[1]).quickGet(i), ((IStateIntVector) pair[0]).quickGet(i));
+                    }
+                } else {
+                    Assert.assertEquals(pair[1].toString(), pair[0].toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.sat;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.sat.SatSolver.makeLiteral;
+import static org.chocosolver.sat.SatSolver.negated;
+
+/**
+ * Test class for SatSolver
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class SatSolverTest {
+
+    private static int pos(int v) {
+        return makeLiteral(v, true);
+    }
+
+    private static int neg(int v) {
+        return makeLiteral(v, false);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUnitPropagation() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 5; i++) {
+            sat.newVariable();
+        }
+        // x0 -> x1, (x1 & x2) -> x3, (x3 & x4) -> false
+        Assert.assertTrue(sat.addClause(neg(0), pos(1)));
+        Assert.assertTrue(sat.addClause(neg(1), neg(2), pos(3)));
+        Assert.assertTrue(sat.addClause(neg(3), neg(4), neg(0)));
+        Assert.assertEquals(sat.nbclauses(), 3);
+
+        Assert.assertTrue(sat.propagateOneLiteral(pos(0)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{pos(1)});
+        Assert.assertTrue(sat.propagateOneLiteral(pos(2)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{pos(3), neg(4)});
+        Assert.assertEquals(sat.trailMarker(), 2);
+
+        sat.cancelUntil(1);
+        Assert.assertEquals(sat.trailMarker(), 1);
+        Assert.assertTrue(sat.propagateOneLiteral(pos(4)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{neg(3), neg(2)});
+        Assert.assertFalse(sat.propagateOneLiteral(pos(2)));
+
+        sat.cancelUntil(0);
+        Assert.assertTrue(sat.propagateOneLiteral(pos(3)));
+        Assert.assertTrue(sat.propagateOneLiteral(pos(4)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{neg(0)});
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRootClauses() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 3; i++) {
+            sat.newVariable();
+        }
+        Assert.assertTrue(sat.addClause(pos(0), neg(0), pos(1)));
+        Assert.assertEquals(sat.nbclauses(), 0);
+        Assert.assertTrue(sat.addClause(pos(0)));
+        Assert.assertTrue(sat.addClause(neg(0), pos(1), pos(1)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{pos(0), pos(1)});
+        Assert.assertTrue(sat.addClause(neg(0), neg(1), pos(2)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{pos(0), pos(1), pos(2)});
+        Assert.assertFalse(sat.addClause(neg(2)));
+        Assert.assertFalse(sat.ok_);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testDetachLearnt() {
+        int n = 40;
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < n; i++) {
+            sat.newVariable();
+        }
+        // x_i & x_i+1 -> x_i+2
+        for (int i = 0; i < n - 2; i++) {
+            sat.learnClause(neg(i), neg(i + 1), pos(i + 2));
+        }
+        int size = sat.arenaSize_;
+        // only keep x_3k & x_3k+1 -> x_3k+2, the arena is compacted on the way
+        for (int i = n - 3; i >= 0; i--) {
+            if (i % 3 != 0) {
+                sat.detachLearnt(i);
+            }
+        }
+        Assert.assertEquals(sat.nLearnt(), 13);
+        Assert.assertTrue(sat.arenaSize_ < size);
+        for (int c = 0; c < sat.nLearnt(); c++) {
+            Assert.assertEquals(sat.learntSize(c), 3);
+            Assert.assertEquals(sat.learntLiteral(c, 2), pos(3 * c + 2));
+        }
+        Assert.assertTrue(sat.propagateOneLiteral(pos(0)));
+        Assert.assertTrue(sat.propagateOneLiteral(pos(1)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{pos(2)});
+        Assert.assertTrue(sat.propagateOneLiteral(pos(3)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[0]);
+        Assert.assertTrue(sat.propagateOneLiteral(pos(4)));
+        Assert.assertEquals(sat.touched_variables_.toArray(), new int[]{pos(5)});
+        Assert.assertFalse(sat.propagateOneLiteral(negated(pos(5))));
+        Assert.assertFalse(sat.isSatisfiedBy(l -> true));
+        Assert.assertTrue(sat.isSatisfiedBy(l -> !SatSolver.sign(l)));
+    }
+}
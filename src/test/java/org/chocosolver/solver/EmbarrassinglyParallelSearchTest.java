@@ -0,0 +1,94 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.solver.ModelTest.knapsack;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class EmbarrassinglyParallelSearchTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testKnapsack() {
+        EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch();
+        for (int i = 0; i < 4; i++) {
+            eps.addModel(knapsack());
+        }
+        Assert.assertTrue(eps.solve());
+        Assert.assertTrue(eps.isSearchCompleted());
+        Assert.assertTrue(eps.getNbSubproblems() > 1);
+        Model finder = eps.getBestModel();
+        Assert.assertNotNull(finder);
+        Assert.assertEquals(eps.getBestSolution().getIntVal((IntVar) finder.getObjective()), 51);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testGolomb() {
+        EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch();
+        for (int i = 0; i < 3; i++) {
+            eps.addModel(ProblemMaker.makeGolombRuler(7));
+        }
+        eps.setSubproblemsPerModel(10);
+        Assert.assertTrue(eps.solve());
+        Assert.assertTrue(eps.isSearchCompleted());
+        Model finder = eps.getBestModel();
+        Assert.assertEquals(eps.getBestSolution().getIntVal((IntVar) finder.getHook("objective")), 25);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSatisfaction() {
+        EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch();
+        for (int i = 0; i < 4; i++) {
+            eps.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(12));
+        }
+        Assert.assertTrue(eps.solve());
+        Solution solution = eps.getBestSolution();
+        IntVar[] vars = (IntVar[]) eps.getBestModel().getHook("vars");
+        for (int i = 0; i < vars.length - 1; i++) {
+            for (int j = i + 1; j < vars.length; j++) {
+                int vi = solution.getIntVal(vars[i]);
+                int vj = solution.getIntVal(vars[j]);
+                Assert.assertNotEquals(vi, vj);
+                Assert.assertNotEquals(Math.abs(vi - vj), j - i);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUnsat() {
+        EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch();
+        for (int i = 0; i < 2; i++) {
+            eps.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(3));
+        }
+        Assert.assertFalse(eps.solve());
+        Assert.assertTrue(eps.isSearchCompleted());
+        Assert.assertNull(eps.getBestSolution());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStopCriterion() {
+        EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch();
+        for (int i = 0; i < 2; i++) {
+            eps.addModel(ProblemMaker.makeGolombRuler(11));
+        }
+        long end = System.currentTimeMillis() + 500;
+        eps.addStopCriterion(() -> System.currentTimeMillis() > end);
+        eps.solve();
+        Assert.assertFalse(eps.isSearchCompleted());
+    }
+}
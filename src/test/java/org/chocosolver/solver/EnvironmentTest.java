@@ -23,6 +23,7 @@ import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.ProblemMaker;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -34,7 +35,8 @@ public class EnvironmentTest {
 	public Object[][] getEnvs(){
 		return new EnvironmentTrailing[][]{
 				{new EnvironmentBuilder().fromFlat().build()},
-				{new EnvironmentBuilder().fromChunk().build()}
+				{new EnvironmentBuilder().fromChunk().build()},
+				{new EnvironmentBuilder().fromOffHeap().build()}
 		};
 	}
 
@@ -105,4 +107,30 @@ public class EnvironmentTest {
 		m.getEnvironment().makeDoubleVector(100, 0.0);
 		System.out.println(m.getSolver().solve());
 	}
-}
\ No newline at end of file
+
+	@Test(groups="1s", timeOut=60000)
+	public void testCopying() {
+		for (int n = 4; n < 9; n++) {
+			Model t = ProblemMaker.makeNQueenWithBinaryConstraints(n);
+			Model c = new Model(new EnvironmentBuilder().buildCopying(), "copy", new DefaultSettings());
+			IntVar[] vars = new IntVar[n];
+			for (int i = 0; i < n; i++) {
+				vars[i] = c.intVar("Q_" + i, 1, n, false);
+			}
+			for (int i = 0; i < n - 1; i++) {
+				for (int j = i + 1; j < n; j++) {
+					int k = j - i;
+					c.arithm(vars[i], "!=", vars[j]).post();
+					c.arithm(vars[i], "!=", vars[j], "+", -k).post();
+					c.arithm(vars[i], "!=", vars[j], "+", k).post();
+				}
+			}
+			c.allDifferent(vars, "AC").post();
+			t.allDifferent((IntVar[]) t.getHook("vars"), "AC").post();
+			t.getSolver().setSearch(Search.inputOrderLBSearch(t.retrieveIntVars(true)));
+			c.getSolver().setSearch(Search.inputOrderLBSearch(c.retrieveIntVars(true)));
+			Assert.assertEquals(c.getSolver().findAllSolutions().size(), t.getSolver().findAllSolutions().size());
+			Assert.assertEquals(c.getSolver().getNodeCount(), t.getSolver().getNodeCount());
+		}
+	}
+}
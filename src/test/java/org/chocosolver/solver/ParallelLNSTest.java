@@ -0,0 +1,80 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.lns.INeighborFactory;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class ParallelLNSTest {
+
+    private static int optimum() {
+        Model model = ModelTest.knapsack();
+        model.getSolver().findOptimalSolution((IntVar) model.getObjective(), Model.MAXIMIZE);
+        return model.getSolver().getBestSolutionValue().intValue();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPortfolio() {
+        int opt = optimum();
+        ParallelLNS plns = new ParallelLNS();
+        for (int i = 0; i < 4; i++) {
+            Model model = ModelTest.knapsack();
+            model.getSolver().limitTime("1s");
+            plns.addModel(model);
+        }
+        Assert.assertTrue(plns.solve());
+        int best = plns.getBestSolutionValue();
+        Assert.assertTrue(best <= opt);
+        Model finder = plns.getBestModel();
+        Assert.assertEquals(plns.getBestSolution().getIntVal((IntVar) finder.getObjective()), best);
+        int max = Integer.MIN_VALUE;
+        for (Model model : plns.getModels()) {
+            int value = model.getSolver().getBestSolutionValue().intValue();
+            Assert.assertTrue(value <= best);
+            max = Math.max(max, value);
+        }
+        Assert.assertEquals(max, best);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNeighbors() {
+        ParallelLNS plns = new ParallelLNS();
+        for (int i = 0; i < 2; i++) {
+            Model model = ModelTest.knapsack();
+            model.getSolver().limitFail(2000);
+            IntVar[] vars = model.retrieveIntVars(true);
+            plns.addModel(model, i == 0 ? INeighborFactory.random(vars) : INeighborFactory.propagationGuided(vars));
+        }
+        Assert.assertTrue(plns.solve());
+        Assert.assertTrue(plns.getBestSolutionValue() <= optimum());
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testNoObjective() {
+        ParallelLNS plns = new ParallelLNS();
+        Model model = ModelTest.knapsack();
+        model.clearObjective();
+        plns.addModel(model);
+        plns.solve();
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testNoModel() {
+        new ParallelLNS().solve();
+    }
+}
@@ -9,6 +9,11 @@
  */
 package org.chocosolver.solver;
 
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.SetVar;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -19,4 +24,80 @@ public class SolutionTest {
         final Solution emptySolution = new Solution(null);
         Assert.assertNotSame(emptySolution, emptySolution.copySolution());
     }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRecord() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 4, 0, 3);
+        SetVar s = model.setVar("s", new int[]{}, new int[]{0, 1, 2, 3});
+        model.allDifferent(x).post();
+        model.member(x[0], s).post();
+        model.subsetEq(s, model.setVar(0, 1, 2)).post();
+        Solution sol = new Solution(model);
+        Assert.assertFalse(sol.exists());
+        int n = 0;
+        while (model.getSolver().solve()) {
+            sol.record();
+            n++;
+            for (IntVar v : x) {
+                Assert.assertEquals(sol.getIntVal(v), v.getValue());
+            }
+            Assert.assertEquals(sol.getSetVal(s), s.getValue().toArray());
+        }
+        Assert.assertTrue(n > 0);
+        Assert.assertTrue(sol.exists());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPartial() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 2);
+        RealVar r = model.realVar("r", 0., 1., 1.e-3);
+        Solution sol = new Solution(model, x[0], x[1]);
+        model.getSolver().solve();
+        sol.record();
+        Assert.assertEquals(sol.getIntVal(x[0]), x[0].getValue());
+        Assert.assertEquals(sol.getIntVal(model.intVar(7)), 7);
+        try {
+            sol.getIntVal(x[2]);
+            Assert.fail();
+        } catch (SolverException ignored) {
+        }
+        // values can be set for any variable
+        sol.setIntVal(x[2], 2);
+        sol.setRealBounds(r, new double[]{.25, .5});
+        Assert.assertEquals(sol.getIntVal(x[2]), 2);
+        Assert.assertEquals(sol.getRealBounds(r), new double[]{.25, .5});
+        Solution copy = sol.copySolution();
+        // recording anew forgets the values set by hand
+        sol.record();
+        try {
+            sol.getIntVal(x[2]);
+            Assert.fail();
+        } catch (SolverException ignored) {
+        }
+        Assert.assertEquals(copy.getIntVal(x[2]), 2);
+        Assert.assertEquals(copy.getIntVal(x[1]), sol.getIntVal(x[1]));
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRestore() throws ContradictionException {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 5, 0, 4);
+        model.allDifferent(x).post();
+        Solution sol = new Solution(model, x);
+        model.getSolver().solve();
+        sol.record();
+        int[] values = new int[x.length];
+        for (int i = 0; i < x.length; i++) {
+            values[i] = x[i].getValue();
+        }
+        model.getSolver().reset();
+        model.getEnvironment().worldPush();
+        sol.restore();
+        for (int i = 0; i < x.length; i++) {
+            Assert.assertTrue(x[i].isInstantiatedTo(values[i]));
+        }
+        model.getEnvironment().worldPop();
+    }
 }
@@ -710,6 +710,27 @@ public interface Modeler {
         }
     };
 
+    Modeler modelmdd4rAC = new Modeler() {
+        @Override
+        public Model model(int n, int[][] domains, THashMap<int[], IntVar> map, Object parameters) {
+            Model s = new Model("mdd4r_(sum)" + n);
+            IntVar[] vars = new IntVar[n];
+            for (int i = 0; i < vars.length; i++) {
+                vars[i] = s.intVar("v_" + i, domains[i]);
+                if (map != null) map.put(domains[i], vars[i]);
+            }
+
+            s.mddc(vars, (MultivaluedDecisionDiagram) parameters, "MDD4R").post();
+            s.getSolver().setSearch(randomSearch(vars, 0));
+            return s;
+        }
+
+        @Override
+        public String name() {
+            return "modelmdd4rAC";
+        }
+    };
+
     Modeler modelivpcAC = new Modeler() {
         @Override
         public Model model(int n, int[][] domains, THashMap<int[], IntVar> map, Object parameters) {
@@ -224,6 +224,7 @@ public class TestConsistency {
                             }
                         }, true, doms);
                 checkConsistency(Modeler.modelmddcAC, p[0], p[3], p[1]+p[3], new MultivaluedDecisionDiagram(doms, tuples), seed + i, "ac");
+                checkConsistency(Modeler.modelmdd4rAC, p[0], p[3], p[1]+p[3], new MultivaluedDecisionDiagram(doms, tuples), seed + i, "ac");
             }
         }
     }
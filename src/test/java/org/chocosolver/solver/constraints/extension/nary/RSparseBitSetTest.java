@@ -0,0 +1,99 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.memory.EnvironmentBuilder;
+import org.chocosolver.memory.IEnvironment;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class RSparseBitSetTest {
+
+    private static long[] random(Random rnd, int nw, int density) {
+        long[] m = new long[nw];
+        for (int i = 0; i < nw; i++) {
+            if (rnd.nextInt(100) < density) {
+                m[i] = rnd.nextLong() | rnd.nextLong();
+            }
+        }
+        return m;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        for (int t = 0; t < 50; t++) {
+            IEnvironment env = new EnvironmentBuilder().build();
+            int nbBits = 1 + rnd.nextInt(2000);
+            RSparseBitSet set = new RSparseBitSet(env, nbBits);
+            int nw = set.nbWords();
+            long[] ref = new long[nw];
+            Arrays.fill(ref, -1L);
+            Deque<long[]> saved = new ArrayDeque<>();
+            for (int s = 0; s < 200; s++) {
+                int action = rnd.nextInt(10);
+                if (action < 2) {
+                    env.worldPush();
+                    saved.push(ref.clone());
+                } else if (action < 4 && !saved.isEmpty()) {
+                    env.worldPop();
+                    ref = saved.pop();
+                } else {
+                    // intersect with the union of a few masks, possibly reversed
+                    long[] mask = new long[nw];
+                    set.clearMask();
+                    int k = 1 + rnd.nextInt(3);
+                    for (int j = 0; j < k; j++) {
+                        long[] m = random(rnd, nw, 90);
+                        set.addToMask(m);
+                        for (int i = 0; i < nw; i++) {
+                            mask[i] |= m[i];
+                        }
+                    }
+                    if (rnd.nextInt(4) == 0) {
+                        set.reverseMask();
+                        for (int i = 0; i < nw; i++) {
+                            mask[i] = ~mask[i];
+                        }
+                    }
+                    set.intersectWithMask();
+                    for (int i = 0; i < nw; i++) {
+                        ref[i] &= mask[i];
+                    }
+                }
+                boolean empty = true;
+                for (int i = 0; i < nw; i++) {
+                    Assert.assertEquals(set.getWord(i), ref[i]);
+                    empty &= ref[i] == 0L;
+                }
+                Assert.assertEquals(set.isEmpty(), empty);
+                long[] m = random(rnd, nw, 10);
+                int idx = set.intersectIndex(m);
+                if (idx == -1) {
+                    for (int i = 0; i < nw; i++) {
+                        Assert.assertEquals(ref[i] & m[i], 0L);
+                    }
+                } else {
+                    Assert.assertNotEquals(ref[idx] & m[idx], 0L);
+                }
+            }
+        }
+    }
+}
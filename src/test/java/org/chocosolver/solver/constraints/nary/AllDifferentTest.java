@@ -16,10 +16,15 @@ import static org.testng.Assert.assertTrue;
 
 import java.util.Random;
 import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.DefaultSettings;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffACIncr;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 /**
@@ -333,4 +338,55 @@ public class AllDifferentTest {
         System.out.println("x1 = " + x1);  // should be left untouched
         System.out.println("x2 = " + x2); // should be left untouched
     }
-}
\ No newline at end of file
+
+    private static long[] solveAC(int seed, boolean incr) {
+        Random rnd = new Random(seed);
+        Model model = new Model(new DefaultSettings().setEnableIncrementalityOnAllDiffAC(i -> incr));
+        int n = 3 + rnd.nextInt(6);
+        int m = n + rnd.nextInt(4);
+        IntVar[] vars = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            int[] dom = rnd.ints(1 + rnd.nextInt(m), 0, m + 1).distinct().toArray();
+            vars[i] = model.intVar("v" + i, dom);
+        }
+        model.allDifferent(vars, "AC").post();
+        if (rnd.nextBoolean()) {
+            model.arithm(vars[0], "<", vars[n - 1]).post();
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.randomSearch(vars, seed));
+        while (solver.solve()) ;
+        return new long[]{solver.getSolutionCount(), solver.getNodeCount(), solver.getFailCount()};
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testIncrAC1() {
+        for (int seed = 0; seed < 200; seed++) {
+            assertEquals(solveAC(seed, true), solveAC(seed, false), "seed " + seed);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testIncrAC2() {
+        long[] counts = new long[2];
+        for (int k = 0; k < 2; k++) {
+            boolean incr = k == 0;
+            Model model = new Model(new DefaultSettings().setEnableIncrementalityOnAllDiffAC(i -> incr));
+            int n = 60;
+            IntVar[] vars = model.intVarArray("v", n, 0, n - 1);
+            model.allDifferent(vars, "AC").post();
+            for (int i = 0; i < n - 1; i += 2) {
+                model.arithm(vars[i], "!=", vars[i + 1], "+", 1).post();
+            }
+            Assert.assertEquals(model.getCstrs()[0].getPropagator(1) instanceof PropAllDiffACIncr, incr);
+            Solver solver = model.getSolver();
+            solver.setSearch(Search.randomSearch(vars, 0));
+            solver.limitSolution(20);
+            while (solver.solve()) {
+                Assert.assertEquals(solver.isSatisfied(), ESat.TRUE);
+            }
+            counts[k] = solver.getNodeCount();
+        }
+        assertEquals(counts[0], counts[1]);
+    }
+}
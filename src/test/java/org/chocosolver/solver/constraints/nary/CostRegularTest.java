@@ -16,13 +16,16 @@ import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.Counter;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.CounterState;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.ICounter;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.chocosolver.solver.constraints.nary.automata.FA.CostAutomaton.makeSingleResource;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
@@ -423,6 +426,30 @@ public class CostRegularTest {
         Assert.assertTrue(cost.isInstantiated());
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testIncrementalVsFromScratch() throws ContradictionException {
+        for (long seed = 0; seed < 60; seed++) {
+            Random rnd = new Random(seed);
+            int n = 4 + rnd.nextInt(4);
+            int nbStates = 2 + rnd.nextInt(3);
+            FiniteAutomaton auto = RegularTest.randomAutomaton(rnd, nbStates, 3);
+            int[][][] costs = new int[n][3][nbStates];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < 3; j++) {
+                    for (int q = 0; q < nbStates; q++) {
+                        costs[i][j][q] = rnd.nextInt(5);
+                    }
+                }
+            }
+            ICostAutomaton cauto = makeSingleResource(auto, costs, 0, 4 * n);
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("x", n + 1, 0, 2, false);
+            // the cost variable, whose bounds are split by decisions
+            vars[n] = model.intVar("z", rnd.nextInt(n), n + rnd.nextInt(3 * n), true);
+            RegularTest.explore(model, vars, (m, v) -> m.costRegular(Arrays.copyOf(v, n), v[n], cauto), rnd);
+        }
+    }
+
     static ICostAutomaton makeCostAutomaton(int taille) {
         FiniteAutomaton fa = new FiniteAutomaton();
         int q0 = fa.addState();
@@ -86,7 +86,7 @@ public class CryptoTest {
     @DataProvider(name="table")
     public Object[][] tables() {
         return new String[][]{
-                {"CT+"}, {"FC"}, {"GAC2001"}, {"GACSTR+"}, {"GAC2001+"}, {"GAC3rm+"}, {"GAC3rm"}, {"STR2+"}, {"MDD+"}
+                {"CT+"}, {"FC"}, {"GAC2001"}, {"GACSTR+"}, {"GAC2001+"}, {"GAC3rm+"}, {"GAC3rm"}, {"STR2+"}, {"MDD+"}, {"MDD4R+"}
         };
     }
     
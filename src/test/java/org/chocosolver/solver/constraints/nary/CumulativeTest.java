@@ -9,17 +9,26 @@
  */
 package org.chocosolver.solver.constraints.nary;
 
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.nary.cumulative.CumulFilter;
 import org.chocosolver.solver.constraints.nary.cumulative.Cumulative;
+import org.chocosolver.solver.constraints.nary.cumulative.EdgeFindingCumulFilter;
+import org.chocosolver.solver.constraints.nary.cumulative.EnergeticReasoningCumulFilter;
+import org.chocosolver.solver.constraints.nary.cumulative.TimeTableEdgeFindingCumulFilter;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Task;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
 
+import static org.chocosolver.solver.constraints.Explainer.fail;
 import static org.chocosolver.solver.search.strategy.Search.lastConflict;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 
@@ -209,4 +218,222 @@ public class CumulativeTest {
             }
         }
 	}
+
+	private static int makespan(int n, long seed, boolean graph, boolean learn, Cumulative.Filter... filters) {
+		Random rnd = new Random(seed);
+		Model model = new Model();
+		Task[] tasks = new Task[n];
+		IntVar[] h = new IntVar[n];
+		IntVar last = model.intVar("last", 0, 40);
+		for (int i = 0; i < n; i++) {
+			IntVar s = model.intVar("s" + i, 0, 40);
+			IntVar d = model.intVar("d" + i, 1 + rnd.nextInt(2), 2 + rnd.nextInt(3));
+			IntVar e = model.intVar("e" + i, 0, 40);
+			tasks[i] = new Task(s, d, e);
+			int hl = 1 + rnd.nextInt(2);
+			h[i] = model.intVar("h" + i, hl, hl + rnd.nextInt(2));
+			model.arithm(e, "<=", last).post();
+		}
+		for (int k = 0; k < 2; k++) {
+			int i = rnd.nextInt(n), j = rnd.nextInt(n);
+			if (i != j) {
+				model.arithm(tasks[i].getEnd(), "<=", tasks[j].getStart()).post();
+			}
+		}
+		model.cumulative(tasks, h, model.intVar("capa", 2, 3), graph, filters).post();
+		Solver solver = model.getSolver();
+		if (learn) {
+			solver.setLearningSignedClauses();
+		}
+		solver.setSearch(lastConflict(randomSearch(model.retrieveIntVars(false), seed)));
+		solver.findOptimalSolution(last, false);
+		return solver.getBestSolutionValue().intValue();
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testExplained() {
+		Cumulative.Filter[][] filters = new Cumulative.Filter[][]{
+				{Cumulative.Filter.TIME},
+				{Cumulative.Filter.TIME, Cumulative.Filter.NRJ},
+				{Cumulative.Filter.SWEEP},
+				{Cumulative.Filter.SWEEP_HEI_SORT},
+				{Cumulative.Filter.DEFAULT},
+		};
+		for (long seed = 0; seed < 15; seed++) {
+			for (Cumulative.Filter[] f : filters) {
+				for (boolean g : new boolean[]{true, false}) {
+					int ref = makespan(5, seed, g, false, f);
+					Assert.assertEquals(makespan(5, seed, g, true, f), ref, "seed " + seed + " " + Arrays.toString(f));
+				}
+			}
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testShortExplanation() throws ContradictionException {
+		for (Cumulative.Filter f : new Cumulative.Filter[]{Cumulative.Filter.TIME, Cumulative.Filter.SWEEP, Cumulative.Filter.NRJ}) {
+			for (boolean g : new boolean[]{true, false}) {
+				Model model = new Model();
+				IntVar[] s = model.intVarArray("s", 3, 0, 20);
+				IntVar[] e = model.intVarArray("e", 3, 0, 30);
+				Task[] tasks = new Task[]{
+						new Task(s[0], model.intVar(4), e[0]),
+						new Task(s[1], model.intVar(2), e[1]),
+						new Task(s[2], model.intVar(3), e[2])};
+				IntVar[] h = new IntVar[]{model.intVar(2), model.intVar(1), model.intVar(2)};
+				model.cumulative(tasks, h, model.intVar(3), g, Cumulative.Filter.HEIGHTS, f).post();
+				HashMap<IntVar, IntIterableRangeSet> lits = fail(model.getSolver(), i -> {
+					s[0].updateUpperBound(1, Cause.Null);
+					s[1].updateLowerBound(10, Cause.Null);
+					s[2].updateUpperBound(2, Cause.Null);
+				});
+				Assert.assertTrue(lits.containsKey(s[0]), f + " " + lits);
+				Assert.assertTrue(lits.containsKey(s[2]), f + " " + lits);
+				// the task which cannot overlap the others is not part of the explanation
+				Assert.assertFalse(lits.containsKey(s[1]), f + " " + lits);
+				Assert.assertFalse(lits.containsKey(e[1]), f + " " + lits);
+			}
+		}
+	}
+
+	private static boolean feasible(int n, long seed, boolean graph, boolean learn, int bound, Cumulative.Filter... filters) {
+		Random rnd = new Random(seed);
+		Model model = new Model();
+		Task[] tasks = new Task[n];
+		IntVar[] h = new IntVar[n];
+		IntVar last = model.intVar("last", 0, bound);
+		for (int i = 0; i < n; i++) {
+			int dl = 1 + rnd.nextInt(3);
+			tasks[i] = new Task(model.intVar("s" + i, rnd.nextInt(4), 30),
+					model.intVar("d" + i, dl, dl + rnd.nextInt(3)), model.intVar("e" + i, 0, 40));
+			int hl = 1 + rnd.nextInt(3);
+			h[i] = model.intVar("h" + i, hl, hl + rnd.nextInt(2));
+			model.arithm(tasks[i].getEnd(), "<=", last).post();
+		}
+		model.cumulative(tasks, h, model.intVar("capa", 3, 4), graph, filters).post();
+		Solver solver = model.getSolver();
+		if (learn) {
+			solver.setLearningSignedClauses();
+		}
+		solver.setSearch(lastConflict(randomSearch(model.retrieveIntVars(false), seed)));
+		return solver.solve();
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testExplainedEdgeFinding() {
+		Cumulative.Filter[][] filters = new Cumulative.Filter[][]{
+				{Cumulative.Filter.TIME, Cumulative.Filter.EDGE_FINDING},
+				{Cumulative.Filter.TIME, Cumulative.Filter.DISJUNCTIVE_TASK_INTERVAL},
+				{Cumulative.Filter.TIME, Cumulative.Filter.TIME_TABLE_EDGE_FINDING},
+				{Cumulative.Filter.TIME, Cumulative.Filter.ENERGETIC_REASONING},
+		};
+		for (long seed = 0; seed < 20; seed++) {
+			for (Cumulative.Filter[] f : filters) {
+				for (int bound = 6; bound <= 14; bound += 4) {
+					boolean g = seed % 2 == 0;
+					Assert.assertEquals(feasible(5, seed, g, true, bound, f), feasible(5, seed, g, false, bound, f),
+							"seed " + seed + " " + bound + " " + Arrays.toString(f));
+				}
+			}
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testShortEdgeFindingExplanation() throws ContradictionException {
+		Model model = new Model();
+		IntVar[] s = model.intVarArray("s", 4, 0, 20);
+		IntVar[] e = model.intVarArray("e", 4, 0, 30);
+		Task[] tasks = new Task[]{
+				new Task(s[0], model.intVar(3), e[0]),
+				new Task(s[1], model.intVar(3), e[1]),
+				new Task(s[2], model.intVar(2, 20), e[2]),
+				new Task(s[3], model.intVar(2), e[3])};
+		IntVar[] h = new IntVar[]{model.intVar(2), model.intVar(2), model.intVar(1), model.intVar(1)};
+		model.cumulative(tasks, h, model.intVar(2), false, Cumulative.Filter.EDGE_FINDING).post();
+		HashMap<IntVar, IntIterableRangeSet> lits = fail(model.getSolver(), i -> {
+			// the first two tasks fill [0,6), so the third one has to start after them
+			e[0].updateUpperBound(6, Cause.Null);
+			e[1].updateUpperBound(6, Cause.Null);
+			s[3].updateUpperBound(18, Cause.Null);
+			s[2].updateUpperBound(5, Cause.Null);
+		});
+		Assert.assertFalse(lits.containsKey(s[3]), lits.toString());
+		Assert.assertFalse(lits.containsKey(e[3]), lits.toString());
+	}
+
+	private static long count(int n, long seed, boolean graph, CumulFilter... filters) {
+		Random rnd = new Random(seed);
+		Model model = new Model();
+		Task[] tasks = new Task[n];
+		IntVar[] h = new IntVar[n];
+		for (int i = 0; i < n; i++) {
+			int dl = 1 + rnd.nextInt(3);
+			tasks[i] = new Task(model.intVar("s" + i, rnd.nextInt(2), 4 + rnd.nextInt(2)),
+					model.intVar("d" + i, dl, dl + rnd.nextInt(2)), model.intVar("e" + i, 0, 8));
+			h[i] = model.intVar("h" + i, 1 + rnd.nextInt(2));
+		}
+		model.cumulative(tasks, h, model.intVar("capa", 2, 3), graph, filters).post();
+		Solver solver = model.getSolver();
+		solver.setSearch(randomSearch(model.retrieveIntVars(false), seed));
+		while (solver.solve()) ;
+		return solver.getSolutionCount();
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testEnergeticFiltersCount() {
+		int n = 4;
+		for (long seed = 0; seed < 8; seed++) {
+			for (boolean g : new boolean[]{true, false}) {
+				long ref = count(n, seed, g, Cumulative.Filter.TIME.make(n));
+				CumulFilter[][] filters = new CumulFilter[][]{
+						{Cumulative.Filter.TIME.make(n), Cumulative.Filter.EDGE_FINDING.make(n)},
+						{Cumulative.Filter.TIME.make(n), Cumulative.Filter.TIME_TABLE_EDGE_FINDING.make(n)},
+						{Cumulative.Filter.TIME.make(n), Cumulative.Filter.ENERGETIC_REASONING.make(n)},
+						{Cumulative.Filter.TIME.make(n), new EdgeFindingCumulFilter(n, 3)},
+						{Cumulative.Filter.TIME.make(n), new TimeTableEdgeFindingCumulFilter(n, 1)},
+						{Cumulative.Filter.TIME.make(n), new EnergeticReasoningCumulFilter(n, 5)},
+						{Cumulative.Filter.TIME.make(n), Cumulative.Filter.EDGE_FINDING.make(n, 2)},
+						{Cumulative.Filter.TIME.make(n), Cumulative.Filter.TIME_TABLE_EDGE_FINDING.make(n, 2)},
+						{Cumulative.Filter.TIME.make(n), Cumulative.Filter.ENERGETIC_REASONING.make(n, 3)},
+				};
+				for (CumulFilter[] f : filters) {
+					Assert.assertEquals(count(n, seed, g, f), ref, "seed " + seed + " " + f[1].getClass().getSimpleName());
+				}
+			}
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testEnergeticFiltersMakespan() {
+		Cumulative.Filter[][] filters = new Cumulative.Filter[][]{
+				{Cumulative.Filter.TIME, Cumulative.Filter.EDGE_FINDING},
+				{Cumulative.Filter.TIME, Cumulative.Filter.TIME_TABLE_EDGE_FINDING},
+				{Cumulative.Filter.TIME, Cumulative.Filter.ENERGETIC_REASONING},
+		};
+		for (long seed = 0; seed < 15; seed++) {
+			for (boolean g : new boolean[]{true, false}) {
+				int ref = makespan(6, seed, g, false, Cumulative.Filter.TIME);
+				for (Cumulative.Filter[] f : filters) {
+					Assert.assertEquals(makespan(6, seed, g, false, f), ref, "seed " + seed + " " + Arrays.toString(f));
+				}
+			}
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testEnergeticFiltersPruning() throws ContradictionException {
+		for (Cumulative.Filter f : new Cumulative.Filter[]{Cumulative.Filter.TIME,
+				Cumulative.Filter.EDGE_FINDING, Cumulative.Filter.TIME_TABLE_EDGE_FINDING, Cumulative.Filter.ENERGETIC_REASONING}) {
+			Model model = new Model();
+			// two tasks fill [0,6) without compulsory part, the third one has to start after them
+			Task[] tasks = new Task[]{
+					new Task(model.intVar(0, 3), model.intVar(3), model.intVar(0, 6)),
+					new Task(model.intVar(0, 3), model.intVar(3), model.intVar(0, 6)),
+					new Task(model.intVar(0, 18), model.intVar(2), model.intVar(0, 20))};
+			IntVar[] h = new IntVar[]{model.intVar(2), model.intVar(2), model.intVar(1)};
+			model.cumulative(tasks, h, model.intVar(2), true, f).post();
+			model.getSolver().propagate();
+			Assert.assertEquals(tasks[2].getStart().getLB(), f == Cumulative.Filter.TIME ? 0 : 6, f.name());
+		}
+	}
 }
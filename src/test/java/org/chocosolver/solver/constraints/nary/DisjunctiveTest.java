@@ -0,0 +1,235 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Task;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.chocosolver.solver.constraints.Explainer.fail;
+import static org.chocosolver.solver.search.strategy.Search.lastConflict;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class DisjunctiveTest {
+
+    private static long count(int n, long seed, boolean disjunctive) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        Task[] tasks = new Task[n];
+        for (int i = 0; i < n; i++) {
+            int dl = rnd.nextInt(3);
+            tasks[i] = new Task(model.intVar("s" + i, rnd.nextInt(3), 6 + rnd.nextInt(3)),
+                    model.intVar("d" + i, dl, dl + rnd.nextInt(2)), model.intVar("e" + i, 0, 10));
+        }
+        if (disjunctive) {
+            model.disjunctive(tasks).post();
+        } else {
+            IntVar[] h = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                h[i] = model.intVar(1);
+            }
+            model.cumulative(tasks, h, model.intVar(1)).post();
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(randomSearch(model.retrieveIntVars(false), seed));
+        while (solver.solve()) {
+            Assert.assertEquals(model.getCstrs()[0].isSatisfied(), ESat.TRUE);
+        }
+        return solver.getSolutionCount();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCount() {
+        for (long seed = 0; seed < 30; seed++) {
+            int n = 2 + (int) (seed % 3);
+            Assert.assertEquals(count(n, seed, true), count(n, seed, false), "seed " + seed);
+        }
+    }
+
+    private static Model jobShop(int[][] machines, int[][] durations, boolean disjunctive, int ub) {
+        int nj = machines.length, nm = machines[0].length;
+        Model model = new Model();
+        int horizon = 0;
+        for (int[] ds : durations) {
+            for (int v : ds) {
+                horizon += v;
+            }
+        }
+        IntVar makespan = model.intVar("makespan", 0, ub < 0 ? horizon : ub);
+        Task[][] onMachine = new Task[nm][nj];
+        for (int j = 0; j < nj; j++) {
+            Task prev = null;
+            for (int k = 0; k < nm; k++) {
+                IntVar st = model.intVar("s" + j + "_" + k, 0, horizon);
+                Task t = new Task(st, model.intVar(durations[j][k]), model.intOffsetView(st, durations[j][k]));
+                onMachine[machines[j][k]][j] = t;
+                if (prev != null) {
+                    model.arithm(prev.getEnd(), "<=", t.getStart()).post();
+                }
+                prev = t;
+            }
+            model.arithm(prev.getEnd(), "<=", makespan).post();
+        }
+        for (Task[] ts : onMachine) {
+            if (disjunctive) {
+                model.disjunctive(ts).post();
+            } else {
+                IntVar[] h = new IntVar[nj];
+                for (int i = 0; i < nj; i++) {
+                    h[i] = model.intVar(1);
+                }
+                model.cumulative(ts, h, model.intVar(1)).post();
+            }
+        }
+        return model;
+    }
+
+    private static int jobShop(int[][] machines, int[][] durations, boolean disjunctive) {
+        Model model = jobShop(machines, durations, disjunctive, -1);
+        Solver solver = model.getSolver();
+        solver.findOptimalSolution((IntVar) model.getVar(0), false);
+        return solver.getBestSolutionValue().intValue();
+    }
+
+    private static boolean jobShopLearn(int[][] machines, int[][] durations, int ub, long seed) {
+        Model model = jobShop(machines, durations, true, ub);
+        Solver solver = model.getSolver();
+        solver.setLearningSignedClauses();
+        solver.setSearch(lastConflict(randomSearch(model.retrieveIntVars(false), seed)));
+        return solver.solve();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testJobShop() {
+        Random rnd = new Random(0);
+        for (int loop = 0; loop < 10; loop++) {
+            int nj = 3 + rnd.nextInt(2), nm = 3;
+            int[][] machines = new int[nj][nm];
+            int[][] durations = new int[nj][nm];
+            for (int j = 0; j < nj; j++) {
+                for (int k = 0; k < nm; k++) {
+                    machines[j][k] = k;
+                    durations[j][k] = 1 + rnd.nextInt(9);
+                }
+                for (int k = nm - 1; k > 0; k--) {
+                    int x = rnd.nextInt(k + 1);
+                    int tmp = machines[j][k];
+                    machines[j][k] = machines[j][x];
+                    machines[j][x] = tmp;
+                }
+            }
+            Assert.assertEquals(jobShop(machines, durations, true), jobShop(machines, durations, false), "loop " + loop);
+        }
+    }
+
+    private static Task task(Model model, int est, int lct, int p) {
+        return new Task(model.intVar(est, lct - p), model.intVar(p), model.intVar(est + p, lct));
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOverload() {
+        Model model = new Model();
+        model.disjunctive(new Task[]{task(model, 0, 10, 4), task(model, 1, 9, 3), task(model, 2, 8, 3)}).post();
+        Assert.assertThrows(ContradictionException.class, () -> model.getSolver().propagate());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testEdgeFinding() throws ContradictionException {
+        Model model = new Model();
+        // A and B fill [0,6), so C has to start after them
+        Task[] tasks = new Task[]{task(model, 0, 6, 3), task(model, 0, 6, 3), task(model, 0, 20, 2)};
+        model.disjunctive(tasks).post();
+        model.getSolver().propagate();
+        Assert.assertEquals(tasks[2].getStart().getLB(), 6);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testDetectablePrecedences() throws ContradictionException {
+        Model model = new Model();
+        // A cannot complete before lst(B) = lst(C) = 10, so both precede it
+        Task[] tasks = new Task[]{task(model, 7, 30, 4), task(model, 5, 13, 3), task(model, 0, 13, 3)};
+        model.disjunctive(tasks).post();
+        model.getSolver().propagate();
+        Assert.assertEquals(tasks[0].getStart().getLB(), 8);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNotFirst() throws ContradictionException {
+        Model model = new Model();
+        // A cannot be processed before B and C together, so it has to start after one of them,
+        // but it can be processed between them
+        Task[] tasks = new Task[]{task(model, 3, 20, 2), task(model, 0, 10, 4), task(model, 0, 10, 4)};
+        model.disjunctive(tasks).post();
+        model.getSolver().propagate();
+        Assert.assertEquals(tasks[0].getStart().getLB(), 4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testExplained() {
+        Random rnd = new Random(1);
+        for (int loop = 0; loop < 20; loop++) {
+            int nj = 3 + rnd.nextInt(3), nm = 3;
+            int[][] machines = new int[nj][nm];
+            int[][] durations = new int[nj][nm];
+            for (int j = 0; j < nj; j++) {
+                for (int k = 0; k < nm; k++) {
+                    machines[j][k] = k;
+                    durations[j][k] = 1 + rnd.nextInt(9);
+                }
+                for (int k = nm - 1; k > 0; k--) {
+                    int x = rnd.nextInt(k + 1);
+                    int tmp = machines[j][k];
+                    machines[j][k] = machines[j][x];
+                    machines[j][x] = tmp;
+                }
+            }
+            int ref = jobShop(machines, durations, true);
+            Assert.assertTrue(jobShopLearn(machines, durations, ref, loop), "loop " + loop);
+            Assert.assertFalse(jobShopLearn(machines, durations, ref - 1, loop), "loop " + loop);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testShortExplanation() throws ContradictionException {
+        Model model = new Model();
+        IntVar[] s = model.intVarArray("s", 4, 0, 20);
+        IntVar[] e = model.intVarArray("e", 4, 0, 30);
+        Task[] tasks = new Task[4];
+        for (int i = 0; i < 4; i++) {
+            tasks[i] = new Task(s[i], i < 3 ? model.intVar(3) : model.intVar(3, 20), e[i]);
+        }
+        model.disjunctive(tasks).post();
+        HashMap<IntVar, IntIterableRangeSet> lits = fail(model.getSolver(), i -> {
+            // the first two tasks fill [0,6), so the last one has to start after them
+            e[0].updateUpperBound(6, Cause.Null);
+            e[1].updateUpperBound(6, Cause.Null);
+            s[2].updateUpperBound(18, Cause.Null);
+            s[3].updateUpperBound(5, Cause.Null);
+        });
+        // the third task is not part of the explanation
+        Assert.assertFalse(lits.containsKey(s[2]), lits.toString());
+        Assert.assertFalse(lits.containsKey(e[2]), lits.toString());
+    }
+}
@@ -15,6 +15,10 @@ import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.annotations.Test;
 
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.Random;
+
 import static org.chocosolver.solver.constraints.nary.automata.FA.CostAutomaton.makeMultiResources;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.util.tools.ArrayUtils.append;
@@ -133,4 +137,71 @@ public class MultiCostRegularTest {
             assertEquals(model.getSolver().getSolutionCount(), 85, "seed:" + (seed + i));
         }
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomAgainstBruteForce() {
+        for (long seed = 0; seed < 60; seed++) {
+            Random rnd = new Random(seed);
+            int n = 3 + rnd.nextInt(4);
+            int nbStates = 2 + rnd.nextInt(3);
+            int nbR = 1 + rnd.nextInt(3);
+            FiniteAutomaton auto = RegularTest.randomAutomaton(rnd, nbStates, 3);
+            int[][][][] costs = new int[n][3][nbR][nbStates];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < 3; j++) {
+                    for (int r = 0; r < nbR; r++) {
+                        for (int q = 0; q < nbStates; q++) {
+                            costs[i][j][r][q] = rnd.nextInt(4);
+                        }
+                    }
+                }
+            }
+            int[] lbs = new int[nbR];
+            int[] ubs = new int[nbR];
+            Model model = new Model();
+            IntVar[] sequence = model.intVarArray("x", n, 0, 2, false);
+            IntVar[] bounds = new IntVar[nbR];
+            for (int r = 0; r < nbR; r++) {
+                lbs[r] = rnd.nextInt(n);
+                ubs[r] = lbs[r] + 1 + rnd.nextInt(2 * n);
+                bounds[r] = model.intVar("z_" + r, lbs[r], ubs[r], true);
+            }
+            model.multiCostRegular(sequence, bounds, makeMultiResources(auto, costs, bounds)).post();
+            model.getSolver().setSearch(randomSearch(append(sequence, bounds), seed));
+            while (model.getSolver().solve()) ;
+            assertEquals(model.getSolver().getSolutionCount(), countWords(auto, costs, lbs, ubs, n), "seed:" + seed);
+        }
+    }
+
+    /**
+     * @return the number of words of length <i>n</i> accepted by <i>auto</i> whose costs are within the bounds
+     */
+    private static long countWords(FiniteAutomaton auto, int[][][][] costs, int[] lbs, int[] ubs, int n) {
+        long count = 0;
+        int[] word = new int[n];
+        TIntHashSet nexts = new TIntHashSet();
+        for (int w = 0; w < Math.pow(3, n); w++) {
+            for (int i = 0, c = w; i < n; i++, c /= 3) {
+                word[i] = c % 3;
+            }
+            int q = auto.getInitialState();
+            int[] sums = new int[lbs.length];
+            for (int i = 0; i < n && q >= 0; i++) {
+                for (int r = 0; r < sums.length; r++) {
+                    sums[r] += costs[i][word[i]][r][q];
+                }
+                nexts.clear();
+                auto.delta(q, word[i], nexts);
+                q = nexts.isEmpty() ? -1 : nexts.iterator().next();
+            }
+            boolean ok = q >= 0 && auto.isFinal(q);
+            for (int r = 0; ok && r < sums.length; r++) {
+                ok = lbs[r] <= sums[r] && sums[r] <= ubs[r];
+            }
+            if (ok) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
@@ -11,9 +11,11 @@ package org.chocosolver.solver.constraints.nary;
 
 import gnu.trove.set.hash.TIntHashSet;
 
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
@@ -28,6 +30,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
 
 import dk.brics.automaton.Automaton;
 import dk.brics.automaton.RegExp;
@@ -422,4 +426,138 @@ public class RegularTest {
         return null;
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testIncrementalVsFromScratch() throws ContradictionException {
+        for (long seed = 0; seed < 60; seed++) {
+            Random rnd = new Random(seed);
+            int n = 4 + rnd.nextInt(4);
+            FiniteAutomaton auto = randomAutomaton(rnd, 2 + rnd.nextInt(3), 3);
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("x", n, 0, 2, false);
+            explore(model, vars, (m, v) -> m.regular(v, auto), rnd);
+        }
+    }
+
+    /**
+     * @return a random deterministic automaton on values [0, <i>nbValues</i>), whose initial state is 0
+     */
+    static FiniteAutomaton randomAutomaton(Random rnd, int nbStates, int nbValues) {
+        FiniteAutomaton auto = new FiniteAutomaton();
+        for (int q = 0; q < nbStates; q++) {
+            auto.addState();
+        }
+        auto.setInitialState(0);
+        for (int q = 0; q < nbStates; q++) {
+            if (q == nbStates - 1 || rnd.nextInt(3) == 0) {
+                auto.setFinal(q);
+            }
+            for (int v = 0; v < nbValues; v++) {
+                if (rnd.nextInt(4) > 0) {
+                    auto.addTransition(q, rnd.nextInt(nbStates), v);
+                }
+            }
+        }
+        return auto;
+    }
+
+    /**
+     * Posts the constraint made by <i>post</i> on <i>vars</i>, then explores a tree of random decisions, with
+     * backtracking, and checks at each node that the domains after propagation are the same as those obtained by
+     * posting the constraint on a new model, whose domains are the ones of the node.
+     */
+    static void explore(Model model, IntVar[] vars, BiFunction<Model, IntVar[], Constraint> post, Random rnd)
+            throws ContradictionException {
+        int[][] domains = domains(vars);
+        post.apply(model, vars).post();
+        boolean failed = false;
+        try {
+            model.getSolver().propagate();
+        } catch (ContradictionException e) {
+            failed = true;
+        }
+        assertFromScratch(vars, domains, post, failed);
+        if (!failed) {
+            explore(model, vars, post, rnd, 6);
+        }
+    }
+
+    private static void explore(Model model, IntVar[] vars, BiFunction<Model, IntVar[], Constraint> post,
+                                Random rnd, int depth) throws ContradictionException {
+        int k = rnd.nextInt(vars.length);
+        for (int i = 0; i < vars.length && vars[k].isInstantiated(); i++) {
+            k = (k + 1) % vars.length;
+        }
+        if (vars[k].isInstantiated()) {
+            return;
+        }
+        IntVar var = vars[k];
+        // a value of the domain, greater than the lower bound for bounded domains
+        int value = var.nextValue(var.getLB() + rnd.nextInt(var.getUB() - var.getLB()) + (var.hasEnumeratedDomain() ? -1 : 0));
+        for (int branch = 0; branch < 2; branch++) {
+            model.getEnvironment().worldPush();
+            decide(var, value, branch);
+            int[][] domains = domains(vars);
+            boolean failed = false;
+            try {
+                model.getSolver().propagate();
+            } catch (ContradictionException e) {
+                failed = true;
+            }
+            assertFromScratch(vars, domains, post, failed);
+            if (!failed && depth > 1) {
+                explore(model, vars, post, rnd, depth - 1);
+            }
+            model.getEnvironment().worldPop();
+        }
+    }
+
+    /**
+     * Instantiates <i>var</i> to <i>value</i>, or removes it, for enumerated domains, splits the domain of <i>var</i>
+     * on <i>value</i> for bounded ones
+     */
+    private static void decide(IntVar var, int value, int branch) throws ContradictionException {
+        if (var.hasEnumeratedDomain()) {
+            if (branch == 0) {
+                var.instantiateTo(value, Cause.Null);
+            } else {
+                var.removeValue(value, Cause.Null);
+            }
+        } else if (branch == 0) {
+            var.updateUpperBound(value - 1, Cause.Null);
+        } else {
+            var.updateLowerBound(value, Cause.Null);
+        }
+    }
+
+    private static int[][] domains(IntVar[] vars) {
+        int[][] domains = new int[vars.length][];
+        for (int i = 0; i < vars.length; i++) {
+            domains[i] = new int[vars[i].getDomainSize()];
+            for (int v = vars[i].getLB(), j = 0; v <= vars[i].getUB(); v = vars[i].nextValue(v)) {
+                domains[i][j++] = v;
+            }
+        }
+        return domains;
+    }
+
+    private static void assertFromScratch(IntVar[] vars, int[][] domains, BiFunction<Model, IntVar[], Constraint> post,
+                                          boolean failed) {
+        Model model = new Model();
+        IntVar[] copies = new IntVar[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            copies[i] = vars[i].hasEnumeratedDomain() ?
+                    model.intVar(vars[i].getName(), domains[i]) :
+                    model.intVar(vars[i].getName(), domains[i][0], domains[i][domains[i].length - 1], true);
+        }
+        post.apply(model, copies).post();
+        try {
+            model.getSolver().propagate();
+        } catch (ContradictionException e) {
+            Assert.assertTrue(failed, Arrays.deepToString(domains));
+            return;
+        }
+        Assert.assertFalse(failed, Arrays.deepToString(domains));
+        Assert.assertEquals(Arrays.deepToString(domains(vars)), Arrays.deepToString(domains(copies)),
+                Arrays.deepToString(domains));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class ThetaLambdaTreeTest {
+
+    private static final int EMPTY = 0, THETA = 1, LAMBDA = 2;
+
+    /**
+     * Envelope of the leaves in Theta, plus leaf <i>gray</i> if it is not -1, restricted to leaves before <i>to</i>
+     */
+    private static long envelope(int[] state, long[] base, long[] energy, int gray, int to) {
+        long best = ThetaLambdaTree.EMPTY;
+        for (int a = 0; a < to; a++) {
+            if (state[a] == THETA || a == gray) {
+                long en = 0;
+                for (int b = a; b < to; b++) {
+                    if (state[b] == THETA || b == gray) {
+                        en += energy[b];
+                    }
+                }
+                best = Math.max(best, base[a] + en);
+            }
+        }
+        return best;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        for (int loop = 0; loop < 200; loop++) {
+            int n = 1 + rnd.nextInt(12);
+            ThetaLambdaTree tree = new ThetaLambdaTree(n / 2);
+            tree.reset(n);
+            int[] state = new int[n];
+            long[] base = new long[n];
+            long[] energy = new long[n];
+            for (int op = 0; op < 30; op++) {
+                int leaf = rnd.nextInt(n);
+                switch (rnd.nextInt(4)) {
+                    case 0:
+                    case 1:
+                        base[leaf] = 3L * rnd.nextInt(10);
+                        energy[leaf] = rnd.nextInt(8);
+                        tree.addToTheta(leaf, base[leaf], energy[leaf]);
+                        state[leaf] = THETA;
+                        break;
+                    case 2:
+                        if (state[leaf] == THETA) {
+                            tree.moveToLambda(leaf);
+                            state[leaf] = LAMBDA;
+                        }
+                        break;
+                    default:
+                        tree.remove(leaf);
+                        state[leaf] = EMPTY;
+                        break;
+                }
+                long env = envelope(state, base, energy, -1, n);
+                Assert.assertEquals(tree.getEnvelope(), env);
+                long energyT = 0;
+                for (int a = 0; a < n; a++) {
+                    if (state[a] == THETA) {
+                        energyT += energy[a];
+                    }
+                }
+                Assert.assertEquals(tree.getEnergy(), energyT);
+                long envL = env;
+                for (int g = 0; g < n; g++) {
+                    if (state[g] == LAMBDA) {
+                        envL = Math.max(envL, envelope(state, base, energy, g, n));
+                    }
+                }
+                Assert.assertEquals(tree.getLambdaEnvelope(), envL);
+                int resp = tree.getResponsibleForLambdaEnvelope();
+                if (envL > env) {
+                    Assert.assertEquals(state[resp], LAMBDA);
+                    Assert.assertEquals(envelope(state, base, energy, resp, n), envL);
+                }
+                for (int a = 0; a < n; a++) {
+                    Assert.assertEquals(tree.envelopeBefore(a), envelope(state, base, energy, -1, a));
+                }
+                if (env > ThetaLambdaTree.EMPTY) {
+                    long threshold = env - 1 - rnd.nextInt(10);
+                    int a = tree.rightmostAbove(threshold);
+                    Assert.assertEquals(state[a], THETA);
+                    Assert.assertTrue(base[a] + energyT - tree.energyBefore(a) > threshold);
+                    for (int b = a + 1; b < n; b++) {
+                        if (state[b] == THETA) {
+                            Assert.assertTrue(base[b] + energyT - tree.energyBefore(b) <= threshold);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
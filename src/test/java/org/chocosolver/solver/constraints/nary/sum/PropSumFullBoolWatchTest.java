@@ -0,0 +1,149 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.sum;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.DefaultSettings;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class PropSumFullBoolWatchTest {
+
+    /**
+     * Post SUM(x_i) op b over n variables, with coefficients 1 before pos and -1 after,
+     * twice with different scopes, then count solutions.
+     */
+    private static long count(int n, int pos, Operator o, int b, boolean watch, boolean reif, long seed) {
+        Model model = new Model();
+        BoolVar[] x = model.boolVarArray("x", n);
+        BoolVar[] y = new BoolVar[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = x[n - 1 - i];
+        }
+        BoolVar[][] scopes = {x, y};
+        for (BoolVar[] s : scopes) {
+            Constraint c = new SumConstraint(watch ?
+                    new PropSumFullBoolWatch(s.clone(), pos, o, b) :
+                    new PropSumFullBool(s.clone(), pos, o, b, false));
+            if (reif) {
+                c.reify();
+            } else {
+                c.post();
+            }
+        }
+        model.getSolver().setSearch(randomSearch(x, seed));
+        return model.getSolver().streamSolutions().count();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        for (int t = 0; t < 300; t++) {
+            int n = 2 + rnd.nextInt(9);
+            int pos = rnd.nextInt(n + 1);
+            Operator o = rnd.nextBoolean() ? Operator.GE : Operator.LE;
+            int b = rnd.nextInt(n + 3) - (n - pos) - 1;
+            boolean reif = rnd.nextInt(4) == 0;
+            Assert.assertEquals(count(n, pos, o, b, true, reif, t), count(n, pos, o, b, false, reif, t),
+                    "n=" + n + ", pos=" + pos + ", o=" + o + ", b=" + b + ", reif=" + reif);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testWatches() throws ContradictionException {
+        Model model = new Model();
+        BoolVar[] x = model.boolVarArray("x", 200);
+        Constraint c = model.sum(x, ">=", 2);
+        c.post();
+        Assert.assertTrue(c.getPropagator(0) instanceof PropSumFullBoolWatch);
+        model.getSolver().propagate();
+        int linked = 0;
+        for (BoolVar v : x) {
+            linked += v.getNbProps();
+        }
+        Assert.assertEquals(linked, 3);
+        // falsify watched literals, watches move to other ones
+        model.getEnvironment().worldPush();
+        for (int i = 0; i < 197; i++) {
+            x[i].instantiateTo(0, Cause.Null);
+            model.getSolver().propagate();
+        }
+        Assert.assertEquals(c.isSatisfied(), ESat.UNDEFINED);
+        x[197].instantiateTo(0, Cause.Null);
+        model.getSolver().propagate();
+        Assert.assertTrue(x[198].isInstantiatedTo(1));
+        Assert.assertTrue(x[199].isInstantiatedTo(1));
+        Assert.assertEquals(c.isSatisfied(), ESat.TRUE);
+        model.getEnvironment().worldPop();
+        Assert.assertFalse(x[198].isInstantiated());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSelection() {
+        Model model = new Model();
+        BoolVar[] x = model.boolVarArray("x", 200);
+        Assert.assertTrue(model.sum(x, ">=", 1).getPropagator(0) instanceof PropSumFullBoolWatch);
+        Assert.assertTrue(model.sum(x, "<=", 198).getPropagator(0) instanceof PropSumFullBoolWatch);
+        Assert.assertTrue(model.sum(x, "<", 3).getPropagator(0) instanceof PropSumFullBoolIncr);
+        Assert.assertTrue(model.sum(x, "=", 1).getPropagator(0) instanceof PropSumFullBoolIncr);
+        Assert.assertTrue(model.sum(model.boolVarArray(50), ">=", 1).getPropagator(0) instanceof PropSumFullBoolIncr);
+        model = new Model(new DefaultSettings().setEnableWatchedLiteralsOnBoolSum(i -> false));
+        x = model.boolVarArray("x", 200);
+        Assert.assertTrue(model.sum(x, ">=", 1).getPropagator(0) instanceof PropSumFullBoolIncr);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOpposite() {
+        Model model = new Model();
+        BoolVar[] x = model.boolVarArray("x", 200);
+        Constraint c = model.sum(x, ">=", 1);
+        Constraint oc = c.getOpposite();
+        Assert.assertTrue(oc.getPropagator(0) instanceof PropSumFullBoolWatch);
+        PropSumFullBoolWatch p = (PropSumFullBoolWatch) oc.getPropagator(0);
+        Assert.assertEquals(p.o, Operator.LE);
+        Assert.assertEquals(p.b, 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCovering() {
+        // every window of 5 consecutive variables holds at least one true variable
+        long[] counts = new long[2];
+        for (int w = 0; w < 2; w++) {
+            boolean watch = w == 0;
+            Model model = new Model(new DefaultSettings().setEnableWatchedLiteralsOnBoolSum(i -> watch));
+            BoolVar[] x = model.boolVarArray("x", 20);
+            for (int i = 0; i + 5 <= x.length; i++) {
+                Constraint c = model.sum(new BoolVar[]{x[i], x[i + 1], x[i + 2], x[i + 3], x[i + 4]}, ">=", 1);
+                Assert.assertEquals(c.getPropagator(0) instanceof PropSumFullBoolWatch, watch);
+                c.post();
+            }
+            model.sum(x, "<=", 5).post();
+            model.getSolver().setSearch(randomSearch(x, 0));
+            counts[w] = model.getSolver().streamSolutions().count();
+        }
+        Assert.assertEquals(counts[0], counts[1]);
+        Assert.assertTrue(counts[0] > 0);
+    }
+}
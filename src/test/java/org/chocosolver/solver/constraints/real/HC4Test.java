@@ -0,0 +1,169 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.DefaultSettings;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+
+/**
+ * Test class for HC4, the interval contractor for real constraints running in the JVM
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class HC4Test {
+
+    private static Model model(boolean box) {
+        return new Model("hc4", new DefaultSettings().setEnableIbex(false).setEnableBoxConsistencyOnReals(box));
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testContract() throws ContradictionException {
+        Model model = model(false);
+        RealVar x = model.realVar("x", 0, 10, 1e-6);
+        RealVar y = model.realVar("y", -10, 10, 1e-6);
+        model.realIbexGenericConstraint("{0}^2=4;{1}=3*{0}-1", x, y).post();
+        model.getSolver().propagate();
+        Assert.assertEquals(x.getLB(), 2, 1e-12);
+        Assert.assertEquals(x.getUB(), 2, 1e-12);
+        Assert.assertEquals(y.getLB(), 5, 1e-12);
+        Assert.assertEquals(y.getUB(), 5, 1e-12);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOutwardRounding() throws ContradictionException {
+        Model model = model(false);
+        RealVar x = model.realVar("x", 0, 1, 1e-6);
+        RealVar y = model.realVar("y", 0, 10, 1e-6);
+        model.realIbexGenericConstraint("{0}=0.1+0.2;{1}=sqrt(2)*sqrt(2)", x, y).post();
+        model.getSolver().propagate();
+        BigDecimal v = new BigDecimal("0.3");
+        Assert.assertTrue(v.compareTo(new BigDecimal(x.getLB())) >= 0);
+        Assert.assertTrue(v.compareTo(new BigDecimal(x.getUB())) <= 0);
+        Assert.assertTrue(x.getUB() - x.getLB() < 1e-15);
+        Assert.assertTrue(y.getLB() <= 2 && y.getUB() >= 2);
+        Assert.assertTrue(y.getUB() - y.getLB() < 1e-14);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFunctions() throws ContradictionException {
+        Model model = model(false);
+        RealVar[] x = model.realVarArray("x", 6, -100, 100, 1e-6);
+        model.realIbexGenericConstraint(
+                "exp({0})=1;ln({1})=0;abs({2})=-3+5;max({3},{0})=4;cos({4})=-1+{4}^2;atan({5})=pi/4", x).post();
+        model.getSolver().propagate();
+        Assert.assertEquals(x[0].getLB(), 0, 1e-12);
+        Assert.assertEquals(x[0].getUB(), 0, 1e-12);
+        Assert.assertEquals(x[1].getLB(), 1, 1e-12);
+        Assert.assertEquals(x[1].getUB(), 1, 1e-12);
+        Assert.assertEquals(x[2].getLB(), -2, 1e-12);
+        Assert.assertEquals(x[2].getUB(), 2, 1e-12);
+        Assert.assertEquals(x[3].getLB(), 4, 1e-12);
+        Assert.assertEquals(x[3].getUB(), 4, 1e-12);
+        Assert.assertTrue(x[4].getLB() >= -Math.sqrt(2) - 1e-12 && x[4].getUB() <= Math.sqrt(2) + 1e-12);
+        Assert.assertEquals(x[5].getLB(), 1, 1e-12);
+        Assert.assertEquals(x[5].getUB(), 1, 1e-12);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBoxConsistency() throws ContradictionException {
+        for (boolean box : new boolean[]{false, true}) {
+            Model model = model(box);
+            RealVar x = model.realVar("x", -10, 10, 1e-4);
+            // HC4 cannot contract x because it occurs twice
+            model.realIbexGenericConstraint("{0}*{0}-{0}=0", x).post();
+            model.getSolver().propagate();
+            if (box) {
+                Assert.assertEquals(x.getLB(), 0, 1e-3);
+                Assert.assertEquals(x.getUB(), 1, 1e-3);
+            } else {
+                Assert.assertTrue(x.getLB() < -1);
+                Assert.assertTrue(x.getUB() > 2);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testIntVars() {
+        Model model = model(false);
+        IntVar x = model.intVar("x", 0, 9, true);
+        IntVar y = model.intVar("y", 0, 9, true);
+        model.realIbexGenericConstraint("{0} * {1} = 8", x, y).post();
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.inputOrderLBSearch(x, y));
+        Assert.assertEquals(solver.findAllSolutions().size(), 4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSolve() {
+        Model model = model(false);
+        RealVar x = model.realVar("x", -100, 100, 1e-6);
+        RealVar y = model.realVar("y", -100, 100, 1e-6);
+        x.add(y).eq(10).ibex(1e-6).post();
+        x.sub(y).eq(2).ibex(1e-6).post();
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.realVarSearch(x, y));
+        Assert.assertTrue(solver.solve());
+        Assert.assertEquals(x.getLB(), 6, 1e-5);
+        Assert.assertEquals(y.getUB(), 4, 1e-5);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testReification() throws ContradictionException {
+        Model model = model(false);
+        RealVar x = model.realVar("x", 0, 10, 1e-6);
+        BoolVar b = model.realIbexGenericConstraint("{0}>=5", x).reify();
+        model.getSolver().propagate();
+        Assert.assertFalse(b.isInstantiated());
+        model.getEnvironment().worldPush();
+        x.updateLowerBound(6, Cause.Null);
+        model.getSolver().propagate();
+        Assert.assertTrue(b.isInstantiatedTo(1));
+        model.getEnvironment().worldPop();
+        model.getEnvironment().worldPush();
+        x.updateUpperBound(4, Cause.Null);
+        model.getSolver().propagate();
+        Assert.assertTrue(b.isInstantiatedTo(0));
+        model.getEnvironment().worldPop();
+        b.setToFalse(Cause.Null);
+        model.getSolver().propagate();
+        Assert.assertEquals(x.getUB(), 5, 1e-12);
+        Assert.assertEquals(model.getCstrs()[0].isSatisfied(), ESat.UNDEFINED);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testMalformed() {
+        Model model = model(false);
+        RealVar x = model.realVar("x", 0, 10, 1e-6);
+        model.realIbexGenericConstraint("{0}+=3", x);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testUnknownVariable() {
+        Model model = model(false);
+        RealVar x = model.realVar("x", 0, 10, 1e-6);
+        new RealPropagator("{0}+{1}=3", new Variable[]{x});
+    }
+}
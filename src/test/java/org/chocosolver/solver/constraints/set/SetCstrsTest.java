@@ -9,16 +9,23 @@
  */
 package org.chocosolver.solver.constraints.set;
 
+import gnu.trove.list.array.TIntArrayList;
+
+import org.chocosolver.solver.DefaultSettings;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.objects.setDataStructures.bitset.IDenseBitSet;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 import static java.lang.System.out;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -97,4 +104,53 @@ public class SetCstrsTest {
 			case "allEqual":return x.getModel().allEqual(x, y);
 		}
 	}
+
+	@Test(groups="1s", timeOut=60000)
+	public static void testDenseSetVars() {
+		for (int seed = 0; seed < 40; seed++) {
+			Model dense = denseModel(seed, new DefaultSettings());
+			Model sparse = denseModel(seed, new DefaultSettings().setMaxSizeForDenseSetVars(0));
+			assertTrue(((SetVar) dense.getVar(0)).getUB() instanceof IDenseBitSet);
+			assertFalse(((SetVar) sparse.getVar(0)).getUB() instanceof IDenseBitSet);
+			assertEquals(dense.getSolver().findAllSolutions().size(), sparse.getSolver().findAllSolutions().size());
+			// dense propagators reach their fixpoint on each call, they are at least as strong as incremental ones
+			assertTrue(dense.getSolver().getFailCount() <= sparse.getSolver().getFailCount());
+		}
+	}
+
+	private static Model denseModel(int seed, DefaultSettings settings) {
+		// elements spread over several words, negative ones included
+		int[] values = {-100, -65, -64, -1, 0, 1, 63, 64, 130};
+		Random rnd = new Random(seed);
+		Model model = new Model(settings);
+		SetVar[] sets = new SetVar[3];
+		for (int i = 0; i < sets.length; i++) {
+			TIntArrayList ker = new TIntArrayList();
+			TIntArrayList env = new TIntArrayList();
+			for (int v : values) {
+				if (rnd.nextInt(3) > 0) {
+					env.add(v);
+					if (rnd.nextInt(10) == 0) {
+						ker.add(v);
+					}
+				}
+			}
+			sets[i] = model.setVar("s" + i, ker.toArray(), env.toArray());
+		}
+		switch (seed % 4) {
+			case 0:
+				model.union(new SetVar[]{sets[0], sets[1]}, sets[2]).post();
+				break;
+			case 1:
+				model.intersection(new SetVar[]{sets[0], sets[1]}, sets[2]).post();
+				break;
+			case 2:
+				model.subsetEq(sets).post();
+				break;
+			default:
+				model.allDisjoint(sets).post();
+				break;
+		}
+		return model;
+	}
 }
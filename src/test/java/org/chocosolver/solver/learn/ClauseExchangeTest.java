@@ -0,0 +1,142 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.learn;
+
+import org.chocosolver.cutoffseq.LubyCutoffStrategy;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ParallelPortfolio;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.ProblemMaker;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class ClauseExchangeTest {
+
+    private static Model pigeons(int n) {
+        Model model = new Model("pigeons");
+        IntVar[] p = model.intVarArray("p", n + 1, 1, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n + 1; j++) {
+                model.arithm(p[i], "!=", p[j]).post();
+            }
+        }
+        model.addHook("vars", p);
+        return model;
+    }
+
+    private static Model ready(int n) throws ContradictionException {
+        Model model = pigeons(n);
+        model.getSolver().setLearningSignedClauses();
+        model.getSolver().propagate();
+        return model;
+    }
+
+    private static HashMap<IntVar, IntIterableRangeSet> clause(Model model, int a, int b) {
+        IntVar[] p = (IntVar[]) model.getHook("vars");
+        HashMap<IntVar, IntIterableRangeSet> literals = new HashMap<>();
+        literals.put(p[a], new IntIterableRangeSet(1, 2));
+        literals.put(p[b], new IntIterableRangeSet(3));
+        return literals;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testExchange() throws ContradictionException {
+        Model m1 = ready(5);
+        Model m2 = ready(5);
+        ClauseExchange exchange = new ClauseExchange();
+        ClauseExchange.Port p1 = exchange.connect(m1);
+        ClauseExchange.Port p2 = exchange.connect(m2);
+        Assert.assertTrue(p1.offer(clause(m1, 0, 1), 1));
+        Assert.assertEquals(p1.importClauses(), 0);
+        Assert.assertEquals(p2.importClauses(), 1);
+        Assert.assertEquals(p2.importClauses(), 0);
+        Assert.assertEquals(m2.getClauseConstraint().getClauseStore().getNbLearntClauses(), 1);
+        Assert.assertEquals(p1.getNbExportedClauses(), 1);
+        Assert.assertEquals(p2.getNbImportedClauses(), 1);
+        Assert.assertEquals(exchange.getNbPublishedClauses(), 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFilter() throws ContradictionException {
+        Model m1 = ready(5);
+        ClauseExchange exchange = new ClauseExchange(16, 1, 2);
+        ClauseExchange.Port p1 = exchange.connect(m1);
+        // too many literals
+        Assert.assertFalse(p1.offer(clause(m1, 0, 1), 1));
+        HashMap<IntVar, IntIterableRangeSet> unit = clause(m1, 0, 1);
+        unit.remove(((IntVar[]) m1.getHook("vars"))[0]);
+        // LBD too high
+        Assert.assertFalse(p1.offer(unit, 3));
+        Assert.assertTrue(p1.offer(unit, 2));
+        Assert.assertEquals(exchange.getNbPublishedClauses(), 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOverwrite() throws ContradictionException {
+        Model m1 = ready(5);
+        Model m2 = ready(5);
+        ClauseExchange exchange = new ClauseExchange(3, 8, 8);
+        ClauseExchange.Port p1 = exchange.connect(m1);
+        ClauseExchange.Port p2 = exchange.connect(m2);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(p1.offer(clause(m1, i, i + 1), 1));
+        }
+        // the capacity is rounded to 4, the first clause is lost
+        Assert.assertEquals(p2.importClauses(), 4);
+        Assert.assertEquals(p2.importClauses(), 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPortfolioUnsat() {
+        ParallelPortfolio pares = new ParallelPortfolio(false);
+        ClauseExchange exchange = new ClauseExchange();
+        pares.setClauseExchange(exchange);
+        for (int i = 0; i < 4; i++) {
+            Model model = pigeons(6);
+            Solver solver = model.getSolver();
+            solver.setSearch(randomSearch((IntVar[]) model.getHook("vars"), i));
+            solver.setLearningSignedClauses();
+            solver.setRestarts(count -> solver.getFailCount() >= count, new LubyCutoffStrategy(20), 5000);
+            pares.addModel(model);
+        }
+        Assert.assertFalse(pares.solve());
+        Assert.assertTrue(exchange.getNbPublishedClauses() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPortfolioSat() {
+        ParallelPortfolio pares = new ParallelPortfolio(false);
+        ClauseExchange exchange = new ClauseExchange();
+        pares.setClauseExchange(exchange);
+        for (int i = 0; i < 4; i++) {
+            Model model = ProblemMaker.makeNQueenWithBinaryConstraints(12);
+            Solver solver = model.getSolver();
+            solver.setSearch(randomSearch((IntVar[]) model.getHook("vars"), i));
+            solver.setLearningSignedClauses();
+            solver.setRestarts(count -> solver.getFailCount() >= count, new LubyCutoffStrategy(20), 5000);
+            pares.addModel(model);
+        }
+        Assert.assertTrue(pares.solve());
+        Assert.assertEquals(pares.getBestModel().getSolver().isSatisfied(), ESat.TRUE);
+    }
+}
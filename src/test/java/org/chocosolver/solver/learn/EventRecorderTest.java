@@ -29,6 +29,7 @@ import org.chocosolver.solver.DefaultSettings;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.binary.PropGreaterOrEqualX_YC;
 import org.chocosolver.solver.constraints.nary.clauses.ClauseStore;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -46,6 +47,7 @@ import org.chocosolver.solver.search.strategy.strategy.IntStrategy;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Task;
+import org.chocosolver.util.ESat;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -315,6 +317,85 @@ public class EventRecorderTest {
         testCA(n, a);
     }
 
+    private long countCA(int n, int largeDomain) {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("c", n, 0, n - 1, false);
+        IntVar[] vectors = new IntVar[(n * (n - 1)) / 2];
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                IntVar k = model.intVar(model.generateName(), -n, n, false);
+                model.arithm(k, "!=", 0).post();
+                model.sum(new IntVar[]{vars[i], k}, "=", vars[j]).post();
+                vectors[idx++] = model.intOffsetView(k, 2 * n * (j - i));
+            }
+        }
+        model.allDifferent(vars, "BC").post();
+        model.allDifferent(vectors, "BC").post();
+        model.arithm(vars[0], "<", vars[n - 1]).post();
+        model.getSolver().setSearch(inputOrderLBSearch(vars));
+        int old = ClauseStore.LARGE_DOMAIN;
+        ClauseStore.INTERVAL_TREE = true;
+        ClauseStore.LARGE_DOMAIN = largeDomain;
+        try {
+            model.getSolver().setLearningSignedClauses();
+            while (model.getSolver().solve()) ;
+        } finally {
+            ClauseStore.LARGE_DOMAIN = old;
+        }
+        return model.getSolver().getSolutionCount() * 1_000_000L + model.getSolver().getNodeCount();
+    }
+
+    @Test(groups = "1s,expl", timeOut = 60000)
+    public void testFlatWatchLists() {
+        for (int n = 5; n < 9; n++) {
+            // flat watch lists on every variable vs interval trees on every variable
+            assertEquals(countCA(n, Integer.MAX_VALUE), countCA(n, 0), "n=" + n);
+        }
+    }
+
+    @Test(groups = "1s,expl", timeOut = 60000)
+    public void testClauseDatabaseTiers() {
+        for (int core : new int[]{-1, 2}) {
+            Model model = new Model(new DefaultSettings()
+                    .setNbMaxLearntClauses(50)
+                    .setLBDLimitForCoreClauses(core)
+                    .setLBDLimitForTier2Clauses(core < 0 ? -1 : 6));
+            int n = 8;
+            IntVar[] vars = model.intVarArray("c", n, 0, n - 1, false);
+            IntVar[] vectors = new IntVar[(n * (n - 1)) / 2];
+            int idx = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    IntVar k = model.intVar(model.generateName(), -n, n, false);
+                    model.arithm(k, "!=", 0).post();
+                    model.sum(new IntVar[]{vars[i], k}, "=", vars[j]).post();
+                    vectors[idx++] = model.intOffsetView(k, 2 * n * (j - i));
+                }
+            }
+            model.allDifferent(vars, "BC").post();
+            model.allDifferent(vectors, "BC").post();
+            model.arithm(vars[0], "<", vars[n - 1]).post();
+            // unsatisfiable, since vars is a permutation
+            model.sum(vars, "!=", n * (n - 1) / 2).post();
+            Solver solver = model.getSolver();
+            solver.setSearch(inputOrderLBSearch(vars));
+            ClauseStore.INTERVAL_TREE = true;
+            solver.setLearningSignedClauses();
+            assertFalse(solver.solve());
+            assertTrue(solver.getLearntClauseCount() > 50);
+            assertTrue(solver.getClauseDatabaseReductionCount() > 0);
+            assertTrue(solver.getDeletedClauseCount() > 0);
+            assertEquals(solver.getCoreClauseCount() + solver.getTier2ClauseCount() + solver.getLocalClauseCount(),
+                    model.getClauseConstraint().getClauseStore().getNbLearntClauses());
+            if (core < 0) {
+                assertEquals(solver.getCoreClauseCount() + solver.getTier2ClauseCount(), 0);
+            } else {
+                assertTrue(solver.getCoreClauseCount() + solver.getTier2ClauseCount() > 0);
+            }
+        }
+    }
+
     private void testGR(int m, int a) {
         Model model = new Model();
         IntVar[] ticks = model.intVarArray("a", m, 0, (m < 31) ? (1 << (m + 1)) - 1 : 9999, false);
@@ -807,6 +888,31 @@ public class EventRecorderTest {
         solver.findSolution();
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testGlobalConflictOnDecision(){
+        Model model = new Model();
+        IntVar x = model.intVar("X", 0, 1);
+        // fails on X = 0 without any deduction
+        new Constraint("X!=0", new Propagator<IntVar>(x) {
+            @Override
+            public void propagate(int evtmask) throws ContradictionException {
+                if (vars[0].isInstantiatedTo(0)) {
+                    fails();
+                }
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return vars[0].isInstantiated() ? ESat.eval(vars[0].getValue() != 0) : ESat.UNDEFINED;
+            }
+        }).post();
+        Solver solver = model.getSolver();
+        solver.setLearningSignedClauses();
+        solver.setSearch(Search.inputOrderLBSearch(x));
+        Assert.assertTrue(solver.solve());
+        Assert.assertEquals(x.getValue(), 1);
+    }
+
     @DataProvider(name = "rcpspP")
     public Object[][] rcpspP(){
         return new Object[][]{
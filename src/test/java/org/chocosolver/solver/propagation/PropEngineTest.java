@@ -210,4 +210,64 @@ public class PropEngineTest {
         solver.getEngine().clear();
         solver.reset(); // error (null)
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAdaptive1() {
+        long[] counts = new long[2];
+        for (int k = 0; k < 2; k++) {
+            Model model = makeNQueenWithBinaryConstraints(8);
+            model.getSettings().setEnableAdaptivePropagation(k == 1);
+            model.getSolver().setEngine(new PropagationEngine(model));
+            IntVar[] X = (IntVar[]) model.getHook("vars");
+            // a costly propagator which never filters
+            Propagator<IntVar> slow = new Propagator<IntVar>(X, UNARY, false) {
+                int sum;
+
+                @Override
+                public void propagate(int evtmask) {
+                    for (int r = 0; r < 200; r++) {
+                        for (IntVar x : vars) {
+                            for (int v = x.getLB(); v <= x.getUB(); v = x.nextValue(v)) {
+                                sum += v;
+                            }
+                        }
+                    }
+                }
+
+                @Override
+                public ESat isEntailed() {
+                    return TRUE;
+                }
+            };
+            new Constraint("slow", slow).post();
+            Solver solver = model.getSolver();
+            solver.findAllSolutions();
+            counts[k] = solver.getSolutionCount();
+            if (k == 0) {
+                Assert.assertNull(solver.getEngine().getStatistics(slow));
+            } else {
+                PropagatorStatistics stat = solver.getEngine().getStatistics(slow);
+                Assert.assertTrue(stat.getNbCalls() > 0);
+                Assert.assertEquals(stat.getNbFruitfulCalls(), 0);
+                Assert.assertEquals(stat.getNbEvents(), 0);
+                Assert.assertTrue(stat.isDeferred());
+            }
+        }
+        assertEquals(counts[0], 92);
+        assertEquals(counts[1], 92);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAdaptive2() {
+        for (int n = 5; n < 9; n++) {
+            Model m1 = ProblemMaker.makeGolombRuler(n);
+            Model m2 = ProblemMaker.makeGolombRuler(n);
+            m2.getSettings().setEnableAdaptivePropagation(true);
+            m2.getSolver().setEngine(new PropagationEngine(m2));
+            m1.getSolver().findOptimalSolution((IntVar) m1.getHook("objective"), false);
+            m2.getSolver().findOptimalSolution((IntVar) m2.getHook("objective"), false);
+            assertEquals(m2.getSolver().getBestSolutionValue(), m1.getSolver().getBestSolutionValue());
+            Assert.assertTrue(m2.getSolver().getFailCount() > 0);
+        }
+    }
 }
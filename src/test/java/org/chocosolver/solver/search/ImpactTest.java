@@ -41,6 +41,18 @@ public class ImpactTest {
 		assertEquals(s1.getSolver().getSolutionCount(), s2.getSolver().getSolutionCount());
 	}
 
+	@Test(groups="1s", timeOut=60000)
+	public void testIncremental() {
+		for (boolean initOnly : new boolean[]{true, false}) {
+			Model s1 = costasArray(6, false);
+			Model s2 = ProblemMaker.makeCostasArrays(6);
+			s2.getSolver().setSearch(new ImpactBased((IntVar[]) s2.getHook("vectors"), 2, 3, 10, 0, initOnly, true));
+			while (s1.getSolver().solve()) ;
+			while (s2.getSolver().solve()) ;
+			assertEquals(s2.getSolver().getSolutionCount(), s1.getSolver().getSolutionCount());
+		}
+	}
+
 	private Model costasArray(int n, boolean impact){
 		Model model = ProblemMaker.makeCostasArrays(n);
 		IntVar[] vectors = (IntVar[]) model.getHook("vectors");
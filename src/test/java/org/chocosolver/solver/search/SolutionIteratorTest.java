@@ -0,0 +1,108 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.SolutionCounter;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class SolutionIteratorTest {
+
+    private static boolean isQueens(int[] q) {
+        for (int i = 0; i < q.length; i++) {
+            for (int j = i + 1; j < q.length; j++) {
+                if (q[i] == q[j] || Math.abs(q[i] - q[j]) == j - i) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testIterate() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        SolutionIterator it = model.getSolver().iterateSolutions(vars);
+        Set<String> sols = new HashSet<>();
+        int[] buffer = null;
+        while (it.hasNext()) {
+            int[] values = it.next();
+            if (buffer != null) {
+                Assert.assertSame(values, buffer);
+            }
+            buffer = values;
+            Assert.assertTrue(isQueens(values));
+            sols.add(Arrays.toString(values));
+        }
+        Assert.assertEquals(sols.size(), 92);
+        Assert.assertEquals(it.getNbSolutions(), 92);
+        Assert.assertFalse(it.hasNext());
+        try {
+            it.next();
+            Assert.fail();
+        } catch (NoSuchElementException ignored) {
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPause() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        Solver solver = model.getSolver();
+        SolutionIterator it = solver.iterateSolutions((IntVar[]) model.getHook("vars"));
+        Assert.assertEquals(solver.getSolutionCount(), 0);
+        Assert.assertTrue(it.hasNext());
+        Assert.assertTrue(it.hasNext());
+        Assert.assertEquals(solver.getSolutionCount(), 1);
+        it.next();
+        it.next();
+        // the search only goes on when the consumer requests the next solution
+        Assert.assertEquals(solver.getSolutionCount(), 2);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStop() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        Solver solver = model.getSolver();
+        SolutionCounter limit = new SolutionCounter(model, 10);
+        SolutionIterator it = solver.iterateSolutions((IntVar[]) model.getHook("vars"), limit);
+        while (it.hasNext()) {
+            it.next();
+        }
+        Assert.assertEquals(it.getNbSolutions(), 10);
+        Assert.assertFalse(solver.isStopCriterionMet());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStream() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        List<int[]> sols = model.getSolver().streamSolutions(vars).collect(Collectors.toList());
+        Assert.assertEquals(sols.size(), 92);
+        Assert.assertEquals(sols.stream().map(Arrays::toString).distinct().count(), 92);
+        Assert.assertTrue(sols.stream().allMatch(SolutionIteratorTest::isQueens));
+    }
+}
@@ -91,6 +91,15 @@ public class LNSTest {
                 r.setNoGoodRecordingFromRestarts();
                 r.setLNS(new RandomNeighborhood(objects, 200, 123456L));
                 break;
+            case 6:
+            case 7:
+                r.setLNS(new BanditNeighborhood(power,
+                        lns == 6 ? BanditNeighborhood.Policy.UCB : BanditNeighborhood.Policy.THOMPSON, 123456L,
+                        new PropagationGuidedNeighborhood(objects, 100, 10, 123456L),
+                        new ReversePropagationGuidedNeighborhood(objects, 100, 10, 123456L),
+                        new RandomNeighborhood(objects, 200, 123456L)
+                ));
+                break;
         }
         model.setObjective(Model.MAXIMIZE, power);
         int bw = 0, bp = 0;
@@ -104,7 +113,7 @@ public class LNSTest {
 
     @DataProvider(name = "lns")
     public Object[][] createData() {
-        return new Object[][]{{0}, {1}, {2}, {3}, {4}, {5}};
+        return new Object[][]{{0}, {1}, {2}, {3}, {4}, {5}, {6}, {7}};
     }
 
 
@@ -354,4 +363,51 @@ public class LNSTest {
 
         return bp;
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testBandit() {
+        for (BanditNeighborhood.Policy policy : BanditNeighborhood.Policy.values()) {
+            int[] capacities = {99, 1101};
+            int[] volumes = {54, 12, 47, 33, 30, 65, 56, 57, 91, 88, 77, 99, 29, 23, 39, 86, 12, 85, 22, 64};
+            int[] energies = {38, 57, 69, 90, 79, 89, 28, 70, 38, 71, 46, 41, 49, 43, 36, 68, 92, 33, 84, 90};
+            Model model = new Model();
+            IntVar[] objects = new IntVar[volumes.length];
+            for (int i = 0; i < objects.length; i++) {
+                objects[i] = model.intVar("o_" + (i + 1), 0, (int) ceil(capacities[1] / volumes[i]), true);
+            }
+            IntVar power = model.intVar("power", 0, 99999, true);
+            IntVar scalar = model.intVar("weight", capacities[0], capacities[1], true);
+            model.scalar(objects, volumes, "=", scalar).post();
+            model.scalar(objects, energies, "=", power).post();
+            model.setObjective(Model.MAXIMIZE, power);
+            Solver r = model.getSolver();
+            r.setSearch(lastConflict(domOverWDegSearch(objects)));
+            BanditNeighborhood bandit = new BanditNeighborhood(power, policy, 0L,
+                    new RandomNeighborhood(objects, 200, 0L),
+                    new PropagationGuidedNeighborhood(objects, 100, 10, 0L));
+            r.setLNS(bandit, new BacktrackCounter(model, 100));
+            r.limitFail(5000);
+            int first = -1, last = -1;
+            while (r.solve()) {
+                last = power.getValue();
+                if (first == -1) {
+                    first = last;
+                }
+            }
+            Assert.assertTrue(last > first, policy.name());
+            long runs = 0, solutions = 0, improvement = 0;
+            for (int i = 0; i < 2; i++) {
+                runs += bandit.getRuns(i);
+                solutions += bandit.getSolutions(i);
+                improvement += bandit.getImprovement(i);
+                Assert.assertTrue(bandit.getMeanReward(i) >= 0 && bandit.getMeanReward(i) <= 1, policy.name());
+                Assert.assertTrue(bandit.getTime(i) >= 0, policy.name());
+            }
+            Assert.assertTrue(runs > 0, policy.name());
+            // all solutions but the first one are found by LNS runs
+            Assert.assertEquals(solutions, r.getSolutionCount() - 1, policy.name());
+            // the last run is not completed
+            Assert.assertTrue(improvement <= last - first, policy.name());
+        }
+    }
 }
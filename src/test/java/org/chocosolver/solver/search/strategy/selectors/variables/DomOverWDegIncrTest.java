@@ -0,0 +1,154 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class DomOverWDegIncrTest {
+
+    /**
+     * Check, on each decision, that the selected variable has the best score among uninstantiated variables
+     */
+    private static void checkBest(DomOverWDegIncr strategy, IntVar[] vars, IntVar selected) {
+        if (selected == null) {
+            for (IntVar v : vars) {
+                Assert.assertTrue(v.isInstantiated());
+            }
+        } else {
+            Assert.assertFalse(selected.isInstantiated());
+            double best = strategy.getWeightedDegree(selected) / selected.getDomainSize();
+            for (IntVar v : vars) {
+                if (!v.isInstantiated()) {
+                    Assert.assertTrue(strategy.getWeightedDegree(v) / v.getDomainSize() <= best,
+                            v + " is better than " + selected);
+                }
+            }
+        }
+    }
+
+    private static DomOverWDegIncr checked(IntVar[] vars, long seed, boolean refined) {
+        if (refined) {
+            return new DomOverWDegRef(vars, seed, new IntDomainMin()) {
+                @Override
+                public Decision<IntVar> getDecision() {
+                    Decision<IntVar> d = super.getDecision();
+                    checkBest(this, vars, d == null ? null : d.getDecisionVariable());
+                    return d;
+                }
+            };
+        }
+        return new DomOverWDegIncr(vars, seed, new IntDomainMin()) {
+            @Override
+            public Decision<IntVar> getDecision() {
+                Decision<IntVar> d = super.getDecision();
+                checkBest(this, vars, d == null ? null : d.getDecisionVariable());
+                return d;
+            }
+        };
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testQueens() {
+        for (boolean refined : new boolean[]{false, true}) {
+            for (int seed = 0; seed < 5; seed++) {
+                Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+                IntVar[] vars = (IntVar[]) model.getHook("vars");
+                model.getSolver().setSearch(checked(vars, seed, refined));
+                while (model.getSolver().solve()) ;
+                Assert.assertEquals(model.getSolver().getSolutionCount(), 92);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testGolombWithRestarts() {
+        for (boolean refined : new boolean[]{false, true}) {
+            Model model = ProblemMaker.makeGolombRuler(8);
+            IntVar[] ticks = (IntVar[]) model.getHook("ticks");
+            Solver solver = model.getSolver();
+            solver.setSearch(checked(ticks, 0, refined));
+            solver.setLubyRestart(50, new FailCounter(model, 0), 1000);
+            solver.findOptimalSolution((IntVar) model.getHook("objective"), false);
+            Assert.assertEquals(solver.getBestSolutionValue().intValue(), 34);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testWeights() {
+        Model model = ProblemMaker.makeCostasArrays(7);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        model.getSolver().setSearch(Search.domOverWDegSearch(vars));
+        while (model.getSolver().solve()) ;
+        long count = model.getSolver().getSolutionCount();
+
+        model = ProblemMaker.makeCostasArrays(7);
+        vars = (IntVar[]) model.getHook("vars");
+        DomOverWDegIncr unit = new DomOverWDegIncr(vars, 0, new IntDomainMin());
+        model.getSolver().setSearch(unit);
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(model.getSolver().getSolutionCount(), count);
+        double sum = 0;
+        for (IntVar v : vars) {
+            double w = unit.getWeightedDegree(v);
+            Assert.assertEquals(w, Math.rint(w));
+            sum += w - 1;
+        }
+        Assert.assertTrue(sum > 0);
+
+        model = ProblemMaker.makeCostasArrays(7);
+        vars = (IntVar[]) model.getHook("vars");
+        DomOverWDegRef ref = new DomOverWDegRef(vars, 0, new IntDomainMin());
+        model.getSolver().setSearch(ref);
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(model.getSolver().getSolutionCount(), count);
+        for (IntVar v : vars) {
+            // at most one per failure
+            Assert.assertTrue(ref.getWeightedDegree(v) - 1 <= model.getSolver().getFailCount());
+        }
+        Assert.assertEquals(ref.getWeightedDegree(model.intVar(0)), 0.);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testDuplicates() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(6);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        IntVar[] twice = new IntVar[vars.length * 2];
+        for (int i = 0; i < vars.length; i++) {
+            twice[i] = vars[i];
+            twice[vars.length + i] = vars[vars.length - 1 - i];
+        }
+        model.getSolver().setSearch(checked(twice, 0, false));
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFactory() {
+        Model model = ProblemMaker.makeNQueenWithOneAlldifferent(8);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        model.getSolver().setSearch(Search.domOverWDegRefSearch(vars));
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 92);
+    }
+}
@@ -12,12 +12,16 @@ package org.chocosolver.util;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Created by cprudhom on 04/11/14.
@@ -198,4 +202,118 @@ public class MDDTest {
         Assert.assertEquals(mdd.getDiagram(), new int[]{3, 3, 11, 0, 0, 6, 0, 0, -1, 0, 0, 6, 0, 0});
     }
 
+
+    @Test(groups="1s", timeOut=60000)
+    public void test8() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("X", 3, 0, 1, false);
+        MultivaluedDecisionDiagram mdd = new MultivaluedDecisionDiagram(vars, new FiniteAutomaton("(0|1)*"));
+        Assert.assertEquals(mdd.getDiagram(), new int[]{2, 2, 4, 4, -1, -1});
+        mdd = new MultivaluedDecisionDiagram(vars, new FiniteAutomaton("1*0"));
+        Assert.assertEquals(mdd.getDiagram(), new int[]{0, 2, 0, 4, -1, 0});
+        mdd = new MultivaluedDecisionDiagram(vars, new FiniteAutomaton("2*"));
+        Assert.assertEquals(mdd.getDiagram(), new int[]{0, 0});
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void test9() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            int n = 5;
+            String regexp = seed % 2 == 0 ? "0*(1|2)*0(0|1)*" : "(0|1|2)*(01|21)(0|2)*";
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("X", n, 0, 2, false);
+            vars[rnd.nextInt(n)].eq(rnd.nextInt(3)).post();
+            model.mddc(vars, new MultivaluedDecisionDiagram(vars, new FiniteAutomaton(regexp)), seed % 4 < 2 ? "MDDC" : "MDD4R").post();
+            Model reg = new Model();
+            IntVar[] rvars = reg.intVarArray("X", n, 0, 2, false);
+            rnd = new Random(seed);
+            rvars[rnd.nextInt(n)].eq(rnd.nextInt(3)).post();
+            reg.regular(rvars, new FiniteAutomaton(regexp)).post();
+            Assert.assertEquals(model.getSolver().findAllSolutions().size(), reg.getSolver().findAllSolutions().size());
+            Assert.assertEquals(model.getSolver().getFailCount(), reg.getSolver().getFailCount());
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void test10() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("X", 3, 0, 1, false);
+        Tuples tuples = new Tuples();
+        tuples.add(0, 0, 0);
+        tuples.add(0, 0, 1);
+        tuples.add(0, 1, 0);
+        tuples.add(0, 1, 1);
+        tuples.add(1, 0, 0);
+        tuples.add(1, 0, 1);
+        tuples.add(1, 1, 0);
+        tuples.add(1, 1, 1);
+        List<int[]> stream = new ArrayList<>();
+        for (int t = 0; t < tuples.nbTuples(); t++) {
+            stream.add(tuples.get(t));
+        }
+        MultivaluedDecisionDiagram mdd = new MultivaluedDecisionDiagram(vars, stream.iterator());
+        Assert.assertEquals(mdd.getDiagram(), new int[]{2, 2, 4, 4, -1, -1});
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void test11() {
+        for (int seed = 0; seed < 5; seed++) {
+            Random rnd = new Random(seed);
+            int n = 8, d = 5;
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("X", n, 0, d - 1, false);
+            Tuples tuples = new Tuples();
+            List<int[]> stream = new ArrayList<>();
+            // enough tuples to trigger intermediate reductions
+            for (int t = 0; t < 10000; t++) {
+                int[] tuple = new int[n];
+                for (int i = 0; i < n; i++) {
+                    tuple[i] = rnd.nextInt(d);
+                }
+                tuples.add(tuple);
+                stream.add(tuple);
+            }
+            MultivaluedDecisionDiagram streamed = new MultivaluedDecisionDiagram(vars, stream.iterator());
+            MultivaluedDecisionDiagram built = new MultivaluedDecisionDiagram(vars, tuples);
+            int[] tuple = new int[n];
+            for (int k = 0; k < Math.pow(d, n); k++) {
+                for (int i = 0, r = k; i < n; i++, r /= d) {
+                    tuple[i] = r % d;
+                }
+                Assert.assertEquals(streamed.exists(tuple), built.exists(tuple), Arrays.toString(tuple));
+            }
+            Assert.assertTrue(streamed.getDiagram().length <= built.getDiagram().length);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void test12() {
+        Model model = new Model();
+        IntVar[] vars = new IntVar[3];
+        vars[0] = model.intVar("V0", -1, 1, false);
+        vars[1] = model.intVar("V1", -1, 1, false);
+        vars[2] = model.intVar("V2", 0, 2, false);
+        Tuples t1 = new Tuples();
+        t1.add(0, -1, 0);
+        t1.add(-1, 0, 1);
+        t1.add(1, 1, 0);
+        Tuples t2 = new Tuples();
+        t2.add(0, -1, 2);
+        t2.add(-1, 0, 1);
+        t2.add(1, 0, 2);
+        MultivaluedDecisionDiagram mdd1 = new MultivaluedDecisionDiagram(vars, t1);
+        MultivaluedDecisionDiagram mdd2 = new MultivaluedDecisionDiagram(new int[][]{{-1, 1}, {-1, 1}, {1, 2}}, t2);
+        MultivaluedDecisionDiagram merged = mdd1.merge(mdd2);
+        int[] tuple = new int[3];
+        for (tuple[0] = -1; tuple[0] <= 1; tuple[0]++) {
+            for (tuple[1] = -1; tuple[1] <= 1; tuple[1]++) {
+                for (tuple[2] = 0; tuple[2] <= 2; tuple[2]++) {
+                    Assert.assertEquals(merged.exists(tuple), mdd1.exists(tuple) || mdd2.exists(tuple), Arrays.toString(tuple));
+                }
+            }
+        }
+        model.mddc(vars, merged, "MDD4R").post();
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), 5);
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.queues;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 4.10.2
+ */
+public class IndexedMaxHeapTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNominal() {
+        IndexedMaxHeap heap = new IndexedMaxHeap(5);
+        Assert.assertTrue(heap.isEmpty());
+        Assert.assertEquals(heap.peek(), -1);
+        heap.set(3, 1.);
+        heap.set(1, 2.);
+        heap.set(4, 2.);
+        heap.set(0, .5);
+        Assert.assertEquals(heap.size(), 4);
+        Assert.assertFalse(heap.contains(2));
+        // ties are broken by the smallest element
+        Assert.assertEquals(heap.pop(), 1);
+        Assert.assertEquals(heap.pop(), 4);
+        heap.set(0, 3.);
+        Assert.assertEquals(heap.peek(), 0);
+        heap.remove(0);
+        Assert.assertEquals(heap.pop(), 3);
+        Assert.assertTrue(heap.isEmpty());
+        heap.set(2, 1.);
+        heap.clear();
+        Assert.assertTrue(heap.isEmpty());
+        Assert.assertFalse(heap.contains(2));
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        for (int seed = 0; seed < 20; seed++) {
+            int n = 1 + rnd.nextInt(100);
+            IndexedMaxHeap heap = new IndexedMaxHeap(n);
+            double[] keys = new double[n];
+            boolean[] in = new boolean[n];
+            for (int k = 0; k < 2000; k++) {
+                int e = rnd.nextInt(n);
+                if (rnd.nextInt(3) == 0) {
+                    heap.remove(e);
+                    in[e] = false;
+                } else {
+                    keys[e] = rnd.nextInt(20);
+                    heap.set(e, keys[e]);
+                    in[e] = true;
+                }
+                int best = -1;
+                int size = 0;
+                for (int i = 0; i < n; i++) {
+                    Assert.assertEquals(heap.contains(i), in[i]);
+                    if (in[i]) {
+                        size++;
+                        if (best == -1 || keys[i] > keys[best]) {
+                            best = i;
+                        }
+                    }
+                }
+                Assert.assertEquals(heap.size(), size);
+                Assert.assertEquals(heap.peek(), best);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.backtrackable;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.bitset.IDenseBitSet;
+import org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_DenseBitSet;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for Set_Std_DenseBitSet
+ * <p>
+ * Project: choco-solver.
+ *
+ * @since 4.10.2
+ */
+public class DenseBitSetTest extends BacktrackableSetTest {
+
+    @Override
+    public ISet create(int offset) {
+        return new Set_Std_DenseBitSet(model.getEnvironment(), offset, (int) Math.min(Integer.MAX_VALUE, offset + 16383L));
+    }
+
+    @Override
+    public ISet create() {
+        return create(0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testWords() {
+        Set_Std_DenseBitSet set = new Set_Std_DenseBitSet(model.getEnvironment(), -70, 130);
+        IDenseBitSet view = set.readOnly();
+        assertEquals(view.firstWord(), -2);
+        assertEquals(view.lastWord(), 2);
+        IEnvironment environment = model.getEnvironment();
+        set.add(-65);
+        set.add(-1);
+        environment.worldPush();
+        set.add(0);
+        set.add(127);
+        assertEquals(view.getWord(-2), 1L << 63);
+        assertEquals(view.getWord(-1), 1L << 63);
+        assertEquals(view.getWord(0), 1L);
+        assertEquals(view.getWord(1), 1L << 63);
+        assertEquals(view.getWord(3), 0L);
+        assertEquals(set.min(), -65);
+        assertEquals(set.max(), 127);
+        assertEquals(view.toArray(), new int[]{-65, -1, 0, 127});
+        environment.worldPop();
+        assertEquals(view.getWord(0), 0L);
+        assertEquals(view.getWord(1), 0L);
+        assertEquals(set.size(), 2);
+        assertEquals(set.max(), -1);
+        assertTrue(view.contains(-65));
+        assertFalse(view.contains(-64));
+        assertFalse(view.contains(1000));
+    }
+}